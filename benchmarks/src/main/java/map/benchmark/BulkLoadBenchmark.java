@@ -0,0 +1,86 @@
+package map.benchmark;
+
+import map.impl.HashMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Загрузка size записей в пустую HashMap разными способами: put() в цикле,
+ * putAll() из map.impl.HashMap (копирование узлов с готовыми хэшами),
+ * putAll() из java.util.HashMap (только предварительное увеличение
+ * массива корзин) и putAll() из массивов ключей и значений.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Thread)
+public class BulkLoadBenchmark {
+
+    @Param({"STRING"})
+    public KeyType keyType;
+
+    @Param({"100000", "1000000"})
+    public int size;
+
+    private Object[] keys;
+
+    private HashMap<Object, Object> source;
+
+    private java.util.HashMap<Object, Object> jdkSource;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = keyType.keys(size);
+        source = new HashMap<>();
+        jdkSource = new java.util.HashMap<>();
+        for (Object key : keys) {
+            source.put(key, key);
+            jdkSource.put(key, key);
+        }
+    }
+
+    @Benchmark
+    public Map<Object, Object> putLoop() {
+        final Map<Object, Object> map = new HashMap<>();
+        for (Object key : keys) {
+            map.put(key, key);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public Map<Object, Object> putAllFromHashMap() {
+        final Map<Object, Object> map = new HashMap<>();
+        map.putAll(source);
+        return map;
+    }
+
+    @Benchmark
+    public Map<Object, Object> putAllFromJdkHashMap() {
+        final Map<Object, Object> map = new HashMap<>();
+        map.putAll(jdkSource);
+        return map;
+    }
+
+    @Benchmark
+    public Map<Object, Object> putAllFromArrays() {
+        final HashMap<Object, Object> map = new HashMap<>();
+        map.putAll(keys, keys);
+        return map;
+    }
+}
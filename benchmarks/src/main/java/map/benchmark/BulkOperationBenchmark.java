@@ -0,0 +1,72 @@
+package map.benchmark;
+
+import map.impl.HashMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Проход по size парам Long - Long массовыми операциями HashMap:
+ * reduceValues(), search() без совпадений (полный обход) и replaceAll()
+ * с порогом threshold. Порог Long.MAX_VALUE - последовательный обход,
+ * 1 - разбиение на четыре задачи на поток. Для сравнения - сумма через
+ * values().parallelStream().
+ * Число потоков задается параллелизмом общего ForkJoinPool, см.
+ * ParallelScalingRunner.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms6g", "-Xmx6g"})
+@State(Scope.Benchmark)
+public class BulkOperationBenchmark {
+
+    @Param({"1000000", "10000000"})
+    public int size;
+
+    @Param({"1", "9223372036854775807"})
+    public long threshold;
+
+    private HashMap<Long, Long> map;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        map = new HashMap<>();
+        for (long i = 0; i < size; i++) {
+            map.put(i, i);
+        }
+    }
+
+    @Benchmark
+    public Long reduceValues() {
+        return map.reduceValues(threshold, value -> value, Long::sum);
+    }
+
+    @Benchmark
+    public Long searchMissing() {
+        return map.search(threshold, (key, value) -> value < 0 ? key : null);
+    }
+
+    @Benchmark
+    public HashMap<Long, Long> replaceAll() {
+        map.replaceAll(threshold, (key, value) -> value);
+        return map;
+    }
+
+    @Benchmark
+    public long parallelStreamSum() {
+        return map.values().parallelStream().mapToLong(Long::longValue).sum();
+    }
+}
@@ -0,0 +1,103 @@
+package map.benchmark;
+
+import map.impl.CacheHashMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LRU-кэш на capacity пар под потоком обращений computeIfAbsent с
+ * распределением ключей, близким к Zipf: малая доля ключей получает
+ * большую часть обращений, остальные вызывают загрузку и вытеснение.
+ * <ul>
+ * <li>CACHE - map.impl.CacheHashMap;</li>
+ * <li>JDK - java.util.LinkedHashMap в порядке обращения с removeEldestEntry().</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Thread)
+public class CacheBenchmark {
+
+    public enum Implementation {
+        CACHE, JDK;
+
+        Map<Integer, Integer> create(int capacity) {
+            if (this == CACHE) {
+                return new CacheHashMap<>(capacity);
+            }
+            return new LinkedHashMap<Integer, Integer>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, Integer> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+    }
+
+    @Param({"CACHE", "JDK"})
+    public Implementation implementation;
+
+    @Param({"1000", "100000"})
+    public int capacity;
+
+    private static final int STREAM_LENGTH = 1 << 20;
+
+    /**
+     * Ключи из диапазона 10 * capacity; ключ i встречается с вероятностью ~1/i.
+     */
+    private Integer[] stream;
+
+    private Map<Integer, Integer> cache;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final Random random = new Random(42);
+        final double range = Math.log(10.0 * capacity);
+        stream = new Integer[STREAM_LENGTH];
+        for (int i = 0; i < stream.length; i++) {
+            stream[i] = (int) Math.exp(random.nextDouble() * range);
+        }
+        cache = implementation.create(capacity);
+    }
+
+    @Benchmark
+    public long getOrLoad() {
+        long sum = 0;
+        for (Integer key : stream) {
+            sum += cache.computeIfAbsent(key, k -> k);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long getThenPut() {
+        long sum = 0;
+        for (Integer key : stream) {
+            Integer value = cache.get(key);
+            if (value == null) {
+                value = key;
+                cache.put(key, value);
+            }
+            sum += value;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,37 @@
+package map.benchmark;
+
+/**
+ * Ключ с намеренно плохим hashCode: каждые COLLISIONS подряд идущих
+ * идентификаторов получают один и тот же хэш, поэтому ключи выстраиваются
+ * в цепочки внутри корзин.
+ */
+public final class CollidingKey {
+
+    /**
+     * Количество ключей, разделяющих один хэш.
+     */
+    public static final int COLLISIONS = 8;
+
+    private final int id;
+
+    public CollidingKey(int id) {
+        this.id = id;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CollidingKey)) return false;
+        return id == ((CollidingKey) o).id;
+    }
+
+    @Override
+    public int hashCode() {
+        return id / COLLISIONS;
+    }
+
+    @Override
+    public String toString() {
+        return "CollidingKey{" + id + "}";
+    }
+}
@@ -0,0 +1,115 @@
+package map.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Худший случай для цепочек: все ключи имеют один и тот же hashCode и
+ * попадают в одну корзину. Сравнивает Comparable ключи, которые дерево
+ * корзины может упорядочить, и ключи без Comparable.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CollisionBenchmark {
+
+    @Param({"GENERIC", "OPEN", "JDK"})
+    public MapType mapType;
+
+    @Param({"true", "false"})
+    public boolean comparable;
+
+    @Param({"16", "256", "4096"})
+    public int size;
+
+    private Object[] keys;
+
+    private Map<Object, Object> map;
+
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = new Object[size];
+        map = mapType.create(MapState.DEFAULT_CAPACITY, 0.75);
+        for (int i = 0; i < size; i++) {
+            keys[i] = comparable ? new ComparableSameHashKey(i) : new SameHashKey(i);
+            map.put(keys[i], i);
+        }
+    }
+
+    @Benchmark
+    public Object get() {
+        final Object key = keys[index];
+        if (++index == size) {
+            index = 0;
+        }
+        return map.get(key);
+    }
+
+    @Benchmark
+    public Object removeAndPut() {
+        final Object key = keys[index];
+        if (++index == size) {
+            index = 0;
+        }
+        final Object value = map.remove(key);
+        map.put(key, value);
+        return value;
+    }
+
+    /**
+     * Ключ, у которого все экземпляры имеют одинаковый hashCode.
+     */
+    static class SameHashKey {
+
+        final int id;
+
+        SameHashKey(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || o.getClass() != getClass()) return false;
+            return id == ((SameHashKey) o).id;
+        }
+
+        @Override
+        public int hashCode() {
+            return 42;
+        }
+    }
+
+    /**
+     * Ключ с одинаковым hashCode, который упорядочивается по id.
+     */
+    static final class ComparableSameHashKey extends SameHashKey implements Comparable<ComparableSameHashKey> {
+
+        ComparableSameHashKey(int id) {
+            super(id);
+        }
+
+        @Override
+        public int compareTo(ComparableSameHashKey other) {
+            return Integer.compare(id, other.id);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package map.benchmark;
+
+import map.impl.HashMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Методы compute, merge, computeIfAbsent и getOrDefault на потоке из
+ * 4 * size ключей Integer с повторами:
+ * <ul>
+ * <li>NATIVE - собственные реализации map.impl.HashMap, один поиск ключа;</li>
+ * <li>DEFAULT - та же HashMap, но методы по умолчанию интерфейса Map
+ * (get, затем put);</li>
+ * <li>JDK - java.util.HashMap.</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Thread)
+public class ComputeBenchmark {
+
+    public enum Implementation {
+        NATIVE, DEFAULT, JDK;
+
+        Map<Integer, Integer> create() {
+            switch (this) {
+                case NATIVE:
+                    return new HashMap<>();
+                case DEFAULT:
+                    return new DefaultMethodsMap<>(new HashMap<>());
+                default:
+                    return new java.util.HashMap<>();
+            }
+        }
+    }
+
+    @Param({"NATIVE", "DEFAULT", "JDK"})
+    public Implementation implementation;
+
+    @Param({"10000", "1000000"})
+    public int size;
+
+    /**
+     * Поток ключей: каждый из size ключей встречается в среднем 4 раза.
+     */
+    private Integer[] stream;
+
+    /**
+     * Map, в которой уже лежат все ключи потока.
+     */
+    private Map<Integer, Integer> filled;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final Random random = new Random(42);
+        stream = new Integer[size * 4];
+        for (int i = 0; i < stream.length; i++) {
+            stream[i] = random.nextInt(size);
+        }
+        filled = implementation.create();
+        for (int i = 0; i < size; i++) {
+            filled.put(i, i);
+        }
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> mergeCount() {
+        final Map<Integer, Integer> map = implementation.create();
+        for (Integer key : stream) {
+            map.merge(key, 1, Integer::sum);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> computeCount() {
+        final Map<Integer, Integer> map = implementation.create();
+        for (Integer key : stream) {
+            map.compute(key, (k, count) -> count == null ? 1 : count + 1);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> computeIfAbsentLoad() {
+        final Map<Integer, Integer> map = implementation.create();
+        for (Integer key : stream) {
+            map.computeIfAbsent(key, k -> k);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public long mergeExisting() {
+        long sum = 0;
+        for (Integer key : stream) {
+            sum += filled.merge(key, 1, Integer::sum);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long getOrDefault() {
+        long sum = 0;
+        for (Integer key : stream) {
+            sum += filled.getOrDefault(key, 0);
+        }
+        return sum;
+    }
+
+    /**
+     * Обертка, которая передает в Map только абстрактные методы
+     * интерфейса, поэтому compute, merge и остальные методы берутся по
+     * умолчанию из Map.
+     */
+    static final class DefaultMethodsMap<K, V> implements Map<K, V> {
+
+        private final Map<K, V> map;
+
+        DefaultMethodsMap(Map<K, V> map) {
+            this.map = map;
+        }
+
+        @Override
+        public int size() {
+            return map.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return map.isEmpty();
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return map.containsKey(key);
+        }
+
+        @Override
+        public boolean containsValue(Object value) {
+            return map.containsValue(value);
+        }
+
+        @Override
+        public V get(Object key) {
+            return map.get(key);
+        }
+
+        @Override
+        public V put(K key, V value) {
+            return map.put(key, value);
+        }
+
+        @Override
+        public V remove(Object key) {
+            return map.remove(key);
+        }
+
+        @Override
+        public void putAll(Map<? extends K, ? extends V> m) {
+            map.putAll(m);
+        }
+
+        @Override
+        public void clear() {
+            map.clear();
+        }
+
+        @Override
+        public Set<K> keySet() {
+            return map.keySet();
+        }
+
+        @Override
+        public Collection<V> values() {
+            return map.values();
+        }
+
+        @Override
+        public Set<Entry<K, V>> entrySet() {
+            return map.entrySet();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package map.benchmark;
+
+import map.impl.ConcurrentHashMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Одна Map на все потоки бенчмарка. Каждая операция - чтение или, с
+ * вероятностью 100 - readPercent процентов, запись случайного ключа.
+ * Количество потоков задается параметром JMH -t; прогон от 1 до 64
+ * потоков выполняет ScalingRunner.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConcurrentBenchmark {
+
+    /**
+     * Сравниваемые потокобезопасные Map.
+     */
+    public enum Implementation {
+
+        /**
+         * Реализация map.impl.ConcurrentHashMap.
+         */
+        CONCURRENT {
+            @Override
+            Map<Integer, Integer> create() {
+                return new ConcurrentHashMap<>();
+            }
+        },
+
+        /**
+         * java.util.concurrent.ConcurrentHashMap.
+         */
+        JDK_CONCURRENT {
+            @Override
+            Map<Integer, Integer> create() {
+                return new java.util.concurrent.ConcurrentHashMap<>();
+            }
+        },
+
+        /**
+         * map.impl.HashMap под одной блокировкой Collections.synchronizedMap.
+         */
+        SYNCHRONIZED {
+            @Override
+            Map<Integer, Integer> create() {
+                return Collections.synchronizedMap(new map.impl.HashMap<>());
+            }
+        };
+
+        abstract Map<Integer, Integer> create();
+    }
+
+    @Param({"CONCURRENT", "JDK_CONCURRENT", "SYNCHRONIZED"})
+    public Implementation implementation;
+
+    @Param({"100000"})
+    public int size;
+
+    @Param({"90", "50"})
+    public int readPercent;
+
+    private Integer[] keys;
+
+    private Map<Integer, Integer> map;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = new Integer[size];
+        map = implementation.create();
+        for (int i = 0; i < size; i++) {
+            keys[i] = i;
+            map.put(keys[i], i);
+        }
+    }
+
+    @Benchmark
+    public Object readWrite() {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final Integer key = keys[random.nextInt(size)];
+        if (random.nextInt(100) < readPercent) {
+            return map.get(key);
+        }
+        return map.put(key, key);
+    }
+}
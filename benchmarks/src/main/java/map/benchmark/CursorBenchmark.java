@@ -0,0 +1,77 @@
+package map.benchmark;
+
+import map.impl.EntryCursor;
+import map.impl.HashMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Проход по size парам Integer - Integer: for-each по entrySet(),
+ * переиспользуемый EntryCursor и containsValue() без совпадений.
+ * Выделение памяти на проход смотрится профилировщиком GC:
+ * <p>
+ * java -jar benchmarks/target/benchmarks.jar CursorBenchmark -prof gc
+ * <p>
+ * gc.alloc.rate.norm курсора должен быть около нуля байт на операцию.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class CursorBenchmark {
+
+    @Param({"16", "10000"})
+    public int size;
+
+    private HashMap<Integer, Integer> map;
+
+    private EntryCursor<Integer, Integer> cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        map = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            map.put(i, i);
+        }
+        cursor = map.cursor();
+    }
+
+    @Benchmark
+    public long entrySetLoop() {
+        long sum = 0;
+        for (Map.Entry<Integer, Integer> entry : map.entrySet()) {
+            sum += entry.getKey() + entry.getValue();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long cursorLoop() {
+        long sum = 0;
+        cursor.reset();
+        while (cursor.advance()) {
+            sum += cursor.key() + cursor.value();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public boolean containsValueMissing() {
+        return map.containsValue(-1);
+    }
+}
@@ -0,0 +1,107 @@
+package map.benchmark;
+
+import map.impl.ExpiringHashMap;
+import map.impl.HashMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Время одного запроса к Map сессий: каждый запрос открывает новую
+ * сессию и читает одну из недавних, часы сдвигаются на 1 мс, сессия
+ * живет sessions мс, поэтому живых сессий около sessions.
+ * <ul>
+ * <li>WHEEL - ExpiringHashMap, устаревшие пары удаляются колесом таймеров;</li>
+ * <li>SWEEPER - HashMap со сроком в значении, раз в 1024 запроса
+ * entrySet() обходится целиком и устаревшие пары удаляются итератором.</li>
+ * </ul>
+ * Режим SampleTime показывает в перцентилях паузы полного обхода.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Thread)
+public class ExpiryBenchmark {
+
+    public enum Strategy {
+        WHEEL, SWEEPER
+    }
+
+    private static final long REQUEST_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static final int SWEEP_PERIOD = 1024;
+
+    @Param({"WHEEL", "SWEEPER"})
+    public Strategy strategy;
+
+    @Param({"10000", "100000"})
+    public int sessions;
+
+    private long now;
+
+    private long timeToLive;
+
+    private int nextSession;
+
+    private final Random random = new Random(42);
+
+    private ExpiringHashMap<Integer, Integer> expiring;
+
+    /**
+     * Сессия - момент ее устаревания.
+     */
+    private HashMap<Integer, Long> sweeping;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        timeToLive = sessions * REQUEST_NANOS;
+        expiring = new ExpiringHashMap<>(Duration.ofNanos(timeToLive), null, () -> now);
+        sweeping = new HashMap<>();
+        for (int i = 0; i < sessions; i++) {
+            request();
+        }
+    }
+
+    @Benchmark
+    public Object request() {
+        now += REQUEST_NANOS;
+        final Integer session = nextSession++;
+        final Integer recent = session - random.nextInt(sessions);
+        if (strategy == Strategy.WHEEL) {
+            expiring.put(session, session);
+            return expiring.get(recent);
+        }
+        sweeping.put(session, now + timeToLive);
+        if (session % SWEEP_PERIOD == 0) {
+            sweep();
+        }
+        final Long expiresAt = sweeping.get(recent);
+        return expiresAt != null && expiresAt - now > 0 ? recent : null;
+    }
+
+    private void sweep() {
+        final Iterator<Map.Entry<Integer, Long>> iterator = sweeping.entrySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getValue() - now <= 0) {
+                iterator.remove();
+            }
+        }
+    }
+}
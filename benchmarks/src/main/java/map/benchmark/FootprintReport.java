@@ -0,0 +1,56 @@
+package map.benchmark;
+
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.Map;
+
+/**
+ * Отчет о памяти на одну запись для каждой реализации из MapType.
+ * Считается весь граф объектов Map за вычетом самих ключей и значений
+ * (значением служит тот же объект, что и ключ), то есть только накладные
+ * расходы структуры: массивы корзин, узлы, массивы ключей и значений.
+ * <p>
+ * Запуск: java -cp benchmarks/target/benchmarks.jar map.benchmark.FootprintReport [size...]
+ */
+public final class FootprintReport {
+
+    private FootprintReport() {
+    }
+
+    public static void main(String[] args) {
+        final int[] sizes = args.length == 0 ? new int[]{1_000, 100_000, 1_000_000} : parse(args);
+        System.out.printf("%-16s %12s %14s%n", "map", "size", "bytes/entry");
+        for (int size : sizes) {
+            final Object[] keys = KeyType.INTEGER.keys(size);
+            for (MapType mapType : MapType.values()) {
+                final Map<Object, Object> map = mapType.create(MapState.DEFAULT_CAPACITY, 0.75);
+                for (Object key : keys) {
+                    map.put(key, key);
+                }
+                System.out.printf("%-16s %12d %14.1f%n", mapType, size, bytesPerEntry(map, keys));
+            }
+        }
+    }
+
+    /**
+     * Считает накладные расходы Map в байтах на одну запись.
+     *
+     * @param map  - заполненная Map.
+     * @param keys - ключи, они же значения, которые лежат в map.
+     * @return - байты на запись без учета ключей и значений.
+     */
+    static double bytesPerEntry(Object map, Object[] keys) {
+        final long overhead = GraphLayout.parseInstance(map)
+                .subtract(GraphLayout.parseInstance(keys))
+                .totalSize();
+        return (double) overhead / keys.length;
+    }
+
+    private static int[] parse(String[] args) {
+        final int[] sizes = new int[args.length];
+        for (int i = 0; i < args.length; i++) {
+            sizes[i] = Integer.parseInt(args[i]);
+        }
+        return sizes;
+    }
+}
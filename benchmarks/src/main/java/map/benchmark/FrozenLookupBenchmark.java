@@ -0,0 +1,112 @@
+package map.benchmark;
+
+import map.impl.FrozenHashMap;
+import map.impl.HashMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * get() справочника со строковыми ключами, который строится один раз и
+ * затем только читается: HashMap, ее неизменяемая копия freeze() и
+ * java.util.HashMap. Ключи запрашиваются в случайном порядке, попадания
+ * (getHit) и промахи (getMiss).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Thread)
+public class FrozenLookupBenchmark {
+
+    /**
+     * Способ хранения справочника.
+     */
+    public enum Variant {
+
+        GENERIC,
+
+        FROZEN,
+
+        JDK;
+
+        Map<String, String> build(String[] keys) {
+            final HashMap<String, String> map = new HashMap<>();
+            for (String key : keys) {
+                map.put(key, key);
+            }
+            switch (this) {
+                case FROZEN:
+                    return map.freeze();
+                case JDK:
+                    return new java.util.HashMap<>(map);
+                default:
+                    return map;
+            }
+        }
+    }
+
+    @Param({"GENERIC", "FROZEN", "JDK"})
+    public Variant variant;
+
+    @Param({"1000", "1000000"})
+    public int size;
+
+    private String[] keys;
+
+    private String[] missingKeys;
+
+    private Map<String, String> map;
+
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final Random random = new Random(42);
+        keys = new String[size];
+        missingKeys = new String[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = "SKU-" + (i * 0x9E3779B1);
+            missingKeys[i] = "SKU-" + (i * 0x9E3779B1) + "-X";
+        }
+        map = variant.build(keys);
+        for (int i = keys.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            String temp = keys[i];
+            keys[i] = keys[j];
+            keys[j] = temp;
+        }
+    }
+
+    @Benchmark
+    public Object getHit() {
+        final String key = keys[index];
+        if (++index == keys.length) {
+            index = 0;
+        }
+        return map.get(key);
+    }
+
+    @Benchmark
+    public Object getMiss() {
+        final String key = missingKeys[index];
+        if (++index == missingKeys.length) {
+            index = 0;
+        }
+        return map.get(key);
+    }
+}
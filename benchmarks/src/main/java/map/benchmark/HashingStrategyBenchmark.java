@@ -0,0 +1,157 @@
+package map.benchmark;
+
+import map.impl.HashMap;
+import map.impl.HashingStrategies;
+import map.impl.HashingStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность get() и put() HashMap с разными стратегиями
+ * хэширования на трех наборах ключей. NONE - HashMap без стратегии,
+ * DEFAULT - та же функция хэша через стратегию, их разница - цена вызова
+ * стратегии. Распределение ключей по корзинам печатает HashingStrategyReport.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HashingStrategyBenchmark {
+
+    /**
+     * Стратегии хэширования.
+     */
+    public enum Strategy {
+        NONE(null),
+        DEFAULT(HashingStrategies.DEFAULT),
+        MURMUR3(HashingStrategies.MURMUR3),
+        SEEDED(HashingStrategies.seeded()),
+        IDENTITY(HashingStrategies.IDENTITY);
+
+        private final HashingStrategy<Object> strategy;
+
+        Strategy(HashingStrategy<Object> strategy) {
+            this.strategy = strategy;
+        }
+
+        public <K, V> HashMap<K, V> create() {
+            return strategy == null ? new HashMap<>() : new HashMap<>(strategy);
+        }
+
+        /**
+         * @return - стратегия; для NONE - HashingStrategies.DEFAULT с той же функцией хэша.
+         */
+        public HashingStrategy<Object> strategy() {
+            return strategy == null ? HashingStrategies.DEFAULT : strategy;
+        }
+    }
+
+    /**
+     * Наборы ключей.
+     */
+    public enum Keys {
+
+        /**
+         * Integer 0, 1, 2, ... - лучший случай для hashCode() без перемешивания.
+         */
+        SEQUENTIAL {
+            @Override
+            Object key(int i) {
+                return i;
+            }
+        },
+
+        /**
+         * Long i * 0x10001: у hashCode() совпадают старшая и младшая
+         * половины, и перемешивание h ^ (h >>> 16) обнуляет младшие 16 бит,
+         * поэтому без финализатора все ключи попадают в одну-две корзины.
+         */
+        MIRRORED {
+            @Override
+            Object key(int i) {
+                return i * 0x10001L;
+            }
+        },
+
+        /**
+         * Строки из блоков "Aa" и "BB" с одинаковым hashCode() - подобранные
+         * коллизии, как при HashDoS.
+         */
+        COLLIDING {
+            @Override
+            Object key(int i) {
+                final StringBuilder key = new StringBuilder();
+                for (int bit = 0; bit < 16; bit++) {
+                    key.append((i & (1 << bit)) == 0 ? "Aa" : "BB");
+                }
+                return key.toString();
+            }
+        };
+
+        abstract Object key(int i);
+
+        public Object[] keys(int size) {
+            final Object[] keys = new Object[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = key(i);
+            }
+            return keys;
+        }
+    }
+
+    @Param({"NONE", "DEFAULT", "MURMUR3", "SEEDED", "IDENTITY"})
+    public Strategy strategy;
+
+    @Param({"SEQUENTIAL", "MIRRORED", "COLLIDING"})
+    public Keys keySet;
+
+    @Param({"1024", "65536"})
+    public int size;
+
+    private Object[] keys;
+
+    private HashMap<Object, Object> map;
+
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = keySet.keys(size);
+        map = strategy.create();
+        for (Object key : keys) {
+            map.put(key, key);
+        }
+    }
+
+    @Benchmark
+    public Object get() {
+        final Object key = keys[index];
+        if (++index == size) {
+            index = 0;
+        }
+        return map.get(key);
+    }
+
+    @Benchmark
+    public Object put() {
+        final Object key = keys[index];
+        if (++index == size) {
+            index = 0;
+        }
+        return map.put(key, key);
+    }
+}
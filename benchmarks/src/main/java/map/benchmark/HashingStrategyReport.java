@@ -0,0 +1,46 @@
+package map.benchmark;
+
+import map.benchmark.HashingStrategyBenchmark.Keys;
+import map.benchmark.HashingStrategyBenchmark.Strategy;
+import map.impl.HashMapStatistics;
+import map.impl.InstrumentedHashMap;
+
+/**
+ * Распределение ключей по корзинам для каждой стратегии хэширования и
+ * набора ключей из HashingStrategyBenchmark: доля пустых корзин, самая
+ * длинная корзина и средняя длина поиска get(). NONE не печатается: его
+ * функция хэша совпадает с DEFAULT.
+ * <p>
+ * Запуск: java -cp benchmarks/target/benchmarks.jar map.benchmark.HashingStrategyReport [size]
+ */
+public final class HashingStrategyReport {
+
+    private HashingStrategyReport() {
+    }
+
+    public static void main(String[] args) {
+        final int size = args.length == 0 ? 65_536 : Integer.parseInt(args[0]);
+        System.out.printf("%-12s %-10s %10s %10s %10s %10s%n", "keys", "strategy", "capacity", "empty", "maxDepth",
+                "avgProbe");
+        for (Keys keySet : Keys.values()) {
+            final Object[] keys = keySet.keys(size);
+            for (Strategy strategy : Strategy.values()) {
+                if (strategy == Strategy.NONE) {
+                    continue;
+                }
+                final InstrumentedHashMap<Object, Object> map = new InstrumentedHashMap<>(strategy.strategy());
+                for (Object key : keys) {
+                    map.put(key, key);
+                }
+                map.resetStatistics();
+                for (Object key : keys) {
+                    map.get(key);
+                }
+                final HashMapStatistics statistics = map.statistics();
+                System.out.printf("%-12s %-10s %10d %10.3f %10d %10.2f%n", keySet, strategy, statistics.capacity(),
+                        statistics.emptyBucketFraction(), statistics.maxBucketDepth(),
+                        statistics.averageProbeLength());
+            }
+        }
+    }
+}
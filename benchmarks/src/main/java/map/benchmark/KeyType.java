@@ -0,0 +1,59 @@
+package map.benchmark;
+
+/**
+ * Типы ключей, на которых прогоняются бенчмарки.
+ */
+public enum KeyType {
+
+    /**
+     * Последовательные Integer.
+     */
+    INTEGER {
+        @Override
+        public Object key(int id) {
+            return id;
+        }
+    },
+
+    /**
+     * Строки вида "key-" + id.
+     */
+    STRING {
+        @Override
+        public Object key(int id) {
+            return "key-" + id;
+        }
+    },
+
+    /**
+     * Ключи с совпадающими hashCode, см. CollidingKey.
+     */
+    COLLIDING {
+        @Override
+        public Object key(int id) {
+            return new CollidingKey(id);
+        }
+    };
+
+    /**
+     * Создает ключ по идентификатору.
+     *
+     * @param id - идентификатор ключа.
+     * @return - ключ.
+     */
+    public abstract Object key(int id);
+
+    /**
+     * Создает массив из size различных ключей.
+     *
+     * @param size - количество ключей.
+     * @return - массив ключей.
+     */
+    public Object[] keys(int size) {
+        final Object[] keys = new Object[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = key(i);
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,110 @@
+package map.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Задержка get() на больших Map, которые не помещаются в кэш процессора:
+ * ключи Integer запрашиваются в случайном порядке, попадания (getHit) и
+ * промахи (getMiss). Значения ключей - i * 0x9E3779B1, а не i: у
+ * последовательных Integer хэш равен значению, и в HashMap индекс корзины
+ * совпадал бы с порядком создания ключей и узлов в памяти, чего у
+ * настоящих ключей не бывает. Здесь время get() определяется количеством промахов
+ * кэша на поиск: у HashMap это ячейка массива корзин, узел и ключ, у
+ * SwissHashMap - long управляющих байт (массив в восемь раз меньше
+ * количества ячеек), пара ключ-значение в одной строке кэша и ключ.
+ * Промах SwissHashMap обычно заканчивается на управляющих байтах.
+ * <p>
+ * Промахи кэша на операцию показывает профилировщик perfnorm (нужен perf):
+ * java -jar benchmarks/target/benchmarks.jar LookupLatencyBenchmark -prof perfnorm
+ * Размер 100000000 требует около 20 ГБ кучи:
+ * -p size=100000000 -jvmArgsAppend "-Xms24g -Xmx24g".
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Thread)
+public class LookupLatencyBenchmark {
+
+    /**
+     * Количество ключей-промахов: больше кэша процессора, но меньше size.
+     */
+    private static final int MISSES = 1 << 20;
+
+    @Param({"GENERIC", "SWISS", "JDK"})
+    public MapType mapType;
+
+    @Param({"1000000", "10000000"})
+    public int size;
+
+    private Object[] keys;
+
+    private Object[] missingKeys;
+
+    private Map<Object, Object> map;
+
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final Random random = new Random(42);
+        keys = new Object[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = scattered(i);
+        }
+        map = mapType.create(MapState.DEFAULT_CAPACITY, 0.75);
+        for (Object key : keys) {
+            map.put(key, key);
+        }
+        for (int i = keys.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Object temp = keys[i];
+            keys[i] = keys[j];
+            keys[j] = temp;
+        }
+        missingKeys = new Object[MISSES];
+        for (int i = 0; i < MISSES; i++) {
+            missingKeys[i] = scattered(size + random.nextInt(Integer.MAX_VALUE - size));
+        }
+    }
+
+    /**
+     * Умножение на нечетное число - перестановка int, поэтому разные i дают
+     * разные ключи.
+     */
+    private static Integer scattered(int i) {
+        return i * 0x9E3779B1;
+    }
+
+    @Benchmark
+    public Object getHit() {
+        final Object key = keys[index];
+        if (++index == keys.length) {
+            index = 0;
+        }
+        return map.get(key);
+    }
+
+    @Benchmark
+    public Object getMiss() {
+        final Object key = missingKeys[index & (MISSES - 1)];
+        index++;
+        return map.get(key);
+    }
+}
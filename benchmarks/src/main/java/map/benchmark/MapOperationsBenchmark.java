@@ -0,0 +1,48 @@
+package map.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Точечные операции над заполненной Map: get, containsKey, put по
+ * существующему ключу и remove с последующим put того же ключа, чтобы
+ * размер Map не менялся между вызовами.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class MapOperationsBenchmark {
+
+    @Benchmark
+    public Object get(MapState state) {
+        return state.map.get(state.nextKey());
+    }
+
+    @Benchmark
+    public boolean containsKey(MapState state) {
+        return state.map.containsKey(state.nextKey());
+    }
+
+    @Benchmark
+    public Object put(MapState state) {
+        final Object key = state.nextKey();
+        return state.map.put(key, key);
+    }
+
+    @Benchmark
+    public Object removeAndPut(MapState state) {
+        final Object key = state.nextKey();
+        final Object value = state.map.remove(key);
+        state.map.put(key, value);
+        return value;
+    }
+}
@@ -0,0 +1,77 @@
+package map.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Общее состояние бенчмарков: заполненная Map и ключи в случайном
+ * порядке обращения. Параметры задают реализацию, тип ключей, размер
+ * и коэффициент загрузки.
+ */
+@State(Scope.Thread)
+public class MapState {
+
+    /**
+     * Начальное количество корзин, как у HashMap по умолчанию.
+     */
+    public static final int DEFAULT_CAPACITY = 16;
+
+    @Param({"GENERIC", "OPEN", "SWISS", "JDK"})
+    public MapType mapType;
+
+    @Param({"INTEGER", "STRING", "COLLIDING"})
+    public KeyType keyType;
+
+    @Param({"100", "10000", "1000000", "10000000"})
+    public int size;
+
+    @Param({"0.5", "0.75", "1.0"})
+    public double loadFactor;
+
+    /**
+     * Ключи, лежащие в map, в случайном порядке.
+     */
+    public Object[] keys;
+
+    public Map<Object, Object> map;
+
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = keyType.keys(size);
+        map = mapType.create(DEFAULT_CAPACITY, loadFactor);
+        for (Object key : keys) {
+            map.put(key, key);
+        }
+        shuffle(keys, new Random(42));
+    }
+
+    /**
+     * Возвращает следующий ключ по кругу.
+     *
+     * @return - ключ, который хранится в map.
+     */
+    public Object nextKey() {
+        final Object key = keys[index];
+        if (++index == keys.length) {
+            index = 0;
+        }
+        return key;
+    }
+
+    private static void shuffle(Object[] array, Random random) {
+        for (int i = array.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Object temp = array[i];
+            array[i] = array[j];
+            array[j] = temp;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package map.benchmark;
+
+import map.impl.CompactHashMap;
+import map.impl.HashMap;
+import map.impl.InstrumentedHashMap;
+import map.impl.LinkedHashMap;
+import map.impl.OpenHashMap;
+import map.impl.SwissHashMap;
+
+import java.util.Map;
+
+/**
+ * Реализации Map, которые сравниваются в бенчмарках. Каждый прогон
+ * измеряет нашу реализацию вместе с java.util.HashMap в качестве базовой линии.
+ */
+public enum MapType {
+
+    /**
+     * Реализация map.impl.HashMap.
+     */
+    GENERIC {
+        @Override
+        public <K, V> Map<K, V> create(int capacity, double loadFactor) {
+            return new HashMap<>(capacity, loadFactor);
+        }
+    },
+
+    /**
+     * Реализация map.impl.OpenHashMap с открытой адресацией.
+     */
+    OPEN {
+        @Override
+        public <K, V> Map<K, V> create(int capacity, double loadFactor) {
+            return new OpenHashMap<>(capacity, loadFactor);
+        }
+    },
+
+    /**
+     * Реализация map.impl.SwissHashMap с группами управляющих байт.
+     */
+    SWISS {
+        @Override
+        public <K, V> Map<K, V> create(int capacity, double loadFactor) {
+            return new SwissHashMap<>(capacity, loadFactor);
+        }
+    },
+
+    /**
+     * map.impl.LinkedHashMap в порядке добавления. В MapState по
+     * умолчанию не входит, запускается через -p mapType=LINKED.
+     */
+    LINKED {
+        @Override
+        public <K, V> Map<K, V> create(int capacity, double loadFactor) {
+            return new LinkedHashMap<>(capacity, loadFactor);
+        }
+    },
+
+    /**
+     * map.impl.InstrumentedHashMap - цена сбора статистики. В MapState
+     * по умолчанию не входит, запускается через -p mapType=INSTRUMENTED.
+     */
+    INSTRUMENTED {
+        @Override
+        public <K, V> Map<K, V> create(int capacity, double loadFactor) {
+            return new InstrumentedHashMap<>(capacity, loadFactor);
+        }
+    },
+
+    /**
+     * map.impl.CompactHashMap с хэшем в узлах. В MapState по умолчанию
+     * не входит, запускается через -p mapType=COMPACT.
+     */
+    COMPACT {
+        @Override
+        public <K, V> Map<K, V> create(int capacity, double loadFactor) {
+            return CompactHashMap.create(capacity, loadFactor);
+        }
+    },
+
+    /**
+     * map.impl.CompactHashMap без хэша в узлах. В MapState по умолчанию
+     * не входит, запускается через -p mapType=COMPACT_UNHASHED.
+     */
+    COMPACT_UNHASHED {
+        @Override
+        public <K, V> Map<K, V> create(int capacity, double loadFactor) {
+            return CompactHashMap.withoutHashCache(capacity, loadFactor);
+        }
+    },
+
+    /**
+     * Базовая линия - java.util.HashMap.
+     */
+    JDK {
+        @Override
+        public <K, V> Map<K, V> create(int capacity, double loadFactor) {
+            return new java.util.HashMap<>(capacity, (float) loadFactor);
+        }
+    };
+
+    /**
+     * Создает пустую Map с заданным начальным количеством корзин и
+     * коэффициентом загрузки.
+     *
+     * @param capacity   - начальное количество корзин.
+     * @param loadFactor - коэффициент загрузки.
+     * @return - новая пустая Map.
+     */
+    public abstract <K, V> Map<K, V> create(int capacity, double loadFactor);
+}
@@ -0,0 +1,80 @@
+package map.benchmark;
+
+import map.impl.HashMap;
+import map.impl.MappedHashMap;
+import map.impl.Serializers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+
+/**
+ * Сравнивает время, за которое после перезапуска снова доступна Map из
+ * size пар Long - Long:
+ * <ul>
+ * <li>REOPEN - открытие корректно закрытой MappedHashMap;</li>
+ * <li>RECOVER - открытие после сбоя, индекс перестраивается по журналу;</li>
+ * <li>REPLAY - заполнение HashMap через put(), как при загрузке из файла.</li>
+ * </ul>
+ * Для REOPEN и RECOVER отдельно замеряется первый проход get() по всем
+ * ключам: после открытия данные подгружаются с диска по мере обращения.
+ * <p>
+ * Запуск: java -cp benchmarks/target/benchmarks.jar map.benchmark.MappedReopenReport [size] [directory]
+ */
+public final class MappedReopenReport {
+
+    private MappedReopenReport() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        final int size = args.length == 0 ? 5_000_000 : Integer.parseInt(args[0]);
+        final Path directory = args.length < 2 ? Files.createTempDirectory("mapped") : Paths.get(args[1]);
+        final Path file = directory.resolve("report.log");
+        final Path index = directory.resolve("report.log.idx");
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(index);
+
+        long start = System.nanoTime();
+        try (MappedHashMap<Long, Long> map = new MappedHashMap<>(file, Serializers.LONG, Serializers.LONG)) {
+            for (long i = 0; i < size; i++) {
+                map.put(i, i);
+            }
+        }
+        System.out.printf("build: %.1f ms, log %d MB, index %d MB%n", (System.nanoTime() - start) / 1e6,
+                Files.size(file) >> 20, Files.size(index) >> 20);
+        System.out.printf("%-10s %12s %14s%n", "mode", "open,ms", "first scan,ms");
+
+        start = System.nanoTime();
+        try (MappedHashMap<Long, Long> map = new MappedHashMap<>(file, Serializers.LONG, Serializers.LONG)) {
+            report("REOPEN", map, size, System.nanoTime() - start);
+        }
+
+        Files.delete(index);
+        start = System.nanoTime();
+        try (MappedHashMap<Long, Long> map = new MappedHashMap<>(file, Serializers.LONG, Serializers.LONG)) {
+            report("RECOVER", map, size, System.nanoTime() - start);
+        }
+
+        start = System.nanoTime();
+        final Map<Long, Long> map = new HashMap<>(MapState.DEFAULT_CAPACITY, 0.75);
+        for (long i = 0; i < size; i++) {
+            map.put(i, i);
+        }
+        report("REPLAY", map, size, System.nanoTime() - start);
+
+        Files.delete(file);
+        Files.delete(index);
+    }
+
+    private static void report(String mode, Map<Long, Long> map, int size, long openNanos) {
+        long sum = 0;
+        final long start = System.nanoTime();
+        for (long i = 0; i < size; i++) {
+            sum += map.get(i);
+        }
+        System.out.printf("%-10s %12.1f %14.1f%n", mode, openNanos / 1e6,
+                (System.nanoTime() - start) / 1e6 + (sum == 42 ? 1 : 0));
+    }
+}
@@ -0,0 +1,79 @@
+package map.benchmark;
+
+import map.impl.HashMap;
+import map.impl.OffHeapHashMap;
+import map.impl.Serializers;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Сравнивает нагрузку на GC от HashMap и OffHeapHashMap с ключами и
+ * значениями Long. Map заполняется size парами и остается живой, после
+ * чего замеряется время нескольких полных сборок System.gc(), занятая
+ * куча, память вне кучи и среднее время get() по случайным ключам
+ * (лучший из нескольких проходов).
+ * Полная сборка обходит все живые объекты, поэтому ее время растет с
+ * количеством узлов HashMap и почти не зависит от размера OffHeapHashMap.
+ * <p>
+ * Запуск: java -Xms4g -Xmx4g -XX:MaxDirectMemorySize=4g -cp benchmarks/target/benchmarks.jar map.benchmark.OffHeapGcReport [size]
+ */
+public final class OffHeapGcReport {
+
+    private static final int COLLECTIONS = 3;
+
+    private static final int GET_ROUNDS = 5;
+
+    private OffHeapGcReport() {
+    }
+
+    public static void main(String[] args) {
+        final int size = args.length == 0 ? 5_000_000 : Integer.parseInt(args[0]);
+        System.out.printf("%-10s %12s %12s %14s %10s%n", "map", "gc,ms", "heap,MB", "off-heap,MB", "get,ns");
+        final Map<Long, Long> heapMap = new HashMap<>(MapState.DEFAULT_CAPACITY, 0.75);
+        fill(heapMap, size);
+        report("GENERIC", heapMap, size, 0);
+        try (OffHeapHashMap<Long, Long> map = new OffHeapHashMap<>(Serializers.LONG, Serializers.LONG)) {
+            fill(map, size);
+            report("OFF_HEAP", map, size, map.offHeapBytes());
+        }
+    }
+
+    private static void fill(Map<Long, Long> map, int size) {
+        for (long i = 0; i < size; i++) {
+            map.put(i, i);
+        }
+    }
+
+    private static void report(String name, Map<Long, Long> map, int size, long offHeapBytes) {
+        final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long gcNanos = Long.MAX_VALUE;
+        for (int i = 0; i < COLLECTIONS; i++) {
+            final long start = System.nanoTime();
+            System.gc();
+            gcNanos = Math.min(gcNanos, System.nanoTime() - start);
+        }
+        final long heapBytes = memory.getHeapMemoryUsage().getUsed();
+
+        final Random random = new Random(42);
+        final Long[] lookups = new Long[size];
+        for (int i = 0; i < size; i++) {
+            lookups[i] = (long) random.nextInt(size);
+        }
+        long sum = 0;
+        long getNanos = Long.MAX_VALUE;
+        for (int round = 0; round < GET_ROUNDS; round++) {
+            final long start = System.nanoTime();
+            for (Long key : lookups) {
+                sum += map.get(key);
+            }
+            getNanos = Math.min(getNanos, (System.nanoTime() - start) / size);
+        }
+
+        System.out.printf("%-10s %12.1f %12d %14d %10d%n", name, gcNanos / 1e6,
+                heapBytes >> 20, offHeapBytes >> 20, getNanos + (sum == 42 ? 1 : 0));
+        map.clear();
+    }
+}
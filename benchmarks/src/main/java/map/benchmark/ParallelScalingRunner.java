@@ -0,0 +1,50 @@
+package map.benchmark;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+
+/**
+ * Прогоняет ParallelStreamBenchmark и BulkOperationBenchmark с параллелизмом общего ForkJoinPool
+ * 1, 2, 4, ... до числа процессоров и печатает сводную таблицу.
+ * Остальные аргументы передаются в JMH как есть.
+ * <p>
+ * Запуск: java -cp benchmarks/target/benchmarks.jar map.benchmark.ParallelScalingRunner [аргументы JMH]
+ */
+public final class ParallelScalingRunner {
+
+    private ParallelScalingRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        final CommandLineOptions commandLine = new CommandLineOptions(args);
+        final int processors = Runtime.getRuntime().availableProcessors();
+        final StringBuilder summary = new StringBuilder(String.format("%-12s %-20s %-20s %10s %12s%n",
+                "parallelism", "benchmark", "variant", "size", "ms/op"));
+        for (int parallelism = 1; parallelism <= processors; parallelism *= 2) {
+            final Options options = new OptionsBuilder()
+                    .parent(commandLine)
+                    .include(ParallelStreamBenchmark.class.getSimpleName())
+                    .include(BulkOperationBenchmark.class.getSimpleName())
+                    .jvmArgsAppend("-Djava.util.concurrent.ForkJoinPool.common.parallelism=" + parallelism)
+                    .build();
+            final Collection<RunResult> results = new Runner(options).run();
+            for (RunResult result : results) {
+                String implementation = result.getParams().getParam("implementation");
+                summary.append(String.format("%-12d %-20s %-20s %10s %12.2f%n",
+                        parallelism,
+                        result.getParams().getBenchmark().replaceFirst(".*\\.", ""),
+                        implementation != null ? implementation : "threshold=" + result.getParams().getParam("threshold"),
+                        result.getParams().getParam("size"),
+                        result.getPrimaryResult().getScore()));
+            }
+        }
+        System.out.print(summary);
+    }
+}
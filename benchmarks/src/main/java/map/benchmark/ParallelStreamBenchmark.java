@@ -0,0 +1,84 @@
+package map.benchmark;
+
+import map.impl.HashMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Spliterators;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Параллельная агрегация по size парам Long - Long через entrySet() и
+ * values():
+ * <ul>
+ * <li>TABLE - map.impl.HashMap, Spliterator по диапазонам корзин;</li>
+ * <li>ITERATOR - та же HashMap, но Spliterator поверх итератора, как у
+ * AbstractCollection по умолчанию;</li>
+ * <li>JDK - java.util.HashMap.</li>
+ * </ul>
+ * Число потоков задается параллелизмом общего ForkJoinPool, см.
+ * ParallelScalingRunner.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms6g", "-Xmx6g"})
+@State(Scope.Benchmark)
+public class ParallelStreamBenchmark {
+
+    public enum Implementation {
+        TABLE, ITERATOR, JDK
+    }
+
+    @Param({"TABLE", "ITERATOR", "JDK"})
+    public Implementation implementation;
+
+    @Param({"1000000", "10000000"})
+    public int size;
+
+    private Map<Long, Long> map;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        map = implementation == Implementation.JDK ? new java.util.HashMap<>() : new HashMap<>();
+        for (long i = 0; i < size; i++) {
+            map.put(i, i);
+        }
+    }
+
+    private <T> Stream<T> stream(Collection<T> collection, boolean parallel) {
+        return StreamSupport.stream(implementation == Implementation.ITERATOR
+                ? Spliterators.spliterator(collection, 0)
+                : collection.spliterator(), parallel);
+    }
+
+    @Benchmark
+    public long entrySum() {
+        return stream(map.entrySet(), true).mapToLong(entry -> entry.getKey() ^ entry.getValue()).sum();
+    }
+
+    @Benchmark
+    public long valueMax() {
+        return stream(map.values(), true).mapToLong(Long::longValue).max().orElse(0);
+    }
+
+    @Benchmark
+    public long sequentialEntrySum() {
+        return stream(map.entrySet(), false).mapToLong(entry -> entry.getKey() ^ entry.getValue()).sum();
+    }
+}
@@ -0,0 +1,98 @@
+package map.benchmark;
+
+import map.impl.HashMap;
+import map.impl.PersistentHashMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Публикация нового снимка после изменения одного ключа: копия HashMap
+ * с заменой значения (copyOnWritePut) против новой версии
+ * PersistentHashMap.plus() (persistentPut), и get() из снимка.
+ * Размер 5000000:
+ * -p size=5000000 -jvmArgsAppend "-Xms8g -Xmx8g".
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Thread)
+public class PersistentMapBenchmark {
+
+    @Param({"10000", "1000000"})
+    public int size;
+
+    private Integer[] keys;
+
+    private HashMap<Integer, Integer> snapshot;
+
+    private PersistentHashMap<Integer, Integer> persistent;
+
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final Random random = new Random(42);
+        keys = new Integer[size];
+        snapshot = new HashMap<>();
+        final PersistentHashMap.Builder<Integer, Integer> builder = PersistentHashMap.builder();
+        for (int i = 0; i < size; i++) {
+            keys[i] = i * 0x9E3779B1;
+            snapshot.put(keys[i], i);
+            builder.put(keys[i], i);
+        }
+        persistent = builder.build();
+        for (int i = keys.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Integer temp = keys[i];
+            keys[i] = keys[j];
+            keys[j] = temp;
+        }
+    }
+
+    private Integer nextKey() {
+        final Integer key = keys[index];
+        if (++index == keys.length) {
+            index = 0;
+        }
+        return key;
+    }
+
+    @Benchmark
+    public Object copyOnWritePut() {
+        final HashMap<Integer, Integer> copy = new HashMap<>(snapshot);
+        copy.put(nextKey(), index);
+        snapshot = copy;
+        return copy;
+    }
+
+    @Benchmark
+    public Object persistentPut() {
+        persistent = persistent.plus(nextKey(), index);
+        return persistent;
+    }
+
+    @Benchmark
+    public Object hashMapGet() {
+        return snapshot.get(nextKey());
+    }
+
+    @Benchmark
+    public Object persistentGet() {
+        return persistent.get(nextKey());
+    }
+}
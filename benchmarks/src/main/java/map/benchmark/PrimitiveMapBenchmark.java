@@ -0,0 +1,100 @@
+package map.benchmark;
+
+import map.impl.IntIntHashMap;
+import map.impl.IntObjectHashMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнивает Map с примитивными ключами и обычные Map с ключами Integer
+ * на одних и тех же int ключах. Для обычных Map каждое обращение
+ * упаковывает ключ (вне кэша Integer это выделение памяти), что видно
+ * в gc.alloc.rate.norm профилировщика GC.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PrimitiveMapBenchmark {
+
+    @Param({"GENERIC", "OPEN", "JDK"})
+    public MapType mapType;
+
+    @Param({"10000", "1000000"})
+    public int size;
+
+    private int[] keys;
+
+    private Map<Integer, Integer> boxed;
+
+    private IntObjectHashMap<Integer> intObject;
+
+    private IntIntHashMap intInt;
+
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = new int[size];
+        boxed = mapType.create(MapState.DEFAULT_CAPACITY, 0.75);
+        intObject = new IntObjectHashMap<>(MapState.DEFAULT_CAPACITY);
+        intInt = new IntIntHashMap(MapState.DEFAULT_CAPACITY);
+        final Random random = new Random(42);
+        for (int i = 0; i < size; i++) {
+            int key = random.nextInt();
+            keys[i] = key;
+            boxed.put(key, i);
+            intObject.put(key, i);
+            intInt.put(key, i);
+        }
+    }
+
+    private int nextKey() {
+        final int key = keys[index];
+        if (++index == size) {
+            index = 0;
+        }
+        return key;
+    }
+
+    @Benchmark
+    public Object boxedGet() {
+        return boxed.get(nextKey());
+    }
+
+    @Benchmark
+    public Object intObjectGet() {
+        return intObject.get(nextKey());
+    }
+
+    @Benchmark
+    public int intIntGet() {
+        return intInt.get(nextKey());
+    }
+
+    @Benchmark
+    public Object boxedIncrement() {
+        return boxed.merge(nextKey(), 1, Integer::sum);
+    }
+
+    @Benchmark
+    public int intIntIncrement() {
+        return intInt.addTo(nextKey(), 1);
+    }
+}
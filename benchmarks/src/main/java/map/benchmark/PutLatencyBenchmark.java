@@ -0,0 +1,69 @@
+package map.benchmark;
+
+import map.impl.HashMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Распределение времени одного put() при заполнении HashMap с 16 корзин
+ * в режимах ResizeMode.EAGER и ResizeMode.INCREMENTAL. Режим SampleTime
+ * выводит гистограмму и перцентили до p0.9999 и p1.0: в режиме EAGER
+ * хвост распределения - это put(), вызвавшие resize().
+ * Когда все size ключей добавлены, Map создается заново.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Thread)
+public class PutLatencyBenchmark {
+
+    @Param({"EAGER", "INCREMENTAL"})
+    public HashMap.ResizeMode resizeMode;
+
+    @Param({"1000000", "8000000"})
+    public int size;
+
+    private Integer[] keys;
+
+    private Map<Integer, Integer> map;
+
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = i;
+        }
+        map = newMap();
+    }
+
+    private Map<Integer, Integer> newMap() {
+        return new HashMap<>(MapState.DEFAULT_CAPACITY, 0.75, resizeMode);
+    }
+
+    @Benchmark
+    public Object put() {
+        if (index == size) {
+            map = newMap();
+            index = 0;
+        }
+        final Integer key = keys[index++];
+        return map.put(key, key);
+    }
+}
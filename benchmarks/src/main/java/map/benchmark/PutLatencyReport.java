@@ -0,0 +1,53 @@
+package map.benchmark;
+
+import map.impl.HashMap;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Гистограмма времени каждого put() при заполнении HashMap с 16 корзин в
+ * режимах ResizeMode.EAGER и ResizeMode.INCREMENTAL. В отличие от
+ * PutLatencyBenchmark, который измеряет лишь выборку вызовов, здесь
+ * замеряется каждый put(), поэтому в максимум гарантированно попадают
+ * вызовы, увеличившие массив корзин. Для каждого режима заполнение
+ * повторяется несколько раз, учитывается последнее.
+ * <p>
+ * Запуск: java -Xms4g -Xmx4g -cp benchmarks/target/benchmarks.jar map.benchmark.PutLatencyReport [size]
+ */
+public final class PutLatencyReport {
+
+    private static final int ROUNDS = 3;
+
+    private static final double[] PERCENTILES = {0.5, 0.99, 0.999, 0.9999, 0.99999};
+
+    private PutLatencyReport() {
+    }
+
+    public static void main(String[] args) {
+        final int size = args.length == 0 ? 10_000_000 : Integer.parseInt(args[0]);
+        final Integer[] keys = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = i;
+        }
+        final long[] latencies = new long[size];
+        System.out.printf("%-12s %10s %10s %10s %10s %10s %12s%n",
+                "mode", "p50,ns", "p99,ns", "p99.9,ns", "p99.99,ns", "p99.999,ns", "max,ns");
+        for (HashMap.ResizeMode mode : HashMap.ResizeMode.values()) {
+            for (int round = 0; round < ROUNDS; round++) {
+                final Map<Integer, Integer> map = new HashMap<>(MapState.DEFAULT_CAPACITY, 0.75, mode);
+                for (int i = 0; i < size; i++) {
+                    final long start = System.nanoTime();
+                    map.put(keys[i], keys[i]);
+                    latencies[i] = System.nanoTime() - start;
+                }
+            }
+            Arrays.sort(latencies);
+            System.out.printf("%-12s", mode);
+            for (double percentile : PERCENTILES) {
+                System.out.printf(" %10d", latencies[(int) (percentile * (size - 1))]);
+            }
+            System.out.printf(" %12d%n", latencies[size - 1]);
+        }
+    }
+}
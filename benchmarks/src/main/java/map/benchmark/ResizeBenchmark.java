@@ -0,0 +1,33 @@
+package map.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Заполнение Map с 16 корзин по умолчанию до size записей. Измеряет
+ * стоимость всех удвоений массива корзин через resize().
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ResizeBenchmark {
+
+    @Benchmark
+    public Map<Object, Object> growFromDefaultCapacity(MapState state) {
+        final Map<Object, Object> map = state.mapType.create(MapState.DEFAULT_CAPACITY, state.loadFactor);
+        for (Object key : state.keys) {
+            map.put(key, key);
+        }
+        return map;
+    }
+}
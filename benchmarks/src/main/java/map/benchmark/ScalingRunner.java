@@ -0,0 +1,48 @@
+package map.benchmark;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+
+/**
+ * Прогоняет ConcurrentBenchmark на 1, 2, 4, ... 64 потоках и печатает
+ * сводную таблицу пропускной способности. Остальные аргументы передаются
+ * в JMH как есть.
+ * <p>
+ * Запуск: java -cp benchmarks/target/benchmarks.jar map.benchmark.ScalingRunner [аргументы JMH]
+ */
+public final class ScalingRunner {
+
+    private static final int MAX_THREADS = 64;
+
+    private ScalingRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        final CommandLineOptions commandLine = new CommandLineOptions(args);
+        final StringBuilder summary = new StringBuilder(String.format("%-8s %-16s %6s %14s%n",
+                "threads", "implementation", "read%", "ops/us"));
+        for (int threads = 1; threads <= MAX_THREADS; threads *= 2) {
+            final Options options = new OptionsBuilder()
+                    .parent(commandLine)
+                    .include(ConcurrentBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            final Collection<RunResult> results = new Runner(options).run();
+            for (RunResult result : results) {
+                summary.append(String.format("%-8d %-16s %6s %14.2f%n",
+                        threads,
+                        result.getParams().getParam("implementation"),
+                        result.getParams().getParam("readPercent"),
+                        result.getPrimaryResult().getScore()));
+            }
+        }
+        System.out.print(summary);
+    }
+}
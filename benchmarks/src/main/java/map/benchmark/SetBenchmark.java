@@ -0,0 +1,137 @@
+package map.benchmark;
+
+import map.impl.HashMap;
+import map.impl.HashSet;
+import map.impl.IntHashSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Set для фильтра дубликатов: keySet() у HashMap с фиктивными значениями
+ * Boolean, map.impl.HashSet и java.util.HashSet. Половина запросов
+ * contains() попадает. intContains() - тот же поток запросов к IntHashSet
+ * без упаковки; от variant он не зависит, запускается с -p variant=SET.
+ * retainAll() копирует Set размера size и пересекает его с Set, в
+ * котором половина тех же элементов; копирование входит в замер.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Thread)
+public class SetBenchmark {
+
+    /**
+     * Реализация Set.
+     */
+    public enum Variant {
+
+        KEY_SET,
+
+        SET,
+
+        JDK;
+
+        Set<Integer> copyOf(Set<Integer> source) {
+            switch (this) {
+                case KEY_SET:
+                    final HashMap<Integer, Boolean> map = new HashMap<>();
+                    for (Integer element : source) {
+                        map.put(element, Boolean.TRUE);
+                    }
+                    return map.keySet();
+                case SET:
+                    return new HashSet<>(source);
+                default:
+                    return new java.util.HashSet<>(source);
+            }
+        }
+    }
+
+    @Param({"KEY_SET", "SET", "JDK"})
+    public Variant variant;
+
+    @Param({"10000", "1000000"})
+    public int size;
+
+    /**
+     * Запросы: четные индексы - элементы Set, нечетные - отсутствующие.
+     */
+    private int[] queries;
+
+    private Integer[] boxedQueries;
+
+    private Set<Integer> set;
+
+    private Set<Integer> other;
+
+    private IntHashSet intSet;
+
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final Random random = new Random(42);
+        final java.util.HashSet<Integer> elements = new java.util.HashSet<>();
+        final java.util.HashSet<Integer> half = new java.util.HashSet<>();
+        intSet = new IntHashSet();
+        queries = new int[2 * size];
+        boxedQueries = new Integer[2 * size];
+        for (int i = 0; i < size; i++) {
+            int element;
+            do {
+                element = random.nextInt() & ~1;
+            } while (!elements.add(element));
+            intSet.add(element);
+            queries[2 * i] = element;
+            queries[2 * i + 1] = element | 1;
+            half.add(i % 2 == 0 ? element : element | 1);
+        }
+        for (int i = 0; i < queries.length; i++) {
+            boxedQueries[i] = queries[i];
+        }
+        set = variant.copyOf(elements);
+        other = variant.copyOf(half);
+    }
+
+    private int next() {
+        final int i = index;
+        if (++index == queries.length) {
+            index = 0;
+        }
+        return i;
+    }
+
+    @Benchmark
+    public boolean contains() {
+        return set.contains(boxedQueries[next()]);
+    }
+
+    @Benchmark
+    public boolean intContains() {
+        return intSet.contains(queries[next()]);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Set<Integer> retainAll() {
+        final Set<Integer> copy = variant.copyOf(set);
+        copy.retainAll(other);
+        return copy;
+    }
+}
@@ -0,0 +1,81 @@
+package map.benchmark;
+
+import map.impl.HashMap;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.Map;
+
+/**
+ * Память и время обхода Map после всплеска: в Map кладется peak пар
+ * Integer, затем удаляются все, кроме remaining. Сравниваются:
+ * <ul>
+ * <li>JDK - java.util.HashMap, массив корзин никогда не уменьшается;</li>
+ * <li>GENERIC - map.impl.HashMap без уменьшения;</li>
+ * <li>AUTO - map.impl.HashMap с setMinLoadFactor(0.1);</li>
+ * <li>TRIM - map.impl.HashMap, после удаления вызван trimToSize().</li>
+ * </ul>
+ * Память - граф объектов Map без ключей и значений, см. FootprintReport.
+ * Время обхода - лучший из ROUNDS проходов по entrySet().
+ * <p>
+ * Запуск: java -cp benchmarks/target/benchmarks.jar map.benchmark.ShrinkReport [peak] [remaining]
+ */
+public final class ShrinkReport {
+
+    private static final int ROUNDS = 20;
+
+    private ShrinkReport() {
+    }
+
+    public static void main(String[] args) {
+        final int peak = args.length == 0 ? 2_000_000 : Integer.parseInt(args[0]);
+        final int remaining = args.length < 2 ? 10_000 : Integer.parseInt(args[1]);
+        final Object[] keys = KeyType.INTEGER.keys(peak);
+        final Object[] kept = new Object[remaining];
+        System.arraycopy(keys, 0, kept, 0, remaining);
+        System.out.printf("%-8s %12s %14s %14s%n", "map", "size", "overhead,KB", "iterate,us");
+        for (String variant : new String[]{"JDK", "GENERIC", "AUTO", "TRIM"}) {
+            final Map<Object, Object> map;
+            if (variant.equals("JDK")) {
+                map = new java.util.HashMap<>();
+            } else {
+                HashMap<Object, Object> generic = new HashMap<>();
+                if (variant.equals("AUTO")) {
+                    generic.setMinLoadFactor(0.1);
+                }
+                map = generic;
+            }
+            for (Object key : keys) {
+                map.put(key, key);
+            }
+            for (int i = remaining; i < peak; i++) {
+                map.remove(keys[i]);
+            }
+            if (variant.equals("TRIM")) {
+                ((HashMap<Object, Object>) map).trimToSize();
+            }
+            final long overhead = GraphLayout.parseInstance(map)
+                    .subtract(GraphLayout.parseInstance((Object) kept))
+                    .totalSize();
+            System.out.printf("%-8s %12d %14d %14.1f%n", variant, map.size(), overhead / 1024, iterate(map) / 1e3);
+        }
+    }
+
+    /**
+     * @return - лучшее время прохода по entrySet() в наносекундах.
+     */
+    private static long iterate(Map<Object, Object> map) {
+        long best = Long.MAX_VALUE;
+        long sum = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            final long start = System.nanoTime();
+            for (Map.Entry<Object, Object> entry : map.entrySet()) {
+                sum += (Integer) entry.getValue();
+            }
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        if (sum == 42) {
+            System.out.println();
+        }
+        return best;
+    }
+}
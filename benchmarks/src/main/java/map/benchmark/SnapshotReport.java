@@ -0,0 +1,98 @@
+package map.benchmark;
+
+import map.impl.HashMap;
+import map.impl.HashMapSnapshot;
+import map.impl.Serializers;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+
+/**
+ * Пропускная способность сохранения и загрузки Map из size пар
+ * Long - String в файл:
+ * <ul>
+ * <li>SNAPSHOT - HashMapSnapshot.write() и read();</li>
+ * <li>JAVA - ObjectOutputStream и ObjectInputStream для java.util.HashMap.</li>
+ * </ul>
+ * Для каждого способа берется лучший из rounds проходов; MB/s считается
+ * по размеру файла.
+ * <p>
+ * Запуск: java -cp benchmarks/target/benchmarks.jar map.benchmark.SnapshotReport [size] [directory]
+ */
+public final class SnapshotReport {
+
+    private static final int ROUNDS = 5;
+
+    private SnapshotReport() {
+    }
+
+    public static void main(String[] args) throws IOException, ClassNotFoundException {
+        final int size = args.length == 0 ? 2_000_000 : Integer.parseInt(args[0]);
+        final Path directory = args.length < 2 ? Files.createTempDirectory("snapshot") : Paths.get(args[1]);
+        final Path file = directory.resolve("report.snapshot");
+
+        final HashMap<Long, String> map = new HashMap<>();
+        final java.util.HashMap<Long, String> jdkMap = new java.util.HashMap<>();
+        for (long i = 0; i < size; i++) {
+            String value = "value " + i;
+            map.put(i, value);
+            jdkMap.put(i, value);
+        }
+        System.out.printf("%-10s %10s %12s %12s %12s %12s%n", "format", "file,MB", "write,ms", "write,MB/s",
+                "read,ms", "read,MB/s");
+
+        long write = Long.MAX_VALUE;
+        long read = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            HashMapSnapshot.write(map, file, Serializers.LONG, Serializers.STRING);
+            write = Math.min(write, System.nanoTime() - start);
+            start = System.nanoTime();
+            Map<Long, String> copy = HashMapSnapshot.read(file, Serializers.LONG, Serializers.STRING);
+            read = Math.min(read, System.nanoTime() - start);
+            check(copy, size);
+        }
+        report("SNAPSHOT", Files.size(file), write, read);
+
+        write = Long.MAX_VALUE;
+        read = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(file), 1 << 16))) {
+                out.writeObject(jdkMap);
+            }
+            write = Math.min(write, System.nanoTime() - start);
+            start = System.nanoTime();
+            Map<?, ?> copy;
+            try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(
+                    Files.newInputStream(file), 1 << 16))) {
+                copy = (Map<?, ?>) in.readObject();
+            }
+            read = Math.min(read, System.nanoTime() - start);
+            check(copy, size);
+        }
+        report("JAVA", Files.size(file), write, read);
+
+        Files.delete(file);
+    }
+
+    private static void check(Map<?, ?> copy, int size) {
+        if (copy.size() != size) {
+            throw new IllegalStateException("lost entries: " + copy.size());
+        }
+    }
+
+    private static void report(String format, long bytes, long writeNanos, long readNanos) {
+        final double megabytes = bytes / (double) (1 << 20);
+        System.out.printf("%-10s %10.1f %12.1f %12.1f %12.1f %12.1f%n", format, megabytes, writeNanos / 1e6,
+                megabytes / (writeNanos / 1e9), readNanos / 1e6, megabytes / (readNanos / 1e9));
+    }
+}
@@ -0,0 +1,65 @@
+package map.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Окно дедупликации потока: небольшая Map с заранее увеличенным массивом
+ * корзин, в которую добавляется новый ключ, удаляется самый старый и
+ * которая затем обходится целиком. Обход HashMap и java.util.HashMap
+ * проходит все capacity корзин, обход LINKED - только size узлов.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SparseIterationBenchmark {
+
+    @Param({"GENERIC", "LINKED", "JDK"})
+    public MapType mapType;
+
+    @Param({"65536"})
+    public int capacity;
+
+    @Param({"64"})
+    public int size;
+
+    private Map<Integer, Integer> map;
+
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        map = mapType.create(capacity, 0.75);
+        for (next = 0; next < size; next++) {
+            map.put(next, next);
+        }
+    }
+
+    @Benchmark
+    public long slideAndIterate() {
+        map.remove(next - size);
+        map.put(next, next);
+        next++;
+        long sum = 0;
+        for (Map.Entry<Integer, Integer> entry : map.entrySet()) {
+            sum += entry.getKey() + entry.getValue();
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,451 @@
+package map.impl;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * Ограниченный кэш на основе HashMap с вытеснением давно не
+ * использованных пар (LRU). Данные для вытеснения лежат в самих узлах:
+ * узлы CacheNode дополнительно связаны в двусвязный список в порядке
+ * обращения, от самого старого head к самому новому tail. Поиск,
+ * добавление или замена значения переносят узел в конец списка за O(1),
+ * вытесняется голова списка, тоже за O(1).
+ * <p>
+ * У каждой пары есть вес, который считает weigher; по умолчанию вес
+ * равен 1, и maximumWeight - это максимальное количество пар. Когда
+ * после добавления или замены суммарный вес больше maximumWeight, пары
+ * вытесняются с головы списка. Об удалении, замене и вытеснении пар
+ * сообщает RemovalListener; он вызывается в потоке операции и не должен
+ * изменять кэш.
+ * <p>
+ * Значения null не допускаются: null в get() означает промах. Для
+ * замены значения нужен put(), Map.Entry.setValue() не поддерживается,
+ * чтобы вес пары всегда соответствовал ее значению. Как и HashMap, кэш
+ * не потокобезопасен.
+ */
+public class CacheHashMap<K, V> extends HashMap<K, V> {
+
+    /**
+     * Причина, по которой пара ушла из кэша.
+     */
+    public enum RemovalCause {
+
+        /**
+         * Пара удалена явно: remove(), clear(), compute() с результатом null и т.д.
+         */
+        EXPLICIT,
+
+        /**
+         * Значение заменено новым.
+         */
+        REPLACED,
+
+        /**
+         * Пара вытеснена, потому что суммарный вес превысил максимальный.
+         */
+        SIZE
+    }
+
+    /**
+     * Получатель уведомлений об удалении пар из кэша.
+     */
+    @FunctionalInterface
+    public interface RemovalListener<K, V> {
+
+        /**
+         * @param key   - ключ удаленной пары.
+         * @param value - удаленное или замененное значение.
+         * @param cause - причина удаления.
+         */
+        void onRemoval(K key, V value, RemovalCause cause);
+    }
+
+    /**
+     * Узел кэша: узел HashMap со связями списка обращений и весом пары.
+     */
+    static final class CacheNode<K, V> extends Node<K, V> {
+
+        CacheNode<K, V> before;
+        CacheNode<K, V> after;
+        int weight;
+
+        CacheNode(int hash, K key, V value, Node<K, V> next, int weight) {
+            super(hash, key, value, next);
+            this.weight = weight;
+        }
+
+        @Override
+        public V setValue(V value) {
+            throw new UnsupportedOperationException("use put() to replace a cached value");
+        }
+    }
+
+    private final long maximumWeight;
+
+    private final ToIntBiFunction<? super K, ? super V> weigher;
+
+    private final RemovalListener<? super K, ? super V> removalListener;
+
+    /**
+     * Самый давно использованный узел, вытесняется первым.
+     */
+    private CacheNode<K, V> head;
+
+    /**
+     * Последний использованный узел.
+     */
+    private CacheNode<K, V> tail;
+
+    private long weightedSize;
+
+    /**
+     * true, пока узел удаляется вытеснением, а не явно.
+     */
+    private boolean evicting;
+
+    private long hitCount;
+
+    private long missCount;
+
+    private long evictionCount;
+
+    private long loadCount;
+
+    private long totalLoadTime;
+
+    /**
+     * Обертка загрузки для computeIfAbsent(), одна на кэш, чтобы не
+     * создавать лямбду на каждое обращение.
+     */
+    private final Loader loader = new Loader();
+
+    /**
+     * Кэш не больше чем на maximumSize пар.
+     *
+     * @param maximumSize - максимальное количество пар.
+     * @throws IllegalArgumentException - если maximumSize отрицательный.
+     */
+    public CacheHashMap(long maximumSize) {
+        this(maximumSize, (key, value) -> 1, null);
+    }
+
+    /**
+     * Кэш с суммарным весом пар не больше maximumWeight.
+     *
+     * @param maximumWeight   - максимальный суммарный вес.
+     * @param weigher         - вес пары, неотрицательный.
+     * @param removalListener - получатель уведомлений об удалении или null.
+     * @throws IllegalArgumentException - если maximumWeight отрицательный.
+     */
+    public CacheHashMap(long maximumWeight, ToIntBiFunction<? super K, ? super V> weigher,
+                        RemovalListener<? super K, ? super V> removalListener) {
+        if (maximumWeight < 0) {
+            throw new IllegalArgumentException("maximum weight should not be negative");
+        }
+        this.maximumWeight = maximumWeight;
+        this.weigher = Objects.requireNonNull(weigher);
+        this.removalListener = removalListener;
+    }
+
+    /**
+     * Возвращает значение и отмечает обращение к паре.
+     *
+     * @param key - ключ.
+     * @return - значение или null при промахе.
+     */
+    @Override
+    public V get(Object key) {
+        final V value = super.get(key);
+        if (value == null) {
+            missCount++;
+        } else {
+            hitCount++;
+        }
+        return value;
+    }
+
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+        final V value = get(key);
+        return value == null ? defaultValue : value;
+    }
+
+    /**
+     * Добавляет или заменяет пару и вытесняет старые пары, если суммарный
+     * вес стал больше максимального.
+     *
+     * @throws NullPointerException - если value равно null.
+     */
+    @Override
+    public V put(K key, V value) {
+        return super.put(key, Objects.requireNonNull(value));
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        return super.putIfAbsent(key, Objects.requireNonNull(value));
+    }
+
+    /**
+     * Вставляет пары по одной, без предварительного увеличения массива
+     * корзин: большая часть входной Map может быть сразу вытеснена.
+     */
+    @Override
+    public void putAll(Map<? extends K, ? extends V> m) {
+        for (Map.Entry<? extends K, ? extends V> entry : m.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public void putAll(K[] keys, V[] values) {
+        if (keys.length != values.length) {
+            throw new IllegalArgumentException("keys and values should have the same length");
+        }
+        for (int i = 0; i < keys.length; i++) {
+            put(keys[i], values[i]);
+        }
+    }
+
+    /**
+     * Возвращает значение из кэша или загружает его функцией
+     * mappingFunction. Загрузка считается промахом, ее время добавляется
+     * к totalLoadTime().
+     *
+     * @param key             - ключ.
+     * @param mappingFunction - загрузка значения; null - значение не кэшируется.
+     * @return - значение из кэша или загруженное.
+     */
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        Objects.requireNonNull(mappingFunction);
+        final Function<? super K, ? extends V> outer = loader.function;
+        final long loads = loadCount;
+        loader.function = mappingFunction;
+        final V value;
+        try {
+            value = super.computeIfAbsent(key, loader);
+        } finally {
+            loader.function = outer;
+        }
+        if (loadCount == loads) {
+            hitCount++;
+        } else {
+            missCount++;
+        }
+        return value;
+    }
+
+    /**
+     * Заменяет все значения, после чего пересчитывает вес и при
+     * необходимости вытесняет пары.
+     *
+     * @throws NullPointerException - если function вернула null.
+     */
+    @Override
+    public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+        Objects.requireNonNull(function);
+        super.replaceAll((key, value) -> {
+            final V newValue = Objects.requireNonNull(function.apply(key, value));
+            notifyRemoval(key, value, RemovalCause.REPLACED);
+            return newValue;
+        });
+        long weight = 0;
+        for (CacheNode<K, V> node = head; node != null; node = node.after) {
+            node.weight = weigh(node.key, node.value);
+            weight += node.weight;
+        }
+        weightedSize = weight;
+        evict();
+    }
+
+    /**
+     * Заменяет значения последовательно: списки обращений и вес кэша
+     * не рассчитаны на изменение из нескольких потоков.
+     */
+    @Override
+    public void replaceAll(long parallelismThreshold, BiFunction<? super K, ? super V, ? extends V> function) {
+        replaceAll(function);
+    }
+
+    /**
+     * Очищает кэш, сообщая об удалении каждой пары.
+     */
+    @Override
+    public void clear() {
+        CacheNode<K, V> node = head;
+        super.clear();
+        head = null;
+        tail = null;
+        weightedSize = 0;
+        for (; node != null; node = node.after) {
+            notifyRemoval(node.key, node.value, RemovalCause.EXPLICIT);
+        }
+    }
+
+    public long maximumWeight() {
+        return maximumWeight;
+    }
+
+    /**
+     * @return - суммарный вес пар в кэше.
+     */
+    public long weightedSize() {
+        return weightedSize;
+    }
+
+    public long hitCount() {
+        return hitCount;
+    }
+
+    public long missCount() {
+        return missCount;
+    }
+
+    /**
+     * @return - доля попаданий среди get() и computeIfAbsent(); 1, если обращений не было.
+     */
+    public double hitRate() {
+        final long requests = hitCount + missCount;
+        return requests == 0 ? 1.0 : (double) hitCount / requests;
+    }
+
+    public long evictionCount() {
+        return evictionCount;
+    }
+
+    public long loadCount() {
+        return loadCount;
+    }
+
+    /**
+     * @return - суммарное время загрузок в computeIfAbsent(), в наносекундах.
+     */
+    public long totalLoadTime() {
+        return totalLoadTime;
+    }
+
+    @Override
+    Node<K, V> newNode(int hash, K key, V value, Node<K, V> next) {
+        final CacheNode<K, V> node = new CacheNode<>(hash, key, value, next, weigh(key, value));
+        linkLast(node);
+        weightedSize += node.weight;
+        return node;
+    }
+
+    @Override
+    void afterNodeAccess(Node<K, V> node) {
+        moveToLast((CacheNode<K, V>) node);
+    }
+
+    @Override
+    void afterNodeUpdate(Node<K, V> node, V oldValue) {
+        final CacheNode<K, V> cacheNode = (CacheNode<K, V>) node;
+        final int weight = weigh(cacheNode.key, cacheNode.value);
+        weightedSize += weight - cacheNode.weight;
+        cacheNode.weight = weight;
+        moveToLast(cacheNode);
+        if (oldValue != null) {
+            notifyRemoval(cacheNode.key, oldValue, RemovalCause.REPLACED);
+        }
+        evict();
+    }
+
+    @Override
+    void afterNodeInsertion() {
+        evict();
+    }
+
+    @Override
+    void afterNodeRemoval(Node<K, V> node) {
+        final CacheNode<K, V> cacheNode = (CacheNode<K, V>) node;
+        unlink(cacheNode);
+        weightedSize -= cacheNode.weight;
+        notifyRemoval(cacheNode.key, cacheNode.value, evicting ? RemovalCause.SIZE : RemovalCause.EXPLICIT);
+    }
+
+    /**
+     * Вытесняет пары с головы списка, пока суммарный вес больше максимального.
+     */
+    private void evict() {
+        while (weightedSize > maximumWeight && head != null) {
+            final CacheNode<K, V> eldest = head;
+            evicting = true;
+            try {
+                removeNode(eldest.hash, eldest.key);
+            } finally {
+                evicting = false;
+            }
+            evictionCount++;
+        }
+    }
+
+    private int weigh(K key, V value) {
+        final int weight = weigher.applyAsInt(key, value);
+        if (weight < 0) {
+            throw new IllegalArgumentException("weight should not be negative");
+        }
+        return weight;
+    }
+
+    private void notifyRemoval(K key, V value, RemovalCause cause) {
+        if (removalListener != null) {
+            removalListener.onRemoval(key, value, cause);
+        }
+    }
+
+    /**
+     * Вызывает текущую функцию загрузки и учитывает ее время.
+     */
+    private final class Loader implements Function<K, V> {
+
+        private Function<? super K, ? extends V> function;
+
+        @Override
+        public V apply(K key) {
+            final long start = System.nanoTime();
+            try {
+                return function.apply(key);
+            } finally {
+                loadCount++;
+                totalLoadTime += System.nanoTime() - start;
+            }
+        }
+    }
+
+    private void linkLast(CacheNode<K, V> node) {
+        node.before = tail;
+        node.after = null;
+        if (tail == null) {
+            head = node;
+        } else {
+            tail.after = node;
+        }
+        tail = node;
+    }
+
+    private void unlink(CacheNode<K, V> node) {
+        if (node.before == null) {
+            head = node.after;
+        } else {
+            node.before.after = node.after;
+        }
+        if (node.after == null) {
+            tail = node.before;
+        } else {
+            node.after.before = node.before;
+        }
+        node.before = null;
+        node.after = null;
+    }
+
+    private void moveToLast(CacheNode<K, V> node) {
+        if (tail != node) {
+            unlink(node);
+            linkLast(node);
+        }
+    }
+}
@@ -0,0 +1,530 @@
+package map.impl;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Map с цепочками в корзинах, как HashMap, но с узлами меньшего размера.
+ * Узел HashMap всегда хранит hash, key, value и next; здесь класс узла
+ * выбирается по тому, нужны ли ему поля:
+ * <ul>
+ * <li>поле next есть только у узлов Link, за которыми в корзине идет
+ * другой узел; последний узел корзины - Leaf без next;</li>
+ * <li>хэш хранится только в режиме create() (узлы HashedLeaf и
+ * HashedLink); в режиме withoutHashCache() хэш вычисляется из ключа при
+ * поиске и увеличении массива, что дешево для Integer, Long и enum.</li>
+ * </ul>
+ * При 12-байтовом заголовке объекта и сжатых ссылках узел HashMap
+ * занимает 32 байта, HashedLeaf - 24, HashedLink - 32, Leaf и Link - по
+ * 24 байта. При коэффициенте загрузки 0.75 больше двух третей узлов -
+ * последние в своих корзинах.
+ * <p>
+ * Увеличение массива корзин заменяет узел копией другого класса, если
+ * узлу понадобилось или перестало быть нужным поле next, поэтому
+ * Map.Entry, полученный до увеличения, может перестать отражать Map.
+ * Удаление из середины корзины оставляет предыдущему узлу класс Link.
+ * Ключ null допускается. Как и HashMap, класс не потокобезопасен.
+ */
+public class CompactHashMap<K, V> extends AbstractMap<K, V> {
+
+    /**
+     * Узел без next и без хэша.
+     */
+    static class Leaf<K, V> implements Map.Entry<K, V> {
+
+        final K key;
+        V value;
+
+        Leaf(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public final K getKey() {
+            return key;
+        }
+
+        @Override
+        public final V getValue() {
+            return value;
+        }
+
+        @Override
+        public final V setValue(V value) {
+            final V oldValue = this.value;
+            this.value = value;
+            return oldValue;
+        }
+
+        @Override
+        public final boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Map.Entry)) return false;
+            final Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+            return Objects.equals(key, entry.getKey()) && Objects.equals(value, entry.getValue());
+        }
+
+        @Override
+        public final int hashCode() {
+            return Objects.hashCode(key) ^ Objects.hashCode(value);
+        }
+
+        @Override
+        public final String toString() {
+            return key + "=" + value;
+        }
+    }
+
+    /**
+     * Узел с next, без хэша.
+     */
+    static final class Link<K, V> extends Leaf<K, V> {
+
+        Leaf<K, V> next;
+
+        Link(K key, V value, Leaf<K, V> next) {
+            super(key, value);
+            this.next = next;
+        }
+    }
+
+    /**
+     * Узел с хэшем, без next.
+     */
+    static class HashedLeaf<K, V> extends Leaf<K, V> {
+
+        final int hash;
+
+        HashedLeaf(int hash, K key, V value) {
+            super(key, value);
+            this.hash = hash;
+        }
+    }
+
+    /**
+     * Узел с хэшем и next.
+     */
+    static final class HashedLink<K, V> extends HashedLeaf<K, V> {
+
+        Leaf<K, V> next;
+
+        HashedLink(int hash, K key, V value, Leaf<K, V> next) {
+            super(hash, key, value);
+            this.next = next;
+        }
+    }
+
+    /**
+     * Массив корзин, создается при первом добавлении.
+     */
+    private Leaf<K, V>[] table;
+
+    /**
+     * Количество корзин, степень двойки.
+     */
+    private int capacity;
+
+    private int threshold;
+
+    private final double loadFactor;
+
+    /**
+     * true - узлы хранят хэш ключа.
+     */
+    private final boolean cacheHash;
+
+    private int size;
+
+    private int modCount;
+
+    private Set<Map.Entry<K, V>> entries;
+
+    /**
+     * Конструктор. Инициализирует поля capacity и threshold
+     * по входным аргументам.
+     *
+     * @param capacity   - начальное количество корзин.
+     * @param loadFactor - коэффициент загрузки.
+     * @param cacheHash  - true, если узлы хранят хэш ключа.
+     * @throws IllegalArgumentException - если capacity отрицательный или
+     *                                  loadFactor не лежит между 0 и 1.
+     */
+    CompactHashMap(int capacity, double loadFactor, boolean cacheHash) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("initial CAPACITY should be positive");
+        }
+        if (Double.compare(loadFactor, 1) > 0 || Double.compare(loadFactor, 0) < 0) {
+            throw new IllegalArgumentException("load factory should be between 0 and 1");
+        }
+        this.loadFactor = loadFactor;
+        this.capacity = HashMap.tableSizeFromCapacity(capacity);
+        this.threshold = (int) (this.capacity * loadFactor);
+        this.cacheHash = cacheHash;
+    }
+
+    /**
+     * Map с хэшем в узлах: подходит для любых ключей.
+     *
+     * @param capacity   - начальное количество корзин.
+     * @param loadFactor - коэффициент загрузки.
+     * @return - пустая Map.
+     */
+    public static <K, V> CompactHashMap<K, V> create(int capacity, double loadFactor) {
+        return new CompactHashMap<>(capacity, loadFactor, true);
+    }
+
+    /**
+     * Map с хэшем в узлах и параметрами по умолчанию.
+     */
+    public static <K, V> CompactHashMap<K, V> create() {
+        return create(HashMap.DEFAULT_CAPACITY, HashMap.DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Map без хэша в узлах - для ключей с дешевыми hashCode() и equals(),
+     * например Integer, Long или enum. Для строк и составных ключей
+     * поиск станет медленнее: equals() вызывается для каждого узла
+     * корзины, а увеличение массива заново вычисляет hashCode().
+     *
+     * @param capacity   - начальное количество корзин.
+     * @param loadFactor - коэффициент загрузки.
+     * @return - пустая Map.
+     */
+    public static <K, V> CompactHashMap<K, V> withoutHashCache(int capacity, double loadFactor) {
+        return new CompactHashMap<>(capacity, loadFactor, false);
+    }
+
+    /**
+     * Map без хэша в узлах с параметрами по умолчанию.
+     */
+    public static <K, V> CompactHashMap<K, V> withoutHashCache() {
+        return withoutHashCache(HashMap.DEFAULT_CAPACITY, HashMap.DEFAULT_LOAD_FACTOR);
+    }
+
+    @Override
+    public V get(Object key) {
+        final Leaf<K, V> node = getNode(key);
+        return node == null ? null : node.value;
+    }
+
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+        final Leaf<K, V> node = getNode(key);
+        return node == null ? defaultValue : node.value;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return getNode(key) != null;
+    }
+
+    private Leaf<K, V> getNode(Object key) {
+        if (table == null) {
+            return null;
+        }
+        final int hash = HashMap.spread(key);
+        for (Leaf<K, V> node = table[hash & (capacity - 1)]; node != null; node = next(node)) {
+            if (matches(node, hash, key)) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public V put(K key, V value) {
+        if (table == null) {
+            table = newTable(capacity);
+        }
+        final int hash = HashMap.spread(key);
+        final int index = hash & (capacity - 1);
+        for (Leaf<K, V> node = table[index]; node != null; node = next(node)) {
+            if (matches(node, hash, key)) {
+                return node.setValue(value);
+            }
+        }
+        table[index] = newNode(hash, key, value, table[index]);
+        modCount++;
+        if (++size > threshold) {
+            resize();
+        }
+        return null;
+    }
+
+    @Override
+    public V remove(Object key) {
+        if (table == null) {
+            return null;
+        }
+        final int hash = HashMap.spread(key);
+        final int index = hash & (capacity - 1);
+        Leaf<K, V> previous = null;
+        for (Leaf<K, V> node = table[index]; node != null; previous = node, node = next(node)) {
+            if (matches(node, hash, key)) {
+                if (previous == null) {
+                    table[index] = next(node);
+                } else {
+                    setNext(previous, next(node));
+                }
+                modCount++;
+                size--;
+                return node.value;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void clear() {
+        if (size > 0) {
+            Arrays.fill(table, null);
+            size = 0;
+        }
+        modCount++;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        if (table == null) {
+            return false;
+        }
+        for (Leaf<K, V> bucket : table) {
+            for (Leaf<K, V> node = bucket; node != null; node = next(node)) {
+                if (Objects.equals(value, node.value)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        if (entries == null) {
+            entries = new EntrySet();
+        }
+        return entries;
+    }
+
+    /**
+     * Метод возвращает строковое представление объекта.
+     * В каждой строчке выводится "key =" + key + "value =" + value.
+     *
+     * @return строковое представление объекта.
+     */
+    @Override
+    public String toString() {
+        StringBuilder stringBuilder = new StringBuilder("{").append(System.lineSeparator());
+        for (Map.Entry<K, V> entry : entrySet()) {
+            stringBuilder.append("\t")
+                    .append("key = ")
+                    .append(entry.getKey())
+                    .append("\t\tvalue = ")
+                    .append(entry.getValue())
+                    .append(System.lineSeparator());
+        }
+        return stringBuilder.append("}").toString();
+    }
+
+    /**
+     * Количество корзин.
+     */
+    int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Увеличивает массив корзин вдвое. Узлы переносятся по одному в
+     * начало новых корзин; узел, которому нужен другой набор полей,
+     * заменяется копией нужного класса.
+     */
+    private void resize() {
+        if (capacity >= HashMap.MAX_CAPACITY) {
+            threshold = Integer.MAX_VALUE;
+            return;
+        }
+        final int newCapacity = capacity << 1;
+        final Leaf<K, V>[] newTable = newTable(newCapacity);
+        for (Leaf<K, V> bucket : table) {
+            Leaf<K, V> node = bucket;
+            while (node != null) {
+                final Leaf<K, V> following = next(node);
+                final int hash = hashOf(node);
+                final int index = hash & (newCapacity - 1);
+                newTable[index] = relink(node, hash, newTable[index]);
+                node = following;
+            }
+        }
+        table = newTable;
+        capacity = newCapacity;
+        threshold = (int) (newCapacity * loadFactor);
+    }
+
+    /**
+     * Ставит node перед next: тот же узел, если у него подходящий класс, иначе копия.
+     */
+    private Leaf<K, V> relink(Leaf<K, V> node, int hash, Leaf<K, V> next) {
+        final boolean linked = node instanceof Link || node instanceof HashedLink;
+        if (next == null ? linked : !linked) {
+            return newNode(hash, node.key, node.value, next);
+        }
+        if (next != null) {
+            setNext(node, next);
+        }
+        return node;
+    }
+
+    private Leaf<K, V> newNode(int hash, K key, V value, Leaf<K, V> next) {
+        if (cacheHash) {
+            return next == null ? new HashedLeaf<>(hash, key, value) : new HashedLink<>(hash, key, value, next);
+        }
+        return next == null ? new Leaf<>(key, value) : new Link<>(key, value, next);
+    }
+
+    private boolean matches(Leaf<K, V> node, int hash, Object key) {
+        if (cacheHash && ((HashedLeaf<K, V>) node).hash != hash) {
+            return false;
+        }
+        final Object other = node.key;
+        return other == key || key != null && key.equals(other);
+    }
+
+    private int hashOf(Leaf<K, V> node) {
+        return cacheHash ? ((HashedLeaf<K, V>) node).hash : HashMap.spread(node.key);
+    }
+
+    static <K, V> Leaf<K, V> next(Leaf<K, V> node) {
+        if (node instanceof Link) {
+            return ((Link<K, V>) node).next;
+        }
+        if (node instanceof HashedLink) {
+            return ((HashedLink<K, V>) node).next;
+        }
+        return null;
+    }
+
+    /**
+     * Меняет next узла, у которого есть это поле.
+     */
+    private static <K, V> void setNext(Leaf<K, V> node, Leaf<K, V> next) {
+        if (node instanceof Link) {
+            ((Link<K, V>) node).next = next;
+        } else {
+            ((HashedLink<K, V>) node).next = next;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> Leaf<K, V>[] newTable(int capacity) {
+        return (Leaf<K, V>[]) new Leaf<?, ?>[capacity];
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            final Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+            final Leaf<K, V> node = getNode(entry.getKey());
+            return node != null && Objects.equals(node.value, entry.getValue());
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!contains(o)) {
+                return false;
+            }
+            CompactHashMap.this.remove(((Map.Entry<?, ?>) o).getKey());
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            CompactHashMap.this.clear();
+        }
+    }
+
+    /**
+     * Итератор по корзинам массива table.
+     */
+    private final class EntryIterator implements Iterator<Map.Entry<K, V>> {
+
+        private Leaf<K, V> next;
+        private Leaf<K, V> current;
+        private int index;
+        private int expectedModCount = modCount;
+
+        EntryIterator() {
+            advance(null);
+        }
+
+        private void advance(Leaf<K, V> from) {
+            next = from == null ? null : CompactHashMap.next(from);
+            while (next == null && table != null && index < table.length) {
+                next = table[index++];
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Map.Entry<K, V> next() {
+            if (expectedModCount != modCount) {
+                throw new ConcurrentModificationException();
+            }
+            final Leaf<K, V> node = next;
+            if (node == null) {
+                throw new NoSuchElementException();
+            }
+            current = node;
+            advance(node);
+            return node;
+        }
+
+        @Override
+        public void remove() {
+            if (current == null) {
+                throw new IllegalStateException();
+            }
+            if (expectedModCount != modCount) {
+                throw new ConcurrentModificationException();
+            }
+            CompactHashMap.this.remove(current.key);
+            current = null;
+            expectedModCount = modCount;
+        }
+    }
+}
@@ -0,0 +1,933 @@
+package map.impl;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Потокобезопасная реализация интерфейса ConcurrentMap. Устроена как
+ * HashMap: массив корзин, в каждой корзине односвязный список узлов Node.
+ * <p>
+ * Чтение не берет блокировок: массив корзин - это AtomicReferenceArray,
+ * а поля value и next узлов объявлены volatile, поэтому get() всегда видит
+ * полностью построенные узлы. Узел кладется в пустую корзину через
+ * compareAndSet. Все остальные изменения корзины выполняются под
+ * монитором первого узла корзины, так что писатели в разные корзины
+ * не мешают друг другу.
+ * <p>
+ * Массив корзин увеличивается совместно: поток, начавший увеличение,
+ * публикует объект Transfer, и каждый писатель, наткнувшийся на
+ * перенесенную корзину (ForwardingNode), забирает себе очередную порцию
+ * корзин и переносит их сам. Узлы при переносе копируются, поэтому
+ * читатели, которые в этот момент проходят по старому списку, не
+ * теряют узлов. Читатель, встретивший ForwardingNode, просто переходит
+ * в новый массив.
+ * <p>
+ * Итераторы слабо согласованы: не бросают ConcurrentModificationException
+ * и видят состояние Map на какой-то момент во время обхода. Размер
+ * хранится в LongAdder и во время параллельных изменений приблизителен.
+ * Ключи и значения null не допускаются.
+ */
+public class ConcurrentHashMap<K, V> implements ConcurrentMap<K, V> {
+
+    /**
+     * Хэш ForwardingNode. Хэши обычных узлов неотрицательны.
+     */
+    static final int MOVED = -1;
+
+    /**
+     * Маска, которая делает хэш обычного узла неотрицательным.
+     */
+    static final int HASH_BITS = 0x7fffffff;
+
+    /**
+     * Минимальное количество корзин, которое поток забирает для переноса
+     * за один раз.
+     */
+    static final int MIN_TRANSFER_STRIDE = 16;
+
+    private static final int NCPU = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Массив корзин.
+     */
+    private volatile AtomicReferenceArray<Node<K, V>> table;
+
+    /**
+     * Текущее увеличение массива корзин или null.
+     */
+    private volatile Transfer<K, V> transfer;
+
+    /**
+     * Монитор, под которым начинается и завершается увеличение массива
+     * корзин. Не участвует ни в чтении, ни в записи в корзины.
+     */
+    private final Object resizeLock = new Object();
+
+    /**
+     * Порог, пройдя который, массив корзин увеличивается вдвое.
+     */
+    private volatile int threshold;
+
+    /**
+     * Коэффициент загрузки.
+     */
+    private final double loadFactor;
+
+    /**
+     * Размер Map.
+     */
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * Актуальный Collection значений.
+     */
+    private Collection<V> valuesCollection;
+
+    /**
+     * Актуальный Set ключей.
+     */
+    private Set<K> keys;
+
+    /**
+     * Актульный Set записей пар ключ-значение.
+     */
+    private Set<Map.Entry<K, V>> entries;
+
+    /**
+     * Узел корзины. В отличие от HashMap.Node поля value и next volatile:
+     * читатели проходят по спискам без блокировок.
+     */
+    static class Node<K, V> {
+
+        final int hash;
+
+        final K key;
+
+        volatile V value;
+
+        volatile Node<K, V> next;
+
+        Node(int hash, K key, V value, Node<K, V> next) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+            this.next = next;
+        }
+    }
+
+    /**
+     * Кладется в корзину старого массива после переноса ее узлов в новый
+     * массив. Ссылается на объект Transfer, через который писатели помогают
+     * закончить перенос.
+     */
+    static final class ForwardingNode<K, V> extends Node<K, V> {
+
+        final Transfer<K, V> transfer;
+
+        ForwardingNode(Transfer<K, V> transfer) {
+            super(MOVED, null, null, null);
+            this.transfer = transfer;
+        }
+    }
+
+    /**
+     * Состояние одного увеличения массива корзин. Корзины раздаются
+     * порциями по stride, начиная с конца старого массива; поток,
+     * перенесший последнюю порцию, публикует новый массив.
+     */
+    static final class Transfer<K, V> {
+
+        final AtomicReferenceArray<Node<K, V>> oldTable;
+
+        final AtomicReferenceArray<Node<K, V>> newTable;
+
+        final ForwardingNode<K, V> forwardingNode;
+
+        /**
+         * Корзины с индексом не меньше transferIndex уже розданы.
+         */
+        final AtomicInteger transferIndex;
+
+        /**
+         * Количество перенесенных корзин.
+         */
+        final AtomicInteger transferred = new AtomicInteger();
+
+        final int stride;
+
+        Transfer(AtomicReferenceArray<Node<K, V>> oldTable) {
+            int n = oldTable.length();
+            this.oldTable = oldTable;
+            newTable = new AtomicReferenceArray<>(n * 2);
+            forwardingNode = new ForwardingNode<>(this);
+            transferIndex = new AtomicInteger(n);
+            stride = Math.max(n / (8 * NCPU), MIN_TRANSFER_STRIDE);
+        }
+    }
+
+    /**
+     * Конструктор. Инициализирует массив корзин и порог
+     * по входным аргументам.
+     *
+     * @param capacity   - начальное количество корзин.
+     * @param loadFactor - коэффициент загрузки.
+     * @throws IllegalArgumentException - если capacity отрицательный или
+     *                                  loadFactor не лежит между 0 и 1.
+     */
+    public ConcurrentHashMap(int capacity, double loadFactor) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("initial CAPACITY should be positive");
+        }
+        if (Double.compare(loadFactor, 1) > 0 || Double.compare(loadFactor, 0) < 0) {
+            throw new IllegalArgumentException("load factory should be between 0 and 1");
+        }
+        this.loadFactor = loadFactor;
+        int n = HashMap.tableSizeFromCapacity(capacity);
+        table = new AtomicReferenceArray<>(n);
+        threshold = thresholdFor(n);
+    }
+
+    /**
+     * Конструктор с коэффициентом загрузки по умолчанию.
+     *
+     * @param capacity - начальное количество корзин.
+     */
+    public ConcurrentHashMap(int capacity) {
+        this(capacity, HashMap.DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Конструктор с количеством корзин и коэффициентом загрузки по умолчанию.
+     */
+    public ConcurrentHashMap() {
+        this(HashMap.DEFAULT_CAPACITY, HashMap.DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Возвращает значение ключа key без блокировок.
+     *
+     * @param key - ключ.
+     * @return - значение или null, если ключа нет.
+     * @throws NullPointerException - если key равен null.
+     */
+    @Override
+    public V get(Object key) {
+        int hash = spread(key.hashCode());
+        AtomicReferenceArray<Node<K, V>> tab = table;
+        while (true) {
+            Node<K, V> node = tab.get(hash & (tab.length() - 1));
+            if (node instanceof ForwardingNode) {
+                tab = ((ForwardingNode<K, V>) node).transfer.newTable;
+                continue;
+            }
+            for (; node != null; node = node.next) {
+                if (node.hash == hash && (node.key == key || key.equals(node.key))) {
+                    return node.value;
+                }
+            }
+            return null;
+        }
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Добавляет пару ключ-значение. Пустая корзина заполняется через
+     * compareAndSet, непустая изменяется под монитором первого узла.
+     *
+     * @param key   - ключ.
+     * @param value - значение.
+     * @return - старое значение ключа или null, если ключа не было.
+     * @throws NullPointerException - если key или value равен null.
+     */
+    @Override
+    public V put(K key, V value) {
+        return putVal(key, value, false);
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        return putVal(key, value, true);
+    }
+
+    private V putVal(K key, V value, boolean onlyIfAbsent) {
+        if (key == null || value == null) {
+            throw new NullPointerException();
+        }
+        int hash = spread(key.hashCode());
+        AtomicReferenceArray<Node<K, V>> tab = table;
+        while (true) {
+            int index = hash & (tab.length() - 1);
+            Node<K, V> first = tab.get(index);
+            if (first == null) {
+                if (tab.compareAndSet(index, null, new Node<>(hash, key, value, null))) {
+                    break;
+                }
+            } else if (first instanceof ForwardingNode) {
+                tab = helpTransfer(((ForwardingNode<K, V>) first).transfer);
+            } else {
+                synchronized (first) {
+                    if (tab.get(index) != first) {
+                        continue;
+                    }
+                    for (Node<K, V> node = first; ; node = node.next) {
+                        if (node.hash == hash && (node.key == key || key.equals(node.key))) {
+                            V oldValue = node.value;
+                            if (!onlyIfAbsent) {
+                                node.value = value;
+                            }
+                            return oldValue;
+                        }
+                        if (node.next == null) {
+                            node.next = new Node<>(hash, key, value, null);
+                            break;
+                        }
+                    }
+                }
+                break;
+            }
+        }
+        count.increment();
+        if (count.sum() > threshold) {
+            tryResize(tab);
+        }
+        return null;
+    }
+
+    /**
+     * Вставляет все записи из входной Map.
+     *
+     * @param m - входная Map
+     */
+    @Override
+    public void putAll(Map<? extends K, ? extends V> m) {
+        for (Entry<? extends K, ? extends V> entry : m.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public V remove(Object key) {
+        return replaceNode(key, null, null);
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        if (key == null) {
+            throw new NullPointerException();
+        }
+        return value != null && replaceNode(key, null, value) != null;
+    }
+
+    @Override
+    public boolean replace(K key, V oldValue, V newValue) {
+        if (key == null || oldValue == null || newValue == null) {
+            throw new NullPointerException();
+        }
+        return replaceNode(key, newValue, oldValue) != null;
+    }
+
+    @Override
+    public V replace(K key, V value) {
+        if (key == null || value == null) {
+            throw new NullPointerException();
+        }
+        return replaceNode(key, value, null);
+    }
+
+    /**
+     * Заменяет значение ключа key на value или, если value равен null,
+     * удаляет ключ. Если expected не равен null, изменение выполняется,
+     * только когда текущее значение равно expected.
+     *
+     * @param key      - ключ.
+     * @param value    - новое значение или null для удаления.
+     * @param expected - ожидаемое значение или null.
+     * @return - старое значение, если изменение выполнено, иначе null.
+     */
+    private V replaceNode(Object key, V value, Object expected) {
+        int hash = spread(key.hashCode());
+        AtomicReferenceArray<Node<K, V>> tab = table;
+        while (true) {
+            int index = hash & (tab.length() - 1);
+            Node<K, V> first = tab.get(index);
+            if (first == null) {
+                return null;
+            }
+            if (first instanceof ForwardingNode) {
+                tab = helpTransfer(((ForwardingNode<K, V>) first).transfer);
+                continue;
+            }
+            synchronized (first) {
+                if (tab.get(index) != first) {
+                    continue;
+                }
+                Node<K, V> previous = null;
+                for (Node<K, V> node = first; node != null; previous = node, node = node.next) {
+                    if (node.hash == hash && (node.key == key || key.equals(node.key))) {
+                        V oldValue = node.value;
+                        if (expected != null && !expected.equals(oldValue)) {
+                            return null;
+                        }
+                        if (value != null) {
+                            node.value = value;
+                            return oldValue;
+                        }
+                        if (previous == null) {
+                            tab.set(index, node.next);
+                        } else {
+                            previous.next = node.next;
+                        }
+                        count.decrement();
+                        return oldValue;
+                    }
+                }
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Очищает Map. Корзины очищаются по одной под монитором первого узла.
+     */
+    @Override
+    public void clear() {
+        AtomicReferenceArray<Node<K, V>> tab = table;
+        int index = 0;
+        while (index < tab.length()) {
+            Node<K, V> first = tab.get(index);
+            if (first == null) {
+                index++;
+            } else if (first instanceof ForwardingNode) {
+                tab = helpTransfer(((ForwardingNode<K, V>) first).transfer);
+                index = 0;
+            } else {
+                synchronized (first) {
+                    if (tab.get(index) == first) {
+                        long removed = 0;
+                        for (Node<K, V> node = first; node != null; node = node.next) {
+                            removed++;
+                        }
+                        tab.set(index, null);
+                        count.add(-removed);
+                        index++;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Возвращает размер Map. Во время параллельных изменений значение
+     * приблизительно.
+     *
+     * @return размер Map.
+     */
+    @Override
+    public int size() {
+        long sum = count.sum();
+        return sum < 0 ? 0 : sum > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) sum;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return count.sum() <= 0;
+    }
+
+    /**
+     * Проверка содержания значения value обходом всех корзин.
+     *
+     * @param value - проверяемое значение.
+     * @return - true, если имеется такое значение в Map, false - обратное.
+     */
+    @Override
+    public boolean containsValue(Object value) {
+        if (value == null) {
+            throw new NullPointerException();
+        }
+        Traverser traverser = new Traverser();
+        for (Node<K, V> node; (node = traverser.advance()) != null; ) {
+            V v = node.value;
+            if (v == value || value.equals(v)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Начинает увеличение массива корзин tab или помогает уже начатому.
+     *
+     * @param tab - массив корзин, который писатель считал заполненным.
+     */
+    private void tryResize(AtomicReferenceArray<Node<K, V>> tab) {
+        Transfer<K, V> current;
+        synchronized (resizeLock) {
+            current = transfer;
+            if (current == null) {
+                if (table != tab || tab.length() >= HashMap.MAX_CAPACITY || count.sum() <= threshold) {
+                    return;
+                }
+                current = new Transfer<>(tab);
+                transfer = current;
+            }
+        }
+        helpTransfer(current);
+    }
+
+    /**
+     * Забирает и переносит порции корзин, пока они не кончатся. Поток,
+     * перенесший последнюю корзину, публикует новый массив.
+     *
+     * @param t - текущее увеличение массива корзин.
+     * @return - новый массив корзин.
+     */
+    private AtomicReferenceArray<Node<K, V>> helpTransfer(Transfer<K, V> t) {
+        int n = t.oldTable.length();
+        int high;
+        while ((high = t.transferIndex.get()) > 0) {
+            int low = Math.max(high - t.stride, 0);
+            if (!t.transferIndex.compareAndSet(high, low)) {
+                continue;
+            }
+            for (int index = high - 1; index >= low; index--) {
+                transferBin(t, index);
+            }
+            if (t.transferred.addAndGet(high - low) == n) {
+                synchronized (resizeLock) {
+                    table = t.newTable;
+                    threshold = thresholdFor(t.newTable.length());
+                    transfer = null;
+                }
+            }
+        }
+        return t.newTable;
+    }
+
+    /**
+     * Переносит корзину index в корзины index и index + n нового массива
+     * и кладет на ее место ForwardingNode. Хвост списка, который целиком
+     * уходит в одну корзину, переиспользуется, остальные узлы копируются:
+     * старые узлы остаются нетронутыми для читателей.
+     */
+    private void transferBin(Transfer<K, V> t, int index) {
+        AtomicReferenceArray<Node<K, V>> oldTable = t.oldTable;
+        int n = oldTable.length();
+        while (true) {
+            Node<K, V> first = oldTable.get(index);
+            if (first == null) {
+                if (oldTable.compareAndSet(index, null, t.forwardingNode)) {
+                    return;
+                }
+                continue;
+            }
+            synchronized (first) {
+                if (oldTable.get(index) != first) {
+                    continue;
+                }
+                Node<K, V> lastRun = first;
+                int runBit = first.hash & n;
+                for (Node<K, V> node = first.next; node != null; node = node.next) {
+                    int bit = node.hash & n;
+                    if (bit != runBit) {
+                        runBit = bit;
+                        lastRun = node;
+                    }
+                }
+                Node<K, V> low = runBit == 0 ? lastRun : null;
+                Node<K, V> high = runBit == 0 ? null : lastRun;
+                for (Node<K, V> node = first; node != lastRun; node = node.next) {
+                    if ((node.hash & n) == 0) {
+                        low = new Node<>(node.hash, node.key, node.value, low);
+                    } else {
+                        high = new Node<>(node.hash, node.key, node.value, high);
+                    }
+                }
+                t.newTable.set(index, low);
+                t.newTable.set(index + n, high);
+                oldTable.set(index, t.forwardingNode);
+                return;
+            }
+        }
+    }
+
+    private int thresholdFor(int capacity) {
+        return (int) (capacity * loadFactor);
+    }
+
+    /**
+     * Вычисляет хэш по хэш-коду ключа так же, как HashMap, и сбрасывает
+     * знаковый бит: отрицательные хэши зарезервированы за ForwardingNode.
+     */
+    static int spread(int h) {
+        return (h ^ (h >>> 16)) & HASH_BITS;
+    }
+
+    /**
+     * Метод возвращает строковое представление объекта.
+     * В каждой строчке выводится "key =" + key + "value =" + value.
+     *
+     * @return строковое представление объекта.
+     */
+    @Override
+    public String toString() {
+        StringBuilder stringBuilder = new StringBuilder("{").append(System.lineSeparator());
+        Traverser traverser = new Traverser();
+        for (Node<K, V> node; (node = traverser.advance()) != null; ) {
+            stringBuilder.append("\t")
+                    .append("key = ")
+                    .append(node.key)
+                    .append("\t\tvalue = ")
+                    .append(node.value)
+                    .append(System.lineSeparator());
+        }
+        return stringBuilder.append("}").toString();
+    }
+
+    /**
+     * Сравнивает с любой Map по контракту Map.equals.
+     *
+     * @param o - объект для сравнение с this
+     * @return true, если объекты схожие, false - в обратном случае
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Map)) return false;
+
+        Map<?, ?> other = (Map<?, ?>) o;
+
+        Traverser traverser = new Traverser();
+        for (Node<K, V> node; (node = traverser.advance()) != null; ) {
+            Object value = other.get(node.key);
+            if (value == null || !value.equals(node.value)) {
+                return false;
+            }
+        }
+        for (Map.Entry<?, ?> entry : other.entrySet()) {
+            Object key = entry.getKey();
+            Object value = entry.getValue();
+            if (key == null || value == null || !value.equals(get(key))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Вычисляет хэш код по контракту Map.hashCode.
+     *
+     * @return хэш код Map.
+     */
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        Traverser traverser = new Traverser();
+        for (Node<K, V> node; (node = traverser.advance()) != null; ) {
+            hash += node.key.hashCode() ^ node.value.hashCode();
+        }
+        return hash;
+    }
+
+    @Override
+    public Set<K> keySet() {
+        if (keys == null) {
+            keys = new KeySet();
+        }
+        return keys;
+    }
+
+    @Override
+    public Collection<V> values() {
+        if (valuesCollection == null) {
+            valuesCollection = new ValueCollection();
+        }
+        return valuesCollection;
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        if (entries == null) {
+            entries = new EntrySet();
+        }
+        return entries;
+    }
+
+    private class KeySet extends AbstractSet<K> {
+
+        @Override
+        public boolean contains(Object key) {
+            return ConcurrentHashMap.this.containsKey(key);
+        }
+
+        @Override
+        public boolean remove(Object key) {
+            return ConcurrentHashMap.this.remove(key) != null;
+        }
+
+        @Override
+        public Iterator<K> iterator() {
+            return new KeyIterator();
+        }
+
+        @Override
+        public int size() {
+            return ConcurrentHashMap.this.size();
+        }
+
+        @Override
+        public void clear() {
+            ConcurrentHashMap.this.clear();
+        }
+    }
+
+    private class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+            Object key = entry.getKey();
+            Object value = entry.getValue();
+            V current;
+            return key != null && value != null && (current = get(key)) != null && value.equals(current);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+            Object key = entry.getKey();
+            return key != null && ConcurrentHashMap.this.remove(key, entry.getValue());
+        }
+
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return ConcurrentHashMap.this.size();
+        }
+
+        @Override
+        public void clear() {
+            ConcurrentHashMap.this.clear();
+        }
+    }
+
+    private class ValueCollection extends AbstractCollection<V> {
+
+        @Override
+        public boolean contains(Object value) {
+            return ConcurrentHashMap.this.containsValue(value);
+        }
+
+        @Override
+        public Iterator<V> iterator() {
+            return new ValueIterator();
+        }
+
+        @Override
+        public int size() {
+            return ConcurrentHashMap.this.size();
+        }
+
+        @Override
+        public void clear() {
+            ConcurrentHashMap.this.clear();
+        }
+    }
+
+    /**
+     * Обход всех узлов без блокировок. Встретив ForwardingNode в корзине
+     * index массива длины n, обход переходит к корзинам index и index + n
+     * нового массива, поэтому во время увеличения массива каждый узел
+     * встречается один раз.
+     */
+    private class Traverser {
+
+        /**
+         * Массив корзин на момент создания обхода.
+         */
+        final AtomicReferenceArray<Node<K, V>> baseTable = table;
+
+        int baseIndex;
+
+        /**
+         * Отложенные корзины новых массивов, null - если их еще не было.
+         */
+        ArrayDeque<PendingBin<K, V>> pending;
+
+        Node<K, V> next;
+
+        /**
+         * Переходит к следующему узлу.
+         *
+         * @return - узел или null, если обход закончен.
+         */
+        Node<K, V> advance() {
+            if (next != null && (next = next.next) != null) {
+                return next;
+            }
+            while (true) {
+                AtomicReferenceArray<Node<K, V>> tab;
+                int index;
+                if (pending != null && !pending.isEmpty()) {
+                    PendingBin<K, V> bin = pending.pop();
+                    tab = bin.table;
+                    index = bin.index;
+                } else if (baseIndex < baseTable.length()) {
+                    tab = baseTable;
+                    index = baseIndex++;
+                } else {
+                    return null;
+                }
+                Node<K, V> first = tab.get(index);
+                if (first instanceof ForwardingNode) {
+                    AtomicReferenceArray<Node<K, V>> newTable = ((ForwardingNode<K, V>) first).transfer.newTable;
+                    if (pending == null) {
+                        pending = new ArrayDeque<>();
+                    }
+                    pending.push(new PendingBin<>(newTable, index + tab.length()));
+                    pending.push(new PendingBin<>(newTable, index));
+                } else if (first != null) {
+                    return next = first;
+                }
+            }
+        }
+    }
+
+    private static final class PendingBin<K, V> {
+
+        final AtomicReferenceArray<Node<K, V>> table;
+
+        final int index;
+
+        PendingBin(AtomicReferenceArray<Node<K, V>> table, int index) {
+            this.table = table;
+            this.index = index;
+        }
+    }
+
+    /**
+     * Запись, которую возвращает итератор entrySet(). setValue() записывает
+     * значение в Map через put().
+     */
+    private final class MapEntry implements Map.Entry<K, V> {
+
+        private final K key;
+        private V value;
+
+        MapEntry(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V value) {
+            if (value == null) {
+                throw new NullPointerException();
+            }
+            V oldValue = this.value;
+            this.value = value;
+            put(key, value);
+            return oldValue;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Map.Entry)) return false;
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+            return key.equals(entry.getKey()) && value.equals(entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode() ^ value.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+
+    private abstract class BaseIterator {
+
+        final Traverser traverser = new Traverser();
+
+        Node<K, V> nextNode = traverser.advance();
+
+        Node<K, V> lastReturned;
+
+        public boolean hasNext() {
+            return nextNode != null;
+        }
+
+        Node<K, V> nextNode() {
+            Node<K, V> node = nextNode;
+            if (node == null) {
+                throw new NoSuchElementException();
+            }
+            lastReturned = node;
+            nextNode = traverser.advance();
+            return node;
+        }
+
+        public void remove() {
+            if (lastReturned == null) {
+                throw new IllegalStateException();
+            }
+            ConcurrentHashMap.this.remove(lastReturned.key);
+            lastReturned = null;
+        }
+    }
+
+    private class KeyIterator extends BaseIterator implements Iterator<K> {
+
+        @Override
+        public K next() {
+            return nextNode().key;
+        }
+    }
+
+    private class ValueIterator extends BaseIterator implements Iterator<V> {
+
+        @Override
+        public V next() {
+            return nextNode().value;
+        }
+    }
+
+    private class EntryIterator extends BaseIterator implements Iterator<Map.Entry<K, V>> {
+
+        @Override
+        public Map.Entry<K, V> next() {
+            Node<K, V> node = nextNode();
+            return new MapEntry(node.key, node.value);
+        }
+    }
+}
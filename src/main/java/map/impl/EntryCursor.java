@@ -0,0 +1,63 @@
+package map.impl;
+
+/**
+ * Курсор по парам Map без создания объектов на каждую пару: вместо
+ * Map.Entry курсор сам указывает на текущую пару.
+ * <pre>
+ * EntryCursor&lt;K, V&gt; cursor = map.cursor();
+ * while (cursor.advance()) {
+ *     use(cursor.key(), cursor.value());
+ * }
+ * cursor.reset();
+ * </pre>
+ * После reset() курсор снова стоит перед первой парой, поэтому один
+ * курсор можно переиспользовать для многих проходов.
+ *
+ * @param <K> - тип ключей.
+ * @param <V> - тип значений.
+ */
+public interface EntryCursor<K, V> {
+
+    /**
+     * Переходит к следующей паре.
+     *
+     * @return - true, если пара есть, false - если пары закончились.
+     * @throws java.util.ConcurrentModificationException - если Map изменилась
+     *                                                   не через этот курсор.
+     */
+    boolean advance();
+
+    /**
+     * @return - ключ текущей пары.
+     * @throws IllegalStateException - если текущей пары нет.
+     */
+    K key();
+
+    /**
+     * @return - значение текущей пары.
+     * @throws IllegalStateException - если текущей пары нет.
+     */
+    V value();
+
+    /**
+     * Заменяет значение текущей пары.
+     *
+     * @param value - новое значение.
+     * @return - старое значение.
+     * @throws IllegalStateException - если текущей пары нет.
+     */
+    V setValue(V value);
+
+    /**
+     * Удаляет текущую пару из Map. Следующий advance() переходит к паре,
+     * которая шла за удаленной.
+     *
+     * @throws IllegalStateException - если текущей пары нет или она уже удалена.
+     */
+    void remove();
+
+    /**
+     * Возвращает курсор в положение перед первой парой.
+     */
+    void reset();
+}
@@ -0,0 +1,271 @@
+package map.impl;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * HashMap, пары которой устаревают через заданное время после записи
+ * (expireAfterWrite) и/или после последнего обращения (expireAfterAccess).
+ * Время жизни отдельной пары можно задать в put(key, value, timeToLive).
+ * <p>
+ * Устаревшие пары удаляются двумя способами:
+ * <ul>
+ * <li>лениво: поиск ключа проверяет срок найденного узла и удаляет его,
+ * если срок истек, поэтому get() и containsKey() никогда не возвращают
+ * устаревшее значение;</li>
+ * <li>порциями: узлы со сроком лежат в иерархическом колесе таймеров
+ * TimerWheel, и каждая операция записи или успешного чтения проворачивает
+ * колесо до текущего времени, удаляя узлы только из прошедших корзин
+ * колеса, без полного обхода Map.</li>
+ * </ul>
+ * Пока колесо не провернулось, size() и обход Map могут включать уже
+ * устаревшие пары; cleanUp() удаляет их сразу. Поиск ключа может удалить
+ * пару, поэтому во время обхода Map удалять пары нужно через итератор
+ * или курсор, а не get().
+ * <p>
+ * Время берется из Ticker, что позволяет подменить часы в тестах.
+ * Как и HashMap, класс не потокобезопасен.
+ */
+public class ExpiringHashMap<K, V> extends HashMap<K, V> {
+
+    /**
+     * Источник времени в наносекундах. Значения сравниваются только по
+     * разности, как у System.nanoTime().
+     */
+    @FunctionalInterface
+    public interface Ticker {
+
+        Ticker SYSTEM = System::nanoTime;
+
+        long read();
+    }
+
+    /**
+     * Срок, который никогда не наступает.
+     */
+    static final long NEVER = Long.MAX_VALUE;
+
+    /**
+     * Сроки дальше MAX_DURATION считаются бесконечными, чтобы разность
+     * двух моментов времени не переполнялась.
+     */
+    static final long MAX_DURATION = Long.MAX_VALUE >> 1;
+
+    /**
+     * Узел со сроком жизни и связями корзины колеса таймеров.
+     */
+    static final class ExpiringNode<K, V> extends Node<K, V> {
+
+        /**
+         * Срок, заданный последней записью.
+         */
+        long writeDeadline;
+
+        /**
+         * Момент устаревания: ранний из срока записи и срока обращения.
+         */
+        long expiresAt;
+
+        ExpiringNode<K, V> previousInTimer;
+        ExpiringNode<K, V> nextInTimer;
+
+        ExpiringNode(int hash, K key, V value, Node<K, V> next) {
+            super(hash, key, value, next);
+        }
+    }
+
+    private final Ticker ticker;
+
+    private final long expireAfterWrite;
+
+    private final long expireAfterAccess;
+
+    /**
+     * Время жизни для текущей записи: expireAfterWrite или значение из
+     * put(key, value, timeToLive).
+     */
+    private long writeTimeToLive;
+
+    /**
+     * true, если put() заменил значение устаревшего узла.
+     */
+    private boolean replacedExpired;
+
+    /**
+     * Создается при первом узле со сроком.
+     */
+    private TimerWheel<K, V> timerWheel;
+
+    private final Consumer<ExpiringNode<K, V>> expiration = node -> removeNode(node.hash, node.key);
+
+    /**
+     * Map, пары которой устаревают через expireAfterWrite после записи.
+     *
+     * @param expireAfterWrite - время жизни пары после записи.
+     */
+    public ExpiringHashMap(Duration expireAfterWrite) {
+        this(expireAfterWrite, null, Ticker.SYSTEM);
+    }
+
+    /**
+     * @param expireAfterWrite  - время жизни пары после записи или null, если не ограничено.
+     * @param expireAfterAccess - время жизни пары после обращения или null, если не ограничено.
+     * @param ticker            - источник времени.
+     * @throws IllegalArgumentException - если срок отрицательный.
+     */
+    public ExpiringHashMap(Duration expireAfterWrite, Duration expireAfterAccess, Ticker ticker) {
+        this.expireAfterWrite = toNanos(expireAfterWrite);
+        this.expireAfterAccess = toNanos(expireAfterAccess);
+        this.ticker = Objects.requireNonNull(ticker);
+        this.writeTimeToLive = this.expireAfterWrite;
+    }
+
+    /**
+     * Добавляет или заменяет пару со сроком expireAfterWrite.
+     *
+     * @return - прежнее значение или null, если ключа не было или его пара устарела.
+     */
+    @Override
+    public V put(K key, V value) {
+        return put(key, value, expireAfterWrite);
+    }
+
+    /**
+     * Добавляет или заменяет пару, которая устареет через timeToLive
+     * вместо expireAfterWrite. Срок после обращения, если он задан,
+     * действует как обычно.
+     *
+     * @param timeToLive - время жизни пары или null, если не ограничено.
+     * @return - прежнее значение или null, если ключа не было или его пара устарела.
+     * @throws IllegalArgumentException - если timeToLive отрицательный.
+     */
+    public V put(K key, V value, Duration timeToLive) {
+        return put(key, value, toNanos(timeToLive));
+    }
+
+    private V put(K key, V value, long timeToLive) {
+        writeTimeToLive = timeToLive;
+        replacedExpired = false;
+        try {
+            final V oldValue = super.put(key, value);
+            return replacedExpired ? null : oldValue;
+        } finally {
+            writeTimeToLive = expireAfterWrite;
+        }
+    }
+
+    /**
+     * Удаляет все устаревшие пары.
+     */
+    public void cleanUp() {
+        if (timerWheel != null) {
+            timerWheel.advance(ticker.read(), expiration);
+        }
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        timerWheel = null;
+    }
+
+    @Override
+    Node<K, V> newNode(int hash, K key, V value, Node<K, V> next) {
+        final ExpiringNode<K, V> node = new ExpiringNode<>(hash, key, value, next);
+        final long now = ticker.read();
+        node.writeDeadline = deadline(now, writeTimeToLive);
+        node.expiresAt = earliest(node.writeDeadline, deadline(now, expireAfterAccess));
+        schedule(node, now);
+        return node;
+    }
+
+    @Override
+    boolean validateNode(Node<K, V> node) {
+        if (isExpired((ExpiringNode<K, V>) node, ticker.read())) {
+            removeNode(node.hash, node.key);
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    boolean isLive(Node<K, V> node) {
+        return !isExpired((ExpiringNode<K, V>) node, ticker.read());
+    }
+
+    @Override
+    void afterNodeAccess(Node<K, V> node) {
+        if (expireAfterAccess != NEVER) {
+            final ExpiringNode<K, V> expiringNode = (ExpiringNode<K, V>) node;
+            final long now = ticker.read();
+            expiringNode.expiresAt = earliest(expiringNode.writeDeadline, deadline(now, expireAfterAccess));
+            reschedule(expiringNode, now);
+        }
+        cleanUp();
+    }
+
+    @Override
+    void afterNodeUpdate(Node<K, V> node, V oldValue) {
+        final ExpiringNode<K, V> expiringNode = (ExpiringNode<K, V>) node;
+        final long now = ticker.read();
+        replacedExpired = isExpired(expiringNode, now);
+        expiringNode.writeDeadline = deadline(now, writeTimeToLive);
+        expiringNode.expiresAt = earliest(expiringNode.writeDeadline, deadline(now, expireAfterAccess));
+        reschedule(expiringNode, now);
+        cleanUp();
+    }
+
+    @Override
+    void afterNodeInsertion() {
+        cleanUp();
+    }
+
+    @Override
+    void afterNodeRemoval(Node<K, V> node) {
+        TimerWheel.unlink((ExpiringNode<K, V>) node);
+    }
+
+    private void schedule(ExpiringNode<K, V> node, long now) {
+        if (node.expiresAt == NEVER) {
+            return;
+        }
+        if (timerWheel == null) {
+            timerWheel = new TimerWheel<>(now);
+        }
+        timerWheel.schedule(node);
+    }
+
+    private void reschedule(ExpiringNode<K, V> node, long now) {
+        TimerWheel.unlink(node);
+        schedule(node, now);
+    }
+
+    static boolean isExpired(ExpiringNode<?, ?> node, long now) {
+        return node.expiresAt != NEVER && node.expiresAt - now <= 0;
+    }
+
+    private static long deadline(long now, long duration) {
+        return duration == NEVER ? NEVER : now + duration;
+    }
+
+    private static long earliest(long first, long second) {
+        if (first == NEVER) {
+            return second;
+        }
+        if (second == NEVER) {
+            return first;
+        }
+        return first - second <= 0 ? first : second;
+    }
+
+    private static long toNanos(Duration duration) {
+        if (duration == null) {
+            return NEVER;
+        }
+        if (duration.isNegative()) {
+            throw new IllegalArgumentException("duration should not be negative");
+        }
+        return duration.compareTo(Duration.ofNanos(MAX_DURATION)) >= 0 ? NEVER : duration.toNanos();
+    }
+}
@@ -0,0 +1,566 @@
+package map.impl;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Неизменяемая Map для данных, которые строятся один раз и затем только
+ * читаются. Ключи раскладываются совершенной хэш-функцией по схеме CHD
+ * (compress, hash and displace): n пар занимают n / LOAD_FACTOR ячеек
+ * плоского массива table, где ключ и значение лежат рядом, и поиск
+ * любого ключа проверяет ровно одну ячейку.
+ * <p>
+ * Ключи делятся на корзины примерно по BUCKET_SIZE ключей. Для каждой
+ * корзины при построении подбирается смещение displacement[bucket]:
+ * номер варианта хэш-функции ячейки, при котором все ключи корзины
+ * попадают в разные свободные ячейки. Корзины обрабатываются от больших
+ * к меньшим, пока массив еще пустой. Поиск читает смещение своей
+ * корзины и сразу вычисляет ячейку.
+ * <p>
+ * Ключи с одинаковым хэшем ни одно смещение не разделяет. Такие ключи,
+ * кроме первого в корзине, кладутся в дополнительную HashMap overflow,
+ * и поиск проверяет ее, если ключ в ячейке не совпал. При хорошем хэше
+ * overflow нет; при массовых коллизиях hashCode() стоит задать
+ * HashingStrategies.seeded().
+ * <p>
+ * Все поля final и после конструктора не меняются, поэтому экземпляр
+ * можно передавать между потоками без синхронизации. Изменяющие методы
+ * бросают UnsupportedOperationException, счетчика изменений нет. Ключ
+ * null хранится как объект-заглушка NULL_KEY.
+ */
+public final class FrozenHashMap<K, V> extends AbstractMap<K, V> {
+
+    /**
+     * Среднее количество ключей в корзине: массив смещений занимает
+     * одну четверть int на пару.
+     */
+    static final int BUCKET_SIZE = 4;
+
+    /**
+     * Доля занятых ячеек table. Если ячеек ровно n, последним корзинам из
+     * одного ключа остается несколько свободных ячеек, и каждой нужно около
+     * n смещений: построение растет квадратично. При 1% свободных ячеек
+     * корзине хватает в среднем сотни смещений.
+     */
+    static final double LOAD_FACTOR = 0.99;
+
+    /**
+     * Количество смещений, после которого ключи корзины уходят в
+     * overflow. При различных хэшах и свободных ячейках LOAD_FACTOR
+     * смещение находится на много порядков раньше.
+     */
+    static final int MAX_DISPLACEMENT = 1 << 24;
+
+    /**
+     * Заглушка, которая хранится в table вместо ключа null.
+     */
+    private static final Object NULL_KEY = new Object();
+
+    /**
+     * Ключи и значения: ключ ячейки slot - table[2 * slot], значение -
+     * table[2 * slot + 1]. Около 1% ячеек остаются без ключа.
+     */
+    private final Object[] table;
+
+    /**
+     * Перемешанный хэш ключа каждой ячейки. Промах поиска обычно
+     * заканчивается сравнением хэшей, без чтения ключа из памяти.
+     */
+    private final int[] fingerprints;
+
+    /**
+     * Смещение каждой корзины.
+     */
+    private final int[] displacement;
+
+    /**
+     * Пары с неразделимыми хэшами или null.
+     */
+    private final HashMap<K, V> overflow;
+
+    /**
+     * Стратегия хэширования и сравнения ключей или null.
+     */
+    private final HashingStrategy<Object> strategy;
+
+    private final int size;
+
+    private final Set<Map.Entry<K, V>> entries = new EntrySet();
+
+    /**
+     * Строит неизменяемую копию m.
+     *
+     * @param m        - входная Map.
+     * @param strategy - хэширование и сравнение ключей или null.
+     * @throws ConcurrentModificationException - если m изменилась во время копирования.
+     */
+    FrozenHashMap(Map<? extends K, ? extends V> m, HashingStrategy<Object> strategy) {
+        this.strategy = strategy;
+        final int n = m.size();
+        final Object[] keys = new Object[n];
+        final Object[] values = new Object[n];
+        final int[] hashes = new int[n];
+        int count = 0;
+        for (Map.Entry<? extends K, ? extends V> entry : m.entrySet()) {
+            if (count == n) {
+                throw new ConcurrentModificationException();
+            }
+            keys[count] = entry.getKey();
+            values[count] = entry.getValue();
+            hashes[count] = HashingStrategies.mix(hash(entry.getKey()));
+            count++;
+        }
+        if (count != n) {
+            throw new ConcurrentModificationException();
+        }
+        size = n;
+        final int slots = n == 0 ? 0 : (int) Math.ceil(n / LOAD_FACTOR);
+        table = new Object[2 * slots];
+        fingerprints = new int[slots];
+        displacement = new int[Math.max(1, (n + BUCKET_SIZE - 1) / BUCKET_SIZE)];
+        overflow = place(keys, values, hashes);
+    }
+
+    /**
+     * Неизменяемая копия m, ключи хэшируются и сравниваются своими
+     * hashCode() и equals().
+     *
+     * @param m - входная Map.
+     * @return - неизменяемая Map.
+     */
+    public static <K, V> FrozenHashMap<K, V> copyOf(Map<? extends K, ? extends V> m) {
+        return new FrozenHashMap<>(m, null);
+    }
+
+    /**
+     * Неизменяемая копия m с заданной стратегией хэширования ключей.
+     * Ключи m должны быть различны и по стратегии.
+     *
+     * @param m        - входная Map.
+     * @param strategy - хэширование и сравнение ключей, см. HashingStrategies.
+     * @return - неизменяемая Map.
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> FrozenHashMap<K, V> copyOf(Map<? extends K, ? extends V> m,
+                                                    HashingStrategy<? super K> strategy) {
+        return new FrozenHashMap<>(m, (HashingStrategy<Object>) Objects.requireNonNull(strategy));
+    }
+
+    /**
+     * Раскладывает пары по ячейкам table и заполняет displacement.
+     *
+     * @return - HashMap пар, которые не удалось разложить, или null.
+     */
+    @SuppressWarnings("unchecked")
+    private HashMap<K, V> place(Object[] keys, Object[] values, int[] hashes) {
+        final int n = keys.length;
+        final int buckets = displacement.length;
+        // сортировка ключей по корзинам подсчетом: ключи корзины b -
+        // order[start[b]] .. order[start[b + 1] - 1]
+        final int[] start = new int[buckets + 1];
+        final int[] bucketOf = new int[n];
+        int largest = 0;
+        for (int i = 0; i < n; i++) {
+            bucketOf[i] = bucket(hashes[i], buckets);
+            largest = Math.max(largest, ++start[bucketOf[i] + 1]);
+        }
+        for (int b = 0; b < buckets; b++) {
+            start[b + 1] += start[b];
+        }
+        final int[] order = new int[n];
+        final int[] fill = start.clone();
+        for (int i = 0; i < n; i++) {
+            order[fill[bucketOf[i]]++] = i;
+        }
+        // корзины от больших к меньшим, тоже подсчетом
+        final int[] bySize = new int[largest + 2];
+        for (int b = 0; b < buckets; b++) {
+            bySize[largest - (start[b + 1] - start[b]) + 1]++;
+        }
+        for (int s = 0; s <= largest; s++) {
+            bySize[s + 1] += bySize[s];
+        }
+        final int[] bucketOrder = new int[buckets];
+        for (int b = 0; b < buckets; b++) {
+            bucketOrder[bySize[largest - (start[b + 1] - start[b])]++] = b;
+        }
+
+        HashMap<K, V> rest = null;
+        // занятые ячейки: битовый массив в 64 раза меньше table остается в
+        // кэше процессора, пока перебираются смещения
+        final long[] taken = new long[(fingerprints.length + 63) >>> 6];
+        final int[] members = new int[largest];
+        final int[] slots = new int[largest];
+        for (int b : bucketOrder) {
+            int length = 0;
+            for (int j = start[b]; j < start[b + 1]; j++) {
+                final int i = order[j];
+                if (hasHash(hashes, members, length, hashes[i])) {
+                    rest = addOverflow(rest, keys[i], values[i]);
+                } else {
+                    members[length++] = i;
+                }
+            }
+            if (length == 0) {
+                continue;
+            }
+            final int d = findDisplacement(hashes, members, length, slots, taken);
+            if (d < 0) {
+                for (int j = 0; j < length; j++) {
+                    rest = addOverflow(rest, keys[members[j]], values[members[j]]);
+                }
+                continue;
+            }
+            displacement[b] = d;
+            for (int j = 0; j < length; j++) {
+                taken[slots[j] >>> 6] |= 1L << slots[j];
+                fingerprints[slots[j]] = hashes[members[j]];
+                table[2 * slots[j]] = maskNull(keys[members[j]]);
+                table[2 * slots[j] + 1] = values[members[j]];
+            }
+        }
+        return rest;
+    }
+
+    /**
+     * Подбирает смещение, при котором ключи members[0 .. length) попадают
+     * в разные свободные ячейки, и записывает эти ячейки в slots.
+     *
+     * @return - смещение или -1, если его не нашлось за MAX_DISPLACEMENT попыток.
+     */
+    private int findDisplacement(int[] hashes, int[] members, int length, int[] slots, long[] taken) {
+        final int n = fingerprints.length;
+        next:
+        for (int d = 0; d < MAX_DISPLACEMENT; d++) {
+            for (int j = 0; j < length; j++) {
+                final int slot = slot(hashes[members[j]], d, n);
+                if ((taken[slot >>> 6] & (1L << slot)) != 0) {
+                    continue next;
+                }
+                for (int k = 0; k < j; k++) {
+                    if (slots[k] == slot) {
+                        continue next;
+                    }
+                }
+                slots[j] = slot;
+            }
+            return d;
+        }
+        return -1;
+    }
+
+    private static boolean hasHash(int[] hashes, int[] members, int length, int hash) {
+        for (int j = 0; j < length; j++) {
+            if (hashes[members[j]] == hash) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private HashMap<K, V> addOverflow(HashMap<K, V> rest, Object key, Object value) {
+        if (rest == null) {
+            rest = new HashMap<>(HashMap.DEFAULT_CAPACITY, HashMap.DEFAULT_LOAD_FACTOR, HashMap.ResizeMode.EAGER,
+                    strategy == null ? HashingStrategies.DEFAULT : strategy);
+        }
+        rest.put((K) key, (V) value);
+        return rest;
+    }
+
+    /**
+     * Корзина перемешанного хэша: его старшие биты, умноженные на
+     * количество корзин, без деления по модулю.
+     */
+    static int bucket(int mixed, int buckets) {
+        return reduce(mixed, buckets);
+    }
+
+    /**
+     * Ячейка перемешанного хэша при смещении d. Для каждого d это своя
+     * хэш-функция, а различные хэши до свертки в [0, slots) дают
+     * различные значения: xor и умножение на нечетное число обратимы.
+     * Одно умножение вместо второго перемешивания - поиск выполняет эту
+     * функцию на каждом вызове.
+     */
+    static int slot(int mixed, int d, int slots) {
+        return reduce((mixed ^ d * 0x9E3779B9) * 0x85EBCA6B, slots);
+    }
+
+    private static int reduce(int x, int n) {
+        return (int) (((x & 0xFFFFFFFFL) * n) >>> 32);
+    }
+
+    /**
+     * Индекс ключа key в table или -1, если ключ не в table.
+     */
+    private int indexOf(Object key) {
+        if (size == 0) {
+            return -1;
+        }
+        final int mixed = HashingStrategies.mix(hash(key));
+        final int slot = slot(mixed, displacement[bucket(mixed, displacement.length)], fingerprints.length);
+        if (fingerprints[slot] != mixed) {
+            return -1;
+        }
+        final Object stored = table[2 * slot];
+        return stored != null && keysEqual(key, stored) ? 2 * slot : -1;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        final int index = indexOf(key);
+        if (index >= 0) {
+            return (V) table[index + 1];
+        }
+        return overflow == null ? null : overflow.get(key);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V getOrDefault(Object key, V defaultValue) {
+        final int index = indexOf(key);
+        if (index >= 0) {
+            return (V) table[index + 1];
+        }
+        return overflow == null ? defaultValue : overflow.getOrDefault(key, defaultValue);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0 || overflow != null && overflow.containsKey(key);
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        for (int i = 0; i < table.length; i += 2) {
+            if (table[i] != null && Objects.equals(value, table[i + 1])) {
+                return true;
+            }
+        }
+        return overflow != null && overflow.containsValue(value);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        for (int i = 0; i < table.length; i += 2) {
+            if (table[i] != null) {
+                action.accept(unmaskNull(table[i]), (V) table[i + 1]);
+            }
+        }
+        if (overflow != null) {
+            overflow.forEach(action);
+        }
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        return entries;
+    }
+
+    /**
+     * Количество пар в overflow.
+     */
+    int overflowSize() {
+        return overflow == null ? 0 : overflow.size();
+    }
+
+    /**
+     * Наибольшее смещение среди корзин: сколько вариантов хэш-функции
+     * перебрала самая трудная корзина при построении.
+     */
+    int maxDisplacement() {
+        int max = 0;
+        for (int d : displacement) {
+            max = Math.max(max, d);
+        }
+        return max;
+    }
+
+    @Override
+    public V put(K key, V value) {
+        throw immutable();
+    }
+
+    @Override
+    public V remove(Object key) {
+        throw immutable();
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> m) {
+        throw immutable();
+    }
+
+    @Override
+    public void clear() {
+        throw immutable();
+    }
+
+    @Override
+    public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+        throw immutable();
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        throw immutable();
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        throw immutable();
+    }
+
+    @Override
+    public boolean replace(K key, V oldValue, V newValue) {
+        throw immutable();
+    }
+
+    @Override
+    public V replace(K key, V value) {
+        throw immutable();
+    }
+
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        throw immutable();
+    }
+
+    @Override
+    public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        throw immutable();
+    }
+
+    @Override
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        throw immutable();
+    }
+
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        throw immutable();
+    }
+
+    private static UnsupportedOperationException immutable() {
+        return new UnsupportedOperationException("frozen map is immutable");
+    }
+
+    private int hash(Object key) {
+        if (key == null) {
+            return 0;
+        }
+        return strategy == null ? key.hashCode() : strategy.hashCode(key);
+    }
+
+    /**
+     * @param key    - искомый ключ.
+     * @param stored - ключ ячейки, null заменен на NULL_KEY.
+     */
+    private boolean keysEqual(Object key, Object stored) {
+        if (key == null) {
+            return stored == NULL_KEY;
+        }
+        if (key == stored) {
+            return true;
+        }
+        if (stored == NULL_KEY) {
+            return false;
+        }
+        return strategy == null ? key.equals(stored) : strategy.equals(key, stored);
+    }
+
+    private static Object maskNull(Object key) {
+        return key == null ? NULL_KEY : key;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K> K unmaskNull(Object k) {
+        return k == NULL_KEY ? null : (K) k;
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            final Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+            return containsKey(entry.getKey()) && Objects.equals(get(entry.getKey()), entry.getValue());
+        }
+    }
+
+    /**
+     * Итератор по ячейкам table, затем по overflow. remove() не поддерживается.
+     */
+    private final class EntryIterator implements Iterator<Map.Entry<K, V>> {
+
+        private int index = advance(0);
+        private Iterator<Map.Entry<K, V>> rest;
+
+        private int advance(int from) {
+            while (from < table.length && table[from] == null) {
+                from += 2;
+            }
+            return from;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (index < table.length) {
+                return true;
+            }
+            if (rest == null && overflow != null) {
+                rest = overflow.entrySet().iterator();
+            }
+            return rest != null && rest.hasNext();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Map.Entry<K, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (index < table.length) {
+                final Map.Entry<K, V> entry = new SimpleImmutableEntry<>(unmaskNull(table[index]), (V) table[index + 1]);
+                index = advance(index + 2);
+                return entry;
+            }
+            return new SimpleImmutableEntry<>(rest.next());
+        }
+    }
+}
@@ -3,7 +3,16 @@ package map.impl;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Реализация интерфейса Map. Пары ключ-значение лежат в определенных
@@ -12,7 +21,15 @@ import java.util.*;
  * вычисляется хэш ключа, которая будет удовлетворять только одной корзине
  * по диапозону хэша корзины. В эту корзину и кладется новая пара.
  * Если пар ключ-значение больше единицы в одной корзине, они выстраиваются
- * в односвязный список.
+ * в односвязный список. Если список становится длиннее TREEIFY_THRESHOLD,
+ * корзина превращается в красно-черное дерево TreeBin, и поиск в ней
+ * занимает O(log n) даже при массовых коллизиях хэшей.
+ * В режиме ResizeMode.INCREMENTAL массив корзин увеличивается постепенно:
+ * старый и новый массивы существуют одновременно, и каждая операция put,
+ * get и remove переносит в новый массив MIGRATION_STEP корзин.
+ * После setMinLoadFactor() массив корзин уменьшается, когда remove()
+ * оставляет меньше capacity * minLoadFactor пар; trimToSize() и
+ * ensureCapacity() перестраивают массив явно.
  */
 public class HashMap<K, V> implements Map<K, V> {
 
@@ -20,23 +37,101 @@ public class HashMap<K, V> implements Map<K, V> {
      * Количество корзин по умолчанию, если не введен начальный
      * размер.
      */
-    private final static int DEFAULT_CAPACITY = 16;
+    final static int DEFAULT_CAPACITY = 16;
 
     /**
      * Максимально допустимое количество корзин.
      */
-    private final static int MAX_CAPACITY = 1 << 30;
+    final static int MAX_CAPACITY = 1 << 30;
 
     /**
      * Коэффициент загрузки по умолчанию.
      */
-    private final static double DEFAULT_LOAD_FACTOR = 0.75;
+    final static double DEFAULT_LOAD_FACTOR = 0.75;
+
+    /**
+     * Длина списка в корзине, превысив которую, корзина превращается
+     * в дерево.
+     */
+    static final int TREEIFY_THRESHOLD = 8;
+
+    /**
+     * Размер дерева, при котором корзина превращается обратно в список.
+     * Меньше TREEIFY_THRESHOLD, чтобы корзина не перестраивалась на
+     * каждой вставке и удалении около порога.
+     */
+    static final int UNTREEIFY_THRESHOLD = 6;
+
+    /**
+     * Минимальное количество корзин, при котором длинные списки
+     * превращаются в деревья. При меньшем количестве корзин вместо этого
+     * массив корзин увеличивается вдвое.
+     */
+    static final int MIN_TREEIFY_CAPACITY = 64;
+
+    /**
+     * Количество корзин старого массива, которые переносятся в новый
+     * массив за одну операцию put, get или remove в режиме
+     * ResizeMode.INCREMENTAL. При коэффициенте загрузки 0.75 перенос
+     * заканчивается задолго до следующего увеличения массива.
+     */
+    static final int MIGRATION_STEP = 4;
+
+    /**
+     * Способ увеличения массива корзин.
+     */
+    public enum ResizeMode {
+
+        /**
+         * Все узлы переносятся в новый массив сразу, внутри put(),
+         * который превысил порог. Такой put занимает O(n).
+         */
+        EAGER,
+
+        /**
+         * Узлы переносятся порциями по MIGRATION_STEP корзин на каждой
+         * операции put, get и remove. Ни одна операция не переносит
+         * больше нескольких корзин, поэтому нет долгих пауз. Пока идет
+         * перенос, поиск проверяет оба массива, а get() изменяет
+         * внутреннее устройство Map.
+         */
+        INCREMENTAL
+    }
 
     /**
      * Массив корзин
      */
     private Node<K, V>[] table;
 
+    /**
+     * Старый массив корзин, из которого идет постепенный перенос узлов,
+     * или null, если переноса нет. Перенесенные корзины обнуляются.
+     */
+    private Node<K, V>[] oldTable;
+
+    /**
+     * Индекс следующей корзины oldTable для переноса.
+     */
+    private int migrateIndex;
+
+    /**
+     * Способ увеличения массива корзин.
+     */
+    private final ResizeMode resizeMode;
+
+    /**
+     * Стратегия хэширования и сравнения ключей или null, если ключи
+     * хэшируются и сравниваются сами. Путь без стратегии проверяется
+     * первым, поэтому HashMap без стратегии не делает виртуальных вызовов.
+     */
+    private final HashingStrategy<Object> strategy;
+
+    /**
+     * Пустой массив корзин для обхода HashMap, у которой массив еще не создан.
+     */
+    @SuppressWarnings("rawtypes")
+    private static final Node[] EMPTY_TABLE = new Node[0];
+
     /**
      * Количество корзин
      */
@@ -48,6 +143,24 @@ public class HashMap<K, V> implements Map<K, V> {
      */
     private int threshold;
 
+    /**
+     * Коэффициент загрузки.
+     */
+    private final double loadFactor;
+
+    /**
+     * Нижний коэффициент загрузки: если после удаления пар меньше
+     * capacity * minLoadFactor, массив корзин уменьшается. 0 - массив
+     * автоматически не уменьшается.
+     */
+    private double minLoadFactor;
+
+    /**
+     * Количество корзин, меньше которого массив не уменьшается
+     * автоматически: начальное или заданное ensureCapacity().
+     */
+    private int reservedCapacity;
+
     /**
      * Размер HashMap.
      */
@@ -79,9 +192,11 @@ public class HashMap<K, V> implements Map<K, V> {
      * на следующую пару, за счет чего обеспечивает построение
      * связанного списка в корзине, каждый элемент которого будем
      * называть узлом.
+     * Подклассы HashMap могут хранить в наследниках Node свои данные,
+     * см. newNode().
      */
     @AllArgsConstructor
-    private static class Node<K, V> implements Map.Entry<K, V> {
+    static class Node<K, V> implements Map.Entry<K, V> {
 
         /**
          * Поле хранит хэш ключа key.
@@ -140,23 +255,578 @@ public class HashMap<K, V> implements Map<K, V> {
         }
     }
 
+    /**
+     * Корзина в виде красно-черного дерева. Кладется в массив корзин вместо
+     * головы списка. Узлы Node корзины не заменяются: дерево строится из
+     * оберток TreeNode, которые ссылаются на узлы. Сами узлы продолжают
+     * образовывать односвязный список через поле next в том же порядке,
+     * что и обертки, поэтому итерация и перестроение массива корзин
+     * проходят по корзине-дереву так же, как по обычному списку.
+     * Узлы упорядочены по хэшу, при равных хэшах - через Comparable, если
+     * ключи его поддерживают.
+     */
+    private static final class TreeBin<K, V> extends Node<K, V> {
+
+        /**
+         * Корень дерева.
+         */
+        TreeNode<K, V> root;
+
+        /**
+         * Первая обертка в порядке списка. first.node - голова списка узлов.
+         */
+        TreeNode<K, V> first;
+
+        /**
+         * Количество узлов в корзине.
+         */
+        int size;
+
+        /**
+         * Стратегия сравнения ключей HashMap или null для equals().
+         */
+        final HashingStrategy<Object> strategy;
+
+        /**
+         * true, если ключи с равными хэшами можно упорядочить через
+         * Comparable: это верно, только если равенство ключей - equals().
+         */
+        final boolean ordered;
+
+        /**
+         * Строит дерево из списка узлов, сохраняя порядок списка.
+         *
+         * @param head     - голова списка узлов корзины.
+         * @param strategy - стратегия сравнения ключей или null.
+         */
+        TreeBin(Node<K, V> head, HashingStrategy<Object> strategy) {
+            super(0, null, null, null);
+            this.strategy = strategy;
+            this.ordered = strategy == null || strategy instanceof HashingStrategies.Equality;
+            TreeNode<K, V> last = null;
+            for (Node<K, V> node = head; node != null; node = node.next) {
+                TreeNode<K, V> treeNode = new TreeNode<>(node);
+                if (last == null) {
+                    first = treeNode;
+                } else {
+                    last.next = treeNode;
+                    treeNode.prev = last;
+                }
+                last = treeNode;
+                insert(treeNode);
+                size++;
+            }
+        }
+
+        /**
+         * Голова списка узлов корзины.
+         *
+         * @return - первый узел или null, если корзина пуста.
+         */
+        Node<K, V> firstNode() {
+            return first == null ? null : first.node;
+        }
+
+        /**
+         * Поиск узла по хэшу и ключу.
+         *
+         * @param hash - хэш ключа.
+         * @param key  - ключ.
+         * @return - узел или null, если ключа в корзине нет.
+         */
+        Node<K, V> find(int hash, Object key) {
+            TreeNode<K, V> treeNode = root == null ? null : find(root, hash, key);
+            return treeNode == null ? null : treeNode.node;
+        }
+
+        /**
+         * Количество оберток, которые просматривает find(hash, key), вместе
+         * с поддеревьями, пройденными при неупорядочиваемых ключах.
+         *
+         * @return - количество просмотренных оберток, если ключ найден,
+         * иначе ~количество.
+         */
+        int probeLength(int hash, Object key) {
+            if (root == null) {
+                return ~0;
+            }
+            int[] visited = new int[1];
+            return find(root, hash, key, visited) != null ? visited[0] : ~visited[0];
+        }
+
+        /**
+         * Вставляет ключ-значение в дерево, если такого ключа в корзине нет.
+         * Новый узел становится головой списка узлов корзины.
+         *
+         * @param map   - HashMap, создающая узел методом newNode().
+         * @param hash  - хэш ключа.
+         * @param key   - ключ.
+         * @param value - значение.
+         * @return - уже имеющийся узел с таким ключом, или null, если был
+         * добавлен новый узел.
+         */
+        Node<K, V> putTreeVal(HashMap<K, V> map, int hash, K key, V value) {
+            TreeNode<K, V> existing = root == null ? null : find(root, hash, key);
+            if (existing != null) {
+                return existing.node;
+            }
+            Node<K, V> node = map.newNode(hash, key, value, first == null ? null : first.node);
+            TreeNode<K, V> treeNode = new TreeNode<>(node);
+            treeNode.next = first;
+            if (first != null) {
+                first.prev = treeNode;
+            }
+            first = treeNode;
+            insert(treeNode);
+            size++;
+            return null;
+        }
+
+        /**
+         * Удаляет узел с ключом key из дерева и из списка узлов корзины.
+         *
+         * @param hash - хэш ключа.
+         * @param key  - ключ.
+         * @return - удаленный узел или null, если ключа в корзине нет.
+         */
+        Node<K, V> removeTreeNode(int hash, Object key) {
+            TreeNode<K, V> p = root == null ? null : find(root, hash, key);
+            if (p == null) {
+                return null;
+            }
+            Node<K, V> removed = p.node;
+            TreeNode<K, V> pred = p.prev;
+            TreeNode<K, V> succ = p.next;
+            if (pred == null) {
+                first = succ;
+            } else {
+                pred.next = succ;
+                pred.node.next = removed.next;
+            }
+            if (succ != null) {
+                succ.prev = pred;
+            }
+            removed.next = null;
+            delete(p);
+            size--;
+            return removed;
+        }
+
+        /**
+         * Вставка обертки в дерево без поиска совпадающего ключа.
+         */
+        private void insert(TreeNode<K, V> x) {
+            int hash = x.node.hash;
+            K key = x.node.key;
+            Class<?> keyClass = null;
+            TreeNode<K, V> parent = null;
+            TreeNode<K, V> p = root;
+            int dir = 0;
+            while (p != null) {
+                parent = p;
+                int ph = p.node.hash;
+                if (ph > hash) {
+                    dir = -1;
+                } else if (ph < hash) {
+                    dir = 1;
+                } else if ((keyClass == null && (keyClass = comparableClass(key)) == null) ||
+                        (dir = compareComparables(keyClass, key, p.node.key)) == 0) {
+                    dir = tieBreakOrder(key, p.node.key);
+                }
+                p = dir <= 0 ? p.left : p.right;
+            }
+            x.parent = parent;
+            if (parent == null) {
+                root = x;
+            } else if (dir <= 0) {
+                parent.left = x;
+            } else {
+                parent.right = x;
+            }
+            balanceInsertion(x);
+        }
+
+        /**
+         * Поиск обертки, начиная с поддерева p. Если хэши равны, а ключи
+         * нельзя сравнить, приходится искать в обоих поддеревьях.
+         */
+        private TreeNode<K, V> find(TreeNode<K, V> p, int hash, Object key) {
+            return find(p, hash, key, null);
+        }
+
+        /**
+         * Поиск обертки, который при visited != null прибавляет к visited[0]
+         * количество просмотренных оберток. Один обход на поиск и на подсчет
+         * длины поиска для InstrumentedHashMap.
+         */
+        private TreeNode<K, V> find(TreeNode<K, V> p, int hash, Object key, int[] visited) {
+            Class<?> keyClass = null;
+            do {
+                if (visited != null) {
+                    visited[0]++;
+                }
+                int ph = p.node.hash;
+                K pk = p.node.key;
+                TreeNode<K, V> pl = p.left;
+                TreeNode<K, V> pr = p.right;
+                int dir;
+                if (ph > hash) {
+                    p = pl;
+                } else if (ph < hash) {
+                    p = pr;
+                } else if (keysEqual(strategy, key, pk)) {
+                    return p;
+                } else if (pl == null) {
+                    p = pr;
+                } else if (pr == null) {
+                    p = pl;
+                } else if ((keyClass != null || (keyClass = comparableClass(key)) != null) &&
+                        (dir = compareComparables(keyClass, key, pk)) != 0) {
+                    p = dir < 0 ? pl : pr;
+                } else {
+                    TreeNode<K, V> q = find(pr, hash, key, visited);
+                    if (q != null) {
+                        return q;
+                    }
+                    p = pl;
+                }
+            } while (p != null);
+            return null;
+        }
+
+        /**
+         * Класс ключа для упорядочивания через Comparable или null, если
+         * ключи упорядочиваются только tieBreakOrder().
+         */
+        private Class<?> comparableClass(Object key) {
+            return ordered ? comparableClassFor(key) : null;
+        }
+
+        /**
+         * Удаление обертки из дерева. Если у p два потомка, p занимает место
+         * своего преемника в списке и получает его узел, а физически из
+         * дерева удаляется обертка преемника.
+         */
+        private void delete(TreeNode<K, V> p) {
+            if (p.left != null && p.right != null) {
+                TreeNode<K, V> s = p.right;
+                while (s.left != null) {
+                    s = s.left;
+                }
+                p.node = s.node;
+                p.prev = s.prev;
+                p.next = s.next;
+                if (p.prev == null) {
+                    first = p;
+                } else {
+                    p.prev.next = p;
+                }
+                if (p.next != null) {
+                    p.next.prev = p;
+                }
+                p = s;
+            }
+            TreeNode<K, V> replacement = p.left != null ? p.left : p.right;
+            if (replacement != null) {
+                replacement.parent = p.parent;
+                if (p.parent == null) {
+                    root = replacement;
+                } else if (p == p.parent.left) {
+                    p.parent.left = replacement;
+                } else {
+                    p.parent.right = replacement;
+                }
+                p.left = p.right = p.parent = null;
+                if (!p.red) {
+                    balanceDeletion(replacement);
+                }
+            } else if (p.parent == null) {
+                root = null;
+            } else {
+                if (!p.red) {
+                    balanceDeletion(p);
+                }
+                if (p.parent != null) {
+                    if (p == p.parent.left) {
+                        p.parent.left = null;
+                    } else if (p == p.parent.right) {
+                        p.parent.right = null;
+                    }
+                    p.parent = null;
+                }
+            }
+        }
+
+        private void balanceInsertion(TreeNode<K, V> x) {
+            x.red = true;
+            while (x != root && x.parent.red) {
+                TreeNode<K, V> parent = x.parent;
+                TreeNode<K, V> grand = parent.parent;
+                if (parent == grand.left) {
+                    TreeNode<K, V> uncle = grand.right;
+                    if (isRed(uncle)) {
+                        parent.red = false;
+                        uncle.red = false;
+                        grand.red = true;
+                        x = grand;
+                    } else {
+                        if (x == parent.right) {
+                            x = parent;
+                            rotateLeft(x);
+                            parent = x.parent;
+                        }
+                        parent.red = false;
+                        grand.red = true;
+                        rotateRight(grand);
+                    }
+                } else {
+                    TreeNode<K, V> uncle = grand.left;
+                    if (isRed(uncle)) {
+                        parent.red = false;
+                        uncle.red = false;
+                        grand.red = true;
+                        x = grand;
+                    } else {
+                        if (x == parent.left) {
+                            x = parent;
+                            rotateRight(x);
+                            parent = x.parent;
+                        }
+                        parent.red = false;
+                        grand.red = true;
+                        rotateLeft(grand);
+                    }
+                }
+            }
+            root.red = false;
+        }
+
+        private void balanceDeletion(TreeNode<K, V> x) {
+            while (x != root && !isRed(x)) {
+                TreeNode<K, V> parent = x.parent;
+                if (x == parent.left) {
+                    TreeNode<K, V> sibling = parent.right;
+                    if (isRed(sibling)) {
+                        sibling.red = false;
+                        parent.red = true;
+                        rotateLeft(parent);
+                        sibling = parent.right;
+                    }
+                    if (!isRed(sibling.left) && !isRed(sibling.right)) {
+                        sibling.red = true;
+                        x = parent;
+                    } else {
+                        if (!isRed(sibling.right)) {
+                            sibling.left.red = false;
+                            sibling.red = true;
+                            rotateRight(sibling);
+                            sibling = parent.right;
+                        }
+                        sibling.red = parent.red;
+                        parent.red = false;
+                        if (sibling.right != null) {
+                            sibling.right.red = false;
+                        }
+                        rotateLeft(parent);
+                        x = root;
+                    }
+                } else {
+                    TreeNode<K, V> sibling = parent.left;
+                    if (isRed(sibling)) {
+                        sibling.red = false;
+                        parent.red = true;
+                        rotateRight(parent);
+                        sibling = parent.left;
+                    }
+                    if (!isRed(sibling.right) && !isRed(sibling.left)) {
+                        sibling.red = true;
+                        x = parent;
+                    } else {
+                        if (!isRed(sibling.left)) {
+                            sibling.right.red = false;
+                            sibling.red = true;
+                            rotateLeft(sibling);
+                            sibling = parent.left;
+                        }
+                        sibling.red = parent.red;
+                        parent.red = false;
+                        if (sibling.left != null) {
+                            sibling.left.red = false;
+                        }
+                        rotateRight(parent);
+                        x = root;
+                    }
+                }
+            }
+            x.red = false;
+        }
+
+        private void rotateLeft(TreeNode<K, V> p) {
+            TreeNode<K, V> r = p.right;
+            p.right = r.left;
+            if (r.left != null) {
+                r.left.parent = p;
+            }
+            r.parent = p.parent;
+            if (p.parent == null) {
+                root = r;
+            } else if (p.parent.left == p) {
+                p.parent.left = r;
+            } else {
+                p.parent.right = r;
+            }
+            r.left = p;
+            p.parent = r;
+        }
+
+        private void rotateRight(TreeNode<K, V> p) {
+            TreeNode<K, V> l = p.left;
+            p.left = l.right;
+            if (l.right != null) {
+                l.right.parent = p;
+            }
+            l.parent = p.parent;
+            if (p.parent == null) {
+                root = l;
+            } else if (p.parent.right == p) {
+                p.parent.right = l;
+            } else {
+                p.parent.left = l;
+            }
+            l.right = p;
+            p.parent = l;
+        }
+
+        private static boolean isRed(TreeNode<?, ?> node) {
+            return node != null && node.red;
+        }
+
+        /**
+         * Возвращает класс ключа, если он вида "class C implements Comparable&lt;C&gt;",
+         * иначе null.
+         */
+        private static Class<?> comparableClassFor(Object key) {
+            if (key instanceof Comparable) {
+                Class<?> keyClass = key.getClass();
+                if (keyClass == String.class) {
+                    return keyClass;
+                }
+                for (Type type : keyClass.getGenericInterfaces()) {
+                    if (type instanceof ParameterizedType) {
+                        ParameterizedType parameterized = (ParameterizedType) type;
+                        Type[] arguments = parameterized.getActualTypeArguments();
+                        if (parameterized.getRawType() == Comparable.class &&
+                                arguments.length == 1 && arguments[0] == keyClass) {
+                            return keyClass;
+                        }
+                    }
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Сравнивает ключи через Comparable, если other того же класса,
+         * иначе возвращает 0.
+         */
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private static int compareComparables(Class<?> keyClass, Object key, Object other) {
+            return other == null || other.getClass() != keyClass ? 0 : ((Comparable) key).compareTo(other);
+        }
+
+        /**
+         * Порядок для ключей с равными хэшами, которые нельзя сравнить.
+         * Нужен только для того, чтобы вставка была детерминированной в
+         * пределах одного дерева.
+         */
+        private static int tieBreakOrder(Object a, Object b) {
+            int d;
+            if (a == null || b == null ||
+                    (d = a.getClass().getName().compareTo(b.getClass().getName())) == 0) {
+                d = System.identityHashCode(a) <= System.identityHashCode(b) ? -1 : 1;
+            }
+            return d;
+        }
+    }
+
+    /**
+     * Обертка узла внутри TreeBin. Хранит связи дерева и двусвязного
+     * списка оберток, по которому за O(1) поддерживается список узлов
+     * корзины при удалении.
+     */
+    private static final class TreeNode<K, V> {
+
+        Node<K, V> node;
+        TreeNode<K, V> parent;
+        TreeNode<K, V> left;
+        TreeNode<K, V> right;
+        TreeNode<K, V> prev;
+        TreeNode<K, V> next;
+        boolean red;
+
+        TreeNode(Node<K, V> node) {
+            this.node = node;
+        }
+    }
+
     /**
      * Конструктор. Инициализирует поля capacity и threshold
      * по входным аргументам.
      *
      * @param capacity   - начальное значение количества корзин.
      * @param loadFactor - начальный коэффициент загрузки.
+     * @param resizeMode - способ увеличения массива корзин.
+     * @param strategy   - хэширование и сравнение ключей, см. HashingStrategies.
      * @throws IllegalArgumentException -
      */
-    public HashMap(int capacity, double loadFactor) {
+    @SuppressWarnings("unchecked")
+    public HashMap(int capacity, double loadFactor, ResizeMode resizeMode, HashingStrategy<? super K> strategy) {
         if (capacity < 0) {
             throw new IllegalArgumentException("initial CAPACITY should be positive");
         }
         if (Double.compare(loadFactor, 1) > 0 || Double.compare(loadFactor, 0) < 0) {
             throw new IllegalArgumentException("load factory should be between 0 and 1");
         }
+        this.loadFactor = loadFactor;
         this.capacity = tableSizeFromCapacity(capacity);
-        threshold = (int) (capacity * loadFactor);
+        threshold = thresholdFor(this.capacity);
+        reservedCapacity = this.capacity;
+        this.resizeMode = Objects.requireNonNull(resizeMode);
+        this.strategy = Objects.requireNonNull(strategy) == HashingStrategies.DEFAULT
+                ? null : (HashingStrategy<Object>) strategy;
+    }
+
+    /**
+     * Конструктор. Ключи хэшируются и сравниваются своими hashCode() и equals().
+     *
+     * @param capacity   - начальное значение количества корзин.
+     * @param loadFactor - начальный коэффициент загрузки.
+     * @param resizeMode - способ увеличения массива корзин.
+     * @throws IllegalArgumentException -
+     */
+    public HashMap(int capacity, double loadFactor, ResizeMode resizeMode) {
+        this(capacity, loadFactor, resizeMode, HashingStrategies.DEFAULT);
+    }
+
+    /**
+     * Конструктор с размером корзин и коэффициентом загрузки по умолчанию
+     * и стратегией хэширования ключей.
+     *
+     * @param strategy - хэширование и сравнение ключей, см. HashingStrategies.
+     */
+    public HashMap(HashingStrategy<? super K> strategy) {
+        this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR, ResizeMode.EAGER, strategy);
+    }
+
+    /**
+     * Конструктор с немедленным увеличением массива корзин.
+     *
+     * @param capacity   - начальное значение количества корзин.
+     * @param loadFactor - начальный коэффициент загрузки.
+     * @throws IllegalArgumentException -
+     */
+    public HashMap(int capacity, double loadFactor) {
+        this(capacity, loadFactor, ResizeMode.EAGER);
     }
 
     /**
@@ -177,6 +847,17 @@ public class HashMap<K, V> implements Map<K, V> {
         this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR);
     }
 
+    /**
+     * Конструктор для загрузки всех записей входной Map. Массив корзин
+     * сразу создается под m.size() записей, см. putAll().
+     *
+     * @param m - входная Map.
+     */
+    public HashMap(Map<? extends K, ? extends V> m) {
+        this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR);
+        putAll(m);
+    }
+
     /**
      * Переопределение начального значение capacity в ближайшее
      * верхнее число кратное 2.
@@ -184,7 +865,7 @@ public class HashMap<K, V> implements Map<K, V> {
      * @param capacity - начальное значение capacity.
      * @return - переопределенное значение.
      */
-    private int tableSizeFromCapacity(int capacity) {
+    static int tableSizeFromCapacity(int capacity) {
         capacity -= 1;
         capacity |= capacity >>> 1;
         capacity |= capacity >>> 2;
@@ -200,7 +881,9 @@ public class HashMap<K, V> implements Map<K, V> {
      * корзин начальным размером. При добавлении узла ключ-значение вычисляется
      * индекс корзины, в которую кладется узел, методом findIndex(). В корзине узел
      * кладется в конец односвязного списка, либо, если корзина была пустой, образует
-     * новый односвязный список.
+     * новый односвязный список. Если корзина является деревом TreeBin, узел
+     * вставляется в дерево. Если список стал длиннее TREEIFY_THRESHOLD, корзина
+     * превращается в дерево методом treeifyBin().
      * Если в Map уже имеется значение по ключу, старое значение заменяется новым
      * и возвращается методом.
      * Когда добавляется новый узел в HashMap, размер size увеличивается на единицу.
@@ -213,85 +896,388 @@ public class HashMap<K, V> implements Map<K, V> {
      * ключ.
      */
     public V put(K key, V value) {
-        int hash = hash(key);
-        int index = findIndex(hash, capacity);
+        return putVal(hash(key), key, value);
+    }
+
+    /**
+     * Добавляет пару ключ-значение по уже вычисленному хэшу ключа.
+     * Подробнее см. put().
+     *
+     * @param hash  - хэш ключа.
+     * @param key   - ключ.
+     * @param value - значение.
+     * @return - старое значение ключа или null.
+     */
+    private V putVal(int hash, K key, V value) {
         if (table == null) {
             resize();
         }
+        if (oldTable != null) {
+            migrateBucket(findIndex(hash, oldTable.length));
+            migrateStep();
+        }
+        int index = findIndex(hash, capacity);
         Node<K, V> node = table[index];
         if (node == null) {
-            table[index] = new Node<>(hash, key, value, null);
-        } else {
-            boolean flag = true;
-            Node<K, V> temp = node;
-            while (temp != null) {
-                node = temp;
-                temp = temp.next;
-                if (node.hash == hash &&
-                        ((key == null) || (key.equals(node.key)))) {
-                    flag = false;
-                    break;
-                }
-            }
-            if (flag) {
-                node.next = new Node<>(hash, key, value, null);
-            } else {
-                V oldValue = node.value;
-                node.value = value;
+            table[index] = newNode(hash, key, value, null);
+        } else if (node instanceof TreeBin) {
+            Node<K, V> existing = ((TreeBin<K, V>) node).putTreeVal(this, hash, key, value);
+            if (existing != null) {
+                V oldValue = existing.value;
+                existing.value = value;
+                afterNodeUpdate(existing, oldValue);
                 return oldValue;
             }
+        } else {
+            int binCount = 0;
+            Node<K, V> last = null;
+            for (; node != null; node = node.next) {
+                if (matches(node, hash, key)) {
+                    V oldValue = node.value;
+                    node.value = value;
+                    afterNodeUpdate(node, oldValue);
+                    return oldValue;
+                }
+                last = node;
+                binCount++;
+            }
+            last.next = newNode(hash, key, value, null);
+            if (binCount >= TREEIFY_THRESHOLD) {
+                treeifyBin(index);
+            }
         }
         modCount++;
         size++;
         if (size > threshold) {
             resize();
         }
+        afterNodeInsertion();
         return null;
     }
 
     /**
-     * Вставляет все записи из входной Map.
+     * Вставляет все записи из входной Map. Перед вставкой массив корзин
+     * один раз увеличивается до размера, в который поместятся size + m.size()
+     * записей, поэтому во время вставки resize() не вызывается.
+     * Если входная Map - тоже map.impl.HashMap, узлы копируются с уже
+     * вычисленными хэшами, а в пустую HashMap - еще и без поиска совпадающих
+     * ключей. Подклассы HashMap получают пары через put(), чтобы сработали
+     * их newNode() и afterNodeInsertion(), например removeEldestEntry()
+     * у LinkedHashMap. Из входного подкласса HashMap копируются только
+     * узлы, которые он считает действительными, см. isLive().
      *
      * @param m - входная Map
      */
     @Override
     public void putAll(Map<? extends K, ? extends V> m) {
-        for (Entry<? extends K, ? extends V> entry : m.entrySet()) {
-            put(entry.getKey(), entry.getValue());
+        int count = m.size();
+        if (count == 0 || m == this) {
+            return;
+        }
+        presize((long) size + count);
+        if (m instanceof HashMap && !(m instanceof LinkedHashMap)) {
+            HashMap<? extends K, ? extends V> source = (HashMap<? extends K, ? extends V>) m;
+            if (getClass() == HashMap.class && source.getClass() == HashMap.class && source.strategy == strategy) {
+                putAllNodes(source);
+            } else {
+                putAllLive(source);
+            }
+        } else {
+            for (Entry<? extends K, ? extends V> entry : m.entrySet()) {
+                put(entry.getKey(), entry.getValue());
+            }
         }
     }
 
     /**
-     * Очищает Map.
+     * Вставляет пары keys[i] - values[i]. Массив корзин увеличивается
+     * заранее, как в putAll(Map).
+     *
+     * @param keys   - ключи.
+     * @param values - значения.
+     * @throws IllegalArgumentException - если длины массивов различаются.
      */
-    @Override
-    public void clear() {
-        table = null;
-        size = 0;
-        capacity = DEFAULT_CAPACITY;
-        threshold = (int) DEFAULT_LOAD_FACTOR * DEFAULT_CAPACITY;
+    public void putAll(K[] keys, V[] values) {
+        if (keys.length != values.length) {
+            throw new IllegalArgumentException("keys and values should have the same length");
+        }
+        presize((long) size + keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            putVal(hash(keys[i]), keys[i], values[i]);
+        }
     }
 
     /**
-     * Метод resize() либо инициализирует массив корзин с начальным размером
-     * capacity, если HashMap была пустой, либо увеличивает массив корзин в
-     * два раза перестраивая все узлы вызывом метода transform().
+     * Копирует узлы другой HashMap с их хэшами. Ключи входной HashMap
+     * различны, поэтому в пустую HashMap узлы кладутся в начало корзин без
+     * сравнения ключей, как в transform(), а длинные корзины затем
+     * превращаются в деревья. Вызывается, только если обе Map - ровно
+     * HashMap, у которой нет переопределенных методов-обработчиков.
+     * Входная HashMap не меняется: если у нее идет постепенный перенос,
+     * узлы берутся из обоих ее массивов, см. sourceTable().
+     *
+     * @param m - входная HashMap.
      */
-    private void resize() {
-        if (table == null) {
-            table = (Node<K, V>[]) new Node[capacity];
+    private void putAllNodes(HashMap<? extends K, ? extends V> m) {
+        if (size > 0 || oldTable != null) {
+            for (int t = 0; t < 2; t++) {
+                for (Node<? extends K, ? extends V> bucket : m.sourceTable(t)) {
+                    for (Node<? extends K, ? extends V> node = firstNode(bucket); node != null; node = node.next) {
+                        putVal(node.hash, node.key, node.value);
+                    }
+                }
+            }
+            return;
+        }
+        if (table == null) {
+            resize();
+        }
+        boolean hadTreeBins = false;
+        int copied = 0;
+        for (int t = 0; t < 2; t++) {
+            for (Node<? extends K, ? extends V> bucket : m.sourceTable(t)) {
+                hadTreeBins |= bucket instanceof TreeBin;
+                for (Node<? extends K, ? extends V> node = firstNode(bucket); node != null; node = node.next) {
+                    int index = findIndex(node.hash, capacity);
+                    table[index] = newNode(node.hash, node.key, node.value, table[index]);
+                    copied++;
+                }
+            }
+        }
+        size = copied;
+        modCount++;
+        if (hadTreeBins || capacity < m.capacity) {
+            treeifyLongBins(table);
+        }
+    }
+
+    /**
+     * Вставляет через put() пары подкласса HashMap, пропуская узлы, для
+     * которых m.isLive() возвращает false, например устаревшие пары
+     * ExpiringHashMap. Входная HashMap не меняется.
+     *
+     * @param m - входная HashMap.
+     */
+    private <K2 extends K, V2 extends V> void putAllLive(HashMap<K2, V2> m) {
+        for (int t = 0; t < 2; t++) {
+            for (Node<K2, V2> bucket : m.sourceTable(t)) {
+                for (Node<K2, V2> node = firstNode(bucket); node != null; node = node.next) {
+                    if (m.isLive(node)) {
+                        put(node.key, node.value);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Массивы корзин, по которым обходятся узлы без переноса корзин:
+     * t = 0 - oldTable, t = 1 - table. Корзины oldTable, уже перенесенные
+     * в table, обнулены, поэтому каждый узел лежит ровно в одном из них.
+     * Отсутствующий массив заменяется пустым.
+     *
+     * @param t - номер массива.
+     * @return - массив корзин.
+     */
+    private Node<K, V>[] sourceTable(int t) {
+        Node<K, V>[] tab = t == 0 ? oldTable : table;
+        return tab == null ? emptyTable() : tab;
+    }
+
+    /**
+     * Увеличивает массив корзин так, чтобы expectedSize записей
+     * поместились без resize(). Если массив еще не создан, меняется только
+     * его будущий размер. Идущий постепенный перенос сначала заканчивается.
+     *
+     * @param expectedSize - ожидаемое количество записей.
+     */
+    private void presize(long expectedSize) {
+        if (expectedSize <= threshold) {
+            return;
+        }
+        int newCapacity = capacityFor(expectedSize, loadFactor);
+        if (newCapacity <= capacity) {
+            return;
+        }
+        if (table != null) {
+            replaceTable(newCapacity);
+        } else {
+            capacity = newCapacity;
+            threshold = thresholdFor(newCapacity);
+        }
+    }
+
+    /**
+     * Увеличивает массив корзин так, чтобы expectedSize пар поместились без
+     * увеличения, и не дает автоматически уменьшить его ниже этого размера.
+     *
+     * @param expectedSize - ожидаемое количество пар.
+     * @throws IllegalArgumentException - если expectedSize отрицательный.
+     */
+    public void ensureCapacity(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expected size should be positive");
+        }
+        presize(expectedSize);
+        reservedCapacity = Math.max(reservedCapacity, capacityFor(expectedSize, loadFactor));
+    }
+
+    /**
+     * Возвращает неизменяемую копию HashMap с той же стратегией
+     * хэширования, в которой поиск любого ключа проверяет одну ячейку,
+     * см. FrozenHashMap. Сама HashMap не меняется.
+     *
+     * @return - неизменяемая копия.
+     */
+    public FrozenHashMap<K, V> freeze() {
+        return new FrozenHashMap<>(this, strategy);
+    }
+
+    /**
+     * Уменьшает массив корзин до наименьшей степени двойки, в которую
+     * текущие пары помещаются без увеличения. Пустая HashMap освобождает
+     * массив, и следующий put() создаст его не больше чем на
+     * DEFAULT_CAPACITY корзин. Снимает ограничение, заданное начальным
+     * размером или ensureCapacity(), для автоматического уменьшения.
+     */
+    public void trimToSize() {
+        reservedCapacity = 1;
+        if (size == 0) {
+            beforeResize();
+            table = null;
+            oldTable = null;
+            capacity = Math.min(capacity, DEFAULT_CAPACITY);
+            threshold = thresholdFor(capacity);
+            modCount++;
+            afterResize();
+            return;
+        }
+        int newCapacity = capacityFor(size, loadFactor);
+        if (newCapacity < capacity) {
+            rebuild(newCapacity);
+        }
+    }
+
+    /**
+     * Задает нижний коэффициент загрузки для автоматического уменьшения
+     * массива корзин. Когда remove() или compute() оставляют меньше
+     * capacity * minLoadFactor пар, массив уменьшается до степени двойки,
+     * заполненной не больше чем на loadFactor / 2. Верхняя граница
+     * loadFactor / 4 дает гистерезис: после уменьшения до увеличения
+     * нужно вдвое больше пар, а после увеличения HashMap заполнена
+     * на loadFactor / 2 и сразу не уменьшается. Удаление через итератор и
+     * EntryCursor массив не уменьшает.
+     *
+     * @param minLoadFactor - нижний коэффициент загрузки; 0 выключает
+     *                      уменьшение.
+     * @throws IllegalArgumentException - если minLoadFactor не лежит между
+     *                                  0 и loadFactor / 4.
+     */
+    public void setMinLoadFactor(double minLoadFactor) {
+        if (Double.compare(minLoadFactor, 0) < 0 || Double.compare(minLoadFactor, loadFactor / 4) > 0) {
+            throw new IllegalArgumentException("min load factor should be between 0 and loadFactor / 4");
+        }
+        this.minLoadFactor = minLoadFactor;
+    }
+
+    /**
+     * Уменьшает массив корзин, если пар стало меньше capacity * minLoadFactor.
+     * Вызывается после удаления из remove() и compute(), но не из
+     * итераторов, которые держат ссылку на массив корзин.
+     */
+    private void shrinkIfSparse() {
+        if (size < capacity * minLoadFactor && capacity > reservedCapacity && table != null) {
+            int newCapacity = Math.max(capacityFor(size, loadFactor / 2), reservedCapacity);
+            if (newCapacity < capacity) {
+                rebuild(newCapacity);
+            }
+        }
+    }
+
+    /**
+     * Наименьшая степень двойки, у которой expectedSize пар не превышают
+     * capacity * loadFactor.
+     */
+    private static int capacityFor(long expectedSize, double loadFactor) {
+        long needed = (long) Math.ceil(expectedSize / loadFactor);
+        return tableSizeFromCapacity((int) Math.min(Math.max(needed, 1), MAX_CAPACITY));
+    }
+
+    /**
+     * Перестраивает узлы в новый массив из newCapacity корзин, в том числе
+     * меньший текущего. Идущий постепенный перенос сначала заканчивается.
+     */
+    private void rebuild(int newCapacity) {
+        replaceTable(newCapacity);
+        modCount++;
+    }
+
+    /**
+     * Сразу переносит все узлы в новый массив из newCapacity корзин между
+     * beforeResize() и afterResize(). Идущий постепенный перенос сначала
+     * заканчивается.
+     */
+    private void replaceTable(int newCapacity) {
+        completeMigration();
+        beforeResize();
+        Node<K, V>[] newTable = allocateTable(newCapacity);
+        transform(newTable);
+        table = newTable;
+        capacity = newCapacity;
+        threshold = thresholdFor(newCapacity);
+        afterResize();
+    }
+
+    /**
+     * Вычисляет порог для количества корзин capacity.
+     */
+    private int thresholdFor(int capacity) {
+        return capacity >= MAX_CAPACITY ? Integer.MAX_VALUE : (int) (capacity * loadFactor);
+    }
+
+    /**
+     * Очищает Map.
+     */
+    @Override
+    public void clear() {
+        table = null;
+        oldTable = null;
+        size = 0;
+        modCount++;
+        capacity = DEFAULT_CAPACITY;
+        threshold = thresholdFor(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Метод resize() либо инициализирует массив корзин с начальным размером
+     * capacity, если HashMap была пустой, либо увеличивает массив корзин в
+     * два раза перестраивая все узлы вызывом метода transform().
+     * В режиме ResizeMode.INCREMENTAL узлы не перестраиваются: текущий
+     * массив становится oldTable и переносится постепенно.
+     */
+    private void resize() {
+        if (table == null) {
+            table = allocateTable(capacity);
         } else {
+            completeMigration();
+            if (capacity >= MAX_CAPACITY) {
+                threshold = Integer.MAX_VALUE;
+                return;
+            }
+            beforeResize();
             Node<K, V>[] newTable;
             int newCapacity = capacity * 2;
-            threshold = threshold * 2;
-            if (newCapacity >= MAX_CAPACITY) {
-                newCapacity = MAX_CAPACITY;
-                threshold = Integer.MAX_VALUE;
+            threshold = thresholdFor(newCapacity);
+            newTable = allocateTable(newCapacity);
+            if (resizeMode == ResizeMode.INCREMENTAL) {
+                oldTable = table;
+                migrateIndex = 0;
+            } else {
+                transform(newTable);
             }
-            newTable = (Node<K, V>[]) new Node[newCapacity];
-            transform(newTable);
             capacity = newCapacity;
             table = newTable;
+            afterResize();
         }
     }
 
@@ -300,11 +1286,21 @@ public class HashMap<K, V> implements Map<K, V> {
      * новый массив newTable, перестраивая эти узлы по хэшам в новые
      * корзины.
      *
+     * Корзины-деревья переносятся как списки узлов, после чего длинные
+     * корзины снова превращаются в деревья методом treeifyLongBins().
+     * При уменьшении массива длинные корзины могут появиться и без
+     * деревьев, поэтому treeifyLongBins() вызывается всегда.
+     *
      * @param newTable - новый массив корзин.
      */
     private void transform(Node<K, V>[] newTable) {
         int newCapacity = newTable.length;
+        boolean hadTreeBins = false;
         for (Node<K, V> bucket : table) {
+            if (bucket instanceof TreeBin) {
+                hadTreeBins = true;
+                bucket = ((TreeBin<K, V>) bucket).firstNode();
+            }
             if (bucket != null) {
                 Node<K, V> node = bucket;
                 do {
@@ -316,6 +1312,115 @@ public class HashMap<K, V> implements Map<K, V> {
                 } while (node != null);
             }
         }
+        if (hadTreeBins || newCapacity < table.length) {
+            treeifyLongBins(newTable);
+        }
+    }
+
+    /**
+     * Переносит корзину index из oldTable в новый массив, разделяя узлы
+     * по хэшу между корзинами index и index + oldTable.length. Обе корзины
+     * нового массива в этот момент пусты: put() и remove() переносят
+     * корзину ключа до того, как обратиться к новому массиву.
+     * Половина бывшей корзины-дерева длиннее UNTREEIFY_THRESHOLD снова
+     * становится деревом.
+     *
+     * @param index - индекс корзины в oldTable.
+     */
+    private void migrateBucket(int index) {
+        Node<K, V> bucket = oldTable[index];
+        if (bucket == null) {
+            return;
+        }
+        oldTable[index] = null;
+        int oldCapacity = oldTable.length;
+        Node<K, V> low = null;
+        Node<K, V> high = null;
+        int lowCount = 0;
+        int highCount = 0;
+        Node<K, V> node = firstNode(bucket);
+        while (node != null) {
+            Node<K, V> temp = node.next;
+            if ((node.hash & oldCapacity) == 0) {
+                node.next = low;
+                low = node;
+                lowCount++;
+            } else {
+                node.next = high;
+                high = node;
+                highCount++;
+            }
+            node = temp;
+        }
+        boolean wasTree = bucket instanceof TreeBin;
+        table[index] = wasTree && lowCount > UNTREEIFY_THRESHOLD ? new TreeBin<>(low, strategy) : low;
+        table[index + oldCapacity] = wasTree && highCount > UNTREEIFY_THRESHOLD ? new TreeBin<>(high, strategy) : high;
+    }
+
+    /**
+     * Переносит следующие MIGRATION_STEP корзин oldTable. После последней
+     * корзины перенос заканчивается.
+     */
+    private void migrateStep() {
+        int end = Math.min(migrateIndex + MIGRATION_STEP, oldTable.length);
+        while (migrateIndex < end) {
+            migrateBucket(migrateIndex++);
+        }
+        if (migrateIndex == oldTable.length) {
+            oldTable = null;
+        }
+    }
+
+    /**
+     * Заканчивает постепенный перенос, если он идет. Вызывается перед
+     * обходом всего массива корзин и перед следующим увеличением массива.
+     */
+    private void completeMigration() {
+        if (oldTable != null) {
+            while (migrateIndex < oldTable.length) {
+                migrateBucket(migrateIndex++);
+            }
+            oldTable = null;
+        }
+    }
+
+    /**
+     * Превращает корзину-список с индексом index в дерево. Пока корзин
+     * меньше MIN_TREEIFY_CAPACITY, вместо этого увеличивает массив корзин:
+     * длинные списки в маленьком массиве чаще означают переполнение, чем
+     * плохие хэши.
+     *
+     * @param index - индекс корзины.
+     */
+    private void treeifyBin(int index) {
+        if (capacity < MIN_TREEIFY_CAPACITY) {
+            resize();
+        } else {
+            table[index] = new TreeBin<>(table[index], strategy);
+        }
+    }
+
+    /**
+     * Вызывается после transform(), если в старом массиве были деревья.
+     * Узлы деревьев переносятся как обычные списки, поэтому половины,
+     * которые остались длиннее UNTREEIFY_THRESHOLD, снова превращаются в
+     * деревья, а короткие остаются списками.
+     *
+     * @param newTable - новый массив корзин.
+     */
+    private void treeifyLongBins(Node<K, V>[] newTable) {
+        if (newTable.length < MIN_TREEIFY_CAPACITY) {
+            return;
+        }
+        for (int i = 0; i < newTable.length; i++) {
+            int binCount = 0;
+            for (Node<K, V> node = newTable[i]; node != null && binCount <= UNTREEIFY_THRESHOLD; node = node.next) {
+                binCount++;
+            }
+            if (binCount > UNTREEIFY_THRESHOLD) {
+                newTable[i] = new TreeBin<>(newTable[i], strategy);
+            }
+        }
     }
 
     /**
@@ -327,8 +1432,12 @@ public class HashMap<K, V> implements Map<K, V> {
      * имеется такого ключа.
      */
     public V get(Object key) {
-        Node<K, V> node;
-        return (node = getNode(key)) == null ? null : node.value;
+        final Node<K, V> node = getNode(key);
+        if (node == null) {
+            return null;
+        }
+        afterNodeAccess(node);
+        return node.value;
     }
 
     /**
@@ -355,16 +1464,48 @@ public class HashMap<K, V> implements Map<K, V> {
      * @return - узел, если найдено совпадение по ключам, или null
      * в обратном случае.
      */
-    private Node<K, V> getNode(Object key) {
-        if (table != null) {
-            int hash = hash(key);
-            Node<K, V> node = table[findIndex(hash, capacity)];
-            while (node != null) {
-                if (hash == node.hash &&
-                        ((key == null) || key.equals(node.key))) {
-                    return node;
-                }
-                node = node.next;
+    Node<K, V> getNode(Object key) {
+        return getNode(hash(key), key);
+    }
+
+    /**
+     * Возвращает узел по уже вычисленному хэшу ключа. Подробнее см. getNode(key).
+     *
+     * @param hash - хэш ключа.
+     * @param key  - ключ.
+     * @return - узел или null, если ключа в Map нет.
+     */
+    private Node<K, V> getNode(int hash, Object key) {
+        if (table == null) {
+            return null;
+        }
+        final Node<K, V> node;
+        if (oldTable == null) {
+            node = findInBucket(table[findIndex(hash, capacity)], hash, key);
+        } else {
+            Node<K, V> bucket = oldTable[findIndex(hash, oldTable.length)];
+            node = findInBucket(bucket != null ? bucket : table[findIndex(hash, capacity)], hash, key);
+            migrateStep();
+        }
+        return node == null || validateNode(node) ? node : null;
+    }
+
+    /**
+     * Ищет ключ в корзине. Пока идет постепенный перенос, ключ лежит либо
+     * в еще не перенесенной корзине oldTable, либо в новом массиве.
+     *
+     * @param bucket - корзина.
+     * @param hash   - хэш ключа.
+     * @param key    - ключ.
+     * @return - узел или null, если ключа в корзине нет.
+     */
+    private Node<K, V> findInBucket(Node<K, V> bucket, int hash, Object key) {
+        if (bucket instanceof TreeBin) {
+            return ((TreeBin<K, V>) bucket).find(hash, key);
+        }
+        for (Node<K, V> node = bucket; node != null; node = node.next) {
+            if (matches(node, hash, key)) {
+                return node;
             }
         }
         return null;
@@ -375,7 +1516,9 @@ public class HashMap<K, V> implements Map<K, V> {
      * Метод remove(key) удаляет узел по ключу key.
      * Вычисляется хэш ключа key и, соотвествующая ей, корзина.
      * Если находится совпадающий по ключу узел в корзине, этот узел
-     * извлекается из односвязанного списка.
+     * извлекается из односвязанного списка. Если корзина является деревом
+     * и в ней осталось не больше UNTREEIFY_THRESHOLD узлов, она снова
+     * становится списком.
      *
      * @param key - ключ, по которому собираемся удалить пару
      *            ключ-значение.
@@ -384,34 +1527,684 @@ public class HashMap<K, V> implements Map<K, V> {
      * соответствующему ключу key.
      */
     public V remove(Object key) {
+        Node<K, V> node = removeNode(hash(key), key);
+        if (node == null) {
+            return null;
+        }
+        shrinkIfSparse();
+        return node.value;
+    }
+
+    /**
+     * Удаляет узел по хэшу и ключу.
+     *
+     * @param hash - хэш ключа.
+     * @param key  - ключ.
+     * @return - удаленный узел или null, если ключа в Map нет.
+     */
+    Node<K, V> removeNode(int hash, Object key) {
         if (table != null) {
-            int hash = hash(key);
+            if (oldTable != null) {
+                migrateBucket(findIndex(hash, oldTable.length));
+                migrateStep();
+            }
             int index = findIndex(hash, capacity);
             Node<K, V> node = table[index];
-            if (node != null) {
-                if (hash == node.hash &&
-                        ((key == null) || key.equals(node.key))) {
+            Node<K, V> removed = null;
+            if (node instanceof TreeBin) {
+                TreeBin<K, V> bin = (TreeBin<K, V>) node;
+                removed = bin.removeTreeNode(hash, key);
+                if (removed != null && bin.size <= UNTREEIFY_THRESHOLD) {
+                    table[index] = bin.firstNode();
+                }
+            } else if (node != null) {
+                if (matches(node, hash, key)) {
                     table[index] = node.next;
-                    node.next = null;
-                    size--;
-                    return node.value;
-                }
-                while (node.next != null) {
-                    Node<K, V> removingNode = node.next;
-                    if (hash == removingNode.hash &&
-                            ((key == null) || key.equals(removingNode.key))) {
-                        node.next = removingNode.next;
-                        removingNode.next = null;
-                        size--;
-                        return removingNode.value;
+                    removed = node;
+                } else {
+                    while (node.next != null && !matches(node.next, hash, key)) {
+                        node = node.next;
+                    }
+                    removed = node.next;
+                    if (removed != null) {
+                        node.next = removed.next;
                     }
-                    node = removingNode;
                 }
             }
+            if (removed != null) {
+                removed.next = null;
+                modCount++;
+                size--;
+                afterNodeRemoval(removed);
+                return removed;
+            }
         }
         return null;
     }
 
+    /**
+     * Возвращает значение по ключу key или defaultValue, если ключа в Map нет.
+     * Значение null у хранящегося ключа возвращается как есть.
+     *
+     * @param key          - ключ.
+     * @param defaultValue - значение по умолчанию.
+     * @return - значение ключа или defaultValue.
+     */
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+        final Node<K, V> node = getNode(key);
+        if (node == null) {
+            return defaultValue;
+        }
+        afterNodeAccess(node);
+        return node.value;
+    }
+
+    /**
+     * Добавляет пару, если ключа нет в Map или его значение null.
+     * Корзина просматривается один раз.
+     *
+     * @param key   - ключ.
+     * @param value - значение.
+     * @return - текущее значение ключа или null, если value было добавлено.
+     */
+    @Override
+    public V putIfAbsent(K key, V value) {
+        final int hash = hash(key);
+        final Node<K, V> node = probe(hash, key);
+        if (node == null) {
+            addNode(hash, key, value);
+            return null;
+        }
+        if (node.value == null) {
+            node.value = value;
+            afterNodeUpdate(node, null);
+            return null;
+        }
+        afterNodeAccess(node);
+        return node.value;
+    }
+
+    /**
+     * Если ключа нет в Map или его значение null, вычисляет значение
+     * функцией mappingFunction и добавляет его, если оно не null.
+     * Найденный при поиске узел обновляется на месте, без повторного
+     * поиска ключа.
+     *
+     * @param key             - ключ.
+     * @param mappingFunction - функция, вычисляющая значение по ключу.
+     * @return - текущее или вычисленное значение, null - если функция вернула null.
+     * @throws ConcurrentModificationException - если функция изменила Map.
+     */
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        Objects.requireNonNull(mappingFunction);
+        final int hash = hash(key);
+        final Node<K, V> node = probe(hash, key);
+        if (node != null && node.value != null) {
+            afterNodeAccess(node);
+            return node.value;
+        }
+        final int expectedModCount = modCount;
+        final V value = mappingFunction.apply(key);
+        if (expectedModCount != modCount) {
+            throw new ConcurrentModificationException();
+        }
+        if (value != null) {
+            if (node == null) {
+                addNode(hash, key, value);
+            } else {
+                node.value = value;
+                afterNodeUpdate(node, null);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Если у ключа есть значение не null, заменяет его результатом
+     * remappingFunction; если функция вернула null, удаляет ключ.
+     *
+     * @param key               - ключ.
+     * @param remappingFunction - функция от ключа и текущего значения.
+     * @return - новое значение или null.
+     * @throws ConcurrentModificationException - если функция изменила Map.
+     */
+    @Override
+    public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(remappingFunction);
+        final int hash = hash(key);
+        final Node<K, V> node = getNode(hash, key);
+        if (node == null || node.value == null) {
+            return null;
+        }
+        final int expectedModCount = modCount;
+        return remap(node, hash, remappingFunction.apply(key, node.value), expectedModCount);
+    }
+
+    /**
+     * Заменяет значение ключа результатом remappingFunction от ключа и
+     * текущего значения (null, если ключа нет). Если функция вернула null,
+     * ключ удаляется, иначе значение обновляется или добавляется.
+     *
+     * @param key               - ключ.
+     * @param remappingFunction - функция от ключа и текущего значения.
+     * @return - новое значение или null.
+     * @throws ConcurrentModificationException - если функция изменила Map.
+     */
+    @Override
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(remappingFunction);
+        final int hash = hash(key);
+        final Node<K, V> node = probe(hash, key);
+        final int expectedModCount = modCount;
+        final V value = remappingFunction.apply(key, node == null ? null : node.value);
+        if (node != null) {
+            return remap(node, hash, value, expectedModCount);
+        }
+        if (expectedModCount != modCount) {
+            throw new ConcurrentModificationException();
+        }
+        if (value != null) {
+            addNode(hash, key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Если ключа нет в Map или его значение null, связывает ключ с value,
+     * иначе заменяет значение результатом remappingFunction от старого
+     * значения и value; если функция вернула null, ключ удаляется.
+     * Для подсчета merge(key, 1, Integer::sum) ключ ищется один раз,
+     * а найденный узел обновляется на месте.
+     *
+     * @param key               - ключ.
+     * @param value             - значение для отсутствующего ключа.
+     * @param remappingFunction - функция от старого значения и value.
+     * @return - новое значение или null.
+     * @throws NullPointerException            - если value равно null.
+     * @throws ConcurrentModificationException - если функция изменила Map.
+     */
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(value);
+        Objects.requireNonNull(remappingFunction);
+        final int hash = hash(key);
+        final Node<K, V> node = probe(hash, key);
+        if (node == null) {
+            addNode(hash, key, value);
+            return value;
+        }
+        if (node.value == null) {
+            node.value = value;
+            afterNodeUpdate(node, null);
+            return value;
+        }
+        final int expectedModCount = modCount;
+        return remap(node, hash, remappingFunction.apply(node.value, value), expectedModCount);
+    }
+
+    /**
+     * Заменяет значения всех пар результатом function, проходя массив
+     * корзин напрямую.
+     *
+     * @param function - функция от ключа и значения.
+     * @throws ConcurrentModificationException - если функция изменила Map.
+     */
+    @Override
+    public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+        Objects.requireNonNull(function);
+        completeMigration();
+        if (table == null) {
+            return;
+        }
+        final int expectedModCount = modCount;
+        for (Node<K, V> bucket : table) {
+            for (Node<K, V> node = firstNode(bucket); node != null; node = node.next) {
+                node.value = function.apply(node.key, node.value);
+            }
+            if (expectedModCount != modCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    /**
+     * Выполняет action для каждой пары. Если в Map не меньше
+     * parallelismThreshold пар, массив корзин делится на непересекающиеся
+     * диапазоны, которые обходятся задачами общего ForkJoinPool, иначе
+     * обход последовательный. Map не должна изменяться во время обхода,
+     * а action вызывается из разных потоков.
+     *
+     * @param parallelismThreshold - количество пар, с которого обход
+     *                             параллельный; Long.MAX_VALUE - всегда последовательный.
+     * @param action               - действие над ключом и значением.
+     * @throws ConcurrentModificationException - если Map изменилась во время обхода.
+     */
+    public void forEach(long parallelismThreshold, BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        invokeBulk(parallelismThreshold, new BulkOperation<Void>() {
+            @Override
+            Void scan(Node<K, V>[] tab, int lo, int hi) {
+                for (int i = lo; i < hi; i++) {
+                    for (Node<K, V> node = firstNode(tab[i]); node != null; node = node.next) {
+                        action.accept(node.key, node.value);
+                    }
+                }
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Заменяет значения всех пар результатом function, параллельно,
+     * если в Map не меньше parallelismThreshold пар, см. forEach(long, BiConsumer).
+     *
+     * @param parallelismThreshold - количество пар, с которого замена параллельная.
+     * @param function             - функция от ключа и значения.
+     * @throws ConcurrentModificationException - если Map изменилась во время обхода.
+     */
+    public void replaceAll(long parallelismThreshold, BiFunction<? super K, ? super V, ? extends V> function) {
+        Objects.requireNonNull(function);
+        invokeBulk(parallelismThreshold, new BulkOperation<Void>() {
+            @Override
+            Void scan(Node<K, V>[] tab, int lo, int hi) {
+                for (int i = lo; i < hi; i++) {
+                    for (Node<K, V> node = firstNode(tab[i]); node != null; node = node.next) {
+                        node.value = function.apply(node.key, node.value);
+                    }
+                }
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Сворачивает значения: каждое значение преобразуется transformer,
+     * результаты не null объединяются reducer в произвольном порядке.
+     * Параллельно, если в Map не меньше parallelismThreshold пар.
+     *
+     * @param parallelismThreshold - количество пар, с которого свертка параллельная.
+     * @param transformer          - преобразование значения; null пропускается.
+     * @param reducer              - ассоциативное объединение двух результатов.
+     * @return - результат свертки или null, если все преобразования вернули null.
+     * @throws ConcurrentModificationException - если Map изменилась во время обхода.
+     */
+    public <U> U reduceValues(long parallelismThreshold, Function<? super V, ? extends U> transformer,
+                              BiFunction<? super U, ? super U, ? extends U> reducer) {
+        Objects.requireNonNull(transformer);
+        Objects.requireNonNull(reducer);
+        return invokeBulk(parallelismThreshold, new BulkOperation<U>() {
+            @Override
+            U scan(Node<K, V>[] tab, int lo, int hi) {
+                U result = null;
+                for (int i = lo; i < hi; i++) {
+                    for (Node<K, V> node = firstNode(tab[i]); node != null; node = node.next) {
+                        U u = transformer.apply(node.value);
+                        if (u != null) {
+                            result = result == null ? u : reducer.apply(result, u);
+                        }
+                    }
+                }
+                return result;
+            }
+
+            @Override
+            U combine(U left, U right) {
+                return left == null ? right : right == null ? left : reducer.apply(left, right);
+            }
+        });
+    }
+
+    /**
+     * Возвращает первый найденный результат searchFunction не null.
+     * При параллельном поиске это результат любой подходящей пары, и
+     * после него остальные задачи прекращают обход.
+     *
+     * @param parallelismThreshold - количество пар, с которого поиск параллельный.
+     * @param searchFunction       - функция от ключа и значения, null - пара не подходит.
+     * @return - результат searchFunction или null, если подходящей пары нет.
+     * @throws ConcurrentModificationException - если Map изменилась во время обхода.
+     */
+    public <U> U search(long parallelismThreshold, BiFunction<? super K, ? super V, ? extends U> searchFunction) {
+        Objects.requireNonNull(searchFunction);
+        final AtomicReference<U> found = new AtomicReference<>();
+        invokeBulk(parallelismThreshold, new BulkOperation<Void>() {
+            @Override
+            Void scan(Node<K, V>[] tab, int lo, int hi) {
+                for (int i = lo; i < hi && found.get() == null; i++) {
+                    for (Node<K, V> node = firstNode(tab[i]); node != null; node = node.next) {
+                        U u = searchFunction.apply(node.key, node.value);
+                        if (u != null) {
+                            found.compareAndSet(null, u);
+                            return null;
+                        }
+                    }
+                }
+                return null;
+            }
+        });
+        return found.get();
+    }
+
+    /**
+     * Выполняет operation над всем массивом корзин: последовательно, если пар
+     * меньше parallelismThreshold, иначе задачами общего ForkJoinPool.
+     * Как в java.util.concurrent.ConcurrentHashMap, частей не больше
+     * size / parallelismThreshold и не больше четырех на поток.
+     *
+     * @param parallelismThreshold - количество пар, с которого обход параллельный.
+     * @param operation            - операция над диапазоном корзин.
+     * @return - результат operation.
+     */
+    private <R> R invokeBulk(long parallelismThreshold, BulkOperation<R> operation) {
+        completeMigration();
+        if (table == null) {
+            return null;
+        }
+        final int expectedModCount = modCount;
+        final int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        final long batches = parallelismThreshold <= 0 ? Long.MAX_VALUE : size / parallelismThreshold;
+        final R result;
+        if (batches <= 1) {
+            result = operation.scan(table, 0, table.length);
+        } else {
+            int leaves = (int) Math.min(batches, parallelism << 2);
+            result = ForkJoinPool.commonPool().invoke(
+                    new BulkTask<>(operation, table, 0, table.length, Math.max(1, table.length / leaves)));
+        }
+        if (expectedModCount != modCount) {
+            throw new ConcurrentModificationException();
+        }
+        return result;
+    }
+
+    /**
+     * Записывает в найденный узел значение, вычисленное функцией, или
+     * удаляет узел, если значение null.
+     *
+     * @param node             - узел ключа.
+     * @param hash             - хэш ключа.
+     * @param value            - вычисленное значение.
+     * @param expectedModCount - modCount до вызова функции.
+     * @return - value.
+     * @throws ConcurrentModificationException - если функция изменила Map.
+     */
+    private V remap(Node<K, V> node, int hash, V value, int expectedModCount) {
+        if (expectedModCount != modCount) {
+            throw new ConcurrentModificationException();
+        }
+        if (value == null) {
+            removeNode(hash, node.key);
+            shrinkIfSparse();
+        } else {
+            V oldValue = node.value;
+            node.value = value;
+            afterNodeUpdate(node, oldValue);
+        }
+        return value;
+    }
+
+    /**
+     * Ищет ключ для последующего изменения: создает массив корзин, если
+     * его нет, и переносит корзину ключа при постепенном переносе, так что
+     * отсутствующий ключ можно сразу добавить методом addNode().
+     *
+     * @param hash - хэш ключа.
+     * @param key  - ключ.
+     * @return - узел или null, если ключа в Map нет.
+     */
+    private Node<K, V> probe(int hash, Object key) {
+        if (table == null) {
+            resize();
+        }
+        if (oldTable != null) {
+            migrateBucket(findIndex(hash, oldTable.length));
+            migrateStep();
+        }
+        Node<K, V> node = table[findIndex(hash, capacity)];
+        if (node instanceof TreeBin) {
+            node = ((TreeBin<K, V>) node).find(hash, key);
+        } else {
+            while (node != null && !matches(node, hash, key)) {
+                node = node.next;
+            }
+        }
+        return node == null || validateNode(node) ? node : null;
+    }
+
+    /**
+     * Добавляет узел с ключом, которого точно нет в Map, после probe().
+     * Ключи в корзине не сравниваются: список проходится только до конца.
+     *
+     * @param hash  - хэш ключа.
+     * @param key   - ключ.
+     * @param value - значение.
+     */
+    private void addNode(int hash, K key, V value) {
+        int index = findIndex(hash, capacity);
+        Node<K, V> node = table[index];
+        if (node == null) {
+            table[index] = newNode(hash, key, value, null);
+        } else if (node instanceof TreeBin) {
+            ((TreeBin<K, V>) node).putTreeVal(this, hash, key, value);
+        } else {
+            int binCount = 1;
+            for (; node.next != null; node = node.next) {
+                binCount++;
+            }
+            node.next = newNode(hash, key, value, null);
+            if (binCount >= TREEIFY_THRESHOLD) {
+                treeifyBin(index);
+            }
+        }
+        modCount++;
+        size++;
+        if (size > threshold) {
+            resize();
+        }
+        afterNodeInsertion();
+    }
+
+    /**
+     * Создает узел для новой пары. Все узлы HashMap создаются этим
+     * методом, поэтому подкласс может вернуть наследника Node со своими
+     * полями.
+     *
+     * @param hash  - хэш ключа.
+     * @param key   - ключ.
+     * @param value - значение.
+     * @param next  - следующий узел корзины.
+     * @return - новый узел.
+     */
+    Node<K, V> newNode(int hash, K key, V value, Node<K, V> next) {
+        return new Node<>(hash, key, value, next);
+    }
+
+    /**
+     * Вызывается перед заменой уже созданного массива корзин: увеличением
+     * в resize(), а также перестроением в putAll(), ensureCapacity(),
+     * trimToSize() и при автоматическом уменьшении.
+     */
+    void beforeResize() {
+    }
+
+    /**
+     * Вызывается после замены массива корзин: после переноса всех узлов
+     * методом transform(), а при увеличении в режиме
+     * ResizeMode.INCREMENTAL - после подмены массива.
+     */
+    void afterResize() {
+    }
+
+    /**
+     * Количество узлов, которые просматривает поиск ключа, без самого
+     * поиска: для корзины-списка - узлы до совпадающего включительно,
+     * для корзины-дерева - глубина пути по хэшу.
+     *
+     * @param hash - хэш ключа.
+     * @param key  - ключ.
+     * @return - количество просмотренных узлов, если ключ есть в Map, или
+     * ~количество, если ключа нет.
+     */
+    int probeLength(int hash, Object key) {
+        if (table == null) {
+            return ~0;
+        }
+        Node<K, V> bucket = oldTable == null ? null : oldTable[findIndex(hash, oldTable.length)];
+        if (bucket == null) {
+            bucket = table[findIndex(hash, capacity)];
+        }
+        if (bucket instanceof TreeBin) {
+            return ((TreeBin<K, V>) bucket).probeLength(hash, key);
+        }
+        int length = 0;
+        for (Node<K, V> node = bucket; node != null; node = node.next) {
+            length++;
+            if (matches(node, hash, key)) {
+                return length;
+            }
+        }
+        return ~length;
+    }
+
+    /**
+     * Гистограмма длин корзин. Пока идет постепенный перенос, считаются
+     * корзины нового массива так, как если бы перенос уже закончился:
+     * еще не перенесенная корзина oldTable делится по хэшу на две, как в
+     * migrateBucket(), а обнуленные корзины oldTable не учитываются.
+     *
+     * @return - bucketLengths[i] - количество корзин из i узлов; длина
+     * массива на единицу больше самой длинной корзины.
+     */
+    int[] bucketLengths() {
+        // массивы читаются один раз: статистику могут запросить из другого
+        // потока, и перенос может закончиться или начаться заново во время обхода
+        Node<K, V>[] old = oldTable;
+        Node<K, V>[] tab = table;
+        if (old != null && (tab == null || tab.length != 2 * old.length)) {
+            old = null;
+        }
+        int[] lengths = new int[TREEIFY_THRESHOLD + 1];
+        if (tab == null) {
+            lengths[0] = capacity;
+            return Arrays.copyOf(lengths, 1);
+        }
+        if (old == null) {
+            for (Node<K, V> bucket : tab) {
+                lengths = countBucket(lengths, bucketLength(bucket));
+            }
+        } else {
+            int oldCapacity = old.length;
+            for (int i = 0; i < oldCapacity; i++) {
+                Node<K, V> bucket = old[i];
+                if (bucket == null) {
+                    lengths = countBucket(lengths, bucketLength(tab[i]));
+                    lengths = countBucket(lengths, bucketLength(tab[i + oldCapacity]));
+                } else {
+                    int low = 0;
+                    int high = 0;
+                    for (Node<K, V> node = firstNode(bucket); node != null; node = node.next) {
+                        if ((node.hash & oldCapacity) == 0) {
+                            low++;
+                        } else {
+                            high++;
+                        }
+                    }
+                    lengths = countBucket(lengths, low);
+                    lengths = countBucket(lengths, high);
+                }
+            }
+        }
+        int max = lengths.length - 1;
+        while (max > 0 && lengths[max] == 0) {
+            max--;
+        }
+        return Arrays.copyOf(lengths, max + 1);
+    }
+
+    private static <K, V> int bucketLength(Node<K, V> bucket) {
+        if (bucket instanceof TreeBin) {
+            return ((TreeBin<K, V>) bucket).size;
+        }
+        int length = 0;
+        for (Node<K, V> node = bucket; node != null; node = node.next) {
+            length++;
+        }
+        return length;
+    }
+
+    /**
+     * Учитывает корзину длины length, при необходимости увеличивая lengths.
+     */
+    private static int[] countBucket(int[] lengths, int length) {
+        if (length >= lengths.length) {
+            lengths = Arrays.copyOf(lengths, Math.max(length + 1, lengths.length * 2));
+        }
+        lengths[length]++;
+        return lengths;
+    }
+
+    /**
+     * Вызывается для узла, найденного поиском по ключу в getNode() и
+     * probe(), до того как поиск его вернет. Подкласс может удалить
+     * устаревший узел через removeNode() и вернуть false - тогда ключ
+     * считается отсутствующим. Обход Map этот метод не вызывает.
+     *
+     * @param node - найденный узел.
+     * @return - true, если узел действителен.
+     */
+    boolean validateNode(Node<K, V> node) {
+        return true;
+    }
+
+    /**
+     * Проверяет узел, не меняя Map: false - пара устарела и не должна
+     * попасть в другую Map, которая копирует эту в putAll(). В отличие от
+     * validateNode() узел не удаляется.
+     *
+     * @param node - узел этой Map.
+     * @return - true, если узел действителен.
+     */
+    boolean isLive(Node<K, V> node) {
+        return true;
+    }
+
+    /**
+     * Вызывается после успешного поиска ключа в get(), getOrDefault(),
+     * putIfAbsent() и computeIfAbsent(), когда значение не меняется.
+     *
+     * @param node - найденный узел.
+     */
+    void afterNodeAccess(Node<K, V> node) {
+    }
+
+    /**
+     * Вызывается после замены значения существующего ключа операцией над
+     * одним ключом: put(), compute(), merge() и т.д. Массовые replaceAll()
+     * и Map.Entry.setValue() этот метод не вызывают.
+     *
+     * @param node     - узел с новым значением.
+     * @param oldValue - прежнее значение.
+     */
+    void afterNodeUpdate(Node<K, V> node, V oldValue) {
+    }
+
+    /**
+     * Вызывается после добавления нового узла, когда size и массив корзин
+     * уже обновлены.
+     */
+    void afterNodeInsertion() {
+    }
+
+    /**
+     * Вызывается после удаления узла из корзины.
+     *
+     * @param node - удаленный узел.
+     */
+    void afterNodeRemoval(Node<K, V> node) {
+    }
+
     /**
      * Возвращает размер HashMap.
      *
@@ -439,12 +2232,68 @@ public class HashMap<K, V> implements Map<K, V> {
      */
     @Override
     public boolean containsValue(Object value) {
-        boolean contains = false;
-        final ValueIterator valueIterator = new ValueIterator();
-        while (!contains && valueIterator.hasNext()) {
-            contains = valueIterator.next().equals(value);
+        completeMigration();
+        if (table == null) {
+            return false;
+        }
+        for (Node<K, V> bucket : table) {
+            for (Node<K, V> node = firstNode(bucket); node != null; node = node.next) {
+                if (Objects.equals(value, node.value)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Возвращает новый курсор по парам HashMap. Курсор проходит массив
+     * корзин напрямую и не создает объектов при обходе, а после reset()
+     * переиспользуется для следующего прохода.
+     *
+     * @return - курсор перед первой парой.
+     */
+    public EntryCursor<K, V> cursor() {
+        return new HashCursor();
+    }
+
+    /**
+     * Выполняет action для каждой пары, проходя массив корзин напрямую,
+     * без итератора и объектов Map.Entry.
+     *
+     * @param action - действие над ключом и значением.
+     * @throws ConcurrentModificationException - если Map изменилась во время обхода.
+     */
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        completeMigration();
+        if (table == null) {
+            return;
+        }
+        final int expectedModCount = modCount;
+        for (Node<K, V> bucket : table) {
+            for (Node<K, V> node = firstNode(bucket); node != null; node = node.next) {
+                action.accept(node.key, node.value);
+            }
+            if (expectedModCount != modCount) {
+                throw new ConcurrentModificationException();
+            }
         }
-        return contains;
+    }
+
+    /**
+     * Текущее количество корзин.
+     */
+    int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Коэффициент загрузки, с которым создана Map.
+     */
+    double loadFactor() {
+        return loadFactor;
     }
 
     /**
@@ -453,9 +2302,29 @@ public class HashMap<K, V> implements Map<K, V> {
      * @param key - ключ, у которого вычисляется хэш.
      * @return - возвращает хэш ключа.
      */
-    private int hash(Object key) {
-        int h;
-        return key == null ? 0 : (h = key.hashCode()) ^ (h >>> 16);
+    int hash(Object key) {
+        if (key == null) {
+            return 0;
+        }
+        if (strategy == null) {
+            return spread(key);
+        }
+        return strategy.hashCode(key);
+    }
+
+    /**
+     * Хэш ключа без стратегии: старшие 16 бит hashCode() смешиваются с
+     * младшими, чтобы они влияли на индекс корзины. У null хэш 0.
+     *
+     * @param key - ключ.
+     * @return - хэш ключа.
+     */
+    static int spread(Object key) {
+        if (key == null) {
+            return 0;
+        }
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
     }
 
     /**
@@ -469,26 +2338,79 @@ public class HashMap<K, V> implements Map<K, V> {
         return hash & (capacity - 1);
     }
 
+    /**
+     * Проверяет, что узел хранит ключ key с хэшем hash.
+     *
+     * @param node - узел.
+     * @param hash - хэш ключа.
+     * @param key  - ключ.
+     * @return - true, если ключ узла совпадает с key.
+     */
+    private boolean matches(Node<?, ?> node, int hash, Object key) {
+        return node.hash == hash && keysEqual(strategy, key, node.key);
+    }
+
+    /**
+     * Сравнивает ключи через equals() или стратегией. null равен только null.
+     *
+     * @param strategy - стратегия или null.
+     * @param key      - искомый ключ.
+     * @param other    - ключ узла.
+     * @return - true, если ключи равны.
+     */
+    private static boolean keysEqual(HashingStrategy<Object> strategy, Object key, Object other) {
+        if (key == other) {
+            return true;
+        }
+        if (key == null) {
+            return false;
+        }
+        return strategy == null ? key.equals(other) : other != null && strategy.equals(key, other);
+    }
+
+    /**
+     * Возвращает первый узел корзины. Для корзины-дерева это голова списка
+     * узлов дерева, для обычной корзины - сама корзина.
+     *
+     * @param bucket - элемент массива корзин.
+     * @return - первый узел корзины или null, если корзина пуста.
+     */
+    private static <K, V> Node<K, V> firstNode(Node<K, V> bucket) {
+        return bucket instanceof TreeBin ? ((TreeBin<K, V>) bucket).firstNode() : bucket;
+    }
+
+    /**
+     * Общий пустой массив корзин.
+     */
+    @SuppressWarnings("unchecked")
+    private static <K, V> Node<K, V>[] emptyTable() {
+        return (Node<K, V>[]) EMPTY_TABLE;
+    }
+
+    /**
+     * Создает массив из length пустых корзин.
+     */
+    @SuppressWarnings("unchecked")
+    private static <K, V> Node<K, V>[] allocateTable(int length) {
+        return (Node<K, V>[]) new Node<?, ?>[length];
+    }
+
     /**
      * Метод возвращает строковое представление объекта.
-     * В каждой строчке выводится "key =" + key + "value =" + value.
+     * В каждой строчке выводится "key =" + key + "value =" + value,
+     * в порядке forEach().
      *
      * @return строковое представление объекта.
      */
     @Override
     public String toString() {
         StringBuilder stringBuilder = new StringBuilder("{").append(System.lineSeparator());
-        for (Node<K, V> node : table) {
-            while (node != null) {
-                stringBuilder.append("\t")
-                        .append("key = ")
-                        .append(node.key)
-                        .append("\t\tvalue = ")
-                        .append(node.value)
-                        .append(System.lineSeparator());
-                node = node.next;
-            }
-        }
+        forEach((key, value) -> stringBuilder.append("\t")
+                .append("key = ")
+                .append(key)
+                .append("\t\tvalue = ")
+                .append(value)
+                .append(System.lineSeparator()));
         return stringBuilder.append("}").toString();
     }
 
@@ -508,13 +2430,14 @@ public class HashMap<K, V> implements Map<K, V> {
 
         if (size != otherHashMap.size) return false;
 
-        for (Node<K, V> node : table) {
-            while (node != null) {
+        completeMigration();
+
+        for (Node<K, V> bucket : table == null ? HashMap.<K, V>emptyTable() : table) {
+            for (Node<K, V> node = firstNode(bucket); node != null; node = node.next) {
                 K key = node.key;
                 if (!node.equals(otherHashMap.getNode(key))) {
                     return false;
                 }
-                node = node.next;
             }
         }
         return true;
@@ -527,11 +2450,11 @@ public class HashMap<K, V> implements Map<K, V> {
      */
     @Override
     public int hashCode() {
+        completeMigration();
         int hash = 0;
-        for (Node<K, V> node : table) {
-            while (node != null) {
+        for (Node<K, V> bucket : table == null ? HashMap.<K, V>emptyTable() : table) {
+            for (Node<K, V> node = firstNode(bucket); node != null; node = node.next) {
                 hash += node.hashCode();
-                node = node.next;
             }
         }
         return hash;
@@ -577,6 +2500,10 @@ public class HashMap<K, V> implements Map<K, V> {
             return HashMap.this.remove(key) != null;
         }
 
+        @Override
+        public Spliterator<K> spliterator() {
+            return new KeySpliterator(0, -1, 0, 0);
+        }
     }
 
     /**
@@ -625,6 +2552,11 @@ public class HashMap<K, V> implements Map<K, V> {
             Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
             return HashMap.this.remove(entry.getKey()) != null;
         }
+
+        @Override
+        public Spliterator<Entry<K, V>> spliterator() {
+            return new EntrySpliterator(0, -1, 0, 0);
+        }
     }
 
     /**
@@ -660,6 +2592,11 @@ public class HashMap<K, V> implements Map<K, V> {
         public int size() {
             return size;
         }
+
+        @Override
+        public Spliterator<V> spliterator() {
+            return new ValueSpliterator(0, -1, 0, 0);
+        }
     }
 
     /**
@@ -674,13 +2611,14 @@ public class HashMap<K, V> implements Map<K, V> {
         int index;
 
         HashIterator() {
+            completeMigration();
             expectedModCount = modCount;
             next = null;
             current = null;
             index = 0;
             if (table != null) {
                 while (index < table.length && next == null) {
-                    next = table[index++];
+                    next = firstNode(table[index++]);
                 }
             }
         }
@@ -700,7 +2638,7 @@ public class HashMap<K, V> implements Map<K, V> {
             current = next;
             next = temp.next;
             while (index < table.length && next == null) {
-                next = table[index++];
+                next = firstNode(table[index++]);
             }
             return current;
         }
@@ -714,9 +2652,122 @@ public class HashMap<K, V> implements Map<K, V> {
                 throw new ConcurrentModificationException();
             }
             current = null;
-            HashMap.this.remove(temp.key);
+            removeNode(hash(temp.key), temp.key);
+            expectedModCount = modCount;
+        }
+    }
+
+    /**
+     * Курсор по корзинам массива table. Помнит узел перед текущим в списке
+     * корзины, поэтому remove() вырезает узел из списка без повторного
+     * поиска ключа; из корзины-дерева узел удаляется через removeNode().
+     */
+    private final class HashCursor implements EntryCursor<K, V> {
+
+        /**
+         * Индекс корзины текущего узла.
+         */
+        int index;
+        Node<K, V> current;
+
+        /**
+         * Узел перед текущим (или перед удаленным) в списке корзины.
+         */
+        Node<K, V> previous;
+
+        /**
+         * Узел после удаленного текущего.
+         */
+        Node<K, V> following;
+        int expectedModCount;
+
+        HashCursor() {
+            reset();
+        }
+
+        @Override
+        public void reset() {
+            completeMigration();
+            index = -1;
+            current = null;
+            previous = null;
+            following = null;
+            expectedModCount = modCount;
+        }
+
+        @Override
+        public boolean advance() {
+            if (expectedModCount != modCount) {
+                throw new ConcurrentModificationException();
+            }
+            final Node<K, V>[] tab = table;
+            Node<K, V> node;
+            if (current != null) {
+                previous = current;
+                node = current.next;
+            } else {
+                node = following;
+            }
+            following = null;
+            while (node == null) {
+                if (tab == null || index + 1 >= tab.length) {
+                    current = null;
+                    index = tab == null ? -1 : tab.length;
+                    return false;
+                }
+                node = firstNode(tab[++index]);
+                previous = null;
+            }
+            current = node;
+            return true;
+        }
+
+        @Override
+        public K key() {
+            return currentNode().key;
+        }
+
+        @Override
+        public V value() {
+            return currentNode().value;
+        }
+
+        @Override
+        public V setValue(V value) {
+            return currentNode().setValue(value);
+        }
+
+        @Override
+        public void remove() {
+            final Node<K, V> node = currentNode();
+            if (expectedModCount != modCount) {
+                throw new ConcurrentModificationException();
+            }
+            following = node.next;
+            if (table[index] instanceof TreeBin) {
+                removeNode(node.hash, node.key);
+            } else {
+                if (previous == null) {
+                    table[index] = following;
+                } else {
+                    previous.next = following;
+                }
+                node.next = null;
+                modCount++;
+                size--;
+                afterNodeRemoval(node);
+            }
+            current = null;
             expectedModCount = modCount;
         }
+
+        private Node<K, V> currentNode() {
+            final Node<K, V> node = current;
+            if (node == null) {
+                throw new IllegalStateException();
+            }
+            return node;
+        }
     }
 
     private class KeyIterator extends HashIterator implements Iterator<K> {
@@ -742,4 +2793,248 @@ public class HashMap<K, V> implements Map<K, V> {
             return nextNode();
         }
     }
+
+    /**
+     * Операция над диапазоном корзин для forEach(long, ...), replaceAll(long, ...),
+     * reduceValues() и search().
+     */
+    private abstract class BulkOperation<R> {
+
+        /**
+         * Обходит корзины [lo, hi) массива tab последовательно.
+         */
+        abstract R scan(Node<K, V>[] tab, int lo, int hi);
+
+        /**
+         * Объединяет результаты двух соседних диапазонов.
+         */
+        R combine(R left, R right) {
+            return left != null ? left : right;
+        }
+    }
+
+    /**
+     * Задача ForkJoinPool над диапазоном корзин [lo, hi): делит диапазон
+     * пополам, пока он длиннее minRange, и обходит части операцией operation.
+     */
+    private static final class BulkTask<K, V, R> extends RecursiveTask<R> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final HashMap<K, V>.BulkOperation<R> operation;
+        private final Node<K, V>[] tab;
+        private final int lo;
+        private final int hi;
+        private final int minRange;
+
+        BulkTask(HashMap<K, V>.BulkOperation<R> operation, Node<K, V>[] tab, int lo, int hi, int minRange) {
+            this.operation = operation;
+            this.tab = tab;
+            this.lo = lo;
+            this.hi = hi;
+            this.minRange = minRange;
+        }
+
+        @Override
+        protected R compute() {
+            if (hi - lo <= minRange) {
+                return operation.scan(tab, lo, hi);
+            }
+            final int mid = (lo + hi) >>> 1;
+            final BulkTask<K, V, R> left = new BulkTask<>(operation, tab, lo, mid, minRange);
+            left.fork();
+            final R right = new BulkTask<>(operation, tab, mid, hi, minRange).compute();
+            return operation.combine(left.join(), right);
+        }
+    }
+
+    /**
+     * Spliterator по диапазону корзин [index, fence) массива table.
+     * trySplit() отдает первую половину диапазона, поэтому параллельный
+     * поток делит массив корзин между потоками ForkJoinPool без обхода
+     * узлов. Диапазон привязывается к массиву при первом использовании:
+     * тогда же заканчивается постепенный перенос и запоминается modCount.
+     * Точный размер известен только у неразделенного Spliterator, у частей
+     * это оценка: половина размера родителя.
+     */
+    private abstract class HashSpliterator<T> implements Spliterator<T> {
+
+        int index;
+        int fence;
+        int estimate;
+        int expectedModCount;
+        Node<K, V> current;
+
+        HashSpliterator(int origin, int fence, int estimate, int expectedModCount) {
+            this.index = origin;
+            this.fence = fence;
+            this.estimate = estimate;
+            this.expectedModCount = expectedModCount;
+        }
+
+        /**
+         * Возвращает конец диапазона, при первом вызове привязывая
+         * Spliterator к текущему массиву корзин.
+         */
+        final int getFence() {
+            int hi = fence;
+            if (hi < 0) {
+                completeMigration();
+                estimate = size;
+                expectedModCount = modCount;
+                hi = fence = table == null ? 0 : table.length;
+            }
+            return hi;
+        }
+
+        /**
+         * Элемент Spliterator для узла: ключ, значение или сам узел.
+         */
+        abstract T element(Node<K, V> node);
+
+        /**
+         * Создает Spliterator того же вида по диапазону [origin, fence).
+         */
+        abstract HashSpliterator<T> split(int origin, int fence, int estimate, int expectedModCount);
+
+        @Override
+        public final HashSpliterator<T> trySplit() {
+            final int hi = getFence();
+            final int lo = index;
+            final int mid = (lo + hi) >>> 1;
+            if (lo >= mid || current != null) {
+                return null;
+            }
+            index = mid;
+            estimate >>>= 1;
+            return split(lo, mid, estimate, expectedModCount);
+        }
+
+        @Override
+        public final boolean tryAdvance(Consumer<? super T> action) {
+            Objects.requireNonNull(action);
+            final int hi = getFence();
+            final Node<K, V>[] tab = table;
+            if (tab == null || tab.length < hi) {
+                return false;
+            }
+            while (current != null || index < hi) {
+                if (current == null) {
+                    current = firstNode(tab[index++]);
+                } else {
+                    Node<K, V> node = current;
+                    current = node.next;
+                    action.accept(element(node));
+                    if (expectedModCount != modCount) {
+                        throw new ConcurrentModificationException();
+                    }
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public final void forEachRemaining(Consumer<? super T> action) {
+            Objects.requireNonNull(action);
+            final int hi = getFence();
+            final Node<K, V>[] tab = table;
+            Node<K, V> node = current;
+            int i = index;
+            current = null;
+            index = hi;
+            if (tab != null && tab.length >= hi) {
+                while (node != null || i < hi) {
+                    if (node == null) {
+                        node = firstNode(tab[i++]);
+                    } else {
+                        action.accept(element(node));
+                        node = node.next;
+                    }
+                }
+            }
+            if (expectedModCount != modCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+
+        @Override
+        public final long estimateSize() {
+            getFence();
+            return estimate;
+        }
+
+        /**
+         * SIZED, пока Spliterator не разделен и Map не изменилась.
+         */
+        final int sized() {
+            return fence < 0 || estimate == size ? Spliterator.SIZED : 0;
+        }
+    }
+
+    private final class KeySpliterator extends HashSpliterator<K> {
+
+        KeySpliterator(int origin, int fence, int estimate, int expectedModCount) {
+            super(origin, fence, estimate, expectedModCount);
+        }
+
+        @Override
+        K element(Node<K, V> node) {
+            return node.key;
+        }
+
+        @Override
+        KeySpliterator split(int origin, int fence, int estimate, int expectedModCount) {
+            return new KeySpliterator(origin, fence, estimate, expectedModCount);
+        }
+
+        @Override
+        public int characteristics() {
+            return sized() | Spliterator.DISTINCT;
+        }
+    }
+
+    private final class ValueSpliterator extends HashSpliterator<V> {
+
+        ValueSpliterator(int origin, int fence, int estimate, int expectedModCount) {
+            super(origin, fence, estimate, expectedModCount);
+        }
+
+        @Override
+        V element(Node<K, V> node) {
+            return node.value;
+        }
+
+        @Override
+        ValueSpliterator split(int origin, int fence, int estimate, int expectedModCount) {
+            return new ValueSpliterator(origin, fence, estimate, expectedModCount);
+        }
+
+        @Override
+        public int characteristics() {
+            return sized();
+        }
+    }
+
+    private final class EntrySpliterator extends HashSpliterator<Map.Entry<K, V>> {
+
+        EntrySpliterator(int origin, int fence, int estimate, int expectedModCount) {
+            super(origin, fence, estimate, expectedModCount);
+        }
+
+        @Override
+        Map.Entry<K, V> element(Node<K, V> node) {
+            return node;
+        }
+
+        @Override
+        EntrySpliterator split(int origin, int fence, int estimate, int expectedModCount) {
+            return new EntrySpliterator(origin, fence, estimate, expectedModCount);
+        }
+
+        @Override
+        public int characteristics() {
+            return sized() | Spliterator.DISTINCT;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,281 @@
+package map.impl;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * Двоичный снимок HashMap для сохранения в канал NIO и загрузки из него.
+ * Формат:
+ * <pre>
+ * заголовок: [magic int][version int][capacity int][loadFactor double][size long]
+ * записи:    [keySize int][key][valueSize int][value] - size раз
+ * </pre>
+ * Размер -1 означает null-ключ или null-значение. Порядок байт - KeyBuffer.ORDER.
+ * <p>
+ * Запись идет прямо из массива корзин через HashMap.forEach(), чтение -
+ * в HashMap, сразу созданную с capacity корзин, поэтому массив при загрузке
+ * не увеличивается. В обе стороны данные проходят через один прямой буфер
+ * на BUFFER_SIZE байт, и полная копия Map в куче не создается: снимок
+ * размером больше кучи сохраняется и загружается потоком. read() читает
+ * канал с опережением, поэтому снимок должен занимать канал до конца.
+ */
+public final class HashMapSnapshot {
+
+    static final int MAGIC = 0x534D4148;
+
+    static final int VERSION = 1;
+
+    static final int HEADER_SIZE = 28;
+
+    /**
+     * Размер буфера ввода-вывода. Запись больше буфера пишется и читается
+     * через отдельный буфер под ее размер.
+     */
+    static final int BUFFER_SIZE = 1 << 16;
+
+    private static final int NULL_SIZE = -1;
+
+    private HashMapSnapshot() {
+    }
+
+    /**
+     * Записывает снимок map в channel.
+     *
+     * @param map             - сохраняемая Map.
+     * @param channel         - канал, в который пишется снимок.
+     * @param keySerializer   - кодирование ключей.
+     * @param valueSerializer - кодирование значений.
+     * @throws IOException                               - если запись в канал не удалась.
+     * @throws java.util.ConcurrentModificationException - если map изменилась во время записи.
+     */
+    public static <K, V> void write(HashMap<K, V> map, WritableByteChannel channel,
+                                    Serializer<? super K> keySerializer,
+                                    Serializer<? super V> valueSerializer) throws IOException {
+        final Writer<K, V> writer = new Writer<>(channel, keySerializer, valueSerializer);
+        try {
+            writer.buffer.putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putInt(map.capacity())
+                    .putDouble(map.loadFactor())
+                    .putLong(map.size());
+            map.forEach(writer);
+            writer.flush();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            BufferCleaner.free(writer.buffer);
+        }
+    }
+
+    /**
+     * Записывает снимок map в файл file, заменяя его содержимое.
+     *
+     * @throws IOException - если файл не удалось открыть или записать.
+     */
+    public static <K, V> void write(HashMap<K, V> map, Path file,
+                                    Serializer<? super K> keySerializer,
+                                    Serializer<? super V> valueSerializer) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            write(map, channel, keySerializer, valueSerializer);
+        }
+    }
+
+    /**
+     * Читает снимок из channel в новую HashMap.
+     *
+     * @param channel         - канал, из которого читается снимок.
+     * @param keySerializer   - декодирование ключей.
+     * @param valueSerializer - декодирование значений.
+     * @return - загруженная HashMap с тем же количеством корзин и
+     * коэффициентом загрузки, что и у сохраненной.
+     * @throws EOFException - если канал закончился раньше снимка.
+     * @throws IOException  - если чтение не удалось или заголовок поврежден.
+     */
+    public static <K, V> HashMap<K, V> read(ReadableByteChannel channel, Serializer<K> keySerializer,
+                                            Serializer<V> valueSerializer) throws IOException {
+        final Reader reader = new Reader(channel);
+        try {
+            reader.require(HEADER_SIZE);
+            final ByteBuffer buffer = reader.buffer;
+            final int magic = buffer.getInt();
+            final int version = buffer.getInt();
+            if (magic != MAGIC || version != VERSION) {
+                throw new IOException("not a HashMap snapshot");
+            }
+            final int capacity = buffer.getInt();
+            final double loadFactor = buffer.getDouble();
+            final long size = buffer.getLong();
+            if (Integer.bitCount(capacity) != 1 || capacity > HashMap.MAX_CAPACITY
+                    || !(loadFactor > 0 && loadFactor <= 1) || size < 0 || size > Integer.MAX_VALUE) {
+                throw new IOException("corrupted snapshot header");
+            }
+            final HashMap<K, V> map = new HashMap<>(capacity, loadFactor);
+            for (long i = 0; i < size; i++) {
+                K key = reader.read(keySerializer);
+                map.put(key, reader.read(valueSerializer));
+            }
+            return map;
+        } finally {
+            BufferCleaner.free(reader.buffer);
+        }
+    }
+
+    /**
+     * Читает снимок из файла file.
+     *
+     * @throws IOException - если файл не удалось открыть или прочитать.
+     */
+    public static <K, V> HashMap<K, V> read(Path file, Serializer<K> keySerializer,
+                                            Serializer<V> valueSerializer) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return read(channel, keySerializer, valueSerializer);
+        }
+    }
+
+    private static void writeFully(WritableByteChannel channel, ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+
+    /**
+     * Кодирует пары в буфер и сбрасывает его в канал по заполнении.
+     * Вызывается из forEach(), поэтому IOException заворачивается в
+     * UncheckedIOException.
+     */
+    private static final class Writer<K, V> implements BiConsumer<K, V> {
+
+        private final WritableByteChannel channel;
+
+        private final Serializer<? super K> keySerializer;
+
+        private final Serializer<? super V> valueSerializer;
+
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(KeyBuffer.ORDER);
+
+        Writer(WritableByteChannel channel, Serializer<? super K> keySerializer,
+               Serializer<? super V> valueSerializer) {
+            this.channel = Objects.requireNonNull(channel);
+            this.keySerializer = Objects.requireNonNull(keySerializer);
+            this.valueSerializer = Objects.requireNonNull(valueSerializer);
+        }
+
+        @Override
+        public void accept(K key, V value) {
+            final int keySize = key == null ? 0 : keySerializer.size(key);
+            final int valueSize = value == null ? 0 : valueSerializer.size(value);
+            final long recordSize = 2L * Integer.BYTES + keySize + valueSize;
+            try {
+                if (buffer.remaining() < recordSize) {
+                    flush();
+                }
+                if (recordSize <= buffer.capacity()) {
+                    put(buffer, keySerializer, key, keySize);
+                    put(buffer, valueSerializer, value, valueSize);
+                } else {
+                    ByteBuffer large = ByteBuffer.allocate(Math.toIntExact(recordSize)).order(KeyBuffer.ORDER);
+                    put(large, keySerializer, key, keySize);
+                    put(large, valueSerializer, value, valueSize);
+                    large.flip();
+                    writeFully(channel, large);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private static <T> void put(ByteBuffer target, Serializer<? super T> serializer, T item, int size) {
+            if (item == null) {
+                target.putInt(NULL_SIZE);
+                return;
+            }
+            target.putInt(size);
+            final int start = target.position();
+            serializer.write(target, item);
+            if (target.position() - start != size) {
+                throw new IllegalStateException("serializer wrote " + (target.position() - start)
+                        + " bytes instead of " + size);
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            writeFully(channel, buffer);
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Читает канал в буфер порциями; buffer всегда в режиме чтения.
+     */
+    private static final class Reader {
+
+        private final ReadableByteChannel channel;
+
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(KeyBuffer.ORDER);
+
+        Reader(ReadableByteChannel channel) {
+            this.channel = Objects.requireNonNull(channel);
+            buffer.limit(0);
+        }
+
+        /**
+         * Дочитывает канал, пока в буфере не окажется length байт.
+         */
+        void require(int length) throws IOException {
+            if (buffer.remaining() >= length) {
+                return;
+            }
+            buffer.compact();
+            try {
+                fill(buffer, length);
+            } finally {
+                buffer.flip();
+            }
+        }
+
+        private void fill(ByteBuffer target, int length) throws IOException {
+            while (target.position() < length) {
+                if (channel.read(target) < 0) {
+                    throw new EOFException("snapshot is truncated");
+                }
+            }
+        }
+
+        <T> T read(Serializer<T> serializer) throws IOException {
+            require(Integer.BYTES);
+            final int size = buffer.getInt();
+            if (size == NULL_SIZE) {
+                return null;
+            }
+            if (size < 0) {
+                throw new IOException("corrupted snapshot record");
+            }
+            if (size > buffer.capacity()) {
+                ByteBuffer large = ByteBuffer.allocate(size).order(KeyBuffer.ORDER);
+                ByteBuffer head = buffer.duplicate();
+                head.limit(head.position() + Math.min(head.remaining(), size));
+                large.put(head);
+                buffer.position(head.position());
+                fill(large, size);
+                large.flip();
+                return serializer.read(large, size);
+            }
+            require(size);
+            final int end = buffer.position() + size;
+            final T item = serializer.read(buffer, size);
+            buffer.position(end);
+            return item;
+        }
+    }
+}
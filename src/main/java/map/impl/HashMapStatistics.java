@@ -0,0 +1,169 @@
+package map.impl;
+
+import java.util.Arrays;
+
+/**
+ * Снимок статистики InstrumentedHashMap на момент вызова statistics().
+ * Счетчики операций копируются, распределение длин корзин вычисляется
+ * обходом массива корзин.
+ * <p>
+ * Признаки плохого hashCode(): большая средняя длина поиска и
+ * maxBucketDepth() при небольшой загрузке, много пустых корзин при
+ * длинных цепочках. Признак заниженной начальной емкости - много
+ * resizeCount() и заметное resizeTimeNanos().
+ */
+public final class HashMapStatistics {
+
+    private final int size;
+
+    private final int capacity;
+
+    private final long hitCount;
+
+    private final long missCount;
+
+    private final long putCount;
+
+    private final long[] probeLengths;
+
+    private final int[] bucketLengths;
+
+    private final long resizeCount;
+
+    private final long resizeTimeNanos;
+
+    HashMapStatistics(int size, int capacity, long hitCount, long missCount, long putCount, long[] probeLengths,
+                      int[] bucketLengths, long resizeCount, long resizeTimeNanos) {
+        this.size = size;
+        this.capacity = capacity;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.putCount = putCount;
+        this.probeLengths = probeLengths.clone();
+        this.bucketLengths = bucketLengths.clone();
+        this.resizeCount = resizeCount;
+        this.resizeTimeNanos = resizeTimeNanos;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return - количество корзин.
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * @return - количество get(), нашедших ключ.
+     */
+    public long hitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return - количество get(), не нашедших ключ.
+     */
+    public long missCount() {
+        return missCount;
+    }
+
+    /**
+     * @return - доля попаданий get(); 1, если get() не вызывался.
+     */
+    public double hitRate() {
+        return hitRate(hitCount, missCount);
+    }
+
+    static double hitRate(long hitCount, long missCount) {
+        final long requests = hitCount + missCount;
+        return requests == 0 ? 1.0 : (double) hitCount / requests;
+    }
+
+    public long putCount() {
+        return putCount;
+    }
+
+    /**
+     * Распределение количества просмотренных узлов на один get() или put().
+     *
+     * @return - probeLengths[i] - количество поисков, просмотревших i узлов;
+     * последний элемент - поиски длиной не меньше probeLengths.length - 1.
+     */
+    public long[] probeLengths() {
+        return probeLengths.clone();
+    }
+
+    /**
+     * @return - среднее количество просмотренных узлов на один get() или put().
+     */
+    public double averageProbeLength() {
+        return averageProbeLength(probeLengths);
+    }
+
+    static double averageProbeLength(long[] probeLengths) {
+        long probes = 0;
+        long nodes = 0;
+        for (int i = 0; i < probeLengths.length; i++) {
+            probes += probeLengths[i];
+            nodes += i * probeLengths[i];
+        }
+        return probes == 0 ? 0 : (double) nodes / probes;
+    }
+
+    /**
+     * @return - bucketLengths[i] - количество корзин из i узлов.
+     */
+    public int[] bucketLengths() {
+        return bucketLengths.clone();
+    }
+
+    /**
+     * @return - количество узлов в самой длинной корзине.
+     */
+    public int maxBucketDepth() {
+        return bucketLengths.length - 1;
+    }
+
+    /**
+     * @return - доля пустых корзин.
+     */
+    public double emptyBucketFraction() {
+        long buckets = 0;
+        for (int count : bucketLengths) {
+            buckets += count;
+        }
+        return buckets == 0 ? 0 : (double) bucketLengths[0] / buckets;
+    }
+
+    /**
+     * @return - количество увеличений массива корзин.
+     */
+    public long resizeCount() {
+        return resizeCount;
+    }
+
+    /**
+     * @return - суммарное время увеличений массива корзин в наносекундах;
+     * в режиме ResizeMode.EAGER это время transform().
+     */
+    public long resizeTimeNanos() {
+        return resizeTimeNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "HashMapStatistics{size=" + size
+                + ", capacity=" + capacity
+                + ", hitRate=" + hitRate()
+                + ", puts=" + putCount
+                + ", averageProbeLength=" + averageProbeLength()
+                + ", probeLengths=" + Arrays.toString(probeLengths)
+                + ", maxBucketDepth=" + maxBucketDepth()
+                + ", emptyBucketFraction=" + emptyBucketFraction()
+                + ", resizes=" + resizeCount
+                + ", resizeTimeNanos=" + resizeTimeNanos + '}';
+    }
+}
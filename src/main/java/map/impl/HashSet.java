@@ -0,0 +1,571 @@
+package map.impl;
+
+import java.util.*;
+
+/**
+ * Реализация интерфейса Set с открытой адресацией - OpenHashMap без
+ * массива значений. В отличие от keySet() у Map с фиктивными значениями,
+ * на элемент не тратится ни узел, ни ссылка на значение: в ячейке лежат
+ * только элемент и его хэш. Размер массивов, перемешивание хэшей и
+ * удаление со сдвигом назад общие с OpenHashMap и IntHashSet (OpenTable).
+ * <p>
+ * addAll(), retainAll() и removeAll() с другим HashSet проходят по его
+ * массивам напрямую и берут сохраненные хэши, не вызывая hashCode().
+ * addAll() заранее увеличивает массивы под большую из двух коллекций,
+ * retainAll() и removeAll() перестраивают массивы за один проход вместо
+ * удаления элементов по одному.
+ * Элемент null хранится как объект-заглушка NULL_KEY.
+ */
+public class HashSet<E> extends OpenTable implements Set<E> {
+
+    /**
+     * Заглушка, которая хранится в keys вместо элемента null. Пустая ячейка
+     * обозначается null в keys.
+     */
+    private static final Object NULL_KEY = new Object();
+
+    /**
+     * Коэффициент загрузки по умолчанию. Меньше, чем у HashMap: при
+     * линейном пробировании промах при заполнении 0.6 проходит в среднем
+     * 3.6 ячейки, при заполнении 0.3 - 1.5. Ячейка занимает 8 байт против
+     * узла и ссылки на него у HashMap, поэтому Set и при 0.5 меньше keySet().
+     */
+    static final double DEFAULT_LOAD_FACTOR = 0.5;
+
+    /**
+     * Массив элементов.
+     */
+    private Object[] keys;
+
+    /**
+     * Массив хэшей, hashes[i] - хэш элемента keys[i]. Хэш элемента не
+     * бывает нулевым, поэтому 0 обозначает пустую ячейку: поиск проходит
+     * цепочку только по этому массиву и читает keys лишь при совпадении хэша.
+     */
+    private int[] hashes;
+
+    /**
+     * Конструктор. Инициализирует поля capacity и threshold
+     * по входным аргументам.
+     *
+     * @param capacity   - начальное количество ячеек.
+     * @param loadFactor - коэффициент загрузки.
+     * @throws IllegalArgumentException - если capacity отрицательный или
+     *                                  loadFactor не лежит между 0 и 1.
+     */
+    public HashSet(int capacity, double loadFactor) {
+        super(capacity, loadFactor);
+    }
+
+    /**
+     * Конструктор с коэффициентом загрузки по умолчанию.
+     *
+     * @param capacity - начальное количество ячеек.
+     */
+    public HashSet(int capacity) {
+        this(capacity, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Конструктор с количеством ячеек и коэффициентом загрузки по умолчанию.
+     */
+    public HashSet() {
+        this(HashMap.DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Конструктор копирования.
+     *
+     * @param c - элементы нового Set.
+     */
+    public HashSet(Collection<? extends E> c) {
+        this();
+        addAll(c);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        Object k = maskNull(o);
+        return findSlot(k, hash(k)) >= 0;
+    }
+
+    /**
+     * Добавляет элемент.
+     *
+     * @param e - элемент.
+     * @return - true, если элемента не было.
+     */
+    @Override
+    public boolean add(E e) {
+        Object k = maskNull(e);
+        return insert(k, hash(k));
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        Object k = maskNull(o);
+        int index = findSlot(k, hash(k));
+        if (index < 0) {
+            return false;
+        }
+        shiftOut(index);
+        return true;
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        if (c instanceof HashSet) {
+            HashSet<?> other = (HashSet<?>) c;
+            for (int i = 0; i < other.slotCount(); i++) {
+                Object k = other.keys[i];
+                if (k != null && findSlot(k, other.hashes[i]) < 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        for (Object o : c) {
+            if (!contains(o)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Добавляет все элементы коллекции. Массивы заранее увеличиваются до
+     * размера, которого хватит на большее из size и c.size(): столько
+     * элементов будет в Set как минимум, а если в c много элементов этого
+     * Set, запас на size + c.size() остался бы пустым.
+     *
+     * @param c - добавляемые элементы.
+     * @return - true, если Set изменился.
+     */
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        reserve(Math.max(size, c.size()));
+        boolean modified = false;
+        if (c instanceof HashSet) {
+            HashSet<?> other = (HashSet<?>) c;
+            for (int i = 0; i < other.slotCount(); i++) {
+                Object k = other.keys[i];
+                if (k != null) {
+                    modified |= insert(k, other.hashes[i]);
+                }
+            }
+        } else {
+            for (E e : c) {
+                modified |= add(e);
+            }
+        }
+        return modified;
+    }
+
+    /**
+     * Оставляет только элементы, которые есть в коллекции c. Массивы
+     * перестраиваются за один проход. Если c - HashSet меньшего размера,
+     * проход идет по его массивам.
+     *
+     * @param c - коллекция оставляемых элементов.
+     * @return - true, если Set изменился.
+     */
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        Objects.requireNonNull(c);
+        if (size == 0) {
+            return false;
+        }
+        if (c instanceof HashSet) {
+            HashSet<?> other = (HashSet<?>) c;
+            return other.size < size ? rebuild(other, this, true) : rebuild(this, other, true);
+        }
+        return rebuild(c, true);
+    }
+
+    /**
+     * Удаляет все элементы коллекции c. Если c - HashSet меньшего размера,
+     * его элементы удаляются по одному с сохраненными хэшами, иначе массивы
+     * перестраиваются за один проход.
+     *
+     * @param c - коллекция удаляемых элементов.
+     * @return - true, если Set изменился.
+     */
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        Objects.requireNonNull(c);
+        if (size == 0) {
+            return false;
+        }
+        if (c instanceof HashSet) {
+            HashSet<?> other = (HashSet<?>) c;
+            if (other.size >= size) {
+                return rebuild(this, other, false);
+            }
+            boolean modified = false;
+            for (int i = 0; i < other.slotCount(); i++) {
+                Object k = other.keys[i];
+                int index;
+                if (k != null && (index = findSlot(k, other.hashes[i])) >= 0) {
+                    shiftOut(index);
+                    modified = true;
+                }
+            }
+            return modified;
+        }
+        if (c.size() < size) {
+            boolean modified = false;
+            for (Object o : c) {
+                modified |= remove(o);
+            }
+            return modified;
+        }
+        return rebuild(c, false);
+    }
+
+    /**
+     * Очищает Set. Массивы сохраняются для повторного заполнения.
+     */
+    @Override
+    public void clear() {
+        if (keys != null && size > 0) {
+            Arrays.fill(keys, null);
+            Arrays.fill(hashes, 0);
+        }
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new KeyIterator();
+    }
+
+    @Override
+    public Object[] toArray() {
+        Object[] result = new Object[size];
+        int j = 0;
+        for (int i = 0; i < slotCount(); i++) {
+            if (keys[i] != null) {
+                result[j++] = keyAt(i);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T[] toArray(T[] a) {
+        T[] result = a.length >= size ? a
+                : (T[]) java.lang.reflect.Array.newInstance(a.getClass().getComponentType(), size);
+        int j = 0;
+        for (int i = 0; i < slotCount(); i++) {
+            if (keys[i] != null) {
+                result[j++] = (T) keyAt(i);
+            }
+        }
+        if (result.length > size) {
+            result[size] = null;
+        }
+        return result;
+    }
+
+    /**
+     * Ищет ячейку элемента k с хэшем hash.
+     *
+     * @param k    - элемент, null уже заменен на NULL_KEY.
+     * @param hash - хэш элемента.
+     * @return - индекс ячейки или -1, если элемента нет.
+     */
+    private int findSlot(Object k, int hash) {
+        if (keys != null) {
+            int mask = capacity - 1;
+            int index = hash & mask;
+            int current;
+            while ((current = hashes[index]) != 0) {
+                if (current == hash && matches(k, index)) {
+                    return index;
+                }
+                index = (index + 1) & mask;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Проверяет, что в ячейке index лежит элемент k.
+     */
+    private boolean matches(Object k, int index) {
+        Object current = keys[index];
+        return current == k || k.equals(current);
+    }
+
+    /**
+     * Добавляет элемент k с хэшем hash, если его еще нет.
+     *
+     * @return - true, если элемент добавлен.
+     */
+    private boolean insert(Object k, int hash) {
+        if (keys == null) {
+            allocate(capacity);
+        }
+        int mask = capacity - 1;
+        int index = hash & mask;
+        int current;
+        while ((current = hashes[index]) != 0) {
+            if (current == hash && matches(k, index)) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[index] = k;
+        hashes[index] = hash;
+        modCount++;
+        if (++size > threshold) {
+            rehash(grownCapacity());
+        }
+        return true;
+    }
+
+    /**
+     * Увеличивает массивы так, чтобы expectedSize элементов не превысили порог.
+     */
+    private void reserve(int expectedSize) {
+        int newCapacity = capacityFor(expectedSize);
+        if (keys == null) {
+            capacity = newCapacity;
+        } else if (newCapacity > capacity) {
+            rehash(newCapacity);
+        }
+    }
+
+    /**
+     * Перестраивает массивы, оставляя элементы source, которые есть
+     * (retain = true) или которых нет (retain = false) в filter. source и
+     * filter - это this и другой HashSet в любом порядке; хэши берутся из
+     * массивов source. Новые массивы заменяют старые только после прохода,
+     * так как filter может оказаться this. Если source - другой HashSet
+     * (только при retain = true), в массивы попадает не его элемент, а
+     * равный ему элемент this из найденной ячейки: retainAll() не должен
+     * подменять элементы Set.
+     *
+     * @return - true, если Set изменился.
+     */
+    private boolean rebuild(HashSet<?> source, HashSet<?> filter, boolean retain) {
+        Object[] newKeys = new Object[capacity];
+        int[] newHashes = new int[capacity];
+        int newSize = 0;
+        for (int i = 0; i < source.slotCount(); i++) {
+            Object k = source.keys[i];
+            int slot;
+            if (k != null && ((slot = filter.findSlot(k, source.hashes[i])) >= 0) == retain) {
+                place(newKeys, newHashes, source == this ? k : keys[slot], source.hashes[i]);
+                newSize++;
+            }
+        }
+        return replaceArrays(newKeys, newHashes, newSize);
+    }
+
+    /**
+     * Перестраивает массивы, оставляя элементы, которые есть (retain = true)
+     * или которых нет (retain = false) в коллекции c.
+     *
+     * @return - true, если Set изменился.
+     */
+    private boolean rebuild(Collection<?> c, boolean retain) {
+        Object[] newKeys = new Object[capacity];
+        int[] newHashes = new int[capacity];
+        int newSize = 0;
+        for (int i = 0; i < capacity; i++) {
+            Object k = keys[i];
+            if (k != null && c.contains(keyAt(i)) == retain) {
+                place(newKeys, newHashes, k, hashes[i]);
+                newSize++;
+            }
+        }
+        return replaceArrays(newKeys, newHashes, newSize);
+    }
+
+    /**
+     * Заменяет массивы перестроенными.
+     *
+     * @return - true, если изменилось количество элементов.
+     */
+    private boolean replaceArrays(Object[] newKeys, int[] newHashes, int newSize) {
+        boolean modified = newSize != size;
+        keys = newKeys;
+        hashes = newHashes;
+        size = newSize;
+        modCount++;
+        return modified;
+    }
+
+    /**
+     * Кладет элемент, которого заведомо нет в массивах, в первую свободную
+     * ячейку после ячейки хэша.
+     */
+    private static void place(Object[] keys, int[] hashes, Object k, int hash) {
+        int mask = keys.length - 1;
+        int index = hash & mask;
+        while (hashes[index] != 0) {
+            index = (index + 1) & mask;
+        }
+        keys[index] = k;
+        hashes[index] = hash;
+    }
+
+    /**
+     * Создает массивы на newCapacity ячеек.
+     */
+    private void allocate(int newCapacity) {
+        keys = new Object[newCapacity];
+        hashes = new int[newCapacity];
+        capacity = newCapacity;
+        threshold = thresholdFor(newCapacity);
+    }
+
+    /**
+     * Перестраивает массивы на newCapacity ячеек, используя сохраненные хэши.
+     */
+    private void rehash(int newCapacity) {
+        Object[] oldKeys = keys;
+        int[] oldHashes = hashes;
+        allocate(newCapacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                place(keys, hashes, oldKeys[i], oldHashes[i]);
+            }
+        }
+    }
+
+    @Override
+    int hashAt(int slot) {
+        return hashes[slot];
+    }
+
+    @Override
+    boolean isFree(int slot) {
+        return hashes[slot] == 0;
+    }
+
+    @Override
+    void moveSlot(int from, int to) {
+        keys[to] = keys[from];
+        hashes[to] = hashes[from];
+    }
+
+    @Override
+    void clearSlot(int slot) {
+        keys[slot] = null;
+        hashes[slot] = 0;
+    }
+
+    @Override
+    int slotCount() {
+        return keys == null ? 0 : capacity;
+    }
+
+    @Override
+    Object boxedKeyAt(int slot) {
+        return keyAt(slot);
+    }
+
+    @Override
+    int findBoxed(Object key) {
+        Object k = maskNull(key);
+        return findSlot(k, hash(k));
+    }
+
+    /**
+     * Вычисляет хэш элемента, перемешивая его хэш-код методом mix().
+     * Старший бит всегда установлен, чтобы хэш не совпал с пустой ячейкой;
+     * в индекс ячейки он не попадает, так как ячеек меньше 2^31.
+     *
+     * @param k - элемент, null уже заменен на NULL_KEY.
+     * @return - ненулевой хэш элемента.
+     */
+    private static int hash(Object k) {
+        return mix(k.hashCode()) | Integer.MIN_VALUE;
+    }
+
+    private static Object maskNull(Object key) {
+        return key == null ? NULL_KEY : key;
+    }
+
+    @SuppressWarnings("unchecked")
+    private E keyAt(int index) {
+        Object k = keys[index];
+        return k == NULL_KEY ? null : (E) k;
+    }
+
+    /**
+     * Метод возвращает строковое представление объекта.
+     * В каждой строчке выводится "key =" + key.
+     *
+     * @return строковое представление объекта.
+     */
+    @Override
+    public String toString() {
+        StringBuilder stringBuilder = new StringBuilder("{").append(System.lineSeparator());
+        for (int i = 0; i < slotCount(); i++) {
+            if (keys[i] != null) {
+                stringBuilder.append("\t")
+                        .append("key = ")
+                        .append(keyAt(i))
+                        .append(System.lineSeparator());
+            }
+        }
+        return stringBuilder.append("}").toString();
+    }
+
+    /**
+     * Сравнивает с любым Set по контракту Set.equals.
+     *
+     * @param o - объект для сравнение с this
+     * @return true, если объекты схожие, false - в обратном случае
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Set)) return false;
+
+        Set<?> other = (Set<?>) o;
+
+        if (size != other.size()) return false;
+
+        return other.containsAll(this);
+    }
+
+    /**
+     * Вычисляет хэш код по контракту Set.hashCode.
+     *
+     * @return хэш код Set.
+     */
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (int i = 0; i < slotCount(); i++) {
+            if (keys[i] != null) {
+                hash += Objects.hashCode(keyAt(i));
+            }
+        }
+        return hash;
+    }
+
+    private class KeyIterator extends SlotIterator implements Iterator<E> {
+
+        @Override
+        public E next() {
+            return keyAt(nextSlot());
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package map.impl;
+
+import java.security.SecureRandom;
+
+/**
+ * Готовые реализации HashingStrategy.
+ */
+public final class HashingStrategies {
+
+    /**
+     * hashCode() и equals() ключа, хэш перемешивается как в HashMap по
+     * умолчанию: h ^ (h >>> 16). HashMap с этой стратегией работает так
+     * же, как без стратегии.
+     */
+    public static final HashingStrategy<Object> DEFAULT = new Equality() {
+        @Override
+        public int hashCode(Object key) {
+            int h = key.hashCode();
+            return h ^ (h >>> 16);
+        }
+    };
+
+    /**
+     * hashCode() ключа, перемешанный финализатором Murmur3 (fmix32):
+     * каждый бит hashCode() влияет на все биты результата, поэтому ключи,
+     * которые различаются только в старших битах или кратны степени
+     * двойки, расходятся по разным корзинам.
+     */
+    public static final HashingStrategy<Object> MURMUR3 = new Equality() {
+        @Override
+        public int hashCode(Object key) {
+            return mix(key.hashCode());
+        }
+    };
+
+    /**
+     * Сравнение ключей по ссылке и System.identityHashCode(), как в
+     * java.util.IdentityHashMap.
+     */
+    public static final HashingStrategy<Object> IDENTITY = new HashingStrategy<Object>() {
+        @Override
+        public int hashCode(Object key) {
+            int h = System.identityHashCode(key);
+            return h ^ (h >>> 16);
+        }
+
+        @Override
+        public boolean equals(Object first, Object second) {
+            return first == second;
+        }
+    };
+
+    private static final SecureRandom SEEDS = new SecureRandom();
+
+    private HashingStrategies() {
+    }
+
+    /**
+     * Стратегия со случайным секретным зерном, см. seeded(int).
+     *
+     * @return - новая стратегия со своим зерном.
+     */
+    public static HashingStrategy<Object> seeded() {
+        return seeded(SEEDS.nextInt());
+    }
+
+    /**
+     * Хэш с зерном seed для ключей из недоверенного источника. Строки
+     * (String) хэшируются по символам алгоритмом Murmur3 с зерном,
+     * поэтому строки с подобранным одинаковым hashCode() получают разные
+     * хэши. Для остальных ключей зерно смешивается с hashCode(), и ключи
+     * с одинаковым hashCode() по-прежнему попадают в одну корзину.
+     * Проверяется только точный класс String: instanceof CharSequence для
+     * ключей других классов обходит список интерфейсов класса и стоит
+     * дороже самого хэша.
+     *
+     * @param seed - зерно; чтобы хэши нельзя было предсказать, его нужно
+     *             держать в секрете.
+     * @return - новая стратегия.
+     */
+    public static HashingStrategy<Object> seeded(int seed) {
+        return new Equality() {
+            @Override
+            public int hashCode(Object key) {
+                if (key instanceof String) {
+                    return murmur3((String) key, seed);
+                }
+                return mix(key.hashCode() ^ seed);
+            }
+        };
+    }
+
+    /**
+     * Финализатор Murmur3 fmix32.
+     */
+    static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Murmur3 x86_32 над UTF-16 символами строки: два символа на блок
+     * из четырех байт.
+     */
+    static int murmur3(CharSequence chars, int seed) {
+        final int length = chars.length();
+        int h = seed;
+        int i = 1;
+        for (; i < length; i += 2) {
+            int k = chars.charAt(i - 1) | (chars.charAt(i) << 16);
+            h = mixBlock(h, k);
+            h = Integer.rotateLeft(h, 13) * 5 + 0xe6546b64;
+        }
+        if ((length & 1) == 1) {
+            h = mixBlock(h, chars.charAt(length - 1));
+        }
+        return mix(h ^ (length << 1));
+    }
+
+    private static int mixBlock(int h, int k) {
+        k *= 0xcc9e2d51;
+        k = Integer.rotateLeft(k, 15);
+        k *= 0x1b873593;
+        return h ^ k;
+    }
+
+    /**
+     * Стратегия со сравнением ключей по equals().
+     */
+    abstract static class Equality implements HashingStrategy<Object> {
+
+        @Override
+        public boolean equals(Object first, Object second) {
+            return first.equals(second);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package map.impl;
+
+/**
+ * Хэширование и сравнение ключей HashMap вместо hashCode() и equals()
+ * самих ключей. Позволяет исправить слабый hashCode(), защититься от
+ * подобранных коллизий (HashDoS) или сравнивать ключи по ссылке.
+ * Готовые реализации находятся в HashingStrategies.
+ * <p>
+ * HashMap не передает стратегии null: null-ключ всегда имеет хэш 0 и
+ * равен только null. Значение hashCode() используется как хэш HashMap
+ * без дополнительного перемешивания, поэтому младшие биты результата
+ * должны быть распределены равномерно.
+ *
+ * @param <K> - тип ключей.
+ */
+public interface HashingStrategy<K> {
+
+    /**
+     * @param key - ключ, не null.
+     * @return - хэш ключа; равные по equals() ключи должны иметь равные хэши.
+     */
+    int hashCode(K key);
+
+    /**
+     * @param first  - ключ, не null.
+     * @param second - ключ, не null.
+     * @return - true, если ключи равны.
+     */
+    boolean equals(K first, K second);
+}
@@ -0,0 +1,245 @@
+package map.impl;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+/**
+ * HashMap со сбором статистики для поиска плохих hashCode() и
+ * недостаточной начальной емкости: распределение длины поиска в get()
+ * и put(), попадания и промахи get(), количество и время увеличений
+ * массива корзин. Распределение длин корзин и доля пустых корзин
+ * вычисляются в момент снимка statistics().
+ * <p>
+ * Статистика собирается только этим подклассом, поэтому обычная HashMap
+ * за нее не платит. Сама InstrumentedHashMap перед каждым get() и put()
+ * отдельно проходит корзину ключа, чтобы посчитать длину поиска, и
+ * предназначена для диагностики, а не для самых горячих путей.
+ * <p>
+ * registerMBean() публикует через JMX только счетчики: они читаются из
+ * потока JMX без синхронизации, поэтому значения приблизительные, если
+ * Map в это время изменяется. Распределение длин корзин требует обхода
+ * всего массива корзин и доступно только в снимке statistics().
+ */
+public class InstrumentedHashMap<K, V> extends HashMap<K, V> {
+
+    /**
+     * Поиски длиннее считаются в последнем элементе распределения.
+     */
+    static final int MAX_PROBE_LENGTH = 16;
+
+    /**
+     * Статистика HashMap в JMX.
+     */
+    public interface StatisticsMXBean {
+
+        int getSize();
+
+        int getCapacity();
+
+        long getHitCount();
+
+        long getMissCount();
+
+        double getHitRate();
+
+        long getPutCount();
+
+        double getAverageProbeLength();
+
+        long[] getProbeLengths();
+
+        long getResizeCount();
+
+        long getResizeTimeNanos();
+
+        void reset();
+    }
+
+    private long hitCount;
+
+    private long missCount;
+
+    private long putCount;
+
+    private final long[] probeLengths = new long[MAX_PROBE_LENGTH + 1];
+
+    private long resizeCount;
+
+    private long resizeTimeNanos;
+
+    private long resizeStart;
+
+    private ObjectName objectName;
+
+    public InstrumentedHashMap(int capacity, double loadFactor, ResizeMode resizeMode,
+                               HashingStrategy<? super K> strategy) {
+        super(capacity, loadFactor, resizeMode, strategy);
+    }
+
+    public InstrumentedHashMap(int capacity, double loadFactor, ResizeMode resizeMode) {
+        super(capacity, loadFactor, resizeMode);
+    }
+
+    public InstrumentedHashMap(int capacity, double loadFactor) {
+        super(capacity, loadFactor);
+    }
+
+    public InstrumentedHashMap(int capacity) {
+        super(capacity);
+    }
+
+    public InstrumentedHashMap(HashingStrategy<? super K> strategy) {
+        super(strategy);
+    }
+
+    public InstrumentedHashMap() {
+    }
+
+    @Override
+    public V get(Object key) {
+        final int probe = probeLength(hash(key), key);
+        if (probe > 0) {
+            hitCount++;
+            recordProbe(probe);
+        } else {
+            missCount++;
+            recordProbe(~probe);
+        }
+        return super.get(key);
+    }
+
+    @Override
+    public V put(K key, V value) {
+        final int probe = probeLength(hash(key), key);
+        putCount++;
+        recordProbe(probe > 0 ? probe : ~probe);
+        return super.put(key, value);
+    }
+
+    /**
+     * @return - снимок статистики.
+     */
+    public HashMapStatistics statistics() {
+        return new HashMapStatistics(size(), capacity(), hitCount, missCount, putCount, probeLengths,
+                bucketLengths(), resizeCount, resizeTimeNanos);
+    }
+
+    /**
+     * Обнуляет счетчики операций и увеличений массива корзин.
+     */
+    public void resetStatistics() {
+        hitCount = 0;
+        missCount = 0;
+        putCount = 0;
+        Arrays.fill(probeLengths, 0);
+        resizeCount = 0;
+        resizeTimeNanos = 0;
+    }
+
+    /**
+     * Регистрирует статистику в платформенном MBeanServer под именем
+     * map.impl:type=HashMap,name=name. MBean держит ссылку на Map до
+     * unregisterMBean().
+     *
+     * @param name - имя Map в JMX.
+     * @return - имя зарегистрированного MBean.
+     * @throws JMException           - если регистрация не удалась.
+     * @throws IllegalStateException - если Map уже зарегистрирована.
+     */
+    public ObjectName registerMBean(String name) throws JMException {
+        if (objectName != null) {
+            throw new IllegalStateException("already registered as " + objectName);
+        }
+        final ObjectName newName = new ObjectName("map.impl:type=HashMap,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(new Statistics(), newName);
+        objectName = newName;
+        return newName;
+    }
+
+    /**
+     * Снимает регистрацию, сделанную registerMBean(); без регистрации ничего не делает.
+     *
+     * @throws JMException - если снять регистрацию не удалось.
+     */
+    public void unregisterMBean() throws JMException {
+        if (objectName != null) {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            objectName = null;
+        }
+    }
+
+    @Override
+    void beforeResize() {
+        resizeStart = System.nanoTime();
+    }
+
+    @Override
+    void afterResize() {
+        resizeCount++;
+        resizeTimeNanos += System.nanoTime() - resizeStart;
+    }
+
+    private void recordProbe(int length) {
+        probeLengths[Math.min(length, MAX_PROBE_LENGTH)]++;
+    }
+
+    private final class Statistics implements StatisticsMXBean {
+
+        @Override
+        public int getSize() {
+            return size();
+        }
+
+        @Override
+        public int getCapacity() {
+            return capacity();
+        }
+
+        @Override
+        public long getHitCount() {
+            return hitCount;
+        }
+
+        @Override
+        public long getMissCount() {
+            return missCount;
+        }
+
+        @Override
+        public double getHitRate() {
+            return HashMapStatistics.hitRate(hitCount, missCount);
+        }
+
+        @Override
+        public long getPutCount() {
+            return putCount;
+        }
+
+        @Override
+        public double getAverageProbeLength() {
+            return HashMapStatistics.averageProbeLength(probeLengths);
+        }
+
+        @Override
+        public long[] getProbeLengths() {
+            return probeLengths.clone();
+        }
+
+        @Override
+        public long getResizeCount() {
+            return resizeCount;
+        }
+
+        @Override
+        public long getResizeTimeNanos() {
+            return resizeTimeNanos;
+        }
+
+        @Override
+        public void reset() {
+            resetStatistics();
+        }
+    }
+}
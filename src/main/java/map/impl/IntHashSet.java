@@ -0,0 +1,519 @@
+package map.impl;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * Set элементов типа int. Элементы не упаковываются, поэтому add(int),
+ * contains(int) и remove(int) не создают объектов.
+ * Устроен как IntIntHashMap без массива значений: открытая адресация,
+ * линейное пробирование, удаление со сдвигом назад и дополнительная
+ * ячейка с индексом capacity для элемента 0.
+ * addAll(), retainAll() и removeAll() с другим IntHashSet проходят по его
+ * массиву напрямую. Для кода, которому нужен java.util.Set, есть
+ * представление asSet().
+ */
+public class IntHashSet extends OpenTable {
+
+    /**
+     * Массив элементов длины capacity + 1.
+     */
+    private int[] keys;
+
+    /**
+     * Есть ли в Set элемент 0.
+     */
+    private boolean hasZeroKey;
+
+    /**
+     * Актуальное представление в виде java.util.Set.
+     */
+    private Set<Integer> setView;
+
+    /**
+     * Конструктор. Инициализирует поля capacity и threshold
+     * по входным аргументам.
+     *
+     * @param capacity   - начальное количество ячеек.
+     * @param loadFactor - коэффициент загрузки.
+     * @throws IllegalArgumentException - если capacity отрицательный или
+     *                                  loadFactor не лежит между 0 и 1.
+     */
+    public IntHashSet(int capacity, double loadFactor) {
+        super(capacity, loadFactor);
+    }
+
+    /**
+     * Конструктор с коэффициентом загрузки по умолчанию.
+     *
+     * @param capacity - начальное количество ячеек.
+     */
+    public IntHashSet(int capacity) {
+        this(capacity, HashMap.DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Конструктор с количеством ячеек и коэффициентом загрузки по умолчанию.
+     */
+    public IntHashSet() {
+        this(HashMap.DEFAULT_CAPACITY, HashMap.DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Проверяет, есть ли элемент key.
+     *
+     * @param key - элемент.
+     * @return - true, если элемент есть.
+     */
+    public boolean contains(int key) {
+        return slotOf(key) >= 0;
+    }
+
+    /**
+     * Добавляет элемент key.
+     *
+     * @param key - элемент.
+     * @return - true, если элемента не было.
+     */
+    public boolean add(int key) {
+        if (keys == null) {
+            allocate(capacity);
+        }
+        if (key == 0) {
+            if (hasZeroKey) {
+                return false;
+            }
+            hasZeroKey = true;
+        } else {
+            int mask = capacity - 1;
+            int index = mix(key) & mask;
+            int current;
+            while ((current = keys[index]) != 0) {
+                if (current == key) {
+                    return false;
+                }
+                index = (index + 1) & mask;
+            }
+            keys[index] = key;
+        }
+        modCount++;
+        if (++size > threshold) {
+            rehash(grownCapacity());
+        }
+        return true;
+    }
+
+    /**
+     * Удаляет элемент key.
+     *
+     * @param key - элемент.
+     * @return - true, если элемент был.
+     */
+    public boolean remove(int key) {
+        int slot = slotOf(key);
+        if (slot < 0) {
+            return false;
+        }
+        removeAt(slot);
+        return true;
+    }
+
+    /**
+     * Проверяет, есть ли все элементы other.
+     *
+     * @param other - проверяемые элементы.
+     * @return - true, если все элементы other есть в this.
+     */
+    public boolean containsAll(IntHashSet other) {
+        if (other.hasZeroKey && !hasZeroKey) {
+            return false;
+        }
+        for (int i = 0; i < other.capacity && other.keys != null; i++) {
+            int key = other.keys[i];
+            if (key != 0 && slotOf(key) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Добавляет все элементы other. Массив заранее увеличивается до
+     * размера, которого хватит на большее из size и other.size().
+     *
+     * @param other - добавляемые элементы.
+     * @return - true, если Set изменился.
+     */
+    public boolean addAll(IntHashSet other) {
+        reserve(Math.max(size, other.size));
+        boolean modified = other.hasZeroKey && add(0);
+        for (int i = 0; i < other.capacity && other.keys != null; i++) {
+            int key = other.keys[i];
+            if (key != 0) {
+                modified |= add(key);
+            }
+        }
+        return modified;
+    }
+
+    /**
+     * Оставляет только элементы, которые есть в other. Массив перестраивается
+     * за один проход по меньшему из двух Set.
+     *
+     * @param other - оставляемые элементы.
+     * @return - true, если Set изменился.
+     */
+    public boolean retainAll(IntHashSet other) {
+        if (size == 0) {
+            return false;
+        }
+        return other.size < size ? rebuild(other, this, true) : rebuild(this, other, true);
+    }
+
+    /**
+     * Удаляет все элементы other. Если other меньше, его элементы удаляются
+     * по одному, иначе массив перестраивается за один проход.
+     *
+     * @param other - удаляемые элементы.
+     * @return - true, если Set изменился.
+     */
+    public boolean removeAll(IntHashSet other) {
+        if (size == 0) {
+            return false;
+        }
+        if (other.size >= size) {
+            return rebuild(this, other, false);
+        }
+        boolean modified = other.hasZeroKey && remove(0);
+        for (int i = 0; i < other.capacity && other.keys != null; i++) {
+            int key = other.keys[i];
+            if (key != 0) {
+                modified |= remove(key);
+            }
+        }
+        return modified;
+    }
+
+    /**
+     * Очищает Set. Массив сохраняется для повторного заполнения.
+     */
+    public void clear() {
+        if (keys != null && size > 0) {
+            Arrays.fill(keys, 0);
+        }
+        hasZeroKey = false;
+        size = 0;
+        modCount++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Возвращает элементы в виде массива.
+     *
+     * @return - новый массив длины size().
+     */
+    public int[] toArray() {
+        int[] result = new int[size];
+        int j = 0;
+        for (int i = 0; i < slotCount(); i++) {
+            if (!isFree(i)) {
+                result[j++] = keys[i];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Возвращает представление в виде java.util.Set. Изменения представления
+     * видны в этом Set и наоборот. Каждое обращение через представление
+     * упаковывает элемент в Integer. Элемент null не поддерживается.
+     *
+     * @return - представление Set.
+     */
+    public Set<Integer> asSet() {
+        if (setView == null) {
+            setView = new SetView();
+        }
+        return setView;
+    }
+
+    /**
+     * Ищет ячейку элемента key.
+     *
+     * @param key - элемент.
+     * @return - индекс ячейки или -1, если элемента нет.
+     */
+    private int slotOf(int key) {
+        if (keys == null) {
+            return -1;
+        }
+        if (key == 0) {
+            return hasZeroKey ? capacity : -1;
+        }
+        int mask = capacity - 1;
+        int index = mix(key) & mask;
+        int current;
+        while ((current = keys[index]) != 0) {
+            if (current == key) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Увеличивает массив так, чтобы expectedSize элементов не превысили порог.
+     */
+    private void reserve(int expectedSize) {
+        int newCapacity = capacityFor(expectedSize);
+        if (keys == null) {
+            capacity = newCapacity;
+        } else if (newCapacity > capacity) {
+            rehash(newCapacity);
+        }
+    }
+
+    /**
+     * Перестраивает массив, оставляя элементы source, которые есть
+     * (retain = true) или которых нет (retain = false) в filter. source и
+     * filter - это this и другой IntHashSet в любом порядке. Новый массив
+     * заменяет старый только после прохода, так как filter может оказаться this.
+     *
+     * @return - true, если Set изменился.
+     */
+    private boolean rebuild(IntHashSet source, IntHashSet filter, boolean retain) {
+        int[] newKeys = new int[capacity + 1];
+        int newSize = 0;
+        for (int i = 0; i < source.capacity && source.keys != null; i++) {
+            int key = source.keys[i];
+            if (key != 0 && (filter.slotOf(key) >= 0) == retain) {
+                place(newKeys, key);
+                newSize++;
+            }
+        }
+        boolean zero = source.hasZeroKey && filter.hasZeroKey == retain;
+        if (zero) {
+            newSize++;
+        }
+        boolean modified = newSize != size;
+        keys = newKeys;
+        hasZeroKey = zero;
+        size = newSize;
+        modCount++;
+        return modified;
+    }
+
+    /**
+     * Кладет ненулевой элемент, которого заведомо нет в массиве, в первую
+     * свободную ячейку после ячейки хэша. Длина keys - степень двойки плюс 1.
+     */
+    private static void place(int[] keys, int key) {
+        int mask = keys.length - 2;
+        int index = mix(key) & mask;
+        while (keys[index] != 0) {
+            index = (index + 1) & mask;
+        }
+        keys[index] = key;
+    }
+
+    /**
+     * Создает массив на newCapacity ячеек и ячейку элемента 0.
+     */
+    private void allocate(int newCapacity) {
+        keys = new int[newCapacity + 1];
+        capacity = newCapacity;
+        threshold = thresholdFor(newCapacity);
+    }
+
+    /**
+     * Перестраивает массив на newCapacity ячеек.
+     */
+    private void rehash(int newCapacity) {
+        int[] oldKeys = keys;
+        int oldCapacity = capacity;
+        allocate(newCapacity);
+        for (int i = 0; i < oldCapacity; i++) {
+            if (oldKeys[i] != 0) {
+                place(keys, oldKeys[i]);
+            }
+        }
+    }
+
+    @Override
+    int hashAt(int slot) {
+        return mix(keys[slot]);
+    }
+
+    @Override
+    boolean isFree(int slot) {
+        return slot == capacity ? !hasZeroKey : keys[slot] == 0;
+    }
+
+    @Override
+    void moveSlot(int from, int to) {
+        keys[to] = keys[from];
+    }
+
+    @Override
+    void clearSlot(int slot) {
+        keys[slot] = 0;
+    }
+
+    @Override
+    int slotCount() {
+        return keys == null ? 0 : capacity + 1;
+    }
+
+    @Override
+    Object boxedKeyAt(int slot) {
+        return keys[slot];
+    }
+
+    @Override
+    int findBoxed(Object key) {
+        return slotOf((Integer) key);
+    }
+
+    @Override
+    int removeAt(int slot) {
+        if (slot == capacity) {
+            hasZeroKey = false;
+            size--;
+            modCount++;
+            return -1;
+        }
+        return shiftOut(slot);
+    }
+
+    /**
+     * Метод возвращает строковое представление объекта.
+     * В каждой строчке выводится "key =" + key.
+     *
+     * @return строковое представление объекта.
+     */
+    @Override
+    public String toString() {
+        StringBuilder stringBuilder = new StringBuilder("{").append(System.lineSeparator());
+        for (int i = 0; i < slotCount(); i++) {
+            if (!isFree(i)) {
+                stringBuilder.append("\t")
+                        .append("key = ")
+                        .append(keys[i])
+                        .append(System.lineSeparator());
+            }
+        }
+        return stringBuilder.append("}").toString();
+    }
+
+    /**
+     * Сравнивает с другим IntHashSet по содержимому.
+     *
+     * @param o - объект для сравнение с this
+     * @return true, если объекты схожие, false - в обратном случае
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof IntHashSet)) return false;
+
+        IntHashSet other = (IntHashSet) o;
+
+        return size == other.size && containsAll(other);
+    }
+
+    /**
+     * Вычисляет хэш код по контракту Set.hashCode для представления asSet().
+     *
+     * @return хэш код Set.
+     */
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (int i = 0; i < slotCount(); i++) {
+            if (!isFree(i)) {
+                hash += keys[i];
+            }
+        }
+        return hash;
+    }
+
+    private class SetView extends AbstractSet<Integer> {
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Integer && IntHashSet.this.contains((int) (Integer) o);
+        }
+
+        @Override
+        public boolean add(Integer key) {
+            return IntHashSet.this.add(key);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            return o instanceof Integer && IntHashSet.this.remove((int) (Integer) o);
+        }
+
+        @Override
+        public boolean addAll(Collection<? extends Integer> c) {
+            if (c instanceof SetView) {
+                return IntHashSet.this.addAll(((SetView) c).owner());
+            }
+            return super.addAll(c);
+        }
+
+        @Override
+        public boolean retainAll(Collection<?> c) {
+            if (c instanceof SetView) {
+                return IntHashSet.this.retainAll(((SetView) c).owner());
+            }
+            return super.retainAll(c);
+        }
+
+        @Override
+        public boolean removeAll(Collection<?> c) {
+            if (c instanceof SetView) {
+                return IntHashSet.this.removeAll(((SetView) c).owner());
+            }
+            return super.removeAll(c);
+        }
+
+        @Override
+        public Iterator<Integer> iterator() {
+            return new KeyIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            IntHashSet.this.clear();
+        }
+
+        private IntHashSet owner() {
+            return IntHashSet.this;
+        }
+    }
+
+    private class KeyIterator extends SlotIterator implements Iterator<Integer> {
+
+        @Override
+        public Integer next() {
+            return keys[nextSlot()];
+        }
+    }
+}
@@ -0,0 +1,519 @@
+package map.impl;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Map с ключами и значениями типа int. Ни ключи, ни значения не
+ * упаковываются, поэтому get(int), put(int, int), addTo(int, int) и
+ * remove(int) не создают объектов.
+ * Устроена как IntObjectHashMap: открытая адресация, линейное пробирование,
+ * удаление со сдвигом назад и дополнительная ячейка с индексом capacity
+ * для ключа 0.
+ * Отсутствие ключа методы, возвращающие int, обозначают значением 0;
+ * отличить его от хранимого 0 позволяют containsKey() и getOrDefault().
+ * Для кода, которому нужна java.util.Map, есть представление asMap().
+ */
+public class IntIntHashMap extends OpenTable {
+
+    /**
+     * Массив ключей длины capacity + 1.
+     */
+    private int[] keys;
+
+    /**
+     * Массив значений, values[i] - значение ключа keys[i],
+     * values[capacity] - значение ключа 0.
+     */
+    private int[] values;
+
+    /**
+     * Есть ли в Map ключ 0.
+     */
+    private boolean hasZeroKey;
+
+    /**
+     * Актуальное представление в виде java.util.Map.
+     */
+    private Map<Integer, Integer> mapView;
+
+    /**
+     * Конструктор. Инициализирует поля capacity и threshold
+     * по входным аргументам.
+     *
+     * @param capacity   - начальное количество ячеек.
+     * @param loadFactor - коэффициент загрузки.
+     * @throws IllegalArgumentException - если capacity отрицательный или
+     *                                  loadFactor не лежит между 0 и 1.
+     */
+    public IntIntHashMap(int capacity, double loadFactor) {
+        super(capacity, loadFactor);
+    }
+
+    /**
+     * Конструктор с коэффициентом загрузки по умолчанию.
+     *
+     * @param capacity - начальное количество ячеек.
+     */
+    public IntIntHashMap(int capacity) {
+        this(capacity, HashMap.DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Конструктор с количеством ячеек и коэффициентом загрузки по умолчанию.
+     */
+    public IntIntHashMap() {
+        this(HashMap.DEFAULT_CAPACITY, HashMap.DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Возвращает значение ключа key.
+     *
+     * @param key - ключ.
+     * @return - значение или 0, если ключа нет.
+     */
+    public int get(int key) {
+        return getOrDefault(key, 0);
+    }
+
+    /**
+     * Возвращает значение ключа key или defaultValue, если ключа нет.
+     *
+     * @param key          - ключ.
+     * @param defaultValue - значение по умолчанию.
+     * @return - значение ключа или defaultValue.
+     */
+    public int getOrDefault(int key, int defaultValue) {
+        int slot = slotOf(key);
+        return slot < 0 ? defaultValue : values[slot];
+    }
+
+    /**
+     * Проверяет, есть ли ключ key.
+     *
+     * @param key - ключ.
+     * @return - true, если ключ есть.
+     */
+    public boolean containsKey(int key) {
+        return slotOf(key) >= 0;
+    }
+
+    /**
+     * Добавляет пару ключ-значение.
+     *
+     * @param key   - ключ.
+     * @param value - значение.
+     * @return - старое значение ключа или 0, если ключа не было.
+     */
+    public int put(int key, int value) {
+        int slot = insertSlot(key);
+        int oldValue = values[slot];
+        values[slot] = value;
+        return oldValue;
+    }
+
+    /**
+     * Прибавляет increment к значению ключа key. Отсутствующий ключ
+     * добавляется со значением increment. Удобно для счетчиков.
+     *
+     * @param key       - ключ.
+     * @param increment - прибавляемое значение.
+     * @return - новое значение ключа.
+     */
+    public int addTo(int key, int increment) {
+        int slot = insertSlot(key);
+        return values[slot] += increment;
+    }
+
+    /**
+     * Удаляет ключ key.
+     *
+     * @param key - ключ.
+     * @return - значение удаленного ключа или 0, если ключа не было.
+     */
+    public int remove(int key) {
+        int slot = slotOf(key);
+        if (slot < 0) {
+            return 0;
+        }
+        int oldValue = values[slot];
+        removeAt(slot);
+        return oldValue;
+    }
+
+    /**
+     * Проверка содержания значения value простым проходом по массиву значений.
+     *
+     * @param value - проверяемое значение.
+     * @return - true, если имеется такое значение в Map, false - обратное.
+     */
+    public boolean containsValue(int value) {
+        for (int i = 0; i < slotCount(); i++) {
+            if (!isFree(i) && values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Очищает Map. Массивы сохраняются для повторного заполнения.
+     */
+    public void clear() {
+        if (keys != null && size > 0) {
+            Arrays.fill(keys, 0);
+            Arrays.fill(values, 0);
+        }
+        hasZeroKey = false;
+        size = 0;
+        modCount++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Возвращает представление в виде java.util.Map. Изменения представления
+     * видны в этой Map и наоборот. Каждое обращение через представление
+     * упаковывает ключ и значение в Integer. Значение null не поддерживается.
+     *
+     * @return - представление Map.
+     */
+    public Map<Integer, Integer> asMap() {
+        if (mapView == null) {
+            mapView = new MapView();
+        }
+        return mapView;
+    }
+
+    /**
+     * Ищет ячейку ключа key.
+     *
+     * @param key - ключ.
+     * @return - индекс ячейки или -1, если ключа нет.
+     */
+    private int slotOf(int key) {
+        if (keys == null) {
+            return -1;
+        }
+        if (key == 0) {
+            return hasZeroKey ? capacity : -1;
+        }
+        int mask = capacity - 1;
+        int index = mix(key) & mask;
+        int current;
+        while ((current = keys[index]) != 0) {
+            if (current == key) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Ищет ячейку ключа key, а если ключа нет - добавляет его со значением 0.
+     * Если добавление увеличило массивы, ячейка ищется заново.
+     *
+     * @param key - ключ.
+     * @return - индекс ячейки ключа.
+     */
+    private int insertSlot(int key) {
+        if (keys == null) {
+            allocate(capacity);
+        }
+        int index;
+        if (key == 0) {
+            index = capacity;
+            if (hasZeroKey) {
+                return index;
+            }
+            hasZeroKey = true;
+        } else {
+            int mask = capacity - 1;
+            index = mix(key) & mask;
+            int current;
+            while ((current = keys[index]) != 0) {
+                if (current == key) {
+                    return index;
+                }
+                index = (index + 1) & mask;
+            }
+            keys[index] = key;
+        }
+        modCount++;
+        if (++size > threshold) {
+            resize();
+            return slotOf(key);
+        }
+        return index;
+    }
+
+    /**
+     * Создает массивы на newCapacity ячеек и ячейку ключа 0.
+     */
+    private void allocate(int newCapacity) {
+        keys = new int[newCapacity + 1];
+        values = new int[newCapacity + 1];
+        capacity = newCapacity;
+        threshold = thresholdFor(newCapacity);
+    }
+
+    /**
+     * Увеличивает массивы вдвое и раскладывает ключи по новым ячейкам.
+     */
+    private void resize() {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        int oldCapacity = capacity;
+        allocate(grownCapacity());
+        int mask = capacity - 1;
+        for (int i = 0; i < oldCapacity; i++) {
+            int key = oldKeys[i];
+            if (key != 0) {
+                int index = mix(key) & mask;
+                while (keys[index] != 0) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = key;
+                values[index] = oldValues[i];
+            }
+        }
+        values[capacity] = oldValues[oldCapacity];
+    }
+
+    @Override
+    int hashAt(int slot) {
+        return mix(keys[slot]);
+    }
+
+    @Override
+    boolean isFree(int slot) {
+        return slot == capacity ? !hasZeroKey : keys[slot] == 0;
+    }
+
+    @Override
+    void moveSlot(int from, int to) {
+        keys[to] = keys[from];
+        values[to] = values[from];
+    }
+
+    @Override
+    void clearSlot(int slot) {
+        keys[slot] = 0;
+        values[slot] = 0;
+    }
+
+    @Override
+    int slotCount() {
+        return keys == null ? 0 : capacity + 1;
+    }
+
+    @Override
+    Object boxedKeyAt(int slot) {
+        return keys[slot];
+    }
+
+    @Override
+    int findBoxed(Object key) {
+        return slotOf((Integer) key);
+    }
+
+    @Override
+    int removeAt(int slot) {
+        if (slot == capacity) {
+            hasZeroKey = false;
+            values[slot] = 0;
+            size--;
+            modCount++;
+            return -1;
+        }
+        return shiftOut(slot);
+    }
+
+    /**
+     * Метод возвращает строковое представление объекта.
+     * В каждой строчке выводится "key =" + key + "value =" + value.
+     *
+     * @return строковое представление объекта.
+     */
+    @Override
+    public String toString() {
+        StringBuilder stringBuilder = new StringBuilder("{").append(System.lineSeparator());
+        for (int i = 0; i < slotCount(); i++) {
+            if (!isFree(i)) {
+                stringBuilder.append("\t")
+                        .append("key = ")
+                        .append(keys[i])
+                        .append("\t\tvalue = ")
+                        .append(values[i])
+                        .append(System.lineSeparator());
+            }
+        }
+        return stringBuilder.append("}").toString();
+    }
+
+    /**
+     * Сравнивает с другой IntIntHashMap по содержимому.
+     *
+     * @param o - объект для сравнение с this
+     * @return true, если объекты схожие, false - в обратном случае
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof IntIntHashMap)) return false;
+
+        IntIntHashMap other = (IntIntHashMap) o;
+
+        if (size != other.size) return false;
+
+        for (int i = 0; i < slotCount(); i++) {
+            if (!isFree(i)) {
+                int slot = other.slotOf(keys[i]);
+                if (slot < 0 || other.values[slot] != values[i]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Вычисляет хэш код по контракту Map.hashCode для представления asMap().
+     *
+     * @return хэш код Map.
+     */
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (int i = 0; i < slotCount(); i++) {
+            if (!isFree(i)) {
+                hash += keys[i] ^ values[i];
+            }
+        }
+        return hash;
+    }
+
+    private class MapView extends AbstractMap<Integer, Integer> {
+
+        private Set<Map.Entry<Integer, Integer>> entries;
+
+        @Override
+        public Integer get(Object key) {
+            if (!(key instanceof Integer)) {
+                return null;
+            }
+            int slot = slotOf((Integer) key);
+            return slot < 0 ? null : values[slot];
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof Integer && IntIntHashMap.this.containsKey((int) (Integer) key);
+        }
+
+        @Override
+        public boolean containsValue(Object value) {
+            return value instanceof Integer && IntIntHashMap.this.containsValue((int) (Integer) value);
+        }
+
+        @Override
+        public Integer put(Integer key, Integer value) {
+            int k = key;
+            int v = value;
+            boolean present = IntIntHashMap.this.containsKey(k);
+            int oldValue = IntIntHashMap.this.put(k, v);
+            return present ? oldValue : null;
+        }
+
+        @Override
+        public Integer remove(Object key) {
+            if (!(key instanceof Integer)) {
+                return null;
+            }
+            int slot = slotOf((Integer) key);
+            if (slot < 0) {
+                return null;
+            }
+            int oldValue = values[slot];
+            removeAt(slot);
+            return oldValue;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            IntIntHashMap.this.clear();
+        }
+
+        @Override
+        public Set<Map.Entry<Integer, Integer>> entrySet() {
+            if (entries == null) {
+                entries = new EntrySet();
+            }
+            return entries;
+        }
+    }
+
+    private class EntrySet extends AbstractSet<Map.Entry<Integer, Integer>> {
+
+        @Override
+        public Iterator<Map.Entry<Integer, Integer>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            IntIntHashMap.this.clear();
+        }
+    }
+
+    /**
+     * Запись представления. setValue() записывает значение в ячейку ключа.
+     */
+    private class SlotEntry extends AbstractMap.SimpleEntry<Integer, Integer> {
+
+        private static final long serialVersionUID = 1L;
+
+        SlotEntry(int slot) {
+            super(keys[slot], values[slot]);
+        }
+
+        @Override
+        public Integer setValue(Integer value) {
+            int slot = slotOf(getKey());
+            if (slot < 0) {
+                throw new IllegalStateException("entry was removed from the map");
+            }
+            values[slot] = value;
+            return super.setValue(value);
+        }
+    }
+
+    private class EntryIterator extends SlotIterator implements Iterator<Map.Entry<Integer, Integer>> {
+
+        @Override
+        public Map.Entry<Integer, Integer> next() {
+            return new SlotEntry(nextSlot());
+        }
+    }
+}
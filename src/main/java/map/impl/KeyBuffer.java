@@ -0,0 +1,147 @@
+package map.impl;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Objects;
+
+/**
+ * Переиспользуемый прямой буфер, в который кодируется искомый ключ Map,
+ * хранящей ключи в байтах вне кучи. Хэширует закодированный ключ и
+ * сравнивает его с ключом, лежащим в другом буфере, по 8 байт за раз.
+ * Буфер прямой, а не в куче: на Java 8 HeapByteBuffer.getLong() собирает
+ * long по байту.
+ * Все буферы с ключами должны использовать порядок байт ORDER, иначе
+ * равные ключи дадут разные long при сравнении.
+ */
+final class KeyBuffer<K> {
+
+    /**
+     * Порядок байт ключей. Фиксирован, а не берется у платформы, чтобы
+     * хэши в файлах MappedHashMap не зависели от машины.
+     */
+    static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    private final Serializer<K> serializer;
+
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(64).order(ORDER);
+
+    /**
+     * Размер закодированного ключа.
+     */
+    private int size;
+
+    /**
+     * Хэш закодированного ключа.
+     */
+    private int hash;
+
+    KeyBuffer(Serializer<K> serializer) {
+        this.serializer = Objects.requireNonNull(serializer);
+    }
+
+    /**
+     * Кодирует key и вычисляет его хэш.
+     *
+     * @throws NullPointerException  - если key равен null.
+     * @throws IllegalStateException - если Serializer записал не столько
+     *                               байт, сколько вернул size().
+     */
+    void encode(K key) {
+        Objects.requireNonNull(key);
+        int keySize = serializer.size(key);
+        ensureCapacity(keySize);
+        buffer.clear();
+        serializer.write(buffer, key);
+        if (buffer.position() != keySize) {
+            throw new IllegalStateException("serializer wrote " + buffer.position()
+                    + " bytes instead of " + keySize);
+        }
+        size = keySize;
+        hash = hashBytes();
+    }
+
+    /**
+     * Копирует уже закодированный ключ из source и вычисляет его хэш.
+     *
+     * @param source - буфер с ключом.
+     * @param from   - смещение ключа в source.
+     * @param length - размер ключа.
+     */
+    void load(ByteBuffer source, int from, int length) {
+        ensureCapacity(length);
+        ByteBuffer view = source.duplicate();
+        view.limit(from + length).position(from);
+        buffer.clear();
+        buffer.put(view);
+        size = length;
+        hash = hashBytes();
+    }
+
+    int size() {
+        return size;
+    }
+
+    int hash() {
+        return hash;
+    }
+
+    /**
+     * Сравнивает ключ с size байтами target, начиная со смещения from.
+     */
+    boolean matches(ByteBuffer target, int from) {
+        int i = 0;
+        for (; i + Long.BYTES <= size; i += Long.BYTES) {
+            if (target.getLong(from + i) != buffer.getLong(i)) {
+                return false;
+            }
+        }
+        for (; i < size; i++) {
+            if (target.get(from + i) != buffer.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Записывает ключ в target, начиная с его текущей позиции.
+     */
+    void writeTo(ByteBuffer target) {
+        buffer.limit(size).position(0);
+        target.put(buffer);
+    }
+
+    /**
+     * Освобождает память буфера. После вызова KeyBuffer использовать нельзя.
+     */
+    void free() {
+        BufferCleaner.free(buffer);
+        buffer = null;
+    }
+
+    private void ensureCapacity(int length) {
+        if (buffer.capacity() < length) {
+            BufferCleaner.free(buffer);
+            buffer = ByteBuffer.allocateDirect(Math.max(length, buffer.capacity() * 2)).order(ORDER);
+        }
+    }
+
+    /**
+     * Байты перемешиваются по 8 за раз умножением на константу золотого
+     * сечения: полином 31 * h + b, как в Arrays.hashCode(), для коротких
+     * ключей вроде Long дает много коллизий.
+     */
+    private int hashBytes() {
+        long h = size;
+        int i = 0;
+        for (; i + Long.BYTES <= size; i += Long.BYTES) {
+            h = (h ^ buffer.getLong(i)) * 0x9E3779B97F4A7C15L;
+            h ^= h >>> 32;
+        }
+        long tail = 0;
+        for (; i < size; i++) {
+            tail = (tail << 8) | (buffer.get(i) & 0xFF);
+        }
+        return OpenTable.mix(h ^ tail);
+    }
+}
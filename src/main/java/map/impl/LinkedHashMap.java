@@ -0,0 +1,548 @@
+package map.impl;
+
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+
+/**
+ * HashMap с предсказуемым порядком обхода. Узлы LinkedNode дополнительно
+ * связаны в двусвязный список от самого старого head к самому новому
+ * tail: в порядке добавления ключей или, если accessOrder, в порядке
+ * обращения к ним (от давно использованного к последнему).
+ * <p>
+ * Итераторы, курсор, forEach(), containsValue() и replaceAll() идут по
+ * списку, а не по массиву корзин, поэтому обход стоит O(size), а не
+ * O(capacity), и порядок не меняется при увеличении или уменьшении
+ * массива. Это важно для небольших Map с заранее увеличенным массивом
+ * корзин, обход которых иначе почти целиком уходит на пустые корзины.
+ * <p>
+ * Переопределив removeEldestEntry(), можно удалять самую старую пару
+ * после каждого добавления, например чтобы ограничить размер Map.
+ * Параллельные forEach(long, ...), replaceAll(long, ...) и search()
+ * по-прежнему делят между задачами массив корзин, и порядок вызовов в
+ * них не определен. Как и HashMap, класс не потокобезопасен.
+ */
+public class LinkedHashMap<K, V> extends HashMap<K, V> {
+
+    /**
+     * Узел HashMap со связями списка обхода.
+     */
+    static final class LinkedNode<K, V> extends Node<K, V> {
+
+        LinkedNode<K, V> before;
+        LinkedNode<K, V> after;
+
+        LinkedNode(int hash, K key, V value, Node<K, V> next) {
+            super(hash, key, value, next);
+        }
+    }
+
+    /**
+     * true - порядок обращения, false - порядок добавления.
+     */
+    private final boolean accessOrder;
+
+    /**
+     * Самый старый узел. Поля head и tail не инициализируются явно:
+     * HashMap(Map) добавляет узлы еще в конструкторе суперкласса.
+     */
+    private LinkedNode<K, V> head;
+
+    /**
+     * Самый новый узел.
+     */
+    private LinkedNode<K, V> tail;
+
+    /**
+     * Счетчик изменений списка. В порядке обращения get() переставляет
+     * узел в конец списка, не меняя HashMap, поэтому обход по списку
+     * проверяет свой счетчик.
+     */
+    private int linkModCount;
+
+    private Set<K> keys;
+
+    private Collection<V> valuesCollection;
+
+    private Set<Map.Entry<K, V>> entries;
+
+    /**
+     * Конструктор с порядком обхода.
+     *
+     * @param capacity    - начальное количество корзин.
+     * @param loadFactor  - коэффициент загрузки.
+     * @param accessOrder - true - порядок обращения, false - порядок добавления.
+     */
+    public LinkedHashMap(int capacity, double loadFactor, boolean accessOrder) {
+        super(capacity, loadFactor);
+        this.accessOrder = accessOrder;
+    }
+
+    /**
+     * Конструктор в порядке добавления.
+     *
+     * @param capacity   - начальное количество корзин.
+     * @param loadFactor - коэффициент загрузки.
+     */
+    public LinkedHashMap(int capacity, double loadFactor) {
+        this(capacity, loadFactor, false);
+    }
+
+    /**
+     * Конструктор в порядке добавления с коэффициентом загрузки по умолчанию.
+     *
+     * @param capacity - начальное количество корзин.
+     */
+    public LinkedHashMap(int capacity) {
+        this(capacity, DEFAULT_LOAD_FACTOR, false);
+    }
+
+    /**
+     * Конструктор в порядке добавления с параметрами по умолчанию.
+     */
+    public LinkedHashMap() {
+        this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR, false);
+    }
+
+    /**
+     * Конструктор в порядке добавления с парами входной Map, в порядке
+     * ее обхода.
+     *
+     * @param m - входная Map.
+     */
+    public LinkedHashMap(Map<? extends K, ? extends V> m) {
+        this();
+        putAll(m);
+    }
+
+    /**
+     * Вызывается после добавления новой пары. Если метод возвращает true,
+     * самая старая пара удаляется. По умолчанию возвращает false.
+     * Метод может и сам изменять Map, но тогда должен вернуть false.
+     *
+     * @param eldest - самая старая пара: первая добавленная или давно
+     *               использованная; при добавлении в пустую Map - только что
+     *               добавленная.
+     * @return - true, если eldest нужно удалить.
+     */
+    protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+        return false;
+    }
+
+    /**
+     * @return - true, если порядок обхода - порядок обращения.
+     */
+    public boolean accessOrder() {
+        return accessOrder;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        head = null;
+        tail = null;
+        linkModCount++;
+    }
+
+    /**
+     * Проверяет значения по списку узлов, а не по массиву корзин.
+     */
+    @Override
+    public boolean containsValue(Object value) {
+        for (LinkedNode<K, V> node = head; node != null; node = node.after) {
+            if (Objects.equals(value, node.value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Выполняет action для каждой пары в порядке списка.
+     *
+     * @throws ConcurrentModificationException - если action изменил Map.
+     */
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        final int expectedModCount = linkModCount;
+        for (LinkedNode<K, V> node = head; node != null; node = node.after) {
+            action.accept(node.key, node.value);
+        }
+        if (expectedModCount != linkModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    /**
+     * Заменяет значения в порядке списка.
+     *
+     * @throws ConcurrentModificationException - если функция изменила Map.
+     */
+    @Override
+    public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+        Objects.requireNonNull(function);
+        final int expectedModCount = linkModCount;
+        for (LinkedNode<K, V> node = head; node != null; node = node.after) {
+            node.value = function.apply(node.key, node.value);
+        }
+        if (expectedModCount != linkModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    /**
+     * Возвращает курсор, который идет по списку узлов.
+     */
+    @Override
+    public EntryCursor<K, V> cursor() {
+        return new LinkedCursor();
+    }
+
+    @Override
+    public Set<K> keySet() {
+        if (keys == null) {
+            keys = new LinkedKeySet();
+        }
+        return keys;
+    }
+
+    @Override
+    public Collection<V> values() {
+        if (valuesCollection == null) {
+            valuesCollection = new LinkedValues();
+        }
+        return valuesCollection;
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        if (entries == null) {
+            entries = new LinkedEntrySet();
+        }
+        return entries;
+    }
+
+    @Override
+    Node<K, V> newNode(int hash, K key, V value, Node<K, V> next) {
+        final LinkedNode<K, V> node = new LinkedNode<>(hash, key, value, next);
+        linkLast(node);
+        return node;
+    }
+
+    @Override
+    void afterNodeAccess(Node<K, V> node) {
+        if (accessOrder) {
+            moveToLast((LinkedNode<K, V>) node);
+        }
+    }
+
+    @Override
+    void afterNodeUpdate(Node<K, V> node, V oldValue) {
+        afterNodeAccess(node);
+    }
+
+    @Override
+    void afterNodeInsertion() {
+        final LinkedNode<K, V> eldest = head;
+        if (eldest != null && removeEldestEntry(eldest)) {
+            removeNode(eldest.hash, eldest.key);
+        }
+    }
+
+    @Override
+    void afterNodeRemoval(Node<K, V> node) {
+        unlink((LinkedNode<K, V>) node);
+    }
+
+    private void linkLast(LinkedNode<K, V> node) {
+        node.before = tail;
+        node.after = null;
+        if (tail == null) {
+            head = node;
+        } else {
+            tail.after = node;
+        }
+        tail = node;
+        linkModCount++;
+    }
+
+    private void unlink(LinkedNode<K, V> node) {
+        if (node.before == null) {
+            head = node.after;
+        } else {
+            node.before.after = node.after;
+        }
+        if (node.after == null) {
+            tail = node.before;
+        } else {
+            node.after.before = node.before;
+        }
+        node.before = null;
+        node.after = null;
+        linkModCount++;
+    }
+
+    private void moveToLast(LinkedNode<K, V> node) {
+        if (tail != node) {
+            unlink(node);
+            linkLast(node);
+        }
+    }
+
+    /**
+     * Итератор по списку узлов. Удаление идет через removeNode(), который,
+     * в отличие от remove(), не уменьшает массив корзин.
+     */
+    private abstract class LinkedIterator {
+
+        LinkedNode<K, V> next = head;
+        LinkedNode<K, V> current;
+        int expectedModCount = linkModCount;
+
+        public final boolean hasNext() {
+            return next != null;
+        }
+
+        final LinkedNode<K, V> nextNode() {
+            if (expectedModCount != linkModCount) {
+                throw new ConcurrentModificationException();
+            }
+            final LinkedNode<K, V> node = next;
+            if (node == null) {
+                throw new NoSuchElementException();
+            }
+            current = node;
+            next = node.after;
+            return node;
+        }
+
+        public final void remove() {
+            final LinkedNode<K, V> node = current;
+            if (node == null) {
+                throw new IllegalStateException();
+            }
+            if (expectedModCount != linkModCount) {
+                throw new ConcurrentModificationException();
+            }
+            current = null;
+            removeNode(node.hash, node.key);
+            expectedModCount = linkModCount;
+        }
+    }
+
+    private final class KeyIterator extends LinkedIterator implements Iterator<K> {
+
+        @Override
+        public K next() {
+            return nextNode().key;
+        }
+    }
+
+    private final class ValueIterator extends LinkedIterator implements Iterator<V> {
+
+        @Override
+        public V next() {
+            return nextNode().value;
+        }
+    }
+
+    private final class EntryIterator extends LinkedIterator implements Iterator<Map.Entry<K, V>> {
+
+        @Override
+        public Map.Entry<K, V> next() {
+            return nextNode();
+        }
+    }
+
+    /**
+     * Курсор по списку узлов.
+     */
+    private final class LinkedCursor implements EntryCursor<K, V> {
+
+        LinkedNode<K, V> current;
+
+        /**
+         * Узел, с которого начнется следующий advance(): head до первого
+         * шага или узел после удаленного текущего.
+         */
+        LinkedNode<K, V> following;
+        int expectedModCount;
+
+        LinkedCursor() {
+            reset();
+        }
+
+        @Override
+        public void reset() {
+            current = null;
+            following = head;
+            expectedModCount = linkModCount;
+        }
+
+        @Override
+        public boolean advance() {
+            if (expectedModCount != linkModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (current != null) {
+                following = current.after;
+            }
+            current = following;
+            following = null;
+            return current != null;
+        }
+
+        @Override
+        public K key() {
+            return currentNode().key;
+        }
+
+        @Override
+        public V value() {
+            return currentNode().value;
+        }
+
+        @Override
+        public V setValue(V value) {
+            return currentNode().setValue(value);
+        }
+
+        @Override
+        public void remove() {
+            final LinkedNode<K, V> node = currentNode();
+            if (expectedModCount != linkModCount) {
+                throw new ConcurrentModificationException();
+            }
+            following = node.after;
+            current = null;
+            removeNode(node.hash, node.key);
+            expectedModCount = linkModCount;
+        }
+
+        private LinkedNode<K, V> currentNode() {
+            final LinkedNode<K, V> node = current;
+            if (node == null) {
+                throw new IllegalStateException();
+            }
+            return node;
+        }
+    }
+
+    private final class LinkedKeySet extends AbstractSet<K> {
+
+        @Override
+        public boolean contains(Object key) {
+            return containsKey(key);
+        }
+
+        @Override
+        public Iterator<K> iterator() {
+            return new KeyIterator();
+        }
+
+        @Override
+        public int size() {
+            return LinkedHashMap.this.size();
+        }
+
+        @Override
+        public boolean remove(Object key) {
+            if (!containsKey(key)) {
+                return false;
+            }
+            LinkedHashMap.this.remove(key);
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            LinkedHashMap.this.clear();
+        }
+
+        @Override
+        public Spliterator<K> spliterator() {
+            return Spliterators.spliterator(this, Spliterator.ORDERED | Spliterator.DISTINCT);
+        }
+    }
+
+    private final class LinkedValues extends AbstractCollection<V> {
+
+        @Override
+        public boolean contains(Object value) {
+            return containsValue(value);
+        }
+
+        @Override
+        public Iterator<V> iterator() {
+            return new ValueIterator();
+        }
+
+        @Override
+        public int size() {
+            return LinkedHashMap.this.size();
+        }
+
+        @Override
+        public void clear() {
+            LinkedHashMap.this.clear();
+        }
+
+        @Override
+        public Spliterator<V> spliterator() {
+            return Spliterators.spliterator(this, Spliterator.ORDERED);
+        }
+    }
+
+    private final class LinkedEntrySet extends AbstractSet<Map.Entry<K, V>> {
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            final Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+            final Node<K, V> node = getNode(entry.getKey());
+            return node != null && Objects.equals(node.value, entry.getValue());
+        }
+
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return LinkedHashMap.this.size();
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!contains(o)) {
+                return false;
+            }
+            LinkedHashMap.this.remove(((Map.Entry<?, ?>) o).getKey());
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            LinkedHashMap.this.clear();
+        }
+
+        @Override
+        public Spliterator<Map.Entry<K, V>> spliterator() {
+            return Spliterators.spliterator(this, Spliterator.ORDERED | Spliterator.DISTINCT);
+        }
+    }
+}
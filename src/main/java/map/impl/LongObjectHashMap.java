@@ -0,0 +1,476 @@
+package map.impl;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Map с ключами типа long и значениями-объектами. Ключи хранятся в массиве
+ * long без упаковки в Long, поэтому get(long), put(long, V) и remove(long)
+ * не создают объектов и не вызывают hashCode().
+ * Устроена как OpenHashMap: открытая адресация, линейное пробирование и
+ * удаление со сдвигом назад. Пустая ячейка обозначается ключом 0, поэтому
+ * сам ключ 0 хранится в дополнительной ячейке с индексом capacity, которая
+ * не участвует в пробировании.
+ * Для кода, которому нужна java.util.Map, есть представление asMap().
+ *
+ * @param <V> - тип значений.
+ */
+public class LongObjectHashMap<V> extends OpenTable {
+
+    /**
+     * Массив ключей длины capacity + 1.
+     */
+    private long[] keys;
+
+    /**
+     * Массив значений, values[i] - значение ключа keys[i],
+     * values[capacity] - значение ключа 0.
+     */
+    private Object[] values;
+
+    /**
+     * Есть ли в Map ключ 0.
+     */
+    private boolean hasZeroKey;
+
+    /**
+     * Актуальное представление в виде java.util.Map.
+     */
+    private Map<Long, V> mapView;
+
+    /**
+     * Конструктор. Инициализирует поля capacity и threshold
+     * по входным аргументам.
+     *
+     * @param capacity   - начальное количество ячеек.
+     * @param loadFactor - коэффициент загрузки.
+     * @throws IllegalArgumentException - если capacity отрицательный или
+     *                                  loadFactor не лежит между 0 и 1.
+     */
+    public LongObjectHashMap(int capacity, double loadFactor) {
+        super(capacity, loadFactor);
+    }
+
+    /**
+     * Конструктор с коэффициентом загрузки по умолчанию.
+     *
+     * @param capacity - начальное количество ячеек.
+     */
+    public LongObjectHashMap(int capacity) {
+        this(capacity, HashMap.DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Конструктор с количеством ячеек и коэффициентом загрузки по умолчанию.
+     */
+    public LongObjectHashMap() {
+        this(HashMap.DEFAULT_CAPACITY, HashMap.DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Возвращает значение ключа key.
+     *
+     * @param key - ключ.
+     * @return - значение или null, если ключа нет.
+     */
+    public V get(long key) {
+        int slot = slotOf(key);
+        return slot < 0 ? null : valueAt(slot);
+    }
+
+    /**
+     * Возвращает значение ключа key или defaultValue, если ключа нет.
+     *
+     * @param key          - ключ.
+     * @param defaultValue - значение по умолчанию.
+     * @return - значение ключа или defaultValue.
+     */
+    public V getOrDefault(long key, V defaultValue) {
+        int slot = slotOf(key);
+        return slot < 0 ? defaultValue : valueAt(slot);
+    }
+
+    /**
+     * Проверяет, есть ли ключ key.
+     *
+     * @param key - ключ.
+     * @return - true, если ключ есть.
+     */
+    public boolean containsKey(long key) {
+        return slotOf(key) >= 0;
+    }
+
+    /**
+     * Добавляет пару ключ-значение.
+     *
+     * @param key   - ключ.
+     * @param value - значение.
+     * @return - старое значение ключа или null, если ключа не было.
+     */
+    public V put(long key, V value) {
+        if (keys == null) {
+            allocate(capacity);
+        }
+        int index;
+        if (key == 0) {
+            index = capacity;
+            if (hasZeroKey) {
+                return replaceValue(index, value);
+            }
+            hasZeroKey = true;
+        } else {
+            int mask = capacity - 1;
+            index = mix(key) & mask;
+            long current;
+            while ((current = keys[index]) != 0) {
+                if (current == key) {
+                    return replaceValue(index, value);
+                }
+                index = (index + 1) & mask;
+            }
+            keys[index] = key;
+        }
+        values[index] = value;
+        modCount++;
+        if (++size > threshold) {
+            resize();
+        }
+        return null;
+    }
+
+    /**
+     * Удаляет ключ key.
+     *
+     * @param key - ключ.
+     * @return - значение удаленного ключа или null, если ключа не было.
+     */
+    public V remove(long key) {
+        int slot = slotOf(key);
+        if (slot < 0) {
+            return null;
+        }
+        V oldValue = valueAt(slot);
+        removeAt(slot);
+        return oldValue;
+    }
+
+    /**
+     * Проверка содержания значения value простым проходом по массиву значений.
+     *
+     * @param value - проверяемое значение.
+     * @return - true, если имеется такое значение в Map, false - обратное.
+     */
+    public boolean containsValue(Object value) {
+        for (int i = 0; i < slotCount(); i++) {
+            if (!isFree(i) && Objects.equals(value, values[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Очищает Map. Массивы сохраняются для повторного заполнения.
+     */
+    public void clear() {
+        if (keys != null && size > 0) {
+            Arrays.fill(keys, 0);
+            Arrays.fill(values, null);
+        }
+        hasZeroKey = false;
+        size = 0;
+        modCount++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Возвращает представление в виде java.util.Map. Изменения представления
+     * видны в этой Map и наоборот. Каждое обращение через представление
+     * упаковывает ключ в Long.
+     *
+     * @return - представление Map.
+     */
+    public Map<Long, V> asMap() {
+        if (mapView == null) {
+            mapView = new MapView();
+        }
+        return mapView;
+    }
+
+    /**
+     * Ищет ячейку ключа key.
+     *
+     * @param key - ключ.
+     * @return - индекс ячейки или -1, если ключа нет.
+     */
+    private int slotOf(long key) {
+        if (keys == null) {
+            return -1;
+        }
+        if (key == 0) {
+            return hasZeroKey ? capacity : -1;
+        }
+        int mask = capacity - 1;
+        int index = mix(key) & mask;
+        long current;
+        while ((current = keys[index]) != 0) {
+            if (current == key) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    private V replaceValue(int slot, V value) {
+        V oldValue = valueAt(slot);
+        values[slot] = value;
+        return oldValue;
+    }
+
+    /**
+     * Создает массивы на newCapacity ячеек и ячейку ключа 0.
+     */
+    private void allocate(int newCapacity) {
+        keys = new long[newCapacity + 1];
+        values = new Object[newCapacity + 1];
+        capacity = newCapacity;
+        threshold = thresholdFor(newCapacity);
+    }
+
+    /**
+     * Увеличивает массивы вдвое и раскладывает ключи по новым ячейкам.
+     */
+    private void resize() {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        int oldCapacity = capacity;
+        allocate(grownCapacity());
+        int mask = capacity - 1;
+        for (int i = 0; i < oldCapacity; i++) {
+            long key = oldKeys[i];
+            if (key != 0) {
+                int index = mix(key) & mask;
+                while (keys[index] != 0) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = key;
+                values[index] = oldValues[i];
+            }
+        }
+        values[capacity] = oldValues[oldCapacity];
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(int slot) {
+        return (V) values[slot];
+    }
+
+    @Override
+    int hashAt(int slot) {
+        return mix(keys[slot]);
+    }
+
+    @Override
+    boolean isFree(int slot) {
+        return slot == capacity ? !hasZeroKey : keys[slot] == 0;
+    }
+
+    @Override
+    void moveSlot(int from, int to) {
+        keys[to] = keys[from];
+        values[to] = values[from];
+    }
+
+    @Override
+    void clearSlot(int slot) {
+        keys[slot] = 0;
+        values[slot] = null;
+    }
+
+    @Override
+    int slotCount() {
+        return keys == null ? 0 : capacity + 1;
+    }
+
+    @Override
+    Object boxedKeyAt(int slot) {
+        return keys[slot];
+    }
+
+    @Override
+    int findBoxed(Object key) {
+        return slotOf((Long) key);
+    }
+
+    @Override
+    int removeAt(int slot) {
+        if (slot == capacity) {
+            hasZeroKey = false;
+            values[slot] = null;
+            size--;
+            modCount++;
+            return -1;
+        }
+        return shiftOut(slot);
+    }
+
+    /**
+     * Метод возвращает строковое представление объекта.
+     * В каждой строчке выводится "key =" + key + "value =" + value.
+     *
+     * @return строковое представление объекта.
+     */
+    @Override
+    public String toString() {
+        StringBuilder stringBuilder = new StringBuilder("{").append(System.lineSeparator());
+        for (int i = 0; i < slotCount(); i++) {
+            if (!isFree(i)) {
+                stringBuilder.append("\t")
+                        .append("key = ")
+                        .append(keys[i])
+                        .append("\t\tvalue = ")
+                        .append(values[i])
+                        .append(System.lineSeparator());
+            }
+        }
+        return stringBuilder.append("}").toString();
+    }
+
+    /**
+     * Сравнивает с другой LongObjectHashMap по содержимому.
+     *
+     * @param o - объект для сравнение с this
+     * @return true, если объекты схожие, false - в обратном случае
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof LongObjectHashMap)) return false;
+        return asMap().equals(((LongObjectHashMap<?>) o).asMap());
+    }
+
+    /**
+     * Вычисляет хэш код по контракту Map.hashCode для представления asMap().
+     *
+     * @return хэш код Map.
+     */
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (int i = 0; i < slotCount(); i++) {
+            if (!isFree(i)) {
+                hash += Long.hashCode(keys[i]) ^ Objects.hashCode(values[i]);
+            }
+        }
+        return hash;
+    }
+
+    private class MapView extends AbstractMap<Long, V> {
+
+        private Set<Map.Entry<Long, V>> entries;
+
+        @Override
+        public V get(Object key) {
+            return key instanceof Long ? LongObjectHashMap.this.get((long) (Long) key) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof Long && LongObjectHashMap.this.containsKey((long) (Long) key);
+        }
+
+        @Override
+        public boolean containsValue(Object value) {
+            return LongObjectHashMap.this.containsValue(value);
+        }
+
+        @Override
+        public V put(Long key, V value) {
+            return LongObjectHashMap.this.put(key, value);
+        }
+
+        @Override
+        public V remove(Object key) {
+            return key instanceof Long ? LongObjectHashMap.this.remove((long) (Long) key) : null;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            LongObjectHashMap.this.clear();
+        }
+
+        @Override
+        public Set<Map.Entry<Long, V>> entrySet() {
+            if (entries == null) {
+                entries = new EntrySet();
+            }
+            return entries;
+        }
+    }
+
+    private class EntrySet extends AbstractSet<Map.Entry<Long, V>> {
+
+        @Override
+        public Iterator<Map.Entry<Long, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            LongObjectHashMap.this.clear();
+        }
+    }
+
+    /**
+     * Запись представления. setValue() записывает значение в ячейку ключа.
+     */
+    private class SlotEntry extends AbstractMap.SimpleEntry<Long, V> {
+
+        private static final long serialVersionUID = 1L;
+
+        SlotEntry(int slot) {
+            super(keys[slot], valueAt(slot));
+        }
+
+        @Override
+        public V setValue(V value) {
+            int slot = slotOf(getKey());
+            if (slot < 0) {
+                throw new IllegalStateException("entry was removed from the map");
+            }
+            values[slot] = value;
+            return super.setValue(value);
+        }
+    }
+
+    private class EntryIterator extends SlotIterator implements Iterator<Map.Entry<Long, V>> {
+
+        @Override
+        public Map.Entry<Long, V> next() {
+            return new SlotEntry(nextSlot());
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package map.impl;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Файл, отображенный в память областями (region) по regionSize байт:
+ * один MappedByteBuffer не может быть больше 2 ГБ. Последняя область
+ * может быть короче и переотображается при росте файла, поэтому
+ * маленький файл не занимает на диске целую область.
+ * Значения не должны пересекать границы областей; чтобы это
+ * гарантировать, regionSize - степень двойки.
+ */
+final class MappedFile implements Closeable {
+
+    private final FileChannel channel;
+
+    private final int regionSize;
+
+    private final int regionShift;
+
+    private final List<MappedByteBuffer> regions = new ArrayList<>();
+
+    /**
+     * Количество отображенных байт.
+     */
+    private long length;
+
+    /**
+     * Открывает или создает файл и отображает не меньше minLength байт.
+     *
+     * @param path       - путь к файлу.
+     * @param regionSize - размер области, степень двойки.
+     * @param minLength  - минимальная длина файла.
+     * @throws IOException - если файл не удалось открыть или отобразить.
+     */
+    MappedFile(Path path, int regionSize, long minLength) throws IOException {
+        if (Integer.bitCount(regionSize) != 1) {
+            throw new IllegalArgumentException("region size should be a power of two");
+        }
+        this.regionSize = regionSize;
+        this.regionShift = Integer.numberOfTrailingZeros(regionSize);
+        channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE);
+        try {
+            map(Math.max(channel.size(), minLength));
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    long length() {
+        return length;
+    }
+
+    /**
+     * Увеличивает файл до newLength байт, если он короче.
+     */
+    void ensureLength(long newLength) throws IOException {
+        if (newLength > length) {
+            map(newLength);
+        }
+    }
+
+    private void map(long newLength) throws IOException {
+        int first = regions.size();
+        if (first > 0 && regions.get(first - 1).capacity() < regionSize) {
+            BufferCleaner.free(regions.remove(--first));
+        }
+        for (long position = (long) first << regionShift; position < newLength; position += regionSize) {
+            int size = (int) Math.min(regionSize, newLength - position);
+            MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_WRITE, position, size);
+            region.order(KeyBuffer.ORDER);
+            regions.add(region);
+        }
+        length = newLength;
+    }
+
+    /**
+     * Область, в которой лежит байт position.
+     */
+    ByteBuffer region(long position) {
+        return regions.get((int) (position >>> regionShift));
+    }
+
+    /**
+     * Смещение байта position в его области.
+     */
+    int offset(long position) {
+        return (int) position & (regionSize - 1);
+    }
+
+    long getLong(long position) {
+        return region(position).getLong(offset(position));
+    }
+
+    void putLong(long position, long value) {
+        region(position).putLong(offset(position), value);
+    }
+
+    int getInt(long position) {
+        return region(position).getInt(offset(position));
+    }
+
+    void putInt(long position, int value) {
+        region(position).putInt(offset(position), value);
+    }
+
+    /**
+     * Сбрасывает измененные страницы всех областей на диск.
+     */
+    void force() {
+        for (MappedByteBuffer region : regions) {
+            region.force();
+        }
+    }
+
+    private void unmap() {
+        for (MappedByteBuffer region : regions) {
+            BufferCleaner.free(region);
+        }
+        regions.clear();
+        length = 0;
+    }
+
+    /**
+     * Отключает области и закрывает файл. Сброс на диск не выполняется,
+     * для этого нужен force().
+     */
+    @Override
+    public void close() throws IOException {
+        unmap();
+        channel.close();
+    }
+}
@@ -0,0 +1,1031 @@
+package map.impl;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * Сохраняемая на диск реализация интерфейса Map. Данные лежат в двух
+ * файлах, отображенных в память (FileChannel.map()):
+ * <ul>
+ * <li>журнал file - записи [length][crc][hash][keySize][valueSize][ключ][значение],
+ * которые только дописываются в конец. Удаление дописывает запись-надгробие
+ * с valueSize = -1. Журнал растет кусками (chunk) по chunkSize байт,
+ * запись никогда не пересекает границу куска;</li>
+ * <li>индекс file.idx - заголовок и таблица с открытой адресацией (как в
+ * OpenHashMap), каждая ячейка которой хранит смещение последней записи
+ * ключа в журнале и хэш ключа.</li>
+ * </ul>
+ * Ключи и значения кодируются переданными Serializer; ключи сравниваются
+ * по закодированным байтам.
+ * <p>
+ * Повторное открытие после close() лишь отображает файлы и читает
+ * заголовок индекса, данные подгружаются операционной системой по мере
+ * обращения. Если Map не была закрыта (процесс упал), индекс помечен
+ * как "грязный" и перестраивается чтением журнала до первой поврежденной
+ * записи: поврежденная запись не проходит проверку CRC.
+ * <p>
+ * Долговечность: все изменения, сделанные до вызова force() или close(),
+ * переживают падение процесса и ОС. Изменения после последнего force()
+ * восстанавливаются не все, но восстановленное состояние всегда совпадает
+ * с состоянием Map после некоторой операции.
+ * <p>
+ * При увеличении таблицы индекс строится заново в соседнем файле, который
+ * затем атомарно заменяет старый; журнал при этом не копируется.
+ * Перезаписанные и удаленные пары остаются в журнале, пока не вызван clear().
+ * Ключи и значения null не поддерживаются. Map не потокобезопасна,
+ * и один файл нельзя открывать дважды.
+ */
+public class MappedHashMap<K, V> extends OpenTable implements Map<K, V>, Closeable {
+
+    /**
+     * Размер куска журнала по умолчанию.
+     */
+    static final int DEFAULT_CHUNK_SIZE = 1 << 26;
+
+    /**
+     * Минимальный размер куска журнала.
+     */
+    static final int MIN_CHUNK_SIZE = 1 << 12;
+
+    private static final long LOG_MAGIC = 0x4D41504C4F473031L;
+    private static final long INDEX_MAGIC = 0x4D41504944583031L;
+    private static final int VERSION = 1;
+
+    /**
+     * Заголовок журнала: [magic: long][version: int][chunkSize: int].
+     */
+    private static final int LOG_HEADER = 64;
+    private static final int LOG_CHUNK_SIZE = 12;
+
+    /**
+     * Заголовок индекса: [magic: long][version: int][state: int]
+     * [capacity: int][size: int][logEnd: long].
+     */
+    private static final int INDEX_HEADER = 64;
+    private static final int STATE = 12;
+    private static final int CAPACITY = 16;
+    private static final int SIZE = 20;
+    private static final int LOG_END = 24;
+
+    /**
+     * Ячейка индекса: [смещение записи: long][hash: int][не используется: int].
+     * Смещение 0 означает пустую ячейку.
+     */
+    private static final int SLOT = 16;
+    private static final int SLOT_HASH = 8;
+    private static final int INDEX_REGION = 1 << 30;
+
+    private static final int DIRTY = 0;
+    private static final int CLEAN = 1;
+
+    private static final int LENGTH = 0;
+    private static final int CRC = 4;
+    private static final int HASH = 8;
+    private static final int KEY_SIZE = 12;
+    private static final int VALUE_SIZE = 16;
+    private static final int RECORD_HEADER = 20;
+
+    /**
+     * Длина вместо записи: конец журнала.
+     */
+    private static final int END = 0;
+
+    /**
+     * Длина вместо записи: до конца куска записей нет.
+     */
+    private static final int SKIP = -1;
+
+    /**
+     * Размер значения в записи-надгробии.
+     */
+    private static final int TOMBSTONE = -1;
+
+    private final Path logPath;
+
+    private final Path indexPath;
+
+    private final Serializer<K> keySerializer;
+
+    private final Serializer<V> valueSerializer;
+
+    /**
+     * Буфер, в который кодируется искомый ключ.
+     */
+    private final KeyBuffer<K> keyBuffer;
+
+    private final CRC32 crc = new CRC32();
+
+    private final int chunkSize;
+
+    private MappedFile log;
+
+    private MappedFile index;
+
+    /**
+     * Смещение конца журнала, следующая запись пишется сюда.
+     */
+    private long logEnd;
+
+    /**
+     * Индекс на диске помечен как "грязный".
+     */
+    private boolean dirty;
+
+    /**
+     * Индекс был перестроен по журналу при открытии.
+     */
+    private boolean recovered;
+
+    private boolean closed;
+
+    /**
+     * Актуальный Collection значений.
+     */
+    private Collection<V> valuesCollection;
+
+    /**
+     * Актуальный Set ключей.
+     */
+    private Set<K> keySet;
+
+    /**
+     * Актульный Set записей пар ключ-значение.
+     */
+    private Set<Map.Entry<K, V>> entries;
+
+    /**
+     * Открывает Map из файла file или создает новую. Для существующего
+     * файла capacity и chunkSize не используются: они берутся из файлов.
+     *
+     * @param file            - путь к журналу, индекс лежит рядом в file.idx.
+     * @param keySerializer   - кодирование ключей.
+     * @param valueSerializer - кодирование значений.
+     * @param capacity        - начальное количество ячеек новой Map.
+     * @param chunkSize       - размер куска журнала новой Map, степень двойки
+     *                        не меньше 4096.
+     * @throws IOException              - если файлы не удалось открыть, или
+     *                                  file не является журналом MappedHashMap.
+     * @throws IllegalArgumentException - если capacity отрицательный
+     *                                  или chunkSize недопустим.
+     */
+    public MappedHashMap(Path file, Serializer<K> keySerializer, Serializer<V> valueSerializer,
+                         int capacity, int chunkSize) throws IOException {
+        super(capacity, HashMap.DEFAULT_LOAD_FACTOR);
+        if (Integer.bitCount(chunkSize) != 1 || chunkSize < MIN_CHUNK_SIZE) {
+            throw new IllegalArgumentException("chunk size should be a power of two not less than " + MIN_CHUNK_SIZE);
+        }
+        this.keySerializer = Objects.requireNonNull(keySerializer);
+        this.valueSerializer = Objects.requireNonNull(valueSerializer);
+        this.keyBuffer = new KeyBuffer<>(keySerializer);
+        this.logPath = file;
+        this.indexPath = file.resolveSibling(file.getFileName() + ".idx");
+        Files.deleteIfExists(temporaryIndexPath());
+        Files.deleteIfExists(temporaryLogPath());
+        int existingChunkSize = readChunkSize(file);
+        this.chunkSize = existingChunkSize == 0 ? chunkSize : existingChunkSize;
+        try {
+            if (existingChunkSize == 0) {
+                replaceLog();
+                replaceIndex(createIndex(this.capacity));
+            } else {
+                log = new MappedFile(logPath, this.chunkSize, this.chunkSize);
+                // журнал, обрезанный при сбое, дополняется до целого куска
+                log.ensureLength((log.length() + this.chunkSize - 1) & -(long) this.chunkSize);
+                if (!openIndex()) {
+                    recovered = true;
+                    rebuildIndex();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            if (log != null) {
+                log.close();
+            }
+            if (index != null) {
+                index.close();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Конструктор с количеством ячеек и размером куска по умолчанию.
+     */
+    public MappedHashMap(Path file, Serializer<K> keySerializer, Serializer<V> valueSerializer) throws IOException {
+        this(file, keySerializer, valueSerializer, HashMap.DEFAULT_CAPACITY, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Добавляет пару ключ-значение: дописывает запись в журнал и
+     * направляет на нее ячейку ключа.
+     *
+     * @param key   - ключ.
+     * @param value - значение.
+     * @return - старое значение ключа или null, если ключа не было.
+     * @throws NullPointerException - если key или value равен null.
+     */
+    @Override
+    public V put(K key, V value) {
+        checkOpen();
+        Objects.requireNonNull(value);
+        keyBuffer.encode(key);
+        int slot = probe();
+        V oldValue = slot >= 0 ? readValue(recordAt(slot)) : null;
+        long record = append(value);
+        if (slot >= 0) {
+            index.putLong(slotPosition(slot), record);
+            return oldValue;
+        }
+        fillSlot(index, -slot - 1, record, keyBuffer.hash());
+        modCount++;
+        if (++size > threshold) {
+            resize();
+        }
+        return null;
+    }
+
+    /**
+     * @throws NullPointerException - если key равен null.
+     */
+    @Override
+    public V get(Object key) {
+        int slot = findSlot(key);
+        return slot < 0 ? null : readValue(recordAt(slot));
+    }
+
+    /**
+     * @throws NullPointerException - если key равен null.
+     */
+    @Override
+    public boolean containsKey(Object key) {
+        return findSlot(key) >= 0;
+    }
+
+    /**
+     * @throws NullPointerException - если key равен null.
+     */
+    @Override
+    public V remove(Object key) {
+        int slot = findSlot(key);
+        if (slot < 0) {
+            return null;
+        }
+        V oldValue = readValue(recordAt(slot));
+        removeAt(slot);
+        return oldValue;
+    }
+
+    /**
+     * Вставляет все записи из входной Map.
+     *
+     * @param m - входная Map
+     */
+    @Override
+    public void putAll(Map<? extends K, ? extends V> m) {
+        for (Entry<? extends K, ? extends V> entry : m.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Очищает Map: заменяет журнал пустым и создает пустой индекс того же
+     * размера. Если процесс упадет между заменой журнала и индекса,
+     * "грязный" индекс перестроится по пустому журналу.
+     */
+    @Override
+    public void clear() {
+        checkOpen();
+        markDirty();
+        try {
+            replaceLog();
+            replaceIndex(createIndex(capacity));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Проверка содержания значения value проходом по всем ячейкам,
+     * каждое значение читается из журнала.
+     *
+     * @param value - проверяемое значение.
+     * @return - true, если имеется такое значение в Map, false - обратное.
+     */
+    @Override
+    public boolean containsValue(Object value) {
+        checkOpen();
+        for (int slot = 0; value != null && slot < capacity; slot++) {
+            if (!isFree(slot) && value.equals(readValue(recordAt(slot)))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Сбрасывает журнал и индекс на диск и помечает индекс как "чистый".
+     * После возврата все сделанные изменения переживут падение процесса,
+     * а следующее открытие не будет перестраивать индекс.
+     *
+     * @throws IllegalStateException - если Map закрыта.
+     */
+    public void force() {
+        checkOpen();
+        if (!dirty) {
+            return;
+        }
+        log.force();
+        index.putInt(SIZE, size);
+        index.putLong(LOG_END, logEnd);
+        index.force();
+        index.putInt(STATE, CLEAN);
+        index.force();
+        dirty = false;
+    }
+
+    /**
+     * Вызывает force() и закрывает файлы. Повторный вызов ничего не делает.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            force();
+        } finally {
+            closed = true;
+            keyBuffer.free();
+            log.close();
+            index.close();
+        }
+    }
+
+    /**
+     * Возвращает размер журнала в байтах, включая перезаписанные и
+     * удаленные пары.
+     *
+     * @return - смещение конца журнала.
+     */
+    public long logBytes() {
+        return logEnd;
+    }
+
+    /**
+     * Был ли индекс перестроен по журналу при открытии, то есть не была
+     * ли Map закрыта некорректно.
+     */
+    boolean recovered() {
+        return recovered;
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("map is closed");
+        }
+    }
+
+    /**
+     * Помечает индекс на диске как "грязный" до первого изменения после
+     * открытия или force().
+     */
+    private void markDirty() {
+        if (!dirty) {
+            index.putInt(STATE, DIRTY);
+            index.force();
+            dirty = true;
+        }
+    }
+
+    /**
+     * Читает размер куска из заголовка журнала.
+     *
+     * @return - размер куска или 0, если журнала нет или он пуст.
+     * @throws IOException - если файл не является журналом MappedHashMap.
+     */
+    private static int readChunkSize(Path file) throws IOException {
+        if (!Files.exists(file) || Files.size(file) < LOG_HEADER) {
+            return 0;
+        }
+        ByteBuffer header = ByteBuffer.allocate(LOG_HEADER).order(KeyBuffer.ORDER);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // читаем заголовок целиком
+            }
+        }
+        int chunkSize = header.getInt(LOG_CHUNK_SIZE);
+        if (header.getLong(0) != LOG_MAGIC || header.getInt(8) != VERSION
+                || Integer.bitCount(chunkSize) != 1 || chunkSize < MIN_CHUNK_SIZE) {
+            throw new IOException("not a MappedHashMap log: " + file);
+        }
+        return chunkSize;
+    }
+
+    /**
+     * Создает пустой журнал с заголовком во временном файле, сбрасывает его
+     * на диск и атомарно ставит на место журнала. При падении ОС на диске
+     * остается либо прежний журнал, либо новый с целым заголовком, но не
+     * журнал без заголовка, который нельзя открыть.
+     */
+    private void replaceLog() throws IOException {
+        Path temporary = temporaryLogPath();
+        Files.deleteIfExists(temporary);
+        MappedFile created = new MappedFile(temporary, chunkSize, chunkSize);
+        try {
+            created.putLong(0, LOG_MAGIC);
+            created.putInt(8, VERSION);
+            created.putInt(LOG_CHUNK_SIZE, chunkSize);
+            created.force();
+            Files.move(temporary, logPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            created.close();
+            throw e;
+        }
+        if (log != null) {
+            log.close();
+        }
+        log = created;
+        logEnd = LOG_HEADER;
+    }
+
+    private Path temporaryLogPath() {
+        return logPath.resolveSibling(logPath.getFileName() + ".tmp");
+    }
+
+    /**
+     * Открывает индекс, если он был корректно закрыт.
+     *
+     * @return - false, если индекс нужно перестроить.
+     */
+    private boolean openIndex() throws IOException {
+        if (!Files.exists(indexPath) || Files.size(indexPath) < INDEX_HEADER) {
+            return false;
+        }
+        MappedFile candidate = new MappedFile(indexPath, INDEX_REGION, 0);
+        int storedCapacity = candidate.getInt(CAPACITY);
+        long storedLogEnd = candidate.getLong(LOG_END);
+        if (candidate.getLong(0) != INDEX_MAGIC || candidate.getInt(8) != VERSION
+                || candidate.getInt(STATE) != CLEAN || Integer.bitCount(storedCapacity) != 1
+                || candidate.length() < INDEX_HEADER + (long) storedCapacity * SLOT
+                || storedLogEnd < LOG_HEADER || storedLogEnd > log.length()) {
+            candidate.close();
+            return false;
+        }
+        index = candidate;
+        capacity = storedCapacity;
+        threshold = thresholdFor(capacity);
+        size = candidate.getInt(SIZE);
+        logEnd = storedLogEnd;
+        return true;
+    }
+
+    /**
+     * Строит индекс заново, применяя записи журнала по порядку до первой
+     * поврежденной записи. Журнал после нее обнуляется, чтобы следующие
+     * записи не смешались со старыми.
+     */
+    private void rebuildIndex() throws IOException {
+        replaceIndex(createIndex(capacity));
+        long position = LOG_HEADER;
+        while (position < log.length()) {
+            ByteBuffer region = log.region(position);
+            int offset = log.offset(position);
+            int length = region.getInt(offset + LENGTH);
+            if (length == SKIP) {
+                position = nextChunk(position);
+                continue;
+            }
+            if (length == END || !isValidRecord(region, offset, length)) {
+                break;
+            }
+            keyBuffer.load(region, offset + RECORD_HEADER, region.getInt(offset + KEY_SIZE));
+            int slot = probe();
+            if (region.getInt(offset + VALUE_SIZE) == TOMBSTONE) {
+                if (slot >= 0) {
+                    shiftOut(slot);
+                }
+            } else if (slot >= 0) {
+                index.putLong(slotPosition(slot), position);
+            } else {
+                fillSlot(index, -slot - 1, position, keyBuffer.hash());
+                if (++size > threshold) {
+                    resize();
+                }
+            }
+            position += length;
+        }
+        logEnd = position;
+        for (; position < log.length(); position += Long.BYTES) {
+            if (log.getLong(position) != 0) {
+                log.putLong(position, 0);
+            }
+        }
+    }
+
+    /**
+     * Проверяет, что по смещению offset лежит целая запись длины length.
+     */
+    private boolean isValidRecord(ByteBuffer region, int offset, int length) {
+        if (length < RECORD_HEADER || length % Long.BYTES != 0 || length > region.capacity() - offset) {
+            return false;
+        }
+        int keySize = region.getInt(offset + KEY_SIZE);
+        int valueSize = region.getInt(offset + VALUE_SIZE);
+        if (keySize < 0 || valueSize < TOMBSTONE
+                || align((long) RECORD_HEADER + keySize + Math.max(valueSize, 0)) != length) {
+            return false;
+        }
+        return region.getInt(offset + CRC) == checksum(region, offset, keySize, valueSize);
+    }
+
+    /**
+     * CRC32 записи от поля hash до конца значения.
+     */
+    private int checksum(ByteBuffer region, int offset, int keySize, int valueSize) {
+        ByteBuffer view = region.duplicate();
+        view.limit(offset + RECORD_HEADER + keySize + Math.max(valueSize, 0)).position(offset + HASH);
+        crc.reset();
+        crc.update(view);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Дописывает в журнал запись с ключом из keyBuffer.
+     *
+     * @param value - значение или null для записи-надгробия.
+     * @return - смещение записи.
+     */
+    private long append(V value) {
+        markDirty();
+        int keySize = keyBuffer.size();
+        int valueSize = value == null ? TOMBSTONE : valueSerializer.size(value);
+        long length = align((long) RECORD_HEADER + keySize + Math.max(valueSize, 0));
+        if (length > chunkSize) {
+            throw new IllegalArgumentException("record of " + length
+                    + " bytes does not fit into a chunk of " + chunkSize + " bytes");
+        }
+        long position = logEnd;
+        if (log.offset(position) + length > chunkSize) {
+            log.putInt(position, SKIP);
+            position = nextChunk(position);
+        }
+        try {
+            log.ensureLength(nextChunk(position));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        ByteBuffer region = log.region(position);
+        int offset = log.offset(position);
+        region.putInt(offset + HASH, keyBuffer.hash());
+        region.putInt(offset + KEY_SIZE, keySize);
+        region.putInt(offset + VALUE_SIZE, valueSize);
+        region.position(offset + RECORD_HEADER);
+        keyBuffer.writeTo(region);
+        if (value != null) {
+            valueSerializer.write(region, value);
+            if (region.position() != offset + RECORD_HEADER + keySize + valueSize) {
+                throw new IllegalStateException("serializer wrote "
+                        + (region.position() - offset - RECORD_HEADER - keySize)
+                        + " bytes instead of " + valueSize);
+            }
+        }
+        region.putInt(offset + CRC, checksum(region, offset, keySize, valueSize));
+        region.putInt(offset + LENGTH, (int) length);
+        logEnd = position + length;
+        return position;
+    }
+
+    /**
+     * Начало куска журнала, следующего за куском байта position.
+     */
+    private long nextChunk(long position) {
+        return (position | (chunkSize - 1)) + 1;
+    }
+
+    private static long align(long length) {
+        return (length + Long.BYTES - 1) & -Long.BYTES;
+    }
+
+    /**
+     * Создает пустой индекс на capacity ячеек во временном файле.
+     * Файл становится индексом после replaceIndex().
+     */
+    private MappedFile createIndex(int capacity) throws IOException {
+        Path temporary = temporaryIndexPath();
+        Files.deleteIfExists(temporary);
+        MappedFile created = new MappedFile(temporary, INDEX_REGION, INDEX_HEADER + (long) capacity * SLOT);
+        created.putLong(0, INDEX_MAGIC);
+        created.putInt(8, VERSION);
+        created.putInt(STATE, DIRTY);
+        created.putInt(CAPACITY, capacity);
+        return created;
+    }
+
+    /**
+     * Атомарно заменяет индекс на диске индексом из createIndex().
+     */
+    private void replaceIndex(MappedFile created) throws IOException {
+        if (index != null) {
+            index.close();
+        }
+        Files.move(temporaryIndexPath(), indexPath, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        index = created;
+        dirty = true;
+    }
+
+    private Path temporaryIndexPath() {
+        return indexPath.resolveSibling(indexPath.getFileName() + ".tmp");
+    }
+
+    /**
+     * Увеличивает таблицу вдвое. Ячейки переносятся в новый индекс по
+     * сохраненным хэшам, журнал не читается.
+     */
+    private void resize() {
+        int newCapacity = grownCapacity();
+        try {
+            MappedFile created = createIndex(newCapacity);
+            int mask = newCapacity - 1;
+            for (int slot = 0; slot < capacity; slot++) {
+                long record = recordAt(slot);
+                if (record != 0) {
+                    int hash = hashAt(slot);
+                    int target = hash & mask;
+                    while (created.getLong(slotPosition(target)) != 0) {
+                        target = (target + 1) & mask;
+                    }
+                    fillSlot(created, target, record, hash);
+                }
+            }
+            replaceIndex(created);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        capacity = newCapacity;
+        threshold = thresholdFor(newCapacity);
+    }
+
+    /**
+     * Ищет ячейку ключа key.
+     *
+     * @return - индекс ячейки или отрицательное число, если ключа нет.
+     */
+    @SuppressWarnings("unchecked")
+    private int findSlot(Object key) {
+        checkOpen();
+        keyBuffer.encode((K) key);
+        return probe();
+    }
+
+    /**
+     * Ищет ячейку ключа из keyBuffer.
+     *
+     * @return - индекс ячейки или -(i + 1), где i - первая пустая ячейка
+     * на пути пробирования.
+     */
+    private int probe() {
+        int mask = capacity - 1;
+        int hash = keyBuffer.hash();
+        int slot = hash & mask;
+        long record;
+        while ((record = recordAt(slot)) != 0) {
+            if (hashAt(slot) == hash && keyMatches(record)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -slot - 1;
+    }
+
+    private boolean keyMatches(long record) {
+        ByteBuffer region = log.region(record);
+        int offset = log.offset(record);
+        return region.getInt(offset + KEY_SIZE) == keyBuffer.size()
+                && keyBuffer.matches(region, offset + RECORD_HEADER);
+    }
+
+    private static long slotPosition(int slot) {
+        return INDEX_HEADER + (long) slot * SLOT;
+    }
+
+    private static void fillSlot(MappedFile target, int slot, long record, int hash) {
+        target.putLong(slotPosition(slot), record);
+        target.putInt(slotPosition(slot) + SLOT_HASH, hash);
+    }
+
+    private long recordAt(int slot) {
+        return index.getLong(slotPosition(slot));
+    }
+
+    private K readKey(long record) {
+        ByteBuffer region = log.region(record);
+        int offset = log.offset(record);
+        region.position(offset + RECORD_HEADER);
+        return keySerializer.read(region, region.getInt(offset + KEY_SIZE));
+    }
+
+    private V readValue(long record) {
+        ByteBuffer region = log.region(record);
+        int offset = log.offset(record);
+        region.position(offset + RECORD_HEADER + region.getInt(offset + KEY_SIZE));
+        return valueSerializer.read(region, region.getInt(offset + VALUE_SIZE));
+    }
+
+    @Override
+    int hashAt(int slot) {
+        return index.getInt(slotPosition(slot) + SLOT_HASH);
+    }
+
+    @Override
+    boolean isFree(int slot) {
+        return recordAt(slot) == 0;
+    }
+
+    @Override
+    void moveSlot(int from, int to) {
+        fillSlot(index, to, recordAt(from), hashAt(from));
+    }
+
+    @Override
+    void clearSlot(int slot) {
+        fillSlot(index, slot, 0, 0);
+    }
+
+    @Override
+    int slotCount() {
+        return capacity;
+    }
+
+    @Override
+    Object boxedKeyAt(int slot) {
+        return readKey(recordAt(slot));
+    }
+
+    @Override
+    int findBoxed(Object key) {
+        return findSlot(key);
+    }
+
+    /**
+     * Дописывает в журнал запись-надгробие ключа ячейки slot и удаляет ячейку.
+     */
+    @Override
+    int removeAt(int slot) {
+        long record = recordAt(slot);
+        ByteBuffer region = log.region(record);
+        int offset = log.offset(record);
+        keyBuffer.load(region, offset + RECORD_HEADER, region.getInt(offset + KEY_SIZE));
+        append(null);
+        return shiftOut(slot);
+    }
+
+    /**
+     * Метод возвращает строковое представление объекта.
+     * В каждой строчке выводится "key =" + key + "value =" + value.
+     *
+     * @return строковое представление объекта.
+     */
+    @Override
+    public String toString() {
+        StringBuilder stringBuilder = new StringBuilder("{").append(System.lineSeparator());
+        for (Map.Entry<K, V> entry : entrySet()) {
+            stringBuilder.append("\t")
+                    .append("key = ")
+                    .append(entry.getKey())
+                    .append("\t\tvalue = ")
+                    .append(entry.getValue())
+                    .append(System.lineSeparator());
+        }
+        return stringBuilder.append("}").toString();
+    }
+
+    /**
+     * Сравнивает с любой Map по контракту Map.equals.
+     *
+     * @param o - объект для сравнение с this
+     * @return true, если объекты схожие, false - в обратном случае
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Map)) return false;
+
+        Map<?, ?> other = (Map<?, ?>) o;
+
+        if (size != other.size()) return false;
+
+        for (Map.Entry<K, V> entry : entrySet()) {
+            if (!entry.getValue().equals(other.get(entry.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Вычисляет хэш код по контракту Map.hashCode.
+     *
+     * @return хэш код Map.
+     */
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (Map.Entry<K, V> entry : entrySet()) {
+            hash += entry.hashCode();
+        }
+        return hash;
+    }
+
+    @Override
+    public Set<K> keySet() {
+        if (keySet == null) {
+            keySet = new KeySet();
+        }
+        return keySet;
+    }
+
+    @Override
+    public Collection<V> values() {
+        if (valuesCollection == null) {
+            valuesCollection = new ValueCollection();
+        }
+        return valuesCollection;
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        if (entries == null) {
+            entries = new EntrySet();
+        }
+        return entries;
+    }
+
+    private class KeySet extends AbstractSet<K> {
+
+        @Override
+        public boolean contains(Object key) {
+            return MappedHashMap.this.containsKey(key);
+        }
+
+        @Override
+        public Iterator<K> iterator() {
+            return new KeyIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean remove(Object key) {
+            int slot = findSlot(key);
+            if (slot < 0) {
+                return false;
+            }
+            removeAt(slot);
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            MappedHashMap.this.clear();
+        }
+    }
+
+    private class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+            int slot = findSlot(entry.getKey());
+            return slot >= 0 && readValue(recordAt(slot)).equals(entry.getValue());
+        }
+
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!contains(o)) {
+                return false;
+            }
+            removeAt(findSlot(((Map.Entry<?, ?>) o).getKey()));
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            MappedHashMap.this.clear();
+        }
+    }
+
+    private class ValueCollection extends AbstractCollection<V> {
+
+        @Override
+        public boolean contains(Object value) {
+            return MappedHashMap.this.containsValue(value);
+        }
+
+        @Override
+        public Iterator<V> iterator() {
+            return new ValueIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            MappedHashMap.this.clear();
+        }
+    }
+
+    /**
+     * Запись, которую возвращает итератор entrySet(). Ключ и значение
+     * читаются сразу, setValue() записывает значение в Map через put().
+     */
+    private class SlotEntry extends AbstractMap.SimpleEntry<K, V> {
+
+        private static final long serialVersionUID = 1L;
+
+        SlotEntry(int slot) {
+            super(readKey(recordAt(slot)), readValue(recordAt(slot)));
+        }
+
+        @Override
+        public V setValue(V value) {
+            put(getKey(), value);
+            return super.setValue(value);
+        }
+    }
+
+    private class KeyIterator extends SlotIterator implements Iterator<K> {
+
+        KeyIterator() {
+            checkOpen();
+        }
+
+        @Override
+        public K next() {
+            return readKey(recordAt(nextSlot()));
+        }
+    }
+
+    private class ValueIterator extends SlotIterator implements Iterator<V> {
+
+        ValueIterator() {
+            checkOpen();
+        }
+
+        @Override
+        public V next() {
+            return readValue(recordAt(nextSlot()));
+        }
+    }
+
+    private class EntryIterator extends SlotIterator implements Iterator<Map.Entry<K, V>> {
+
+        EntryIterator() {
+            checkOpen();
+        }
+
+        @Override
+        public Map.Entry<K, V> next() {
+            return new SlotEntry(nextSlot());
+        }
+    }
+}
@@ -0,0 +1,513 @@
+package map.impl;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Map с ключами-объектами и значениями типа int. Значения хранятся в
+ * массиве int без упаковки в Integer, поэтому put(K, int), addTo(K, int) и
+ * getOrDefault(Object, int) не создают объектов. Подходит для счетчиков.
+ * Устроена как OpenHashMap: ключи, значения и хэши лежат в параллельных
+ * массивах, ключ null хранится как объект-заглушка NULL_KEY.
+ * Отсутствие ключа методы, возвращающие int, обозначают значением 0;
+ * отличить его от хранимого 0 позволяют containsKey() и getOrDefault().
+ * Для кода, которому нужна java.util.Map, есть представление asMap().
+ *
+ * @param <K> - тип ключей.
+ */
+public class ObjectIntHashMap<K> extends OpenTable {
+
+    /**
+     * Заглушка, которая хранится в keys вместо ключа null. Пустая ячейка
+     * обозначается null в keys.
+     */
+    private static final Object NULL_KEY = new Object();
+
+    /**
+     * Массив ключей.
+     */
+    private Object[] keys;
+
+    /**
+     * Массив значений, values[i] - значение ключа keys[i].
+     */
+    private int[] values;
+
+    /**
+     * Массив хэшей, hashes[i] - хэш ключа keys[i].
+     */
+    private int[] hashes;
+
+    /**
+     * Актуальное представление в виде java.util.Map.
+     */
+    private Map<K, Integer> mapView;
+
+    /**
+     * Конструктор. Инициализирует поля capacity и threshold
+     * по входным аргументам.
+     *
+     * @param capacity   - начальное количество ячеек.
+     * @param loadFactor - коэффициент загрузки.
+     * @throws IllegalArgumentException - если capacity отрицательный или
+     *                                  loadFactor не лежит между 0 и 1.
+     */
+    public ObjectIntHashMap(int capacity, double loadFactor) {
+        super(capacity, loadFactor);
+    }
+
+    /**
+     * Конструктор с коэффициентом загрузки по умолчанию.
+     *
+     * @param capacity - начальное количество ячеек.
+     */
+    public ObjectIntHashMap(int capacity) {
+        this(capacity, HashMap.DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Конструктор с количеством ячеек и коэффициентом загрузки по умолчанию.
+     */
+    public ObjectIntHashMap() {
+        this(HashMap.DEFAULT_CAPACITY, HashMap.DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Возвращает значение ключа key.
+     *
+     * @param key - ключ.
+     * @return - значение или 0, если ключа нет.
+     */
+    public int get(Object key) {
+        return getOrDefault(key, 0);
+    }
+
+    /**
+     * Возвращает значение ключа key или defaultValue, если ключа нет.
+     *
+     * @param key          - ключ.
+     * @param defaultValue - значение по умолчанию.
+     * @return - значение ключа или defaultValue.
+     */
+    public int getOrDefault(Object key, int defaultValue) {
+        int slot = findSlot(key);
+        return slot < 0 ? defaultValue : values[slot];
+    }
+
+    /**
+     * Проверяет, есть ли ключ key.
+     *
+     * @param key - ключ.
+     * @return - true, если ключ есть.
+     */
+    public boolean containsKey(Object key) {
+        return findSlot(key) >= 0;
+    }
+
+    /**
+     * Добавляет пару ключ-значение.
+     *
+     * @param key   - ключ.
+     * @param value - значение.
+     * @return - старое значение ключа или 0, если ключа не было.
+     */
+    public int put(K key, int value) {
+        int slot = insertSlot(key);
+        int oldValue = values[slot];
+        values[slot] = value;
+        return oldValue;
+    }
+
+    /**
+     * Прибавляет increment к значению ключа key. Отсутствующий ключ
+     * добавляется со значением increment.
+     *
+     * @param key       - ключ.
+     * @param increment - прибавляемое значение.
+     * @return - новое значение ключа.
+     */
+    public int addTo(K key, int increment) {
+        int slot = insertSlot(key);
+        return values[slot] += increment;
+    }
+
+    /**
+     * Удаляет ключ key.
+     *
+     * @param key - ключ.
+     * @return - значение удаленного ключа или 0, если ключа не было.
+     */
+    public int remove(Object key) {
+        int slot = findSlot(key);
+        if (slot < 0) {
+            return 0;
+        }
+        int oldValue = values[slot];
+        shiftOut(slot);
+        return oldValue;
+    }
+
+    /**
+     * Проверка содержания значения value простым проходом по массиву значений.
+     *
+     * @param value - проверяемое значение.
+     * @return - true, если имеется такое значение в Map, false - обратное.
+     */
+    public boolean containsValue(int value) {
+        for (int i = 0; i < slotCount(); i++) {
+            if (keys[i] != null && values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Очищает Map. Массивы сохраняются для повторного заполнения.
+     */
+    public void clear() {
+        if (keys != null && size > 0) {
+            Arrays.fill(keys, null);
+            Arrays.fill(values, 0);
+            Arrays.fill(hashes, 0);
+        }
+        size = 0;
+        modCount++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Возвращает представление в виде java.util.Map. Изменения представления
+     * видны в этой Map и наоборот. Каждое обращение через представление
+     * упаковывает значение в Integer. Значение null не поддерживается.
+     *
+     * @return - представление Map.
+     */
+    public Map<K, Integer> asMap() {
+        if (mapView == null) {
+            mapView = new MapView();
+        }
+        return mapView;
+    }
+
+    /**
+     * Ищет ячейку ключа key.
+     *
+     * @param key - ключ.
+     * @return - индекс ячейки или -1, если ключа нет.
+     */
+    private int findSlot(Object key) {
+        if (keys != null) {
+            Object k = maskNull(key);
+            int hash = mix(k.hashCode());
+            int mask = capacity - 1;
+            int index = hash & mask;
+            Object current;
+            while ((current = keys[index]) != null) {
+                if (hashes[index] == hash && (current == k || k.equals(current))) {
+                    return index;
+                }
+                index = (index + 1) & mask;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Ищет ячейку ключа key, а если ключа нет - добавляет его со значением 0.
+     * Если добавление увеличило массивы, ячейка ищется заново.
+     *
+     * @param key - ключ.
+     * @return - индекс ячейки ключа.
+     */
+    private int insertSlot(Object key) {
+        if (keys == null) {
+            allocate(capacity);
+        }
+        Object k = maskNull(key);
+        int hash = mix(k.hashCode());
+        int mask = capacity - 1;
+        int index = hash & mask;
+        Object current;
+        while ((current = keys[index]) != null) {
+            if (hashes[index] == hash && (current == k || k.equals(current))) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[index] = k;
+        hashes[index] = hash;
+        modCount++;
+        if (++size > threshold) {
+            resize();
+            return findSlot(key);
+        }
+        return index;
+    }
+
+    /**
+     * Создает массивы на newCapacity ячеек.
+     */
+    private void allocate(int newCapacity) {
+        keys = new Object[newCapacity];
+        values = new int[newCapacity];
+        hashes = new int[newCapacity];
+        capacity = newCapacity;
+        threshold = thresholdFor(newCapacity);
+    }
+
+    /**
+     * Увеличивает массивы вдвое и раскладывает пары по новым ячейкам,
+     * используя сохраненные хэши.
+     */
+    private void resize() {
+        Object[] oldKeys = keys;
+        int[] oldValues = values;
+        int[] oldHashes = hashes;
+        allocate(grownCapacity());
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            Object k = oldKeys[i];
+            if (k != null) {
+                int index = oldHashes[i] & mask;
+                while (keys[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = k;
+                values[index] = oldValues[i];
+                hashes[index] = oldHashes[i];
+            }
+        }
+    }
+
+    private static Object maskNull(Object key) {
+        return key == null ? NULL_KEY : key;
+    }
+
+    @SuppressWarnings("unchecked")
+    private K keyAt(int slot) {
+        Object k = keys[slot];
+        return k == NULL_KEY ? null : (K) k;
+    }
+
+    @Override
+    int hashAt(int slot) {
+        return hashes[slot];
+    }
+
+    @Override
+    boolean isFree(int slot) {
+        return keys[slot] == null;
+    }
+
+    @Override
+    void moveSlot(int from, int to) {
+        keys[to] = keys[from];
+        values[to] = values[from];
+        hashes[to] = hashes[from];
+    }
+
+    @Override
+    void clearSlot(int slot) {
+        keys[slot] = null;
+        values[slot] = 0;
+        hashes[slot] = 0;
+    }
+
+    @Override
+    int slotCount() {
+        return keys == null ? 0 : capacity;
+    }
+
+    @Override
+    Object boxedKeyAt(int slot) {
+        return keyAt(slot);
+    }
+
+    @Override
+    int findBoxed(Object key) {
+        return findSlot(key);
+    }
+
+    /**
+     * Метод возвращает строковое представление объекта.
+     * В каждой строчке выводится "key =" + key + "value =" + value.
+     *
+     * @return строковое представление объекта.
+     */
+    @Override
+    public String toString() {
+        StringBuilder stringBuilder = new StringBuilder("{").append(System.lineSeparator());
+        for (int i = 0; i < slotCount(); i++) {
+            if (keys[i] != null) {
+                stringBuilder.append("\t")
+                        .append("key = ")
+                        .append(keyAt(i))
+                        .append("\t\tvalue = ")
+                        .append(values[i])
+                        .append(System.lineSeparator());
+            }
+        }
+        return stringBuilder.append("}").toString();
+    }
+
+    /**
+     * Сравнивает с другой ObjectIntHashMap по содержимому.
+     *
+     * @param o - объект для сравнение с this
+     * @return true, если объекты схожие, false - в обратном случае
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ObjectIntHashMap)) return false;
+
+        ObjectIntHashMap<?> other = (ObjectIntHashMap<?>) o;
+
+        if (size != other.size) return false;
+
+        for (int i = 0; i < slotCount(); i++) {
+            if (keys[i] != null) {
+                int slot = other.findSlot(keyAt(i));
+                if (slot < 0 || other.values[slot] != values[i]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Вычисляет хэш код по контракту Map.hashCode для представления asMap().
+     *
+     * @return хэш код Map.
+     */
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (int i = 0; i < slotCount(); i++) {
+            if (keys[i] != null) {
+                hash += Objects.hashCode(keyAt(i)) ^ values[i];
+            }
+        }
+        return hash;
+    }
+
+    private class MapView extends AbstractMap<K, Integer> {
+
+        private Set<Map.Entry<K, Integer>> entries;
+
+        @Override
+        public Integer get(Object key) {
+            int slot = findSlot(key);
+            return slot < 0 ? null : values[slot];
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return ObjectIntHashMap.this.containsKey(key);
+        }
+
+        @Override
+        public boolean containsValue(Object value) {
+            return value instanceof Integer && ObjectIntHashMap.this.containsValue((int) (Integer) value);
+        }
+
+        @Override
+        public Integer put(K key, Integer value) {
+            int v = value;
+            boolean present = ObjectIntHashMap.this.containsKey(key);
+            int oldValue = ObjectIntHashMap.this.put(key, v);
+            return present ? oldValue : null;
+        }
+
+        @Override
+        public Integer remove(Object key) {
+            int slot = findSlot(key);
+            if (slot < 0) {
+                return null;
+            }
+            int oldValue = values[slot];
+            shiftOut(slot);
+            return oldValue;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            ObjectIntHashMap.this.clear();
+        }
+
+        @Override
+        public Set<Map.Entry<K, Integer>> entrySet() {
+            if (entries == null) {
+                entries = new EntrySet();
+            }
+            return entries;
+        }
+    }
+
+    private class EntrySet extends AbstractSet<Map.Entry<K, Integer>> {
+
+        @Override
+        public Iterator<Map.Entry<K, Integer>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            ObjectIntHashMap.this.clear();
+        }
+    }
+
+    /**
+     * Запись представления. setValue() записывает значение в ячейку ключа.
+     */
+    private class SlotEntry extends AbstractMap.SimpleEntry<K, Integer> {
+
+        private static final long serialVersionUID = 1L;
+
+        SlotEntry(int slot) {
+            super(keyAt(slot), values[slot]);
+        }
+
+        @Override
+        public Integer setValue(Integer value) {
+            int slot = findSlot(getKey());
+            if (slot < 0) {
+                throw new IllegalStateException("entry was removed from the map");
+            }
+            values[slot] = value;
+            return super.setValue(value);
+        }
+    }
+
+    private class EntryIterator extends SlotIterator implements Iterator<Map.Entry<K, Integer>> {
+
+        @Override
+        public Map.Entry<K, Integer> next() {
+            return new SlotEntry(nextSlot());
+        }
+    }
+}
@@ -0,0 +1,867 @@
+package map.impl;
+
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.util.*;
+
+/**
+ * Реализация интерфейса Map, которая хранит таблицу и пары ключ-значение
+ * вне кучи, в прямых (direct) ByteBuffer. Сборщик мусора не обходит такие
+ * пары, поэтому большая Map не увеличивает паузы GC.
+ * Ключи и значения кодируются в байты переданными Serializer. Ключи
+ * сравниваются и хэшируются по закодированным байтам, поэтому равные
+ * ключи должны кодироваться одинаково (см. Serializer).
+ * <p>
+ * Таблица - буфер из capacity адресов типа long, каждый адрес указывает на
+ * первую запись цепочки корзины. Записи лежат в слабах - прямых буферах
+ * размером slabSize, в которые записи только дописываются. Запись имеет вид
+ * [next: long][hash: int][keySize: int][valueSize: int][ключ][значение].
+ * Адрес записи - номер слаба, начиная с 1, в старших 32 битах и смещение
+ * записи в слабе в младших; адрес 0 означает конец цепочки.
+ * <p>
+ * Удаленные записи и записи, значение которых не поместилось на старое
+ * место, остаются в слабах мусором. Когда мусора становится больше, чем
+ * живых записей, очередная вставка нового ключа переписывает живые записи
+ * в новые слабы (см. compact()).
+ * <p>
+ * Ключи и значения null не поддерживаются. Map не потокобезопасна.
+ * После close() память освобождается сразу, и любые операции
+ * бросают IllegalStateException.
+ */
+public class OffHeapHashMap<K, V> implements Map<K, V>, Closeable {
+
+    /**
+     * Размер слаба по умолчанию.
+     */
+    static final int DEFAULT_SLAB_SIZE = 1 << 20;
+
+    /**
+     * Максимальное количество корзин: таблица из 8-байтных адресов
+     * должна поместиться в один ByteBuffer.
+     */
+    static final int MAX_CAPACITY = 1 << 27;
+
+    private static final int NEXT = 0;
+    private static final int HASH = 8;
+    private static final int KEY_SIZE = 12;
+    private static final int VALUE_SIZE = 16;
+
+    /**
+     * Размер заголовка записи.
+     */
+    private static final int HEADER = 20;
+
+    private final Serializer<K> keySerializer;
+
+    private final Serializer<V> valueSerializer;
+
+    /**
+     * Коэффициент загрузки.
+     */
+    private final double loadFactor;
+
+    /**
+     * Размер нового слаба. Запись большего размера получает отдельный слаб.
+     */
+    private final int slabSize;
+
+    /**
+     * Таблица адресов первых записей корзин.
+     */
+    private ByteBuffer table;
+
+    /**
+     * Количество корзин. Степень двойки.
+     */
+    private int capacity;
+
+    /**
+     * Порог, пройдя который, таблица увеличивается вдвое.
+     */
+    private int threshold;
+
+    /**
+     * Количество пар.
+     */
+    private int size;
+
+    /**
+     * Счетчик изменений.
+     */
+    private int modCount;
+
+    /**
+     * Слабы с записями, запись дописывается в последний.
+     */
+    private final List<ByteBuffer> slabs = new ArrayList<>();
+
+    /**
+     * Смещение свободного места в последнем слабе.
+     */
+    private int slabOffset;
+
+    /**
+     * Сумма размеров всех слабов.
+     */
+    private long slabBytes;
+
+    /**
+     * Сумма размеров живых записей.
+     */
+    private long liveBytes;
+
+    /**
+     * Буфер, в который кодируется искомый ключ.
+     */
+    private KeyBuffer<K> keyBuffer;
+
+    private boolean closed;
+
+    /**
+     * Актуальный Collection значений.
+     */
+    private Collection<V> valuesCollection;
+
+    /**
+     * Актуальный Set ключей.
+     */
+    private Set<K> keySet;
+
+    /**
+     * Актульный Set записей пар ключ-значение.
+     */
+    private Set<Map.Entry<K, V>> entries;
+
+    /**
+     * Конструктор.
+     *
+     * @param keySerializer   - кодирование ключей.
+     * @param valueSerializer - кодирование значений.
+     * @param capacity        - начальное количество корзин.
+     * @param loadFactor      - коэффициент загрузки.
+     * @param slabSize        - размер слаба в байтах.
+     * @throws IllegalArgumentException - если capacity отрицательный,
+     *                                  loadFactor не лежит между 0 и 1
+     *                                  или slabSize не положительный.
+     */
+    public OffHeapHashMap(Serializer<K> keySerializer, Serializer<V> valueSerializer,
+                          int capacity, double loadFactor, int slabSize) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("initial CAPACITY should be positive");
+        }
+        if (Double.compare(loadFactor, 1) > 0 || Double.compare(loadFactor, 0) < 0) {
+            throw new IllegalArgumentException("load factory should be between 0 and 1");
+        }
+        if (slabSize <= 0) {
+            throw new IllegalArgumentException("slab size should be positive");
+        }
+        this.keySerializer = keySerializer;
+        this.keyBuffer = new KeyBuffer<>(keySerializer);
+        this.valueSerializer = Objects.requireNonNull(valueSerializer);
+        this.loadFactor = loadFactor;
+        this.slabSize = slabSize;
+        this.capacity = Math.min(HashMap.tableSizeFromCapacity(capacity), MAX_CAPACITY);
+        threshold = thresholdFor(this.capacity);
+        table = allocateTable(this.capacity);
+    }
+
+    /**
+     * Конструктор с размером слаба по умолчанию.
+     */
+    public OffHeapHashMap(Serializer<K> keySerializer, Serializer<V> valueSerializer,
+                          int capacity, double loadFactor) {
+        this(keySerializer, valueSerializer, capacity, loadFactor, DEFAULT_SLAB_SIZE);
+    }
+
+    /**
+     * Конструктор с количеством корзин, коэффициентом загрузки
+     * и размером слаба по умолчанию.
+     */
+    public OffHeapHashMap(Serializer<K> keySerializer, Serializer<V> valueSerializer) {
+        this(keySerializer, valueSerializer, HashMap.DEFAULT_CAPACITY, HashMap.DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Добавляет пару ключ-значение. Если ключ уже есть и новое значение
+     * помещается на место старого, оно перезаписывается на месте,
+     * иначе запись дописывается в слаб заново.
+     *
+     * @param key   - ключ.
+     * @param value - значение.
+     * @return - старое значение ключа или null, если ключа не было.
+     * @throws NullPointerException - если key или value равен null.
+     */
+    @Override
+    public V put(K key, V value) {
+        checkOpen();
+        Objects.requireNonNull(value);
+        keyBuffer.encode(key);
+        int keySize = keyBuffer.size();
+        int hash = keyBuffer.hash();
+        int valueSize = valueSerializer.size(value);
+        long address = find(hash, keySize);
+        if (address != 0) {
+            V oldValue = readValue(address);
+            ByteBuffer slab = slabOf(address);
+            int offset = offsetOf(address);
+            int oldValueSize = slab.getInt(offset + VALUE_SIZE);
+            if (valueSize <= oldValueSize) {
+                writeValue(slab, offset + HEADER + keySize, value, valueSize);
+                slab.putInt(offset + VALUE_SIZE, valueSize);
+                liveBytes -= oldValueSize - valueSize;
+            } else {
+                unlink(address);
+                liveBytes -= HEADER + keySize + oldValueSize;
+                insert(hash, keySize, value, valueSize);
+            }
+            return oldValue;
+        }
+        if (garbageBytes() > Math.max(liveBytes, slabSize)) {
+            compact();
+        }
+        insert(hash, keySize, value, valueSize);
+        modCount++;
+        if (++size > threshold) {
+            resize();
+        }
+        return null;
+    }
+
+    /**
+     * @throws NullPointerException - если key равен null.
+     */
+    @Override
+    public V get(Object key) {
+        long address = findKey(key);
+        return address == 0 ? null : readValue(address);
+    }
+
+    /**
+     * @throws NullPointerException - если key равен null.
+     */
+    @Override
+    public boolean containsKey(Object key) {
+        return findKey(key) != 0;
+    }
+
+    /**
+     * @throws NullPointerException - если key равен null.
+     */
+    @Override
+    public V remove(Object key) {
+        long address = findKey(key);
+        if (address == 0) {
+            return null;
+        }
+        V oldValue = readValue(address);
+        removeRecord(address);
+        return oldValue;
+    }
+
+    /**
+     * Вставляет все записи из входной Map.
+     *
+     * @param m - входная Map
+     */
+    @Override
+    public void putAll(Map<? extends K, ? extends V> m) {
+        for (Entry<? extends K, ? extends V> entry : m.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Очищает Map и освобождает все слабы. Таблица сохраняет размер.
+     */
+    @Override
+    public void clear() {
+        checkOpen();
+        freeSlabs();
+        BufferCleaner.free(table);
+        table = allocateTable(capacity);
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Проверка содержания значения value проходом по всем записям,
+     * каждое значение декодируется.
+     *
+     * @param value - проверяемое значение.
+     * @return - true, если имеется такое значение в Map, false - обратное.
+     */
+    @Override
+    public boolean containsValue(Object value) {
+        if (value == null) {
+            return false;
+        }
+        for (RecordIterator<V> iterator = new ValueIterator(); iterator.hasNext(); ) {
+            if (value.equals(iterator.next())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Переписывает живые записи подряд в новые слабы и освобождает старые.
+     * Вызывается автоматически при вставке нового ключа, когда мусора
+     * в слабах больше, чем живых записей. Инвалидирует итераторы.
+     */
+    public void compact() {
+        checkOpen();
+        List<ByteBuffer> oldSlabs = new ArrayList<>(slabs);
+        slabs.clear();
+        slabBytes = 0;
+        slabOffset = 0;
+        for (int i = 0; i < capacity; i++) {
+            long address = table.getLong(i << 3);
+            long previous = 0;
+            while (address != 0) {
+                ByteBuffer source = oldSlabs.get((int) (address >>> 32) - 1);
+                int offset = offsetOf(address);
+                long next = source.getLong(offset + NEXT);
+                int recordSize = HEADER + source.getInt(offset + KEY_SIZE) + source.getInt(offset + VALUE_SIZE);
+                long moved = allocate(recordSize);
+                copy(source, offset, slabOf(moved), offsetOf(moved), recordSize);
+                if (previous == 0) {
+                    table.putLong(i << 3, moved);
+                } else {
+                    setNext(previous, moved);
+                }
+                previous = moved;
+                address = next;
+            }
+            if (previous != 0) {
+                setNext(previous, 0);
+            }
+        }
+        for (ByteBuffer slab : oldSlabs) {
+            BufferCleaner.free(slab);
+        }
+        modCount++;
+    }
+
+    /**
+     * Возвращает количество байт вне кучи, занятых таблицей и слабами,
+     * включая мусор и свободное место в последнем слабе.
+     *
+     * @return - размер в байтах.
+     */
+    public long offHeapBytes() {
+        return table == null ? 0 : table.capacity() + slabBytes;
+    }
+
+    /**
+     * Освобождает всю память вне кучи. Повторный вызов ничего не делает.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        freeSlabs();
+        BufferCleaner.free(table);
+        keyBuffer.free();
+        table = null;
+        keyBuffer = null;
+        size = 0;
+        modCount++;
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("map is closed");
+        }
+    }
+
+    /**
+     * Ищет запись ключа key.
+     *
+     * @return - адрес записи или 0.
+     */
+    @SuppressWarnings("unchecked")
+    private long findKey(Object key) {
+        checkOpen();
+        keyBuffer.encode((K) key);
+        return find(keyBuffer.hash(), keyBuffer.size());
+    }
+
+    /**
+     * Ищет запись ключа, закодированного в keyBuffer.
+     *
+     * @return - адрес записи или 0.
+     */
+    private long find(int hash, int keySize) {
+        long address = table.getLong((hash & (capacity - 1)) << 3);
+        while (address != 0) {
+            ByteBuffer slab = slabOf(address);
+            int offset = offsetOf(address);
+            if (slab.getInt(offset + HASH) == hash && slab.getInt(offset + KEY_SIZE) == keySize
+                    && keyBuffer.matches(slab, offset + HEADER)) {
+                return address;
+            }
+            address = slab.getLong(offset + NEXT);
+        }
+        return 0;
+    }
+
+    /**
+     * Дописывает запись с ключом из keyBuffer в начало цепочки корзины.
+     */
+    private void insert(int hash, int keySize, V value, int valueSize) {
+        int recordSize = HEADER + keySize + valueSize;
+        long address = allocate(recordSize);
+        ByteBuffer slab = slabOf(address);
+        int offset = offsetOf(address);
+        int bucket = (hash & (capacity - 1)) << 3;
+        slab.putLong(offset + NEXT, table.getLong(bucket));
+        slab.putInt(offset + HASH, hash);
+        slab.putInt(offset + KEY_SIZE, keySize);
+        slab.putInt(offset + VALUE_SIZE, valueSize);
+        slab.position(offset + HEADER);
+        keyBuffer.writeTo(slab);
+        writeValue(slab, offset + HEADER + keySize, value, valueSize);
+        table.putLong(bucket, address);
+        liveBytes += recordSize;
+    }
+
+    private void writeValue(ByteBuffer slab, int from, V value, int valueSize) {
+        slab.position(from);
+        valueSerializer.write(slab, value);
+        if (slab.position() != from + valueSize) {
+            throw new IllegalStateException("serializer wrote " + (slab.position() - from)
+                    + " bytes instead of " + valueSize);
+        }
+    }
+
+    /**
+     * Выделяет место под запись в последнем слабе или в новом слабе.
+     *
+     * @return - адрес записи.
+     */
+    private long allocate(int recordSize) {
+        if (slabs.isEmpty() || slabOffset + recordSize > slabs.get(slabs.size() - 1).capacity()) {
+            ByteBuffer slab = ByteBuffer.allocateDirect(Math.max(slabSize, recordSize))
+                    .order(KeyBuffer.ORDER);
+            slabs.add(slab);
+            slabBytes += slab.capacity();
+            slabOffset = 0;
+        }
+        long address = ((long) slabs.size() << 32) | slabOffset;
+        slabOffset += recordSize;
+        return address;
+    }
+
+    /**
+     * Мусор в слабах: все, кроме живых записей и свободного места
+     * в последнем слабе.
+     */
+    private long garbageBytes() {
+        if (slabs.isEmpty()) {
+            return 0;
+        }
+        return slabBytes - liveBytes - (slabs.get(slabs.size() - 1).capacity() - slabOffset);
+    }
+
+    /**
+     * Удаляет запись по адресу из Map.
+     */
+    private void removeRecord(long address) {
+        unlink(address);
+        ByteBuffer slab = slabOf(address);
+        int offset = offsetOf(address);
+        liveBytes -= HEADER + slab.getInt(offset + KEY_SIZE) + slab.getInt(offset + VALUE_SIZE);
+        size--;
+        modCount++;
+    }
+
+    /**
+     * Исключает запись из цепочки ее корзины. Сама запись не меняется.
+     */
+    private void unlink(long address) {
+        int bucket = (slabOf(address).getInt(offsetOf(address) + HASH) & (capacity - 1)) << 3;
+        long next = nextOf(address);
+        long current = table.getLong(bucket);
+        if (current == address) {
+            table.putLong(bucket, next);
+            return;
+        }
+        long previous;
+        do {
+            previous = current;
+            current = nextOf(current);
+        } while (current != address);
+        setNext(previous, next);
+    }
+
+    /**
+     * Увеличивает таблицу вдвое. Записи не копируются: в новую таблицу
+     * перевешиваются ссылки next.
+     */
+    private void resize() {
+        if (capacity >= MAX_CAPACITY) {
+            threshold = Integer.MAX_VALUE;
+            return;
+        }
+        int newCapacity = capacity << 1;
+        ByteBuffer newTable = allocateTable(newCapacity);
+        for (int i = 0; i < capacity; i++) {
+            long address = table.getLong(i << 3);
+            while (address != 0) {
+                ByteBuffer slab = slabOf(address);
+                int offset = offsetOf(address);
+                long next = slab.getLong(offset + NEXT);
+                int bucket = (slab.getInt(offset + HASH) & (newCapacity - 1)) << 3;
+                slab.putLong(offset + NEXT, newTable.getLong(bucket));
+                newTable.putLong(bucket, address);
+                address = next;
+            }
+        }
+        BufferCleaner.free(table);
+        table = newTable;
+        capacity = newCapacity;
+        threshold = thresholdFor(newCapacity);
+    }
+
+    private int thresholdFor(int newCapacity) {
+        return newCapacity >= MAX_CAPACITY ? Integer.MAX_VALUE : (int) (newCapacity * loadFactor);
+    }
+
+    private static ByteBuffer allocateTable(int capacity) {
+        return ByteBuffer.allocateDirect(capacity << 3).order(KeyBuffer.ORDER);
+    }
+
+    private void freeSlabs() {
+        for (ByteBuffer slab : slabs) {
+            BufferCleaner.free(slab);
+        }
+        slabs.clear();
+        slabBytes = 0;
+        slabOffset = 0;
+        liveBytes = 0;
+    }
+
+    private static void copy(ByteBuffer source, int from, ByteBuffer target, int to, int length) {
+        ByteBuffer src = source.duplicate();
+        src.limit(from + length).position(from);
+        ByteBuffer dst = target.duplicate();
+        dst.position(to);
+        dst.put(src);
+    }
+
+    private ByteBuffer slabOf(long address) {
+        return slabs.get((int) (address >>> 32) - 1);
+    }
+
+    private static int offsetOf(long address) {
+        return (int) address;
+    }
+
+    private long nextOf(long address) {
+        return slabOf(address).getLong(offsetOf(address) + NEXT);
+    }
+
+    private void setNext(long address, long next) {
+        slabOf(address).putLong(offsetOf(address) + NEXT, next);
+    }
+
+    private K readKey(long address) {
+        ByteBuffer slab = slabOf(address);
+        int offset = offsetOf(address);
+        slab.position(offset + HEADER);
+        return keySerializer.read(slab, slab.getInt(offset + KEY_SIZE));
+    }
+
+    private V readValue(long address) {
+        ByteBuffer slab = slabOf(address);
+        int offset = offsetOf(address);
+        slab.position(offset + HEADER + slab.getInt(offset + KEY_SIZE));
+        return valueSerializer.read(slab, slab.getInt(offset + VALUE_SIZE));
+    }
+
+    /**
+     * Метод возвращает строковое представление объекта.
+     * В каждой строчке выводится "key =" + key + "value =" + value.
+     *
+     * @return строковое представление объекта.
+     */
+    @Override
+    public String toString() {
+        StringBuilder stringBuilder = new StringBuilder("{").append(System.lineSeparator());
+        for (Map.Entry<K, V> entry : entrySet()) {
+            stringBuilder.append("\t")
+                    .append("key = ")
+                    .append(entry.getKey())
+                    .append("\t\tvalue = ")
+                    .append(entry.getValue())
+                    .append(System.lineSeparator());
+        }
+        return stringBuilder.append("}").toString();
+    }
+
+    /**
+     * Сравнивает с любой Map по контракту Map.equals.
+     *
+     * @param o - объект для сравнение с this
+     * @return true, если объекты схожие, false - в обратном случае
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Map)) return false;
+
+        Map<?, ?> other = (Map<?, ?>) o;
+
+        if (size != other.size()) return false;
+
+        for (Map.Entry<K, V> entry : entrySet()) {
+            if (!entry.getValue().equals(other.get(entry.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Вычисляет хэш код по контракту Map.hashCode.
+     *
+     * @return хэш код Map.
+     */
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (Map.Entry<K, V> entry : entrySet()) {
+            hash += entry.hashCode();
+        }
+        return hash;
+    }
+
+    @Override
+    public Set<K> keySet() {
+        if (keySet == null) {
+            keySet = new KeySet();
+        }
+        return keySet;
+    }
+
+    @Override
+    public Collection<V> values() {
+        if (valuesCollection == null) {
+            valuesCollection = new ValueCollection();
+        }
+        return valuesCollection;
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        if (entries == null) {
+            entries = new EntrySet();
+        }
+        return entries;
+    }
+
+    private class KeySet extends AbstractSet<K> {
+
+        @Override
+        public boolean contains(Object key) {
+            return OffHeapHashMap.this.containsKey(key);
+        }
+
+        @Override
+        public Iterator<K> iterator() {
+            return new KeyIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean remove(Object key) {
+            long address = findKey(key);
+            if (address == 0) {
+                return false;
+            }
+            removeRecord(address);
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            OffHeapHashMap.this.clear();
+        }
+    }
+
+    private class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+            long address = findKey(entry.getKey());
+            return address != 0 && readValue(address).equals(entry.getValue());
+        }
+
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!contains(o)) {
+                return false;
+            }
+            removeRecord(findKey(((Map.Entry<?, ?>) o).getKey()));
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            OffHeapHashMap.this.clear();
+        }
+    }
+
+    private class ValueCollection extends AbstractCollection<V> {
+
+        @Override
+        public boolean contains(Object value) {
+            return OffHeapHashMap.this.containsValue(value);
+        }
+
+        @Override
+        public Iterator<V> iterator() {
+            return new ValueIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            OffHeapHashMap.this.clear();
+        }
+    }
+
+    /**
+     * Запись, которую возвращает итератор entrySet(). Ключ и значение
+     * декодируются сразу, setValue() записывает значение в Map через put().
+     */
+    private class RecordEntry extends AbstractMap.SimpleEntry<K, V> {
+
+        private static final long serialVersionUID = 1L;
+
+        RecordEntry(long address) {
+            super(readKey(address), readValue(address));
+        }
+
+        @Override
+        public V setValue(V value) {
+            put(getKey(), value);
+            return super.setValue(value);
+        }
+    }
+
+    /**
+     * Итератор по записям: корзины по порядку, в корзине - по цепочке.
+     * Замена значения существующего ключа не перемещает другие записи,
+     * поэтому допустима во время обхода.
+     */
+    private abstract class RecordIterator<T> implements Iterator<T> {
+
+        private int bucket;
+        private long next;
+        private long lastReturned;
+        private int expectedModCount = modCount;
+
+        RecordIterator() {
+            checkOpen();
+            advance();
+        }
+
+        private void advance() {
+            while (next == 0 && bucket < capacity) {
+                next = table.getLong((bucket++) << 3);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != 0;
+        }
+
+        final long nextRecord() {
+            checkOpen();
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (next == 0) {
+                throw new NoSuchElementException();
+            }
+            lastReturned = next;
+            next = nextOf(next);
+            advance();
+            return lastReturned;
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned == 0) {
+                throw new IllegalStateException();
+            }
+            checkOpen();
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            removeRecord(lastReturned);
+            lastReturned = 0;
+            expectedModCount = modCount;
+        }
+    }
+
+    private class KeyIterator extends RecordIterator<K> {
+
+        @Override
+        public K next() {
+            return readKey(nextRecord());
+        }
+    }
+
+    private class ValueIterator extends RecordIterator<V> {
+
+        @Override
+        public V next() {
+            return readValue(nextRecord());
+        }
+    }
+
+    private class EntryIterator extends RecordIterator<Map.Entry<K, V>> {
+
+        @Override
+        public Map.Entry<K, V> next() {
+            return new RecordEntry(nextRecord());
+        }
+    }
+}
@@ -0,0 +1,580 @@
+package map.impl;
+
+import java.util.*;
+
+/**
+ * Реализация интерфейса Map с открытой адресацией. В отличие от HashMap,
+ * пары ключ-значение не оборачиваются в узлы: ключи, значения и хэши лежат
+ * в трех параллельных массивах keys, values и hashes одинаковой длины.
+ * Пара кладется в ячейку, соответствующую хэшу ключа, а если ячейка занята -
+ * в первую свободную ячейку после нее (линейное пробирование).
+ * При удалении пары следующие за ней пары того же кластера сдвигаются назад
+ * (backward-shift deletion), поэтому в массивах не остается "надгробий",
+ * и поиск всегда останавливается на первой пустой ячейке.
+ * Ключ null хранится как объект-заглушка NULL_KEY.
+ */
+public class OpenHashMap<K, V> extends OpenTable implements Map<K, V> {
+
+    /**
+     * Заглушка, которая хранится в keys вместо ключа null. Пустая ячейка
+     * обозначается null в keys.
+     */
+    private static final Object NULL_KEY = new Object();
+
+    /**
+     * Массив ключей.
+     */
+    private Object[] keys;
+
+    /**
+     * Массив значений, values[i] - значение ключа keys[i].
+     */
+    private Object[] values;
+
+    /**
+     * Массив хэшей, hashes[i] - хэш ключа keys[i]. Позволяет не вызывать
+     * equals() для ключей с другим хэшем и не вычислять хэши заново при
+     * перестроении массивов.
+     */
+    private int[] hashes;
+
+    /**
+     * Актуальный Collection значений.
+     */
+    private Collection<V> valuesCollection;
+
+    /**
+     * Актуальный Set ключей.
+     */
+    private Set<K> keySet;
+
+    /**
+     * Актульный Set записей пар ключ-значение.
+     */
+    private Set<Map.Entry<K, V>> entries;
+
+    /**
+     * Конструктор. Инициализирует поля capacity и threshold
+     * по входным аргументам.
+     *
+     * @param capacity   - начальное количество ячеек.
+     * @param loadFactor - коэффициент загрузки.
+     * @throws IllegalArgumentException - если capacity отрицательный или
+     *                                  loadFactor не лежит между 0 и 1.
+     */
+    public OpenHashMap(int capacity, double loadFactor) {
+        super(capacity, loadFactor);
+    }
+
+    /**
+     * Конструктор с коэффициентом загрузки по умолчанию.
+     *
+     * @param capacity - начальное количество ячеек.
+     */
+    public OpenHashMap(int capacity) {
+        this(capacity, HashMap.DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Конструктор с количеством ячеек и коэффициентом загрузки по умолчанию.
+     */
+    public OpenHashMap() {
+        this(HashMap.DEFAULT_CAPACITY, HashMap.DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Добавляет пару ключ-значение. Ячейки просматриваются подряд, начиная с
+     * ячейки хэша, до ячейки с тем же ключом или до первой пустой ячейки.
+     *
+     * @param key   - ключ.
+     * @param value - значение.
+     * @return - старое значение ключа или null, если ключа не было.
+     */
+    @Override
+    public V put(K key, V value) {
+        if (keys == null) {
+            allocate(capacity);
+        }
+        Object k = maskNull(key);
+        int hash = hash(k);
+        int mask = capacity - 1;
+        int index = hash & mask;
+        Object current;
+        while ((current = keys[index]) != null) {
+            if (hashes[index] == hash && (current == k || k.equals(current))) {
+                V oldValue = valueAt(index);
+                values[index] = value;
+                return oldValue;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[index] = k;
+        values[index] = value;
+        hashes[index] = hash;
+        modCount++;
+        if (++size > threshold) {
+            resize();
+        }
+        return null;
+    }
+
+    @Override
+    public V get(Object key) {
+        int index = findSlot(key);
+        return index < 0 ? null : valueAt(index);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return findSlot(key) >= 0;
+    }
+
+    @Override
+    public V remove(Object key) {
+        int index = findSlot(key);
+        if (index < 0) {
+            return null;
+        }
+        V oldValue = valueAt(index);
+        shiftOut(index);
+        return oldValue;
+    }
+
+    /**
+     * Вставляет все записи из входной Map.
+     *
+     * @param m - входная Map
+     */
+    @Override
+    public void putAll(Map<? extends K, ? extends V> m) {
+        for (Entry<? extends K, ? extends V> entry : m.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Очищает Map. Массивы сохраняются для повторного заполнения.
+     */
+    @Override
+    public void clear() {
+        if (keys != null && size > 0) {
+            Arrays.fill(keys, null);
+            Arrays.fill(values, null);
+            Arrays.fill(hashes, 0);
+        }
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Проверка содержания значения value простым проходом по массиву значений.
+     *
+     * @param value - проверяемое значение.
+     * @return - true, если имеется такое значение в Map, false - обратное.
+     */
+    @Override
+    public boolean containsValue(Object value) {
+        if (keys != null) {
+            for (int i = 0; i < capacity; i++) {
+                if (keys[i] != null && Objects.equals(value, values[i])) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Ищет ячейку ключа key.
+     *
+     * @param key - ключ.
+     * @return - индекс ячейки или -1, если ключа нет.
+     */
+    private int findSlot(Object key) {
+        if (keys != null) {
+            Object k = maskNull(key);
+            int hash = hash(k);
+            int mask = capacity - 1;
+            int index = hash & mask;
+            Object current;
+            while ((current = keys[index]) != null) {
+                if (hashes[index] == hash && (current == k || k.equals(current))) {
+                    return index;
+                }
+                index = (index + 1) & mask;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Создает массивы на newCapacity ячеек.
+     */
+    private void allocate(int newCapacity) {
+        keys = new Object[newCapacity];
+        values = new Object[newCapacity];
+        hashes = new int[newCapacity];
+        capacity = newCapacity;
+        threshold = thresholdFor(newCapacity);
+    }
+
+    /**
+     * Увеличивает массивы вдвое и раскладывает пары по новым ячейкам,
+     * используя сохраненные хэши.
+     */
+    private void resize() {
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        int[] oldHashes = hashes;
+        allocate(grownCapacity());
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            Object k = oldKeys[i];
+            if (k != null) {
+                int index = oldHashes[i] & mask;
+                while (keys[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = k;
+                values[index] = oldValues[i];
+                hashes[index] = oldHashes[i];
+            }
+        }
+    }
+
+    @Override
+    int hashAt(int slot) {
+        return hashes[slot];
+    }
+
+    @Override
+    boolean isFree(int slot) {
+        return keys[slot] == null;
+    }
+
+    @Override
+    void moveSlot(int from, int to) {
+        keys[to] = keys[from];
+        values[to] = values[from];
+        hashes[to] = hashes[from];
+    }
+
+    @Override
+    void clearSlot(int slot) {
+        keys[slot] = null;
+        values[slot] = null;
+        hashes[slot] = 0;
+    }
+
+    @Override
+    int slotCount() {
+        return keys == null ? 0 : capacity;
+    }
+
+    @Override
+    Object boxedKeyAt(int slot) {
+        return keyAt(slot);
+    }
+
+    @Override
+    int findBoxed(Object key) {
+        return findSlot(key);
+    }
+
+    /**
+     * Вычисляет хэш ключа, перемешивая его хэш-код методом mix().
+     *
+     * @param k - ключ, null уже заменен на NULL_KEY.
+     * @return - хэш ключа.
+     */
+    private static int hash(Object k) {
+        return mix(k.hashCode());
+    }
+
+    private static Object maskNull(Object key) {
+        return key == null ? NULL_KEY : key;
+    }
+
+    @SuppressWarnings("unchecked")
+    private K keyAt(int index) {
+        Object k = keys[index];
+        return k == NULL_KEY ? null : (K) k;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(int index) {
+        return (V) values[index];
+    }
+
+    /**
+     * Метод возвращает строковое представление объекта.
+     * В каждой строчке выводится "key =" + key + "value =" + value.
+     *
+     * @return строковое представление объекта.
+     */
+    @Override
+    public String toString() {
+        StringBuilder stringBuilder = new StringBuilder("{").append(System.lineSeparator());
+        for (int i = 0; keys != null && i < capacity; i++) {
+            if (keys[i] != null) {
+                stringBuilder.append("\t")
+                        .append("key = ")
+                        .append(keyAt(i))
+                        .append("\t\tvalue = ")
+                        .append(values[i])
+                        .append(System.lineSeparator());
+            }
+        }
+        return stringBuilder.append("}").toString();
+    }
+
+    /**
+     * Сравнивает с любой Map по контракту Map.equals.
+     *
+     * @param o - объект для сравнение с this
+     * @return true, если объекты схожие, false - в обратном случае
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Map)) return false;
+
+        Map<?, ?> other = (Map<?, ?>) o;
+
+        if (size != other.size()) return false;
+
+        for (int i = 0; keys != null && i < capacity; i++) {
+            if (keys[i] != null) {
+                K key = keyAt(i);
+                Object value = values[i];
+                if (value == null ? other.get(key) != null || !other.containsKey(key)
+                        : !value.equals(other.get(key))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Вычисляет хэш код по контракту Map.hashCode.
+     *
+     * @return хэш код Map.
+     */
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (int i = 0; keys != null && i < capacity; i++) {
+            if (keys[i] != null) {
+                hash += Objects.hashCode(keyAt(i)) ^ Objects.hashCode(values[i]);
+            }
+        }
+        return hash;
+    }
+
+    @Override
+    public Set<K> keySet() {
+        if (keySet == null) {
+            keySet = new KeySet();
+        }
+        return keySet;
+    }
+
+    @Override
+    public Collection<V> values() {
+        if (valuesCollection == null) {
+            valuesCollection = new ValueCollection();
+        }
+        return valuesCollection;
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        if (entries == null) {
+            entries = new EntrySet();
+        }
+        return entries;
+    }
+
+    private class KeySet extends AbstractSet<K> {
+
+        @Override
+        public boolean contains(Object key) {
+            return OpenHashMap.this.containsKey(key);
+        }
+
+        @Override
+        public Iterator<K> iterator() {
+            return new KeyIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean remove(Object key) {
+            int index = findSlot(key);
+            if (index < 0) {
+                return false;
+            }
+            shiftOut(index);
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            OpenHashMap.this.clear();
+        }
+    }
+
+    private class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+            int index = findSlot(entry.getKey());
+            return index >= 0 && Objects.equals(values[index], entry.getValue());
+        }
+
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!contains(o)) {
+                return false;
+            }
+            shiftOut(findSlot(((Map.Entry<?, ?>) o).getKey()));
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            OpenHashMap.this.clear();
+        }
+    }
+
+    private class ValueCollection extends AbstractCollection<V> {
+
+        @Override
+        public boolean contains(Object value) {
+            return OpenHashMap.this.containsValue(value);
+        }
+
+        @Override
+        public Iterator<V> iterator() {
+            return new ValueIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            OpenHashMap.this.clear();
+        }
+    }
+
+    /**
+     * Запись, которую возвращает итератор entrySet(). setValue() записывает
+     * значение в ячейку ключа в Map.
+     */
+    private class SlotEntry implements Map.Entry<K, V> {
+
+        private final K key;
+        private V value;
+
+        SlotEntry(int index) {
+            key = keyAt(index);
+            value = valueAt(index);
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V value) {
+            int index = findSlot(key);
+            if (index < 0) {
+                throw new IllegalStateException("entry was removed from the map");
+            }
+            V oldValue = this.value;
+            values[index] = value;
+            this.value = value;
+            return oldValue;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Map.Entry)) return false;
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+            return Objects.equals(key, entry.getKey()) && Objects.equals(value, entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key) ^ Objects.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+
+    private class KeyIterator extends SlotIterator implements Iterator<K> {
+
+        @Override
+        public K next() {
+            return keyAt(nextSlot());
+        }
+    }
+
+    private class ValueIterator extends SlotIterator implements Iterator<V> {
+
+        @Override
+        public V next() {
+            return valueAt(nextSlot());
+        }
+    }
+
+    private class EntryIterator extends SlotIterator implements Iterator<Map.Entry<K, V>> {
+
+        @Override
+        public Map.Entry<K, V> next() {
+            return new SlotEntry(nextSlot());
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package map.impl;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Общая часть Map с открытой адресацией и линейным пробированием:
+ * размер массивов, порог и коэффициент загрузки, удаление со сдвигом
+ * назад (backward-shift deletion) и итератор по ячейкам. Наследники хранят
+ * ключи и значения в собственных массивах нужного типа и описывают
+ * операции над одной ячейкой.
+ * Количество ячеек выбирается так же, как в HashMap, методом
+ * HashMap.tableSizeFromCapacity().
+ */
+abstract class OpenTable {
+
+    /**
+     * Количество ячеек, по которым идет пробирование. Степень двойки.
+     */
+    int capacity;
+
+    /**
+     * Коэффициент загрузки.
+     */
+    final double loadFactor;
+
+    /**
+     * Порог, пройдя который, массивы увеличиваются вдвое.
+     * Всегда меньше capacity, чтобы в массивах оставалась хотя бы
+     * одна пустая ячейка.
+     */
+    int threshold;
+
+    /**
+     * Количество пар.
+     */
+    int size;
+
+    /**
+     * Счетчик изменений.
+     */
+    int modCount;
+
+    /**
+     * Конструктор. Инициализирует поля capacity и threshold
+     * по входным аргументам.
+     *
+     * @param capacity   - начальное количество ячеек.
+     * @param loadFactor - коэффициент загрузки.
+     * @throws IllegalArgumentException - если capacity отрицательный или
+     *                                  loadFactor не лежит между 0 и 1.
+     */
+    OpenTable(int capacity, double loadFactor) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("initial CAPACITY should be positive");
+        }
+        if (Double.compare(loadFactor, 1) > 0 || Double.compare(loadFactor, 0) < 0) {
+            throw new IllegalArgumentException("load factory should be between 0 and 1");
+        }
+        this.loadFactor = loadFactor;
+        this.capacity = HashMap.tableSizeFromCapacity(capacity);
+        threshold = thresholdFor(this.capacity);
+    }
+
+    /**
+     * Вычисляет порог для количества ячеек newCapacity.
+     */
+    final int thresholdFor(int newCapacity) {
+        return Math.min((int) (newCapacity * loadFactor), newCapacity - 1);
+    }
+
+    /**
+     * Следующее количество ячеек при увеличении массивов.
+     */
+    final int grownCapacity() {
+        if (capacity >= HashMap.MAX_CAPACITY) {
+            throw new IllegalStateException("table is full");
+        }
+        return capacity * 2;
+    }
+
+    /**
+     * Количество ячеек, при котором expectedSize пар не превышают порог.
+     * Не меньше текущего capacity.
+     */
+    final int capacityFor(int expectedSize) {
+        int newCapacity = capacity;
+        while (thresholdFor(newCapacity) < expectedSize && newCapacity < HashMap.MAX_CAPACITY) {
+            newCapacity <<= 1;
+        }
+        return newCapacity;
+    }
+
+    /**
+     * Перемешивает хэш-код умножением на 0x9E3779B9, так как линейное
+     * пробирование плохо переносит последовательные и кластеризованные
+     * хэш-коды.
+     */
+    static int mix(int h) {
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Перемешивает 64-битный ключ: младшие биты результата зависят от всех
+     * битов ключа.
+     */
+    static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Хэш ключа, лежащего в занятой ячейке slot.
+     */
+    abstract int hashAt(int slot);
+
+    /**
+     * Проверяет, пуста ли ячейка slot.
+     */
+    abstract boolean isFree(int slot);
+
+    /**
+     * Переносит пару из ячейки from в ячейку to.
+     */
+    abstract void moveSlot(int from, int to);
+
+    /**
+     * Очищает ячейку slot.
+     */
+    abstract void clearSlot(int slot);
+
+    /**
+     * Количество ячеек, которые обходит итератор. Может быть больше capacity,
+     * если наследник хранит особый ключ в дополнительной ячейке за
+     * пределами пробирования.
+     */
+    abstract int slotCount();
+
+    /**
+     * Ключ ячейки slot в виде объекта. Нужен итератору только в редком
+     * случае, описанном в SlotIterator.
+     */
+    abstract Object boxedKeyAt(int slot);
+
+    /**
+     * Ищет ячейку ключа, полученного из boxedKeyAt().
+     *
+     * @return - индекс ячейки или -1.
+     */
+    abstract int findBoxed(Object key);
+
+    /**
+     * Удаляет пару из ячейки slot. Наследник, хранящий особый ключ в
+     * дополнительной ячейке, переопределяет метод для этой ячейки.
+     *
+     * @return - см. shiftOut().
+     */
+    int removeAt(int slot) {
+        return shiftOut(slot);
+    }
+
+    /**
+     * Удаляет пару из ячейки slot и сдвигает назад следующие пары кластера,
+     * чьи исходные ячейки не лежат между освободившейся ячейкой и их текущей
+     * ячейкой. После сдвига цепочки пробирования остаются непрерывными.
+     *
+     * @param slot - индекс удаляемой ячейки.
+     * @return - индекс ячейки в конце массива, в которую при сдвиге перешла
+     * пара из начала массива (кластер переходит через границу массива), или -1.
+     * Такой переход бывает не больше одного раза за удаление.
+     */
+    final int shiftOut(int slot) {
+        int mask = capacity - 1;
+        int hole = slot;
+        int wrapped = -1;
+        int index = slot;
+        while (!isFree(index = (index + 1) & mask)) {
+            int home = hashAt(index) & mask;
+            if (((index - home) & mask) >= ((index - hole) & mask)) {
+                moveSlot(index, hole);
+                if (index < hole) {
+                    wrapped = hole;
+                }
+                hole = index;
+            }
+        }
+        clearSlot(hole);
+        size--;
+        modCount++;
+        return wrapped;
+    }
+
+    /**
+     * Итератор по занятым ячейкам. Обходит ячейки от конца массива к
+     * началу: тогда сдвиг при удалении через итератор переносит пары только
+     * в уже пройденные ячейки, и ни одна пара не возвращается дважды.
+     * Единственное исключение - пара, перешедшая при сдвиге из начала
+     * массива в конец. Такие пары откладываются в pending и возвращаются
+     * после прохода по массиву.
+     */
+    abstract class SlotIterator {
+
+        /**
+         * Ячейки с индексом не меньше index уже пройдены.
+         */
+        int index;
+
+        /**
+         * Ячейка последней возвращенной пары или -1.
+         */
+        int current = -1;
+
+        int expectedModCount;
+
+        /**
+         * Отложенные ключи, null - если их еще не было.
+         */
+        List<Object> pending;
+
+        SlotIterator() {
+            expectedModCount = modCount;
+            index = slotCount();
+        }
+
+        public boolean hasNext() {
+            while (index > 0 && isFree(index - 1)) {
+                index--;
+            }
+            return index > 0 || (pending != null && !pending.isEmpty());
+        }
+
+        /**
+         * Переходит к следующей занятой ячейке.
+         *
+         * @return - индекс ячейки.
+         */
+        int nextSlot() {
+            if (expectedModCount != modCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (index > 0) {
+                current = --index;
+            } else {
+                current = findBoxed(pending.remove(pending.size() - 1));
+            }
+            return current;
+        }
+
+        public void remove() {
+            if (current < 0) {
+                throw new IllegalStateException();
+            }
+            if (expectedModCount != modCount) {
+                throw new ConcurrentModificationException();
+            }
+            int wrapped = removeAt(current);
+            if (wrapped >= 0 && index > 0) {
+                if (pending == null) {
+                    pending = new ArrayList<>();
+                }
+                pending.add(boxedKeyAt(wrapped));
+            }
+            current = -1;
+            expectedModCount = modCount;
+        }
+    }
+}
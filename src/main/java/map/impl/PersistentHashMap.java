@@ -0,0 +1,843 @@
+package map.impl;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Неизменяемая (persistent) Map - префиксное дерево по хэшу ключа
+ * (HAMT) в варианте CHAMP. plus() и minus() не меняют Map, а
+ * возвращают новую версию, которая разделяет с прежней все узлы, кроме
+ * пути от корня до измененного ключа: изменение создает O(log32 n)
+ * узлов, а старая версия остается неизменным снимком для читателей.
+ * <p>
+ * Каждый уровень дерева берет BITS = 5 бит хэша, узел BitmapNode хранит
+ * до 32 ветвей в компактном массиве: битовая маска dataMap отмечает
+ * ветви с парой ключ-значение прямо в узле, nodeMap - ветви с дочерним
+ * узлом. Пары лежат в начале массива content, дочерние узлы - в конце,
+ * поэтому индекс ветви - количество единиц маски перед ее битом. Ключи
+ * с полностью совпадающим хэшем хранятся в CollisionNode. Хэш
+ * вычисляется так же, как в HashMap без стратегии: HashMap.spread().
+ * <p>
+ * Для массовой загрузки служит Builder: он изменяет на месте узлы,
+ * созданные им самим, и копирует только узлы уже построенных версий.
+ * Изменяющие методы интерфейса Map бросают UnsupportedOperationException.
+ * Все версии неизменяемы, их можно читать из любых потоков без
+ * синхронизации.
+ */
+public final class PersistentHashMap<K, V> extends AbstractMap<K, V> {
+
+    /**
+     * Количество бит хэша на уровень дерева.
+     */
+    static final int BITS = 5;
+
+    /**
+     * Маска ветви на уровне.
+     */
+    private static final int MASK = (1 << BITS) - 1;
+
+    /**
+     * Глубина, начиная с которой хэш исчерпан и ключи хранятся в CollisionNode.
+     */
+    private static final int HASH_BITS = 32;
+
+    private static final PersistentHashMap<?, ?> EMPTY =
+            new PersistentHashMap<>(new BitmapNode(null, 0, 0, new Object[0]), 0);
+
+    private final TrieNode root;
+
+    private final int size;
+
+    private Set<Map.Entry<K, V>> entries;
+
+    private PersistentHashMap(TrieNode root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * @return - пустая Map.
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentHashMap<K, V> empty() {
+        return (PersistentHashMap<K, V>) EMPTY;
+    }
+
+    /**
+     * Неизменяемая копия m, построенная через Builder.
+     *
+     * @param m - входная Map.
+     * @return - новая версия с парами m.
+     */
+    public static <K, V> PersistentHashMap<K, V> copyOf(Map<? extends K, ? extends V> m) {
+        final Builder<K, V> builder = builder();
+        builder.putAll(m);
+        return builder.build();
+    }
+
+    /**
+     * @return - Builder, который начинает с пустой Map.
+     */
+    public static <K, V> Builder<K, V> builder() {
+        return PersistentHashMap.<K, V>empty().toBuilder();
+    }
+
+    /**
+     * @return - Builder, который начинает с этой версии; сама версия не меняется.
+     */
+    public Builder<K, V> toBuilder() {
+        return new Builder<>(root, size);
+    }
+
+    /**
+     * Новая версия, в которой ключ key связан со значением value.
+     *
+     * @param key   - ключ.
+     * @param value - значение.
+     * @return - новая версия или эта, если key уже связан с value.
+     */
+    public PersistentHashMap<K, V> plus(K key, V value) {
+        final Change change = new Change();
+        final TrieNode newRoot = root.update(null, key, value, HashMap.spread(key), 0, change);
+        if (newRoot == root) {
+            return this;
+        }
+        return new PersistentHashMap<>(newRoot, change.replaced ? size : size + 1);
+    }
+
+    /**
+     * Новая версия без ключа key.
+     *
+     * @param key - ключ.
+     * @return - новая версия или эта, если ключа нет.
+     */
+    public PersistentHashMap<K, V> minus(Object key) {
+        final Change change = new Change();
+        final TrieNode newRoot = root.remove(null, key, HashMap.spread(key), 0, change);
+        if (newRoot == root) {
+            return this;
+        }
+        return new PersistentHashMap<>(newRoot, size - 1);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        final Object value = root.find(key, HashMap.spread(key), 0, Change.NOT_FOUND);
+        return value == Change.NOT_FOUND ? null : (V) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V getOrDefault(Object key, V defaultValue) {
+        final Object value = root.find(key, HashMap.spread(key), 0, Change.NOT_FOUND);
+        return value == Change.NOT_FOUND ? defaultValue : (V) value;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return root.find(key, HashMap.spread(key), 0, Change.NOT_FOUND) != Change.NOT_FOUND;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        root.forEach((BiConsumer<Object, Object>) action);
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        if (entries == null) {
+            entries = new EntrySet();
+        }
+        return entries;
+    }
+
+    @Override
+    public V put(K key, V value) {
+        throw immutable();
+    }
+
+    @Override
+    public V remove(Object key) {
+        throw immutable();
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> m) {
+        throw immutable();
+    }
+
+    @Override
+    public void clear() {
+        throw immutable();
+    }
+
+    @Override
+    public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+        throw immutable();
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        throw immutable();
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        throw immutable();
+    }
+
+    @Override
+    public boolean replace(K key, V oldValue, V newValue) {
+        throw immutable();
+    }
+
+    @Override
+    public V replace(K key, V value) {
+        throw immutable();
+    }
+
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        throw immutable();
+    }
+
+    @Override
+    public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        throw immutable();
+    }
+
+    @Override
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        throw immutable();
+    }
+
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        throw immutable();
+    }
+
+    private static UnsupportedOperationException immutable() {
+        return new UnsupportedOperationException("persistent map is immutable, use plus() and minus()");
+    }
+
+    /**
+     * Глубина дерева: количество уровней от корня до самой глубокой пары.
+     */
+    int depth() {
+        return root.depth();
+    }
+
+    /**
+     * Изменяемая копия версии для массовых изменений. Узлы, созданные
+     * Builder, помечены его владельцем owner и меняются на месте; узлы
+     * построенных версий копируются при первом изменении. build()
+     * возвращает версию за O(1) и меняет владельца, поэтому следующие
+     * изменения Builder не затрагивают построенную версию. Builder не
+     * потокобезопасен.
+     */
+    public static final class Builder<K, V> {
+
+        private TrieNode root;
+
+        private int size;
+
+        private Object owner = new Object();
+
+        private Builder(TrieNode root, int size) {
+            this.root = root;
+            this.size = size;
+        }
+
+        /**
+         * Связывает ключ key со значением value.
+         *
+         * @return - прежнее значение или null.
+         */
+        @SuppressWarnings("unchecked")
+        public V put(K key, V value) {
+            final Change change = new Change();
+            root = root.update(owner, key, value, HashMap.spread(key), 0, change);
+            if (change.replaced) {
+                return (V) change.oldValue;
+            }
+            if (change.modified) {
+                size++;
+            }
+            return null;
+        }
+
+        /**
+         * Добавляет все пары m.
+         */
+        public Builder<K, V> putAll(Map<? extends K, ? extends V> m) {
+            m.forEach(this::put);
+            return this;
+        }
+
+        /**
+         * Удаляет ключ key.
+         *
+         * @return - удаленное значение или null.
+         */
+        @SuppressWarnings("unchecked")
+        public V remove(Object key) {
+            final Change change = new Change();
+            root = root.remove(owner, key, HashMap.spread(key), 0, change);
+            if (change.modified) {
+                size--;
+                return (V) change.oldValue;
+            }
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        public V get(Object key) {
+            final Object value = root.find(key, HashMap.spread(key), 0, Change.NOT_FOUND);
+            return value == Change.NOT_FOUND ? null : (V) value;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        /**
+         * @return - неизменяемая версия с текущими парами.
+         */
+        public PersistentHashMap<K, V> build() {
+            owner = new Object();
+            return new PersistentHashMap<>(root, size);
+        }
+    }
+
+    /**
+     * Результат изменения дерева.
+     */
+    private static final class Change {
+
+        /**
+         * Результат поиска отсутствующего ключа, отличимый от значения null.
+         */
+        static final Object NOT_FOUND = new Object();
+
+        /**
+         * true, если дерево изменилось.
+         */
+        boolean modified;
+
+        /**
+         * true, если ключ уже был, oldValue - его значение.
+         */
+        boolean replaced;
+        Object oldValue;
+    }
+
+    /**
+     * Узел дерева. owner - Builder, который может менять узел на месте,
+     * или null у узлов, созданных plus() и minus().
+     */
+    private abstract static class TrieNode {
+
+        final Object owner;
+
+        TrieNode(Object owner) {
+            this.owner = owner;
+        }
+
+        /**
+         * @return - значение ключа или notFound.
+         */
+        abstract Object find(Object key, int hash, int shift, Object notFound);
+
+        /**
+         * @return - узел с парой key - value; этот же узел, если ничего не изменилось.
+         */
+        abstract TrieNode update(Object owner, Object key, Object value, int hash, int shift, Change change);
+
+        /**
+         * @return - узел без key; этот же узел, если ключа нет.
+         */
+        abstract TrieNode remove(Object owner, Object key, int hash, int shift, Change change);
+
+        /**
+         * true, если в поддереве одна пара: такой узел родитель встраивает
+         * в себя как пару.
+         */
+        abstract boolean hasSinglePayload();
+
+        abstract int payloadArity();
+
+        abstract Object keyAt(int index);
+
+        abstract Object valueAt(int index);
+
+        abstract int nodeArity();
+
+        abstract TrieNode nodeAt(int index);
+
+        final boolean isEditable(Object owner) {
+            return owner != null && this.owner == owner;
+        }
+
+        void forEach(BiConsumer<Object, Object> action) {
+            for (int i = 0; i < payloadArity(); i++) {
+                action.accept(keyAt(i), valueAt(i));
+            }
+            for (int i = 0; i < nodeArity(); i++) {
+                nodeAt(i).forEach(action);
+            }
+        }
+
+        int depth() {
+            int depth = 0;
+            for (int i = 0; i < nodeArity(); i++) {
+                depth = Math.max(depth, nodeAt(i).depth());
+            }
+            return depth + 1;
+        }
+    }
+
+    /**
+     * Узел с масками ветвей. content: пары ключ-значение с начала массива
+     * в порядке битов dataMap, дочерние узлы с конца массива в порядке
+     * битов nodeMap.
+     */
+    private static final class BitmapNode extends TrieNode {
+
+        int dataMap;
+        int nodeMap;
+        Object[] content;
+
+        BitmapNode(Object owner, int dataMap, int nodeMap, Object[] content) {
+            super(owner);
+            this.dataMap = dataMap;
+            this.nodeMap = nodeMap;
+            this.content = content;
+        }
+
+        static int mask(int hash, int shift) {
+            return (hash >>> shift) & MASK;
+        }
+
+        static int bitpos(int mask) {
+            return 1 << mask;
+        }
+
+        int dataIndex(int bit) {
+            return Integer.bitCount(dataMap & (bit - 1));
+        }
+
+        int nodeIndex(int bit) {
+            return Integer.bitCount(nodeMap & (bit - 1));
+        }
+
+        TrieNode nodeAtBit(int bit) {
+            return (TrieNode) content[content.length - 1 - nodeIndex(bit)];
+        }
+
+        @Override
+        Object find(Object key, int hash, int shift, Object notFound) {
+            final int bit = bitpos(mask(hash, shift));
+            if ((dataMap & bit) != 0) {
+                final int index = dataIndex(bit);
+                return Objects.equals(key, content[2 * index]) ? content[2 * index + 1] : notFound;
+            }
+            if ((nodeMap & bit) != 0) {
+                return nodeAtBit(bit).find(key, hash, shift + BITS, notFound);
+            }
+            return notFound;
+        }
+
+        @Override
+        TrieNode update(Object owner, Object key, Object value, int hash, int shift, Change change) {
+            final int bit = bitpos(mask(hash, shift));
+            if ((dataMap & bit) != 0) {
+                final int index = dataIndex(bit);
+                final Object current = content[2 * index];
+                if (Objects.equals(key, current)) {
+                    final Object oldValue = content[2 * index + 1];
+                    change.replaced = true;
+                    change.oldValue = oldValue;
+                    if (oldValue == value) {
+                        return this;
+                    }
+                    change.modified = true;
+                    return copyAndSet(owner, 2 * index + 1, value);
+                }
+                final TrieNode sub = mergeTwo(owner, current, content[2 * index + 1], HashMap.spread(current),
+                        key, value, hash, shift + BITS);
+                change.modified = true;
+                return copyAndMigrateToNode(owner, bit, sub);
+            }
+            if ((nodeMap & bit) != 0) {
+                final TrieNode sub = nodeAtBit(bit);
+                final TrieNode newSub = sub.update(owner, key, value, hash, shift + BITS, change);
+                return newSub == sub ? this : copyAndSet(owner, content.length - 1 - nodeIndex(bit), newSub);
+            }
+            change.modified = true;
+            return copyAndInsertValue(owner, bit, key, value);
+        }
+
+        @Override
+        TrieNode remove(Object owner, Object key, int hash, int shift, Change change) {
+            final int bit = bitpos(mask(hash, shift));
+            if ((dataMap & bit) != 0) {
+                final int index = dataIndex(bit);
+                if (!Objects.equals(key, content[2 * index])) {
+                    return this;
+                }
+                change.modified = true;
+                change.oldValue = content[2 * index + 1];
+                if (payloadArity() == 2 && nodeArity() == 0) {
+                    // оставшаяся пара переходит в узел с маской нулевого уровня,
+                    // чтобы родитель мог встроить ее по своему биту
+                    final int other = 1 - index;
+                    final Object otherKey = content[2 * other];
+                    final int newDataMap = shift == 0
+                            ? dataMap ^ bit : bitpos(mask(HashMap.spread(otherKey), 0));
+                    return new BitmapNode(owner, newDataMap, 0, new Object[]{otherKey, content[2 * other + 1]});
+                }
+                return copyAndRemoveValue(owner, bit);
+            }
+            if ((nodeMap & bit) != 0) {
+                final TrieNode sub = nodeAtBit(bit);
+                final TrieNode newSub = sub.remove(owner, key, hash, shift + BITS, change);
+                if (newSub == sub) {
+                    return this;
+                }
+                if (newSub.hasSinglePayload()) {
+                    if (payloadArity() == 0 && nodeArity() == 1) {
+                        return newSub;
+                    }
+                    return copyAndMigrateToInline(owner, bit, newSub);
+                }
+                return copyAndSet(owner, content.length - 1 - nodeIndex(bit), newSub);
+            }
+            return this;
+        }
+
+        /**
+         * Узел для двух ключей, хэши которых совпали на предыдущих уровнях.
+         */
+        private static TrieNode mergeTwo(Object owner, Object key0, Object value0, int hash0,
+                                         Object key1, Object value1, int hash1, int shift) {
+            if (shift >= HASH_BITS) {
+                return new CollisionNode(owner, hash0, new Object[]{key0, value0, key1, value1});
+            }
+            final int mask0 = mask(hash0, shift);
+            final int mask1 = mask(hash1, shift);
+            if (mask0 != mask1) {
+                final int dataMap = bitpos(mask0) | bitpos(mask1);
+                return mask0 < mask1
+                        ? new BitmapNode(owner, dataMap, 0, new Object[]{key0, value0, key1, value1})
+                        : new BitmapNode(owner, dataMap, 0, new Object[]{key1, value1, key0, value0});
+            }
+            final TrieNode sub = mergeTwo(owner, key0, value0, hash0, key1, value1, hash1, shift + BITS);
+            return new BitmapNode(owner, 0, bitpos(mask0), new Object[]{sub});
+        }
+
+        private TrieNode copyAndSet(Object owner, int index, Object element) {
+            if (isEditable(owner)) {
+                content[index] = element;
+                return this;
+            }
+            final Object[] copy = content.clone();
+            copy[index] = element;
+            return new BitmapNode(owner, dataMap, nodeMap, copy);
+        }
+
+        private TrieNode copyAndInsertValue(Object owner, int bit, Object key, Object value) {
+            final int index = 2 * dataIndex(bit);
+            final Object[] copy = new Object[content.length + 2];
+            System.arraycopy(content, 0, copy, 0, index);
+            copy[index] = key;
+            copy[index + 1] = value;
+            System.arraycopy(content, index, copy, index + 2, content.length - index);
+            return edit(owner, dataMap | bit, nodeMap, copy);
+        }
+
+        private TrieNode copyAndRemoveValue(Object owner, int bit) {
+            final int index = 2 * dataIndex(bit);
+            final Object[] copy = new Object[content.length - 2];
+            System.arraycopy(content, 0, copy, 0, index);
+            System.arraycopy(content, index + 2, copy, index, content.length - index - 2);
+            return edit(owner, dataMap ^ bit, nodeMap, copy);
+        }
+
+        private TrieNode copyAndMigrateToNode(Object owner, int bit, TrieNode sub) {
+            final int oldIndex = 2 * dataIndex(bit);
+            final int newIndex = content.length - 2 - nodeIndex(bit);
+            final Object[] copy = new Object[content.length - 1];
+            System.arraycopy(content, 0, copy, 0, oldIndex);
+            System.arraycopy(content, oldIndex + 2, copy, oldIndex, newIndex - oldIndex);
+            copy[newIndex] = sub;
+            System.arraycopy(content, newIndex + 2, copy, newIndex + 1, content.length - newIndex - 2);
+            return edit(owner, dataMap ^ bit, nodeMap | bit, copy);
+        }
+
+        private TrieNode copyAndMigrateToInline(Object owner, int bit, TrieNode sub) {
+            final int oldIndex = content.length - 1 - nodeIndex(bit);
+            final int newIndex = 2 * dataIndex(bit);
+            final Object[] copy = new Object[content.length + 1];
+            System.arraycopy(content, 0, copy, 0, newIndex);
+            copy[newIndex] = sub.keyAt(0);
+            copy[newIndex + 1] = sub.valueAt(0);
+            System.arraycopy(content, newIndex, copy, newIndex + 2, oldIndex - newIndex);
+            System.arraycopy(content, oldIndex + 1, copy, oldIndex + 2, content.length - oldIndex - 1);
+            return edit(owner, dataMap | bit, nodeMap ^ bit, copy);
+        }
+
+        /**
+         * Узел с новым содержимым: тот же узел, если его можно менять на месте, иначе новый.
+         */
+        private TrieNode edit(Object owner, int dataMap, int nodeMap, Object[] content) {
+            if (isEditable(owner)) {
+                this.dataMap = dataMap;
+                this.nodeMap = nodeMap;
+                this.content = content;
+                return this;
+            }
+            return new BitmapNode(owner, dataMap, nodeMap, content);
+        }
+
+        @Override
+        boolean hasSinglePayload() {
+            return nodeMap == 0 && Integer.bitCount(dataMap) == 1;
+        }
+
+        @Override
+        int payloadArity() {
+            return Integer.bitCount(dataMap);
+        }
+
+        @Override
+        Object keyAt(int index) {
+            return content[2 * index];
+        }
+
+        @Override
+        Object valueAt(int index) {
+            return content[2 * index + 1];
+        }
+
+        @Override
+        int nodeArity() {
+            return Integer.bitCount(nodeMap);
+        }
+
+        @Override
+        TrieNode nodeAt(int index) {
+            return (TrieNode) content[content.length - 1 - index];
+        }
+    }
+
+    /**
+     * Ключи с одинаковым хэшем: пары подряд в массиве, поиск перебором.
+     */
+    private static final class CollisionNode extends TrieNode {
+
+        final int hash;
+        final Object[] content;
+
+        CollisionNode(Object owner, int hash, Object[] content) {
+            super(owner);
+            this.hash = hash;
+            this.content = content;
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < content.length; i += 2) {
+                if (Objects.equals(key, content[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        Object find(Object key, int hash, int shift, Object notFound) {
+            final int index = indexOf(key);
+            return index < 0 ? notFound : content[index + 1];
+        }
+
+        @Override
+        TrieNode update(Object owner, Object key, Object value, int hash, int shift, Change change) {
+            final int index = indexOf(key);
+            if (index >= 0) {
+                change.replaced = true;
+                change.oldValue = content[index + 1];
+                if (content[index + 1] == value) {
+                    return this;
+                }
+                change.modified = true;
+                final Object[] copy = content.clone();
+                copy[index + 1] = value;
+                return new CollisionNode(owner, hash, copy);
+            }
+            change.modified = true;
+            final Object[] copy = Arrays.copyOf(content, content.length + 2);
+            copy[content.length] = key;
+            copy[content.length + 1] = value;
+            return new CollisionNode(owner, hash, copy);
+        }
+
+        @Override
+        TrieNode remove(Object owner, Object key, int hash, int shift, Change change) {
+            final int index = indexOf(key);
+            if (index < 0) {
+                return this;
+            }
+            change.modified = true;
+            change.oldValue = content[index + 1];
+            if (content.length == 4) {
+                // последняя пара поднимается к родителю, как в BitmapNode.remove()
+                final int other = 2 - index;
+                return new BitmapNode(owner, BitmapNode.bitpos(BitmapNode.mask(this.hash, 0)), 0,
+                        new Object[]{content[other], content[other + 1]});
+            }
+            final Object[] copy = new Object[content.length - 2];
+            System.arraycopy(content, 0, copy, 0, index);
+            System.arraycopy(content, index + 2, copy, index, content.length - index - 2);
+            return new CollisionNode(owner, this.hash, copy);
+        }
+
+        @Override
+        boolean hasSinglePayload() {
+            return false;
+        }
+
+        @Override
+        int payloadArity() {
+            return content.length / 2;
+        }
+
+        @Override
+        Object keyAt(int index) {
+            return content[2 * index];
+        }
+
+        @Override
+        Object valueAt(int index) {
+            return content[2 * index + 1];
+        }
+
+        @Override
+        int nodeArity() {
+            return 0;
+        }
+
+        @Override
+        TrieNode nodeAt(int index) {
+            throw new IndexOutOfBoundsException();
+        }
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+            return new EntryIterator(root);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            final Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+            final Object value = root.find(entry.getKey(), HashMap.spread(entry.getKey()), 0, Change.NOT_FOUND);
+            return value != Change.NOT_FOUND && Objects.equals(value, entry.getValue());
+        }
+    }
+
+    /**
+     * Обход дерева в глубину со стеком узлов: сначала пары узла, затем его
+     * дочерние узлы. Глубина дерева не больше HASH_BITS / BITS + 2.
+     */
+    private final class EntryIterator implements Iterator<Map.Entry<K, V>> {
+
+        private static final int MAX_DEPTH = HASH_BITS / BITS + 2;
+
+        private final TrieNode[] nodes = new TrieNode[MAX_DEPTH];
+
+        /**
+         * Индекс следующего дочернего узла на каждом уровне стека.
+         */
+        private final int[] nextNode = new int[MAX_DEPTH];
+
+        private int level;
+
+        private TrieNode current;
+
+        private int payload;
+
+        EntryIterator(TrieNode root) {
+            nodes[0] = root;
+            current = root;
+            findPayload();
+        }
+
+        /**
+         * Переходит к ближайшему узлу с необойденными парами.
+         */
+        private void findPayload() {
+            while (current != null && payload >= current.payloadArity()) {
+                if (nextNode[level] < nodes[level].nodeArity()) {
+                    final TrieNode child = nodes[level].nodeAt(nextNode[level]++);
+                    nodes[++level] = child;
+                    nextNode[level] = 0;
+                    current = child;
+                    payload = 0;
+                } else if (level == 0) {
+                    current = null;
+                } else {
+                    level--;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return current != null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Map.Entry<K, V> next() {
+            if (current == null) {
+                throw new NoSuchElementException();
+            }
+            final Map.Entry<K, V> entry =
+                    new SimpleImmutableEntry<>((K) current.keyAt(payload), (V) current.valueAt(payload));
+            payload++;
+            findPayload();
+            return entry;
+        }
+    }
+}
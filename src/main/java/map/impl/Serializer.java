@@ -0,0 +1,40 @@
+package map.impl;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Кодирует объекты в байты и обратно для Map, которые хранят данные вне
+ * кучи. Равные объекты должны кодироваться одинаково побайтно:
+ * OffHeapHashMap сравнивает и хэширует ключи по их байтам.
+ * Готовые реализации для примитивов, String и byte[] находятся в Serializers.
+ *
+ * @param <T> - тип кодируемых объектов.
+ */
+public interface Serializer<T> {
+
+    /**
+     * Возвращает количество байт, которое займет закодированный value.
+     *
+     * @param value - объект.
+     * @return - размер в байтах.
+     */
+    int size(T value);
+
+    /**
+     * Записывает value в buffer, начиная с его текущей позиции. Записывает
+     * ровно size(value) байт и сдвигает позицию.
+     *
+     * @param buffer - буфер.
+     * @param value  - объект.
+     */
+    void write(ByteBuffer buffer, T value);
+
+    /**
+     * Читает объект из size байт buffer, начиная с его текущей позиции.
+     *
+     * @param buffer - буфер.
+     * @param size   - размер закодированного объекта в байтах.
+     * @return - объект.
+     */
+    T read(ByteBuffer buffer, int size);
+}
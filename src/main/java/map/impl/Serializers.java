@@ -0,0 +1,217 @@
+package map.impl;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Готовые реализации Serializer для примитивов в обертках, String и byte[].
+ */
+public final class Serializers {
+
+    public static final Serializer<Byte> BYTE = new FixedSize<Byte>(Byte.BYTES) {
+        @Override
+        public void write(ByteBuffer buffer, Byte value) {
+            buffer.put(value);
+        }
+
+        @Override
+        public Byte read(ByteBuffer buffer, int size) {
+            return buffer.get();
+        }
+    };
+
+    public static final Serializer<Short> SHORT = new FixedSize<Short>(Short.BYTES) {
+        @Override
+        public void write(ByteBuffer buffer, Short value) {
+            buffer.putShort(value);
+        }
+
+        @Override
+        public Short read(ByteBuffer buffer, int size) {
+            return buffer.getShort();
+        }
+    };
+
+    public static final Serializer<Character> CHARACTER = new FixedSize<Character>(Character.BYTES) {
+        @Override
+        public void write(ByteBuffer buffer, Character value) {
+            buffer.putChar(value);
+        }
+
+        @Override
+        public Character read(ByteBuffer buffer, int size) {
+            return buffer.getChar();
+        }
+    };
+
+    public static final Serializer<Integer> INTEGER = new FixedSize<Integer>(Integer.BYTES) {
+        @Override
+        public void write(ByteBuffer buffer, Integer value) {
+            buffer.putInt(value);
+        }
+
+        @Override
+        public Integer read(ByteBuffer buffer, int size) {
+            return buffer.getInt();
+        }
+    };
+
+    public static final Serializer<Long> LONG = new FixedSize<Long>(Long.BYTES) {
+        @Override
+        public void write(ByteBuffer buffer, Long value) {
+            buffer.putLong(value);
+        }
+
+        @Override
+        public Long read(ByteBuffer buffer, int size) {
+            return buffer.getLong();
+        }
+    };
+
+    /**
+     * Кодирует Float по битам Float.floatToIntBits(), чтобы все NaN
+     * кодировались одинаково, как того требует Float.equals().
+     */
+    public static final Serializer<Float> FLOAT = new FixedSize<Float>(Float.BYTES) {
+        @Override
+        public void write(ByteBuffer buffer, Float value) {
+            buffer.putInt(Float.floatToIntBits(value));
+        }
+
+        @Override
+        public Float read(ByteBuffer buffer, int size) {
+            return Float.intBitsToFloat(buffer.getInt());
+        }
+    };
+
+    /**
+     * Кодирует Double по битам Double.doubleToLongBits(), см. FLOAT.
+     */
+    public static final Serializer<Double> DOUBLE = new FixedSize<Double>(Double.BYTES) {
+        @Override
+        public void write(ByteBuffer buffer, Double value) {
+            buffer.putLong(Double.doubleToLongBits(value));
+        }
+
+        @Override
+        public Double read(ByteBuffer buffer, int size) {
+            return Double.longBitsToDouble(buffer.getLong());
+        }
+    };
+
+    public static final Serializer<Boolean> BOOLEAN = new FixedSize<Boolean>(1) {
+        @Override
+        public void write(ByteBuffer buffer, Boolean value) {
+            buffer.put((byte) (value ? 1 : 0));
+        }
+
+        @Override
+        public Boolean read(ByteBuffer buffer, int size) {
+            return buffer.get() != 0;
+        }
+    };
+
+    /**
+     * Кодирует String в UTF-8 прямо в буфер, без промежуточного массива.
+     * Одиночные суррогаты заменяются на '?', как в String.getBytes().
+     */
+    public static final Serializer<String> STRING = new Serializer<String>() {
+        @Override
+        public int size(String value) {
+            int size = 0;
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c < 0x80) {
+                    size += 1;
+                } else if (c < 0x800) {
+                    size += 2;
+                } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                        && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    size += 4;
+                    i++;
+                } else if (Character.isSurrogate(c)) {
+                    size += 1;
+                } else {
+                    size += 3;
+                }
+            }
+            return size;
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, String value) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c < 0x80) {
+                    buffer.put((byte) c);
+                } else if (c < 0x800) {
+                    buffer.put((byte) (0xC0 | (c >> 6)));
+                    buffer.put((byte) (0x80 | (c & 0x3F)));
+                } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                        && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    buffer.put((byte) (0xF0 | (codePoint >> 18)));
+                    buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                    buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                    buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+                } else if (Character.isSurrogate(c)) {
+                    buffer.put((byte) '?');
+                } else {
+                    buffer.put((byte) (0xE0 | (c >> 12)));
+                    buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                    buffer.put((byte) (0x80 | (c & 0x3F)));
+                }
+            }
+        }
+
+        @Override
+        public String read(ByteBuffer buffer, int size) {
+            byte[] bytes = new byte[size];
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+
+    /**
+     * Кодирует byte[] как есть. Ключи byte[] сравниваются OffHeapHashMap по
+     * содержимому, а не по ссылке.
+     */
+    public static final Serializer<byte[]> BYTE_ARRAY = new Serializer<byte[]>() {
+        @Override
+        public int size(byte[] value) {
+            return value.length;
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, byte[] value) {
+            buffer.put(value);
+        }
+
+        @Override
+        public byte[] read(ByteBuffer buffer, int size) {
+            byte[] bytes = new byte[size];
+            buffer.get(bytes);
+            return bytes;
+        }
+    };
+
+    private Serializers() {
+    }
+
+    /**
+     * Serializer для объектов постоянного размера.
+     */
+    private abstract static class FixedSize<T> implements Serializer<T> {
+
+        private final int size;
+
+        FixedSize(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public int size(T value) {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,748 @@
+package map.impl;
+
+import java.util.*;
+
+/**
+ * Реализация интерфейса Map по схеме Swiss table. Ячейки разбиты на группы
+ * по GROUP_SIZE = 8; для каждой ячейки хранится управляющий байт: EMPTY,
+ * DELETED или 7 старших бит хэша занятой ячейки. Управляющие байты группы
+ * лежат в одном long массива control, поэтому поиск сравнивает сразу всю
+ * группу битовыми операциями над long (SWAR - SIMD within a register) и
+ * вызывает equals() только для ячеек с совпавшими 7 битами хэша. Группы
+ * просматриваются в треугольной последовательности, пока в группе не
+ * встретится пустая ячейка.
+ * <p>
+ * Ключ и значение ячейки лежат рядом в массиве table, так что поиск
+ * читает один long управляющих байт (массив control в восемь раз меньше
+ * количества ячеек и обычно остается в кэше процессора), затем ключ и
+ * значение из одной строки кэша. В HashMap на этом месте стоят ссылка из
+ * массива корзин и отдельный узел.
+ * <p>
+ * Удаленная ячейка помечается DELETED, если в ее группе нет пустых ячеек
+ * (через группу могли пройти поиски других ключей), иначе сразу
+ * становится EMPTY. Ячейки DELETED занимаются новыми ключами, а когда
+ * вместе с парами они доходят до порога, массивы перестраиваются.
+ * Ключ null хранится как объект-заглушка NULL_KEY.
+ */
+public class SwissHashMap<K, V> extends OpenTable implements Map<K, V> {
+
+    /**
+     * Коэффициент загрузки по умолчанию. Групповой поиск остается коротким
+     * и при заполнении 7/8 ячеек.
+     */
+    static final double DEFAULT_LOAD_FACTOR = 0.875;
+
+    /**
+     * Количество ячеек в группе - управляющих байт в одном long.
+     */
+    static final int GROUP_SIZE = 8;
+
+    /**
+     * Управляющий байт пустой ячейки.
+     */
+    static final int EMPTY = 0x80;
+
+    /**
+     * Управляющий байт удаленной ячейки.
+     */
+    static final int DELETED = 0xFE;
+
+    /**
+     * Группа из пустых ячеек.
+     */
+    static final long EMPTY_GROUP = 0x8080808080808080L;
+
+    /**
+     * Младший бит каждого байта.
+     */
+    private static final long LSB = 0x0101010101010101L;
+
+    /**
+     * Старший бит каждого байта.
+     */
+    private static final long MSB = 0x8080808080808080L;
+
+    /**
+     * Наибольшее количество ячеек: table хранит по два элемента на ячейку.
+     */
+    private static final int MAX_SLOTS = HashMap.MAX_CAPACITY >>> 1;
+
+    /**
+     * Заглушка, которая хранится в table вместо ключа null.
+     */
+    private static final Object NULL_KEY = new Object();
+
+    /**
+     * Управляющие байты: байт i (от младшего) элемента control[g] относится
+     * к ячейке g * GROUP_SIZE + i.
+     */
+    private long[] control;
+
+    /**
+     * Ключи и значения: ключ ячейки slot - table[2 * slot], значение -
+     * table[2 * slot + 1].
+     */
+    private Object[] table;
+
+    /**
+     * Количество ячеек DELETED.
+     */
+    private int deleted;
+
+    /**
+     * Актуальный Collection значений.
+     */
+    private Collection<V> valuesCollection;
+
+    /**
+     * Актуальный Set ключей.
+     */
+    private Set<K> keySet;
+
+    /**
+     * Актульный Set записей пар ключ-значение.
+     */
+    private Set<Map.Entry<K, V>> entries;
+
+    /**
+     * Конструктор. Инициализирует поля capacity и threshold
+     * по входным аргументам.
+     *
+     * @param capacity   - начальное количество ячеек.
+     * @param loadFactor - коэффициент загрузки.
+     * @throws IllegalArgumentException - если capacity отрицательный или
+     *                                  loadFactor не лежит между 0 и 1.
+     */
+    public SwissHashMap(int capacity, double loadFactor) {
+        super(capacity, loadFactor);
+    }
+
+    /**
+     * Конструктор с коэффициентом загрузки по умолчанию.
+     *
+     * @param capacity - начальное количество ячеек.
+     */
+    public SwissHashMap(int capacity) {
+        this(capacity, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Конструктор с количеством ячеек и коэффициентом загрузки по умолчанию.
+     */
+    public SwissHashMap() {
+        this(HashMap.DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Добавляет пару ключ-значение. Если ключа нет, пара кладется в первую
+     * пустую или удаленную ячейку последовательности групп ключа.
+     *
+     * @param key   - ключ.
+     * @param value - значение.
+     * @return - старое значение ключа или null, если ключа не было.
+     */
+    @Override
+    public V put(K key, V value) {
+        if (control == null) {
+            allocate(capacity);
+        }
+        Object k = maskNull(key);
+        int hash = hash(k);
+        int slot = find(k, hash);
+        if (slot >= 0) {
+            V oldValue = valueAt(slot);
+            table[(slot << 1) + 1] = value;
+            return oldValue;
+        }
+        slot = freeSlot(hash);
+        if (controlAt(slot) == DELETED) {
+            deleted--;
+        } else if (size + deleted >= threshold) {
+            rehash();
+            slot = freeSlot(hash);
+        }
+        setControl(slot, hash >>> 25);
+        table[slot << 1] = k;
+        table[(slot << 1) + 1] = value;
+        size++;
+        modCount++;
+        return null;
+    }
+
+    @Override
+    public V get(Object key) {
+        int slot = findSlot(key);
+        return slot < 0 ? null : valueAt(slot);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return findSlot(key) >= 0;
+    }
+
+    @Override
+    public V remove(Object key) {
+        int slot = findSlot(key);
+        if (slot < 0) {
+            return null;
+        }
+        V oldValue = valueAt(slot);
+        removeAt(slot);
+        return oldValue;
+    }
+
+    /**
+     * Вставляет все записи из входной Map.
+     *
+     * @param m - входная Map
+     */
+    @Override
+    public void putAll(Map<? extends K, ? extends V> m) {
+        for (Entry<? extends K, ? extends V> entry : m.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Очищает Map. Массивы сохраняются для повторного заполнения.
+     */
+    @Override
+    public void clear() {
+        if (control != null && size + deleted > 0) {
+            Arrays.fill(control, EMPTY_GROUP);
+            Arrays.fill(table, null);
+        }
+        size = 0;
+        deleted = 0;
+        modCount++;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Проверка содержания значения value проходом по занятым ячейкам групп.
+     *
+     * @param value - проверяемое значение.
+     * @return - true, если имеется такое значение в Map, false - обратное.
+     */
+    @Override
+    public boolean containsValue(Object value) {
+        if (control != null) {
+            for (int group = 0; group < control.length; group++) {
+                for (long full = matchFull(control[group]); full != 0; full &= full - 1) {
+                    int slot = slotOf(group, full);
+                    if (Objects.equals(value, table[(slot << 1) + 1])) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Ищет ячейку ключа key.
+     *
+     * @param key - ключ.
+     * @return - индекс ячейки или -1, если ключа нет.
+     */
+    private int findSlot(Object key) {
+        if (control == null) {
+            return -1;
+        }
+        Object k = maskNull(key);
+        return find(k, hash(k));
+    }
+
+    /**
+     * Просматривает группы ключа до группы с пустой ячейкой. equals()
+     * вызывается только для ячеек, чей управляющий байт совпал с 7 битами
+     * хэша.
+     *
+     * @param k    - ключ, null уже заменен на NULL_KEY.
+     * @param hash - хэш ключа.
+     * @return - индекс ячейки или -1, если ключа нет.
+     */
+    private int find(Object k, int hash) {
+        final long pattern = LSB * (hash >>> 25);
+        final int groupMask = control.length - 1;
+        int group = hash & groupMask;
+        for (int step = 1; ; step++) {
+            long word = control[group];
+            for (long match = matchByte(word, pattern); match != 0; match &= match - 1) {
+                int slot = slotOf(group, match);
+                Object current = table[slot << 1];
+                if (current == k || k.equals(current)) {
+                    return slot;
+                }
+            }
+            if (matchEmpty(word) != 0) {
+                return -1;
+            }
+            group = (group + step) & groupMask;
+        }
+    }
+
+    /**
+     * Первая пустая или удаленная ячейка в последовательности групп хэша.
+     */
+    private int freeSlot(int hash) {
+        final int groupMask = control.length - 1;
+        int group = hash & groupMask;
+        for (int step = 1; ; step++) {
+            long free = control[group] & MSB;
+            if (free != 0) {
+                return slotOf(group, free);
+            }
+            group = (group + step) & groupMask;
+        }
+    }
+
+    /**
+     * Ячейки группы word, чей управляющий байт равен байту pattern. Может
+     * отметить лишнюю занятую ячейку выше настоящего совпадения (заем при
+     * вычитании), поэтому ключ все равно сравнивается через equals().
+     *
+     * @param word    - управляющие байты группы.
+     * @param pattern - байт, повторенный восемь раз.
+     * @return - старшие биты байтов совпавших ячеек.
+     */
+    static long matchByte(long word, long pattern) {
+        long x = word ^ pattern;
+        return (x - LSB) & ~x & MSB;
+    }
+
+    /**
+     * Пустые ячейки группы: у EMPTY старший бит установлен, а бит 1 - нет.
+     *
+     * @return - старшие биты байтов пустых ячеек.
+     */
+    static long matchEmpty(long word) {
+        return word & (~word << 6) & MSB;
+    }
+
+    /**
+     * Занятые ячейки группы: у них старший бит управляющего байта сброшен.
+     *
+     * @return - старшие биты байтов занятых ячеек.
+     */
+    static long matchFull(long word) {
+        return ~word & MSB;
+    }
+
+    /**
+     * Индекс ячейки, отмеченной младшим установленным битом match.
+     */
+    private static int slotOf(int group, long match) {
+        return group * GROUP_SIZE + (Long.numberOfTrailingZeros(match) >>> 3);
+    }
+
+    private int controlAt(int slot) {
+        return (int) (control[slot >>> 3] >>> ((slot & 7) << 3)) & 0xFF;
+    }
+
+    private void setControl(int slot, int value) {
+        int shift = (slot & 7) << 3;
+        int group = slot >>> 3;
+        control[group] = (control[group] & ~(0xFFL << shift)) | ((long) value << shift);
+    }
+
+    /**
+     * Создает массивы на newCapacity ячеек, но не меньше одной группы.
+     */
+    private void allocate(int newCapacity) {
+        capacity = Math.max(GROUP_SIZE, newCapacity);
+        control = new long[capacity / GROUP_SIZE];
+        Arrays.fill(control, EMPTY_GROUP);
+        table = new Object[capacity << 1];
+        threshold = thresholdFor(capacity);
+        deleted = 0;
+    }
+
+    /**
+     * Перестраивает массивы, когда пары и удаленные ячейки дошли до порога.
+     * Если удаленных ячеек не меньше восьмой части порога, количество ячеек
+     * не меняется и только убираются ячейки DELETED: следующая перестройка
+     * будет не раньше чем через threshold / 8 вставок. Иначе массивы
+     * увеличиваются вдвое.
+     */
+    private void rehash() {
+        long[] oldControl = control;
+        Object[] oldTable = table;
+        if (deleted > 0 && deleted >= threshold / 8) {
+            allocate(capacity);
+        } else if (capacity >= MAX_SLOTS) {
+            throw new IllegalStateException("table is full");
+        } else {
+            allocate(grownCapacity());
+        }
+        for (int group = 0; group < oldControl.length; group++) {
+            for (long full = matchFull(oldControl[group]); full != 0; full &= full - 1) {
+                int oldSlot = slotOf(group, full);
+                Object k = oldTable[oldSlot << 1];
+                int hash = hash(k);
+                int slot = freeSlot(hash);
+                setControl(slot, hash >>> 25);
+                table[slot << 1] = k;
+                table[(slot << 1) + 1] = oldTable[(oldSlot << 1) + 1];
+            }
+        }
+        modCount++;
+    }
+
+    /**
+     * Удаляет пару из ячейки slot. Пары не сдвигаются, поэтому итератор
+     * никогда не получает отложенных ключей.
+     *
+     * @return - всегда -1.
+     */
+    @Override
+    int removeAt(int slot) {
+        if (matchEmpty(control[slot >>> 3]) != 0) {
+            setControl(slot, EMPTY);
+        } else {
+            setControl(slot, DELETED);
+            deleted++;
+        }
+        table[slot << 1] = null;
+        table[(slot << 1) + 1] = null;
+        size--;
+        modCount++;
+        return -1;
+    }
+
+    @Override
+    int hashAt(int slot) {
+        return hash(table[slot << 1]);
+    }
+
+    @Override
+    boolean isFree(int slot) {
+        return (controlAt(slot) & EMPTY) != 0;
+    }
+
+    @Override
+    void moveSlot(int from, int to) {
+        setControl(to, controlAt(from));
+        table[to << 1] = table[from << 1];
+        table[(to << 1) + 1] = table[(from << 1) + 1];
+    }
+
+    @Override
+    void clearSlot(int slot) {
+        setControl(slot, EMPTY);
+        table[slot << 1] = null;
+        table[(slot << 1) + 1] = null;
+    }
+
+    @Override
+    int slotCount() {
+        return control == null ? 0 : capacity;
+    }
+
+    @Override
+    Object boxedKeyAt(int slot) {
+        return keyAt(slot);
+    }
+
+    @Override
+    int findBoxed(Object key) {
+        return findSlot(key);
+    }
+
+    /**
+     * Вычисляет хэш ключа, перемешивая его хэш-код методом mix(): младшие
+     * биты выбирают группу, 7 старших бит записываются в управляющий байт.
+     *
+     * @param k - ключ, null уже заменен на NULL_KEY.
+     * @return - хэш ключа.
+     */
+    private static int hash(Object k) {
+        return mix(k.hashCode());
+    }
+
+    private static Object maskNull(Object key) {
+        return key == null ? NULL_KEY : key;
+    }
+
+    @SuppressWarnings("unchecked")
+    private K keyAt(int slot) {
+        Object k = table[slot << 1];
+        return k == NULL_KEY ? null : (K) k;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(int slot) {
+        return (V) table[(slot << 1) + 1];
+    }
+
+    /**
+     * Метод возвращает строковое представление объекта.
+     * В каждой строчке выводится "key =" + key + "value =" + value.
+     *
+     * @return строковое представление объекта.
+     */
+    @Override
+    public String toString() {
+        StringBuilder stringBuilder = new StringBuilder("{").append(System.lineSeparator());
+        for (int i = 0; i < slotCount(); i++) {
+            if (!isFree(i)) {
+                stringBuilder.append("\t")
+                        .append("key = ")
+                        .append(keyAt(i))
+                        .append("\t\tvalue = ")
+                        .append(valueAt(i))
+                        .append(System.lineSeparator());
+            }
+        }
+        return stringBuilder.append("}").toString();
+    }
+
+    /**
+     * Сравнивает с любой Map по контракту Map.equals.
+     *
+     * @param o - объект для сравнение с this
+     * @return true, если объекты схожие, false - в обратном случае
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Map)) return false;
+
+        Map<?, ?> other = (Map<?, ?>) o;
+
+        if (size != other.size()) return false;
+
+        for (int i = 0; i < slotCount(); i++) {
+            if (!isFree(i)) {
+                K key = keyAt(i);
+                Object value = valueAt(i);
+                if (value == null ? other.get(key) != null || !other.containsKey(key)
+                        : !value.equals(other.get(key))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Вычисляет хэш код по контракту Map.hashCode.
+     *
+     * @return хэш код Map.
+     */
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (int i = 0; i < slotCount(); i++) {
+            if (!isFree(i)) {
+                hash += Objects.hashCode(keyAt(i)) ^ Objects.hashCode(valueAt(i));
+            }
+        }
+        return hash;
+    }
+
+    @Override
+    public Set<K> keySet() {
+        if (keySet == null) {
+            keySet = new KeySet();
+        }
+        return keySet;
+    }
+
+    @Override
+    public Collection<V> values() {
+        if (valuesCollection == null) {
+            valuesCollection = new ValueCollection();
+        }
+        return valuesCollection;
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        if (entries == null) {
+            entries = new EntrySet();
+        }
+        return entries;
+    }
+
+    private class KeySet extends AbstractSet<K> {
+
+        @Override
+        public boolean contains(Object key) {
+            return SwissHashMap.this.containsKey(key);
+        }
+
+        @Override
+        public Iterator<K> iterator() {
+            return new KeyIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean remove(Object key) {
+            int slot = findSlot(key);
+            if (slot < 0) {
+                return false;
+            }
+            removeAt(slot);
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            SwissHashMap.this.clear();
+        }
+    }
+
+    private class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+            int slot = findSlot(entry.getKey());
+            return slot >= 0 && Objects.equals(valueAt(slot), entry.getValue());
+        }
+
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!contains(o)) {
+                return false;
+            }
+            removeAt(findSlot(((Map.Entry<?, ?>) o).getKey()));
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            SwissHashMap.this.clear();
+        }
+    }
+
+    private class ValueCollection extends AbstractCollection<V> {
+
+        @Override
+        public boolean contains(Object value) {
+            return SwissHashMap.this.containsValue(value);
+        }
+
+        @Override
+        public Iterator<V> iterator() {
+            return new ValueIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            SwissHashMap.this.clear();
+        }
+    }
+
+    /**
+     * Запись, которую возвращает итератор entrySet(). setValue() записывает
+     * значение в ячейку ключа в Map.
+     */
+    private class SlotEntry implements Map.Entry<K, V> {
+
+        private final K key;
+        private V value;
+
+        SlotEntry(int slot) {
+            key = keyAt(slot);
+            value = valueAt(slot);
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V value) {
+            int slot = findSlot(key);
+            if (slot < 0) {
+                throw new IllegalStateException("entry was removed from the map");
+            }
+            V oldValue = this.value;
+            table[(slot << 1) + 1] = value;
+            this.value = value;
+            return oldValue;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Map.Entry)) return false;
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+            return Objects.equals(key, entry.getKey()) && Objects.equals(value, entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key) ^ Objects.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+
+    private class KeyIterator extends SlotIterator implements Iterator<K> {
+
+        @Override
+        public K next() {
+            return keyAt(nextSlot());
+        }
+    }
+
+    private class ValueIterator extends SlotIterator implements Iterator<V> {
+
+        @Override
+        public V next() {
+            return valueAt(nextSlot());
+        }
+    }
+
+    private class EntryIterator extends SlotIterator implements Iterator<Map.Entry<K, V>> {
+
+        @Override
+        public Map.Entry<K, V> next() {
+            return new SlotEntry(nextSlot());
+        }
+    }
+}
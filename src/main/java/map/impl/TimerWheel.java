@@ -0,0 +1,156 @@
+package map.impl;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Иерархическое колесо таймеров для узлов ExpiringHashMap. Уровень
+ * колеса - массив корзин, каждая корзина покрывает SPANS[level]
+ * наносекунд: около секунды, минуты, часа и дня; последний уровень из
+ * одной корзины принимает все более далекие сроки. Корзина - кольцевой
+ * двусвязный список узлов с узлом-стражем, поэтому добавление и удаление
+ * узла занимают O(1).
+ * <p>
+ * advance() проходит только корзины, время которых прошло с прошлого
+ * вызова. Устаревшие узлы из них удаляются, остальные переносятся в
+ * корзины нижних уровней, поэтому каждый узел проходит не больше
+ * BUCKETS.length корзин за всю жизнь.
+ */
+final class TimerWheel<K, V> {
+
+    static final int[] BUCKETS = {64, 64, 32, 4, 1};
+
+    static final long[] SPANS = {
+            ceilingPowerOfTwo(TimeUnit.SECONDS.toNanos(1)),
+            ceilingPowerOfTwo(TimeUnit.MINUTES.toNanos(1)),
+            ceilingPowerOfTwo(TimeUnit.HOURS.toNanos(1)),
+            ceilingPowerOfTwo(TimeUnit.DAYS.toNanos(1)),
+            BUCKETS[3] * ceilingPowerOfTwo(TimeUnit.DAYS.toNanos(1)),
+            BUCKETS[3] * ceilingPowerOfTwo(TimeUnit.DAYS.toNanos(1))
+    };
+
+    static final int[] SHIFT = {
+            Long.numberOfTrailingZeros(SPANS[0]),
+            Long.numberOfTrailingZeros(SPANS[1]),
+            Long.numberOfTrailingZeros(SPANS[2]),
+            Long.numberOfTrailingZeros(SPANS[3]),
+            Long.numberOfTrailingZeros(SPANS[4])
+    };
+
+    /**
+     * Стражи корзин по уровням.
+     */
+    private final ExpiringHashMap.ExpiringNode<K, V>[][] wheel;
+
+    /**
+     * Время последнего advance().
+     */
+    private long time;
+
+    @SuppressWarnings("unchecked")
+    TimerWheel(long time) {
+        this.time = time;
+        wheel = (ExpiringHashMap.ExpiringNode<K, V>[][]) new ExpiringHashMap.ExpiringNode<?, ?>[BUCKETS.length][];
+        for (int level = 0; level < BUCKETS.length; level++) {
+            wheel[level] = (ExpiringHashMap.ExpiringNode<K, V>[]) new ExpiringHashMap.ExpiringNode<?, ?>[BUCKETS[level]];
+            for (int i = 0; i < BUCKETS[level]; i++) {
+                ExpiringHashMap.ExpiringNode<K, V> sentinel = new ExpiringHashMap.ExpiringNode<>(0, null, null, null);
+                sentinel.previousInTimer = sentinel;
+                sentinel.nextInTimer = sentinel;
+                wheel[level][i] = sentinel;
+            }
+        }
+    }
+
+    /**
+     * Кладет узел в корзину его срока expiresAt.
+     */
+    void schedule(ExpiringHashMap.ExpiringNode<K, V> node) {
+        final ExpiringHashMap.ExpiringNode<K, V> sentinel = findBucket(node.expiresAt);
+        node.previousInTimer = sentinel.previousInTimer;
+        node.nextInTimer = sentinel;
+        sentinel.previousInTimer.nextInTimer = node;
+        sentinel.previousInTimer = node;
+    }
+
+    /**
+     * Убирает узел из его корзины, если он в колесе.
+     */
+    static <K, V> void unlink(ExpiringHashMap.ExpiringNode<K, V> node) {
+        if (node.nextInTimer != null) {
+            node.previousInTimer.nextInTimer = node.nextInTimer;
+            node.nextInTimer.previousInTimer = node.previousInTimer;
+            node.previousInTimer = null;
+            node.nextInTimer = null;
+        }
+    }
+
+    /**
+     * Проворачивает колесо до момента now и передает expiration узлы,
+     * срок которых наступил.
+     *
+     * @param now        - текущее время.
+     * @param expiration - удаление устаревшего узла из Map.
+     */
+    void advance(long now, Consumer<ExpiringHashMap.ExpiringNode<K, V>> expiration) {
+        final long previousTime = time;
+        time = now;
+        for (int level = 0; level < SHIFT.length; level++) {
+            long previousTicks = previousTime >>> SHIFT[level];
+            long delta = (now >>> SHIFT[level]) - previousTicks;
+            if (delta <= 0) {
+                break;
+            }
+            expire(level, previousTicks, delta, expiration);
+        }
+    }
+
+    /**
+     * Обходит корзины уровня level, пройденные за delta тиков. Корзина
+     * сначала отсоединяется целиком, поэтому узлы, перенесенные обратно
+     * в ту же корзину, повторно не обходятся.
+     */
+    private void expire(int level, long previousTicks, long delta,
+                        Consumer<ExpiringHashMap.ExpiringNode<K, V>> expiration) {
+        final ExpiringHashMap.ExpiringNode<K, V>[] buckets = wheel[level];
+        final int mask = buckets.length - 1;
+        final int steps = (int) Math.min(1 + delta, buckets.length);
+        final int start = (int) (previousTicks & mask);
+        for (int i = start; i < start + steps; i++) {
+            final ExpiringHashMap.ExpiringNode<K, V> sentinel = buckets[i & mask];
+            ExpiringHashMap.ExpiringNode<K, V> node = sentinel.nextInTimer;
+            sentinel.previousInTimer = sentinel;
+            sentinel.nextInTimer = sentinel;
+            while (node != sentinel) {
+                final ExpiringHashMap.ExpiringNode<K, V> next = node.nextInTimer;
+                node.previousInTimer = null;
+                node.nextInTimer = null;
+                if (ExpiringHashMap.isExpired(node, time)) {
+                    expiration.accept(node);
+                } else {
+                    schedule(node);
+                }
+                node = next;
+            }
+        }
+    }
+
+    /**
+     * Выбирает уровень по расстоянию до срока и корзину по самому сроку.
+     */
+    private ExpiringHashMap.ExpiringNode<K, V> findBucket(long expiresAt) {
+        final long duration = expiresAt - time;
+        final int last = wheel.length - 1;
+        for (int level = 0; level < last; level++) {
+            if (duration < SPANS[level + 1]) {
+                long ticks = expiresAt >>> SHIFT[level];
+                return wheel[level][(int) (ticks & (wheel[level].length - 1))];
+            }
+        }
+        return wheel[last][0];
+    }
+
+    private static long ceilingPowerOfTwo(long value) {
+        return 1L << -Long.numberOfLeadingZeros(value - 1);
+    }
+}
@@ -0,0 +1,275 @@
+package map.impl;
+
+import map.impl.CacheHashMap.RemovalCause;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheHashMapTest {
+
+    @Nested
+    @DisplayName("Checking LRU eviction")
+    class EvictionTest {
+
+        @Test
+        @DisplayName("Checking that the least recently used key is evicted")
+        void leastRecentlyUsedTest() {
+            //Prepare
+            final CacheHashMap<Integer, String> cache = new CacheHashMap<>(3);
+            cache.put(1, "1");
+            cache.put(2, "2");
+            cache.put(3, "3");
+
+            //Execution: 1 becomes the most recent, so 2 is the eldest
+            cache.get(1);
+            cache.put(4, "4");
+
+            //Assertion
+            assertEquals(3, cache.size());
+            assertFalse(cache.containsKey(2));
+            assertAll(
+                    () -> assertEquals("1", cache.get(1)),
+                    () -> assertEquals("3", cache.get(3)),
+                    () -> assertEquals("4", cache.get(4))
+            );
+            assertEquals(1, cache.evictionCount());
+        }
+
+        @Test
+        @DisplayName("Checking that replacing a value refreshes the key")
+        void replaceRefreshesTest() {
+            //Prepare
+            final CacheHashMap<Integer, String> cache = new CacheHashMap<>(2);
+            cache.put(1, "1");
+            cache.put(2, "2");
+
+            //Execution
+            cache.put(1, "one");
+            cache.put(3, "3");
+
+            //Assertion
+            assertEquals("one", cache.get(1));
+            assertNull(cache.get(2));
+            assertEquals("3", cache.get(3));
+        }
+
+        @Test
+        @DisplayName("Checking eviction by weight")
+        void weightTest() {
+            //Prepare: the weight of a pair is the length of its value
+            final CacheHashMap<Integer, String> cache = new CacheHashMap<>(10, (key, value) -> value.length(), null);
+            cache.put(1, "aaaa");
+            cache.put(2, "bbbb");
+
+            //Execution: the heavy value pushes out both eldest pairs
+            cache.put(3, "cccccccc");
+
+            //Assertion
+            assertEquals(1, cache.size());
+            assertEquals(8, cache.weightedSize());
+            assertEquals(2, cache.evictionCount());
+
+            //Execution: a heavier replacement evicts the pair itself
+            cache.put(3, "ccccccccccc");
+
+            //Assertion
+            assertTrue(cache.isEmpty());
+            assertEquals(0, cache.weightedSize());
+        }
+
+        @Test
+        @DisplayName("Checking eviction of colliding keys in tree bins")
+        void treeBinTest() {
+            //Prepare
+            final CacheHashMap<HashMapTest.ComparableCollidingKey, Integer> cache = new CacheHashMap<>(20);
+
+            //Execution
+            for (int i = 0; i < 40; i++) {
+                cache.put(new HashMapTest.ComparableCollidingKey(i, 5), i);
+            }
+
+            //Assertion: only the last 20 keys survive
+            assertEquals(20, cache.size());
+            for (int i = 0; i < 40; i++) {
+                assertEquals(i < 20 ? null : i, cache.get(new HashMapTest.ComparableCollidingKey(i, 5)));
+            }
+        }
+
+        @Test
+        @DisplayName("Checking random operations against an access-ordered java.util.LinkedHashMap")
+        void randomOperationsTest() {
+            //Prepare
+            final int maximumSize = 100;
+            final CacheHashMap<Integer, Integer> cache = new CacheHashMap<>(maximumSize);
+            final Map<Integer, Integer> expected = new java.util.LinkedHashMap<Integer, Integer>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, Integer> eldest) {
+                    return size() > maximumSize;
+                }
+            };
+            final Random random = new Random(7);
+
+            //Execution
+            for (int i = 0; i < 50_000; i++) {
+                int key = random.nextInt(300);
+                switch (random.nextInt(4)) {
+                    case 0:
+                        assertEquals(expected.remove(key), cache.remove(key));
+                        break;
+                    case 1:
+                        assertEquals(expected.get(key), cache.get(key));
+                        break;
+                    default:
+                        assertEquals(expected.put(key, i), cache.put(key, i));
+                }
+            }
+
+            //Assertion
+            assertEquals(expected.size(), cache.size());
+            assertEquals(expected.size(), cache.weightedSize());
+            for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+                assertEquals(entry.getValue(), cache.get(entry.getKey()));
+            }
+        }
+
+        @Test
+        @DisplayName("Checking eviction across table resizes")
+        void resizeTest() {
+            //Prepare
+            final CacheHashMap<Integer, Integer> cache = new CacheHashMap<>(1_000);
+
+            //Execution
+            for (int i = 0; i < 10_000; i++) {
+                cache.put(i, i);
+            }
+
+            //Assertion
+            assertEquals(1_000, cache.size());
+            assertEquals(9_000, cache.evictionCount());
+            for (int i = 9_000; i < 10_000; i++) {
+                assertEquals(i, cache.get(i));
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Checking the removal listener")
+    class RemovalListenerTest {
+
+        @Test
+        @DisplayName("Checking removal causes")
+        void causeTest() {
+            //Prepare
+            final List<String> removals = new ArrayList<>();
+            final CacheHashMap<Integer, String> cache = new CacheHashMap<>(2, (key, value) -> 1,
+                    (key, value, cause) -> removals.add(key + "=" + value + " " + cause));
+
+            //Execution
+            cache.put(1, "1");
+            cache.put(1, "one");
+            cache.put(2, "2");
+            cache.put(3, "3");
+            cache.remove(2);
+            cache.compute(3, (key, value) -> null);
+
+            //Assertion
+            assertEquals(Arrays.asList("1=1 REPLACED", "1=one SIZE", "2=2 EXPLICIT", "3=3 EXPLICIT"), removals);
+            assertTrue(cache.isEmpty());
+        }
+
+        @Test
+        @DisplayName("Checking notifications of clear, replaceAll and the cursor")
+        void bulkTest() {
+            //Prepare
+            final List<RemovalCause> causes = new ArrayList<>();
+            final CacheHashMap<Integer, Integer> cache = new CacheHashMap<>(10, (key, value) -> value,
+                    (key, value, cause) -> causes.add(cause));
+            cache.put(1, 1);
+            cache.put(2, 2);
+            cache.put(3, 3);
+
+            //Execution: doubled values weigh 12, so the eldest pair is evicted
+            cache.replaceAll((key, value) -> value * 2);
+
+            //Assertion
+            assertEquals(Arrays.asList(RemovalCause.REPLACED, RemovalCause.REPLACED, RemovalCause.REPLACED,
+                    RemovalCause.SIZE), causes);
+            assertEquals(10, cache.weightedSize());
+
+            //Execution
+            causes.clear();
+            final EntryCursor<Integer, Integer> cursor = cache.cursor();
+            assertTrue(cursor.advance());
+            cursor.remove();
+            cache.clear();
+
+            //Assertion
+            assertEquals(Arrays.asList(RemovalCause.EXPLICIT, RemovalCause.EXPLICIT), causes);
+            assertEquals(0, cache.weightedSize());
+        }
+    }
+
+    @Nested
+    @DisplayName("Checking cache statistics")
+    class StatisticsTest {
+
+        @Test
+        @DisplayName("Checking hits, misses and loads")
+        void countersTest() {
+            //Prepare
+            final CacheHashMap<Integer, Integer> cache = new CacheHashMap<>(10);
+            assertEquals(1.0, cache.hitRate());
+
+            //Execution
+            cache.put(1, 1);
+            cache.get(1);
+            cache.get(2);
+            cache.computeIfAbsent(3, key -> key * 10);
+            cache.computeIfAbsent(3, key -> -1);
+            cache.getOrDefault(4, 0);
+
+            //Assertion
+            assertAll(
+                    () -> assertEquals(2, cache.hitCount()),
+                    () -> assertEquals(3, cache.missCount()),
+                    () -> assertEquals(0.4, cache.hitRate(), 1e-9),
+                    () -> assertEquals(1, cache.loadCount()),
+                    () -> assertTrue(cache.totalLoadTime() >= 0),
+                    () -> assertEquals(30, cache.get(3))
+            );
+        }
+    }
+
+    @Nested
+    @DisplayName("Checking exceptions")
+    class ExceptionTest {
+
+        @Test
+        @DisplayName("Checking null values, negative weights and entry setValue")
+        void exceptionTest() {
+            //Prepare
+            final CacheHashMap<Integer, Integer> cache = new CacheHashMap<>(10, (key, value) -> value, null);
+            cache.put(1, 1);
+
+            //Assertion
+            assertAll(
+                    () -> assertThrows(IllegalArgumentException.class, () -> new CacheHashMap<>(-1)),
+                    () -> assertThrows(NullPointerException.class, () -> cache.put(2, null)),
+                    () -> assertThrows(NullPointerException.class, () -> cache.putIfAbsent(2, null)),
+                    () -> assertThrows(IllegalArgumentException.class, () -> cache.put(2, -1)),
+                    () -> assertThrows(UnsupportedOperationException.class,
+                            () -> cache.entrySet().iterator().next().setValue(2))
+            );
+            assertEquals(1, cache.size());
+            assertEquals(1, cache.weightedSize());
+        }
+    }
+}
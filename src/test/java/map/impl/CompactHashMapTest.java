@@ -0,0 +1,90 @@
+package map.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the HashMap suite against CompactHashMap with cached hashes.
+ */
+class CompactHashMapTest extends HashMapTest {
+
+    @Override
+    <K, V> Map<K, V> createMap() {
+        return CompactHashMap.create();
+    }
+
+    @Override
+    <K, V> Map<K, V> createMap(int capacity) {
+        return CompactHashMap.create(capacity, HashMap.DEFAULT_LOAD_FACTOR);
+    }
+
+    @Override
+    <K, V> Map<K, V> createMap(int capacity, double loadFactor) {
+        return CompactHashMap.create(capacity, loadFactor);
+    }
+
+    @Nested
+    @DisplayName("Checking node layout")
+    class LayoutTest {
+
+        @Test
+        @DisplayName("when only nodes followed by another node carry a next field")
+        void nodeClassTest() {
+            //Prepare
+            final CompactHashMap<Integer, Integer> hashed = CompactHashMap.create();
+            final CompactHashMap<Integer, Integer> unhashed = CompactHashMap.withoutHashCache();
+
+            //Execution
+            for (int i = 0; i < 10_000; i++) {
+                hashed.put(i * 7, i);
+                unhashed.put(i * 7, i);
+            }
+
+            //Assertion
+            for (Map.Entry<Integer, Integer> entry : hashed.entrySet()) {
+                final CompactHashMap.Leaf<Integer, Integer> node = (CompactHashMap.Leaf<Integer, Integer>) entry;
+                assertTrue(node instanceof CompactHashMap.HashedLeaf);
+                assertEquals(CompactHashMap.next(node) != null, node instanceof CompactHashMap.HashedLink);
+            }
+            for (Map.Entry<Integer, Integer> entry : unhashed.entrySet()) {
+                final CompactHashMap.Leaf<Integer, Integer> node = (CompactHashMap.Leaf<Integer, Integer>) entry;
+                assertFalse(node instanceof CompactHashMap.HashedLeaf);
+                assertEquals(CompactHashMap.next(node) != null, node instanceof CompactHashMap.Link);
+            }
+        }
+
+        @Test
+        @DisplayName("when a map without cached hashes grows and removes colliding keys")
+        void unhashedTest() {
+            //Prepare
+            final CompactHashMap<CollidingKey, Integer> map = CompactHashMap.withoutHashCache(2, 0.75);
+            for (int i = 0; i < 1_000; i++) {
+                map.put(new CollidingKey(i, i % 10), i);
+            }
+            map.put(null, -1);
+
+            //Execution
+            final Iterator<Map.Entry<CollidingKey, Integer>> iterator = map.entrySet().iterator();
+            while (iterator.hasNext()) {
+                final Map.Entry<CollidingKey, Integer> entry = iterator.next();
+                if (entry.getValue() % 2 == 0) {
+                    iterator.remove();
+                }
+            }
+
+            //Assertion
+            assertEquals(2_048, map.capacity());
+            assertEquals(501, map.size());
+            for (int i = 0; i < 1_000; i++) {
+                assertEquals(i % 2 == 0 ? null : i, map.get(new CollidingKey(i, i % 10)));
+            }
+            assertEquals(-1, map.get(null));
+        }
+    }
+}
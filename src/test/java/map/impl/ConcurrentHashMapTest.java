@@ -0,0 +1,252 @@
+package map.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the HashMap suite against ConcurrentHashMap and adds multi-threaded checks.
+ */
+class ConcurrentHashMapTest extends HashMapTest {
+
+    private static final int THREADS = 8;
+
+    @Override
+    <K, V> Map<K, V> createMap() {
+        return new ConcurrentHashMap<>();
+    }
+
+    @Override
+    <K, V> Map<K, V> createMap(int capacity) {
+        return new ConcurrentHashMap<>(capacity);
+    }
+
+    @Override
+    <K, V> Map<K, V> createMap(int capacity, double loadFactor) {
+        return new ConcurrentHashMap<>(capacity, loadFactor);
+    }
+
+    @Test
+    @Override
+    @DisplayName("Check that null keys and null values are rejected")
+    void nullKeyAndNullValueTest() {
+        //Prepare data
+        final Map<Object, Object> map = createMap();
+
+        //Assertion
+        assertThrows(NullPointerException.class, () -> map.put(null, "value"));
+        assertThrows(NullPointerException.class, () -> map.put("key", null));
+        assertThrows(NullPointerException.class, () -> map.get(null));
+    }
+
+    @Test
+    @DisplayName("Checking ConcurrentMap operations")
+    void concurrentMapOperationsTest() {
+        //Prepare
+        final ConcurrentHashMap<String, Integer> map = new ConcurrentHashMap<>();
+
+        //Assertion
+        assertNull(map.putIfAbsent("key", 1));
+        assertEquals(1, map.putIfAbsent("key", 2));
+        assertFalse(map.replace("key", 2, 3));
+        assertTrue(map.replace("key", 1, 3));
+        assertEquals(3, map.replace("key", 4));
+        assertNull(map.replace("missing", 4));
+        assertFalse(map.remove("key", 3));
+        assertTrue(map.remove("key", 4));
+        assertTrue(map.isEmpty());
+    }
+
+    @Nested
+    @DisplayName("Checking concurrent access")
+    class ConcurrentAccessTest {
+
+        @Test
+        @DisplayName("when threads insert disjoint keys through several resizes")
+        void concurrentPutTest() throws Exception {
+            //Prepare
+            final ConcurrentHashMap<Integer, Integer> map = new ConcurrentHashMap<>(2);
+            final int perThread = 20_000;
+
+            //Execution
+            runConcurrently(thread -> {
+                for (int i = 0; i < perThread; i++) {
+                    int key = thread * perThread + i;
+                    map.put(key, key);
+                }
+            });
+
+            //Assertion
+            assertEquals(THREADS * perThread, map.size());
+            for (int key = 0; key < THREADS * perThread; key++) {
+                assertEquals(key, map.get(key));
+            }
+        }
+
+        @Test
+        @DisplayName("when threads update the same keys atomically")
+        void concurrentMergeTest() throws Exception {
+            //Prepare
+            final ConcurrentHashMap<Integer, Integer> map = new ConcurrentHashMap<>();
+            final int increments = 10_000;
+
+            //Execution
+            runConcurrently(thread -> {
+                for (int i = 0; i < increments; i++) {
+                    map.merge(i % 64, 1, Integer::sum);
+                }
+            });
+
+            //Assertion
+            assertEquals(64, map.size());
+            int total = 0;
+            for (int value : map.values()) {
+                total += value;
+            }
+            assertEquals(THREADS * increments, total);
+        }
+
+        @Test
+        @DisplayName("when readers run during inserts and removals")
+        void concurrentReadWriteTest() throws Exception {
+            //Prepare: even keys are stable, odd keys are added and removed
+            final ConcurrentHashMap<Integer, Integer> map = new ConcurrentHashMap<>(2);
+            final int keys = 4_096;
+            for (int key = 0; key < keys; key += 2) {
+                map.put(key, key);
+            }
+            final AtomicBoolean failed = new AtomicBoolean();
+
+            //Execution
+            runConcurrently(thread -> {
+                for (int round = 0; round < 20; round++) {
+                    if (thread % 2 == 0) {
+                        for (int key = 1; key < keys; key += 2) {
+                            map.put(key + round * keys, key);
+                            map.remove(key + round * keys);
+                        }
+                    } else {
+                        for (int key = 0; key < keys; key += 2) {
+                            if (!Integer.valueOf(key).equals(map.get(key))) {
+                                failed.set(true);
+                            }
+                        }
+                    }
+                }
+            });
+
+            //Assertion
+            assertFalse(failed.get());
+            assertEquals(keys / 2, map.size());
+        }
+
+        @Test
+        @DisplayName("when iterating during concurrent inserts")
+        void weaklyConsistentIteratorTest() throws Exception {
+            //Prepare
+            final ConcurrentHashMap<Integer, Integer> map = new ConcurrentHashMap<>(2);
+            final int stable = 1_000;
+            for (int key = 0; key < stable; key++) {
+                map.put(key, key);
+            }
+
+            //Execution: iterate while other threads keep growing the table
+            final List<Set<Integer>> seen = new ArrayList<>();
+            runConcurrently(thread -> {
+                if (thread == 0) {
+                    for (int round = 0; round < 50; round++) {
+                        Set<Integer> keys = new HashSet<>();
+                        for (Integer key : map.keySet()) {
+                            assertTrue(keys.add(key), "key returned twice: " + key);
+                        }
+                        synchronized (seen) {
+                            seen.add(keys);
+                        }
+                    }
+                } else {
+                    for (int i = 0; i < 10_000; i++) {
+                        map.put(stable + thread * 10_000 + i, i);
+                    }
+                }
+            });
+
+            //Assertion: every key present for the whole iteration is returned
+            for (Set<Integer> keys : seen) {
+                for (int key = 0; key < stable; key++) {
+                    assertTrue(keys.contains(key));
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Checking removal through the iterator")
+    void iteratorRemoveTest() {
+        //Prepare
+        final ConcurrentHashMap<Integer, Integer> map = new ConcurrentHashMap<>();
+        for (int i = 0; i < 100; i++) {
+            map.put(i, i);
+        }
+
+        //Execution
+        final Iterator<Map.Entry<Integer, Integer>> iterator = map.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Integer, Integer> entry = iterator.next();
+            if (entry.getKey() % 2 == 0) {
+                iterator.remove();
+            } else {
+                entry.setValue(-entry.getValue());
+            }
+        }
+
+        //Assertion
+        assertEquals(50, map.size());
+        for (int i = 1; i < 100; i += 2) {
+            assertEquals(-i, map.get(i));
+        }
+    }
+
+    private interface ThreadTask {
+        void run(int thread) throws Exception;
+    }
+
+    /**
+     * Starts THREADS tasks at once and rethrows the first failure.
+     */
+    private static void runConcurrently(ThreadTask task) throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                final int id = thread;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run(id);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
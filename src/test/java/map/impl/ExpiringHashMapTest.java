@@ -0,0 +1,265 @@
+package map.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpiringHashMapTest {
+
+    /**
+     * Current time of the manual ticker in nanoseconds.
+     */
+    private long now;
+
+    private final ExpiringHashMap.Ticker ticker = () -> now;
+
+    private void sleep(Duration duration) {
+        now += duration.toNanos();
+    }
+
+    @BeforeEach
+    void setUp() {
+        //Prepare: start away from zero, as System.nanoTime() does
+        now = 1L << 40;
+    }
+
+    @Nested
+    @DisplayName("Checking lazy expiry on lookups")
+    class LazyExpiryTest {
+
+        @Test
+        @DisplayName("Checking expiry after write")
+        void expireAfterWriteTest() {
+            //Prepare
+            final ExpiringHashMap<String, Integer> map = new ExpiringHashMap<>(Duration.ofSeconds(10), null, ticker);
+            map.put("session", 1);
+
+            //Execution
+            sleep(Duration.ofSeconds(9));
+
+            //Assertion
+            assertEquals(1, map.get("session"));
+
+            //Execution: reads do not extend the write time
+            sleep(Duration.ofSeconds(1));
+
+            //Assertion
+            assertNull(map.get("session"));
+            assertFalse(map.containsKey("session"));
+            assertTrue(map.isEmpty());
+        }
+
+        @Test
+        @DisplayName("Checking expiry after access limited by expiry after write")
+        void expireAfterAccessTest() {
+            //Prepare
+            final ExpiringHashMap<String, Integer> map = new ExpiringHashMap<>(Duration.ofSeconds(30),
+                    Duration.ofSeconds(10), ticker);
+            map.put("token", 1);
+
+            //Execution: every read within 10 seconds keeps the pair
+            for (int i = 0; i < 5; i++) {
+                sleep(Duration.ofSeconds(5));
+                assertEquals(1, map.get("token"));
+            }
+            sleep(Duration.ofSeconds(5));
+
+            //Assertion: 30 seconds after the write the pair expires anyway
+            assertNull(map.get("token"));
+
+            //Execution
+            map.put("token", 2);
+            sleep(Duration.ofSeconds(10));
+
+            //Assertion
+            assertNull(map.getOrDefault("token", null));
+        }
+
+        @Test
+        @DisplayName("Checking time to live of a single pair")
+        void timeToLiveTest() {
+            //Prepare
+            final ExpiringHashMap<String, Integer> map = new ExpiringHashMap<>(Duration.ofSeconds(10), null, ticker);
+            map.put("short", 1);
+            map.put("long", 2, Duration.ofHours(1));
+            map.put("forever", 3, null);
+
+            //Execution
+            sleep(Duration.ofMinutes(59));
+
+            //Assertion
+            assertAll(
+                    () -> assertNull(map.get("short")),
+                    () -> assertEquals(2, map.get("long")),
+                    () -> assertEquals(3, map.get("forever"))
+            );
+
+            //Execution
+            sleep(Duration.ofDays(365));
+
+            //Assertion
+            assertNull(map.get("long"));
+            assertEquals(3, map.get("forever"));
+        }
+
+        @Test
+        @DisplayName("Checking writes over expired pairs")
+        void writeOverExpiredTest() {
+            //Prepare
+            final ExpiringHashMap<String, Integer> map = new ExpiringHashMap<>(Duration.ofSeconds(1), null, ticker);
+            map.put("put", 1);
+            map.put("putIfAbsent", 1);
+            map.put("compute", 1);
+            map.put("merge", 1);
+            sleep(Duration.ofSeconds(2));
+
+            //Assertion: the old values are not visible to writes either
+            assertAll(
+                    () -> assertNull(map.put("put", 2)),
+                    () -> assertNull(map.putIfAbsent("putIfAbsent", 2)),
+                    () -> assertEquals(2, map.compute("compute", (key, value) -> value == null ? 2 : -1)),
+                    () -> assertEquals(2, map.merge("merge", 2, Integer::sum))
+            );
+            assertEquals(4, map.size());
+
+            //Execution: the new values got a new write time
+            sleep(Duration.ofMillis(500));
+
+            //Assertion
+            assertEquals(2, map.get("put"));
+            assertEquals(2, map.get("merge"));
+        }
+
+        @Test
+        @DisplayName("Checking that putAll does not copy expired pairs")
+        void putAllTest() {
+            //Prepare
+            final ExpiringHashMap<Integer, Integer> source = new ExpiringHashMap<>(Duration.ofSeconds(1), null, ticker);
+            for (int i = 0; i < 5; i++) {
+                source.put(i, i);
+            }
+            source.put(5, 5, Duration.ofHours(1));
+            sleep(Duration.ofSeconds(2));
+            final HashMap<Integer, Integer> copy = new HashMap<>();
+            final ExpiringHashMap<Integer, Integer> expiringCopy = new ExpiringHashMap<>(Duration.ofHours(1), null, ticker);
+
+            //Execution
+            copy.putAll(source);
+            expiringCopy.putAll(source);
+
+            //Assertion
+            assertEquals(1, copy.size());
+            assertNull(copy.get(0));
+            assertEquals(5, copy.get(5));
+            assertEquals(1, expiringCopy.size());
+            assertNull(source.get(0));
+        }
+
+        @Test
+        @DisplayName("Checking negative durations")
+        void exceptionTest() {
+            //Assertion
+            assertThrows(IllegalArgumentException.class, () -> new ExpiringHashMap<>(Duration.ofSeconds(-1)));
+            final ExpiringHashMap<String, Integer> map = new ExpiringHashMap<>(Duration.ofSeconds(1), null, ticker);
+            assertThrows(IllegalArgumentException.class, () -> map.put("key", 1, Duration.ofNanos(-1)));
+        }
+    }
+
+    @Nested
+    @DisplayName("Checking purging with the timer wheel")
+    class TimerWheelTest {
+
+        @Test
+        @DisplayName("Checking that expired pairs are purged without lookups")
+        void purgeTest() {
+            //Prepare
+            final ExpiringHashMap<Integer, Integer> map = new ExpiringHashMap<>(Duration.ofSeconds(10), null, ticker);
+            for (int i = 0; i < 1_000; i++) {
+                map.put(i, i);
+                map.put(-i - 1, i, Duration.ofHours(2));
+            }
+
+            //Execution: the next write turns the wheel
+            sleep(Duration.ofSeconds(11));
+            map.put(5_000, 0);
+
+            //Assertion
+            assertEquals(1_001, map.size());
+
+            //Execution
+            sleep(Duration.ofHours(2));
+            map.cleanUp();
+
+            //Assertion
+            assertEquals(0, map.size());
+        }
+
+        @Test
+        @DisplayName("Checking that cleared and removed pairs leave the wheel")
+        void removeTest() {
+            //Prepare
+            final ExpiringHashMap<Integer, Integer> map = new ExpiringHashMap<>(Duration.ofSeconds(10), null, ticker);
+            for (int i = 0; i < 100; i++) {
+                map.put(i, i);
+            }
+
+            //Execution
+            for (int i = 0; i < 50; i++) {
+                map.remove(i);
+            }
+            map.put(100, 100, Duration.ofMinutes(1));
+            sleep(Duration.ofSeconds(20));
+            map.cleanUp();
+
+            //Assertion
+            assertEquals(1, map.size());
+
+            //Execution
+            map.clear();
+            map.put(1, 1);
+            sleep(Duration.ofMinutes(2));
+            map.cleanUp();
+
+            //Assertion
+            assertTrue(map.isEmpty());
+        }
+
+        @Test
+        @DisplayName("Checking random lifetimes from seconds to weeks")
+        void randomLifetimesTest() {
+            //Prepare
+            final ExpiringHashMap<Integer, Integer> map = new ExpiringHashMap<>(null, null, ticker);
+            final long[] expiresAt = new long[5_000];
+            final Random random = new Random(7);
+            for (int i = 0; i < expiresAt.length; i++) {
+                long timeToLive = (long) Math.exp(random.nextDouble() * Math.log(Duration.ofDays(20).toNanos()));
+                map.put(i, i, Duration.ofNanos(timeToLive));
+                expiresAt[i] = now + timeToLive;
+            }
+
+            //Execution
+            while (!map.isEmpty()) {
+                now += (long) Math.exp(random.nextDouble() * Math.log(Duration.ofHours(6).toNanos()));
+                map.cleanUp();
+
+                //Assertion: live pairs stay, pairs expired before the last second are purged
+                final Set<Integer> keys = new HashSet<>(map.keySet());
+                for (int i = 0; i < expiresAt.length; i++) {
+                    if (expiresAt[i] - now > 0) {
+                        assertTrue(keys.contains(i));
+                    } else if (now - expiresAt[i] > TimerWheel.SPANS[0]) {
+                        assertFalse(keys.contains(i));
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package map.impl;
+
+import map.impl.HashMapTest.CollidingKey;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FrozenHashMapTest {
+
+    @Nested
+    @DisplayName("Checking lookups in a frozen map")
+    class LookupTest {
+
+        @Test
+        @DisplayName("when every key of a large map is found with one probe")
+        void perfectHashTest() {
+            //Prepare
+            final HashMap<Integer, Integer> source = new HashMap<>();
+            for (int i = 0; i < 100_000; i++) {
+                source.put(i * 31, i);
+            }
+
+            //Execution
+            final FrozenHashMap<Integer, Integer> frozen = source.freeze();
+
+            //Assertion
+            assertEquals(100_000, frozen.size());
+            assertEquals(0, frozen.overflowSize());
+            for (int i = 0; i < 100_000; i++) {
+                assertEquals(i, frozen.get(i * 31));
+                assertNull(frozen.get(i * 31 + 1));
+            }
+            assertEquals(frozen, source);
+        }
+
+        @Test
+        @DisplayName("when the last buckets still find free slots quickly")
+        void displacementTest() {
+            //Prepare
+            final HashMap<Integer, Integer> source = new HashMap<>();
+            final Random random = new Random(1);
+            while (source.size() < 100_000) {
+                source.put(random.nextInt(), source.size());
+            }
+
+            //Execution
+            final FrozenHashMap<Integer, Integer> frozen = source.freeze();
+
+            //Assertion
+            assertEquals(0, frozen.overflowSize());
+            assertTrue(frozen.maxDisplacement() < 1 << 15);
+            assertEquals(frozen, source);
+        }
+
+        @Test
+        @DisplayName("when the map holds a null key and null values")
+        void nullTest() {
+            //Prepare
+            final HashMap<String, String> source = new HashMap<>();
+            source.put(null, "null");
+            source.put("a", null);
+            source.put("b", "b");
+
+            //Execution
+            final FrozenHashMap<String, String> frozen = source.freeze();
+
+            //Assertion
+            assertEquals("null", frozen.get(null));
+            assertTrue(frozen.containsKey("a"));
+            assertNull(frozen.get("a"));
+            assertEquals("x", frozen.getOrDefault("c", "x"));
+            assertNull(frozen.getOrDefault("a", "x"));
+            assertTrue(frozen.containsValue(null));
+            assertFalse(frozen.containsKey("c"));
+            assertTrue(frozen.keySet().contains(null));
+        }
+
+        @Test
+        @DisplayName("when the map is empty")
+        void emptyTest() {
+            //Execution
+            final FrozenHashMap<String, String> frozen = FrozenHashMap.copyOf(new HashMap<>());
+
+            //Assertion
+            assertTrue(frozen.isEmpty());
+            assertNull(frozen.get("a"));
+            assertNull(frozen.get(null));
+            assertFalse(frozen.entrySet().iterator().hasNext());
+        }
+
+        @Test
+        @DisplayName("when keys with equal hashes go to the overflow map")
+        void collidingTest() {
+            //Prepare: ten keys per hash
+            final Map<CollidingKey, Integer> source = new java.util.HashMap<>();
+            for (int i = 0; i < 1_000; i++) {
+                source.put(new CollidingKey(i, i % 100), i);
+            }
+
+            //Execution
+            final FrozenHashMap<CollidingKey, Integer> frozen = FrozenHashMap.copyOf(source);
+
+            //Assertion
+            assertEquals(900, frozen.overflowSize());
+            for (int i = 0; i < 1_000; i++) {
+                assertEquals(i, frozen.get(new CollidingKey(i, i % 100)));
+            }
+            assertNull(frozen.get(new CollidingKey(1_000, 0)));
+            final List<Integer> values = new ArrayList<>(frozen.values());
+            assertEquals(1_000, values.size());
+            assertEquals(source.values().stream().mapToInt(Integer::intValue).sum(),
+                    values.stream().mapToInt(Integer::intValue).sum());
+        }
+
+        @Test
+        @DisplayName("when the hashing strategy of the source map is kept")
+        void strategyTest() {
+            //Prepare
+            final HashMap<String, Integer> source = new HashMap<>(HashingStrategies.IDENTITY);
+            final String first = new String("key");
+            final String second = new String("key");
+            source.put(first, 1);
+            source.put(second, 2);
+
+            //Execution
+            final FrozenHashMap<String, Integer> frozen = source.freeze();
+
+            //Assertion
+            assertEquals(0, frozen.overflowSize());
+            assertEquals(1, frozen.get(first));
+            assertEquals(2, frozen.get(second));
+            assertNull(frozen.get("key"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Checking immutability")
+    class ImmutabilityTest {
+
+        @Test
+        @DisplayName("when any mutation throws")
+        void mutationTest() {
+            //Prepare
+            final HashMap<Integer, Integer> source = new HashMap<>();
+            source.put(1, 1);
+            final FrozenHashMap<Integer, Integer> frozen = source.freeze();
+
+            //Execution
+            source.put(2, 2);
+
+            //Assertion
+            assertEquals(1, frozen.size());
+            assertAll(
+                    () -> assertThrows(UnsupportedOperationException.class, () -> frozen.put(3, 3)),
+                    () -> assertThrows(UnsupportedOperationException.class, () -> frozen.remove(5)),
+                    () -> assertThrows(UnsupportedOperationException.class, () -> frozen.putIfAbsent(1, 1)),
+                    () -> assertThrows(UnsupportedOperationException.class, () -> frozen.merge(1, 1, Integer::sum)),
+                    () -> assertThrows(UnsupportedOperationException.class, () -> frozen.replaceAll((k, v) -> v)),
+                    () -> assertThrows(UnsupportedOperationException.class, frozen::clear),
+                    () -> assertThrows(UnsupportedOperationException.class,
+                            () -> frozen.entrySet().iterator().next().setValue(5)),
+                    () -> assertThrows(UnsupportedOperationException.class, () -> {
+                        final Iterator<Integer> iterator = frozen.keySet().iterator();
+                        iterator.next();
+                        iterator.remove();
+                    })
+            );
+        }
+    }
+}
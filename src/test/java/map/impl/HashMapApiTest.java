@@ -0,0 +1,679 @@
+package map.impl;
+
+import map.impl.HashMapTest.CollidingKey;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * HashMap's own API and fail-fast behaviour. Unlike HashMapTest, this class
+ * is not extended by the tests of other Map implementations, so these
+ * HashMap-only tests run once.
+ */
+class HashMapApiTest {
+
+    @Nested
+    @DisplayName("Checking bulk loading")
+    class PutAllTest {
+
+        @Test
+        @DisplayName("from arrays")
+        void putAllArraysTest() {
+            //Prepare
+            final HashMap<String, Integer> map = new HashMap<>();
+            final String[] keys = {"first", "second", "first"};
+            final Integer[] values = {1, 2, 3};
+
+            //Execution
+            map.putAll(keys, values);
+
+            //Assertion
+            assertEquals(2, map.size());
+            assertEquals(3, map.get("first"));
+            assertEquals(2, map.get("second"));
+            assertThrows(IllegalArgumentException.class, () -> map.putAll(keys, new Integer[1]));
+        }
+
+        @Test
+        @DisplayName("through the copy constructor")
+        void copyConstructorTest() {
+            //Prepare
+            final HashMap<Integer, Integer> source = new HashMap<>();
+            for (int i = 0; i < 100; i++) {
+                source.put(i, i * i);
+            }
+
+            //Execution
+            final HashMap<Integer, Integer> copy = new HashMap<>(source);
+            source.put(0, -1);
+
+            //Assertion
+            assertEquals(100, copy.size());
+            assertEquals(0, copy.get(0));
+            assertEquals(81, copy.get(9));
+        }
+    }
+
+    @Nested
+    @DisplayName("Checking compute and merge")
+    class ComputeTest {
+
+        @Test
+        @DisplayName("when the stored value is null")
+        void nullValueTest() {
+            //Prepare
+            final HashMap<String, Integer> map = new HashMap<>();
+            map.put("a", null);
+            map.put("b", null);
+            map.put("c", null);
+            map.put("d", null);
+
+            //Execution and assertion: a null value counts as absent
+            assertNull(map.getOrDefault("a", 7));
+            assertNull(map.putIfAbsent("a", 1));
+            assertEquals(2, map.computeIfAbsent("b", key -> 2));
+            assertEquals(3, map.merge("c", 3, Integer::sum));
+            assertNull(map.computeIfPresent("d", (key, value) -> 4));
+            assertEquals(4, map.size());
+            assertEquals(1, map.get("a"));
+            assertEquals(2, map.get("b"));
+            assertEquals(3, map.get("c"));
+            assertNull(map.get("d"));
+            assertEquals(5, map.merge(null, 5, Integer::sum));
+            assertEquals(10, map.merge(null, 5, Integer::sum));
+        }
+
+        @Test
+        @DisplayName("when the function modifies the map")
+        void concurrentModificationTest() {
+            //Prepare
+            final HashMap<Integer, Integer> map = new HashMap<>();
+            map.put(1, 1);
+
+            //Assertion
+            assertThrows(ConcurrentModificationException.class,
+                    () -> map.computeIfAbsent(2, key -> map.put(3, 3)));
+            assertThrows(ConcurrentModificationException.class,
+                    () -> map.merge(1, 1, (oldValue, value) -> map.remove(1)));
+            assertThrows(ConcurrentModificationException.class,
+                    () -> map.replaceAll((key, value) -> map.put(key + 1, value)));
+        }
+    }
+
+    @Nested
+    @DisplayName("Checking spliterators and parallel streams")
+    class SpliteratorTest {
+
+        @Test
+        @DisplayName("when the spliterator is split down to single buckets")
+        void splitTest() {
+            //Prepare
+            final HashMap<CollidingKey, Integer> map = new HashMap<>(64);
+            for (int i = 0; i < 1_000; i++) {
+                map.put(new CollidingKey(i, i % 100), i);
+            }
+            final Spliterator<Map.Entry<CollidingKey, Integer>> root = map.entrySet().spliterator();
+
+            //Execution
+            final List<Spliterator<Map.Entry<CollidingKey, Integer>>> parts = new ArrayList<>();
+            final java.util.ArrayDeque<Spliterator<Map.Entry<CollidingKey, Integer>>> queue =
+                    new java.util.ArrayDeque<>();
+            assertTrue(root.hasCharacteristics(Spliterator.SIZED | Spliterator.DISTINCT));
+            assertEquals(1_000, root.getExactSizeIfKnown());
+            queue.add(root);
+            while (!queue.isEmpty()) {
+                Spliterator<Map.Entry<CollidingKey, Integer>> part = queue.poll();
+                Spliterator<Map.Entry<CollidingKey, Integer>> prefix = part.trySplit();
+                if (prefix == null) {
+                    parts.add(part);
+                } else {
+                    queue.add(prefix);
+                    queue.add(part);
+                }
+            }
+
+            //Assertion
+            assertFalse(root.hasCharacteristics(Spliterator.SIZED));
+            assertEquals(map.capacity(), parts.size());
+            final Set<Integer> values = new java.util.HashSet<>();
+            for (Spliterator<Map.Entry<CollidingKey, Integer>> part : parts) {
+                assertTrue(part.hasCharacteristics(Spliterator.DISTINCT));
+                if (part.tryAdvance(entry -> values.add(entry.getValue()))) {
+                    part.forEachRemaining(entry -> assertTrue(values.add(entry.getValue())));
+                }
+                assertFalse(part.tryAdvance(entry -> fail("exhausted")));
+            }
+            assertEquals(1_000, values.size());
+        }
+
+        @Test
+        @DisplayName("when the map changes during traversal")
+        void concurrentModificationTest() {
+            //Prepare
+            final HashMap<Integer, Integer> map = new HashMap<>();
+            for (int i = 0; i < 100; i++) {
+                map.put(i, i);
+            }
+            final Spliterator<Integer> keys = map.keySet().spliterator();
+            final Spliterator<Integer> values = map.values().spliterator();
+
+            //Assertion
+            assertThrows(ConcurrentModificationException.class, () -> values.tryAdvance(value -> map.put(-1, 0)));
+            assertThrows(ConcurrentModificationException.class, () -> keys.forEachRemaining(key -> map.remove(key)));
+        }
+    }
+
+    @Nested
+    @DisplayName("Checking parallel bulk operations")
+    class BulkOperationTest {
+
+        private HashMap<Integer, Long> filled(int size) {
+            final HashMap<Integer, Long> map = new HashMap<>();
+            for (int i = 0; i < size; i++) {
+                map.put(i, (long) i);
+            }
+            return map;
+        }
+
+        @Test
+        @DisplayName("when forEach and replaceAll run in parallel")
+        void forEachTest() {
+            //Prepare
+            final HashMap<Integer, Long> map = filled(100_000);
+            final java.util.concurrent.atomic.LongAdder sum = new java.util.concurrent.atomic.LongAdder();
+            final java.util.concurrent.atomic.LongAdder count = new java.util.concurrent.atomic.LongAdder();
+
+            //Execution
+            map.replaceAll(1, (key, value) -> value * 2);
+            map.forEach(1, (key, value) -> {
+                sum.add(value);
+                count.increment();
+            });
+
+            //Assertion
+            assertEquals(100_000, count.sum());
+            assertEquals(99_999L * 100_000, sum.sum());
+            assertEquals(198L, map.get(99));
+        }
+
+        @Test
+        @DisplayName("when the map is below the threshold, the caller thread does the work")
+        void sequentialTest() {
+            //Prepare
+            final HashMap<Integer, Long> map = filled(1_000);
+            final Set<Thread> threads = new java.util.HashSet<>();
+
+            //Execution
+            map.forEach(1_000_000, (key, value) -> threads.add(Thread.currentThread()));
+
+            //Assertion
+            assertEquals(java.util.Collections.singleton(Thread.currentThread()), threads);
+        }
+
+        @Test
+        @DisplayName("when values are reduced")
+        void reduceValuesTest() {
+            //Prepare
+            final HashMap<Integer, Long> map = filled(100_000);
+
+            //Assertion: odd values are skipped by the transformer
+            assertEquals(Long.valueOf(2_499_950_000L), map.<Long>reduceValues(1, value -> value % 2 == 0 ? value : null, Long::sum));
+            assertEquals(Long.valueOf(99_999L), map.<Long>reduceValues(1, value -> value, Math::max));
+            assertNull(map.reduceValues(1, value -> null, Long::sum));
+            assertNull(new HashMap<Integer, Long>().reduceValues(1, value -> value, Long::sum));
+        }
+
+        @Test
+        @DisplayName("when a matching entry is searched")
+        void searchTest() {
+            //Prepare
+            final HashMap<Integer, Long> map = filled(100_000);
+
+            //Assertion
+            assertEquals("found 77777", map.search(1, (key, value) -> value == 77_777 ? "found " + key : null));
+            assertNull(map.search(1, (key, value) -> value < 0 ? key : null));
+            final Integer any = map.search(1, (key, value) -> value % 1_000 == 0 ? key : null);
+            assertEquals(0, any % 1_000);
+        }
+
+        @Test
+        @DisplayName("when the action modifies the map")
+        void concurrentModificationTest() {
+            //Prepare
+            final HashMap<Integer, Long> map = filled(100);
+
+            //Assertion
+            assertThrows(ConcurrentModificationException.class,
+                    () -> map.forEach(Long.MAX_VALUE, (key, value) -> map.remove(key)));
+        }
+    }
+
+    @Nested
+    @DisplayName("Checking the entry cursor")
+    class CursorTest {
+
+        @Test
+        @DisplayName("when a cursor is reused across passes")
+        void resetTest() {
+            //Prepare
+            final HashMap<Integer, Integer> map = new HashMap<>();
+            for (int i = 0; i < 1_000; i++) {
+                map.put(i, i);
+            }
+            final EntryCursor<Integer, Integer> cursor = map.cursor();
+
+            //Execution
+            while (cursor.advance()) {
+                cursor.setValue(cursor.value() + cursor.key());
+            }
+            assertFalse(cursor.advance());
+            cursor.reset();
+            long sum = 0;
+            int count = 0;
+            while (cursor.advance()) {
+                sum += cursor.value();
+                count++;
+            }
+
+            //Assertion
+            assertEquals(1_000, count);
+            assertEquals(999L * 1_000, sum);
+            assertEquals(20, map.get(10));
+        }
+
+        @Test
+        @DisplayName("when entries are removed from lists and tree bins")
+        void removeTest() {
+            //Prepare: ids 0..299 in tree bins of 100 keys, the rest in short lists
+            final HashMap<CollidingKey, Integer> map = new HashMap<>(64);
+            for (int i = 0; i < 600; i++) {
+                map.put(new CollidingKey(i, i < 300 ? i % 3 : i), i);
+            }
+            final EntryCursor<CollidingKey, Integer> cursor = map.cursor();
+
+            //Execution
+            int visited = 0;
+            while (cursor.advance()) {
+                visited++;
+                if (cursor.value() % 2 == 0) {
+                    cursor.remove();
+                    assertThrows(IllegalStateException.class, cursor::remove);
+                    assertThrows(IllegalStateException.class, cursor::key);
+                }
+            }
+
+            //Assertion
+            assertEquals(600, visited);
+            assertEquals(300, map.size());
+            for (int i = 0; i < 600; i++) {
+                assertEquals(i % 2 == 0 ? null : i, map.get(new CollidingKey(i, i < 300 ? i % 3 : i)));
+            }
+            cursor.reset();
+            while (cursor.advance()) {
+                cursor.remove();
+            }
+            assertTrue(map.isEmpty());
+        }
+
+        @Test
+        @DisplayName("when the map is changed outside the cursor")
+        void concurrentModificationTest() {
+            //Prepare
+            final HashMap<Integer, Integer> map = new HashMap<>();
+            map.put(1, 1);
+            map.put(2, 2);
+            final EntryCursor<Integer, Integer> cursor = map.cursor();
+            assertThrows(IllegalStateException.class, cursor::value);
+
+            //Execution
+            assertTrue(cursor.advance());
+            map.put(3, 3);
+
+            //Assertion
+            assertThrows(ConcurrentModificationException.class, cursor::advance);
+            cursor.reset();
+            int count = 0;
+            while (cursor.advance()) {
+                count++;
+            }
+            assertEquals(3, count);
+            assertFalse(new HashMap<Integer, Integer>().cursor().advance());
+        }
+
+        @Test
+        @DisplayName("when containsValue looks for null")
+        void containsNullValueTest() {
+            //Prepare
+            final HashMap<Integer, Integer> map = new HashMap<>();
+            map.put(1, 1);
+
+            //Assertion
+            assertFalse(map.containsValue(null));
+            map.put(2, null);
+            assertTrue(map.containsValue(null));
+            assertTrue(map.containsValue(1));
+        }
+    }
+
+    @Nested
+    @DisplayName("Checking hashing strategies")
+    class HashingStrategyTest {
+
+        @Test
+        @DisplayName("when keys are compared by identity")
+        void identityTest() {
+            //Prepare: equal but distinct keys, partly in one tree bin
+            final HashMap<CollidingKey, Integer> map = new HashMap<>(HashingStrategies.IDENTITY);
+            final List<CollidingKey> keys = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                keys.add(new CollidingKey(i % 2, 7));
+            }
+
+            //Execution
+            for (int i = 0; i < keys.size(); i++) {
+                map.put(keys.get(i), i);
+            }
+
+            //Assertion
+            assertEquals(40, map.size());
+            for (int i = 0; i < keys.size(); i++) {
+                assertEquals(i, map.get(keys.get(i)));
+            }
+            assertNull(map.get(new CollidingKey(0, 7)));
+            assertEquals(0, map.remove(keys.get(0)));
+            assertEquals(39, map.size());
+            map.put(null, -1);
+            assertEquals(-1, map.get(null));
+        }
+
+        @Test
+        @DisplayName("when hash codes differ only in high bits")
+        void murmur3Test() {
+            //Prepare: Long.hashCode() of i << 36 is i << 4
+            final HashMap<Long, Integer> plain = new HashMap<>();
+            final HashMap<Long, Integer> mixed = new HashMap<>(HashingStrategies.MURMUR3);
+
+            //Execution
+            for (int i = 0; i < 1_000; i++) {
+                plain.put((long) i << 36, i);
+                mixed.put((long) i << 36, i);
+            }
+
+            //Assertion: the murmur3 finalizer uses all buckets
+            assertEquals(plain, mixed);
+            assertEquals(mixed.capacity(), plain.capacity());
+            final double plainEmpty = (double) plain.bucketLengths()[0] / plain.capacity();
+            final double mixedEmpty = (double) mixed.bucketLengths()[0] / mixed.capacity();
+            assertTrue(plainEmpty > 0.9, "plain " + plainEmpty);
+            assertTrue(mixedEmpty < 0.7, "mixed " + mixedEmpty);
+        }
+
+        @Test
+        @DisplayName("when strings have colliding hash codes")
+        void seededTest() {
+            //Prepare: "Aa" and "BB" have equal hash codes, so do all their concatenations
+            final List<String> keys = new ArrayList<>();
+            for (int i = 0; i < 256; i++) {
+                final StringBuilder key = new StringBuilder();
+                for (int bit = 0; bit < 8; bit++) {
+                    key.append((i & (1 << bit)) == 0 ? "Aa" : "BB");
+                }
+                keys.add(key.toString());
+            }
+            final HashMap<String, Integer> plain = new HashMap<>();
+            final HashMap<String, Integer> seeded = new HashMap<>(HashingStrategies.seeded());
+
+            //Execution
+            for (int i = 0; i < keys.size(); i++) {
+                plain.put(keys.get(i), i);
+                seeded.put(keys.get(i), i);
+            }
+
+            //Assertion
+            assertEquals(plain, seeded);
+            assertEquals(257, plain.bucketLengths().length);
+            assertTrue(seeded.bucketLengths().length <= HashMap.TREEIFY_THRESHOLD);
+            assertNotEquals(HashingStrategies.seeded(1).hashCode("Aa"), HashingStrategies.seeded(2).hashCode("Aa"));
+            assertEquals(HashingStrategies.seeded(1).hashCode("Aa"), HashingStrategies.seeded(1).hashCode("Aa"));
+        }
+
+        @Test
+        @DisplayName("when a custom strategy is used in tree bins")
+        void customStrategyTest() {
+            //Prepare: case-insensitive keys with a constant hash
+            final HashingStrategy<String> ignoreCase = new HashingStrategy<String>() {
+                @Override
+                public int hashCode(String key) {
+                    return 1;
+                }
+
+                @Override
+                public boolean equals(String first, String second) {
+                    return first.equalsIgnoreCase(second);
+                }
+            };
+            final HashMap<String, Integer> map = new HashMap<>(ignoreCase);
+
+            //Execution
+            for (int i = 0; i < 100; i++) {
+                map.put("key" + (char) ('a' + i % 26) + i, i);
+            }
+            map.put("KEYA0", -1);
+
+            //Assertion
+            assertEquals(100, map.size());
+            assertEquals(-1, map.get("keya0"));
+            for (int i = 1; i < 100; i++) {
+                assertEquals(i, map.get(("key" + (char) ('a' + i % 26) + i).toUpperCase()));
+            }
+            assertEquals(5, map.remove("KeYf5"));
+            assertFalse(map.containsKey("keyf5"));
+        }
+
+        @Test
+        @DisplayName("when maps with different strategies are merged")
+        void putAllTest() {
+            //Prepare
+            final HashMap<String, Integer> plain = new HashMap<>();
+            plain.put("one", 1);
+            plain.put(new String("two"), 2);
+            final HashMap<String, Integer> identity = new HashMap<>(HashingStrategies.IDENTITY);
+            final HashMap<String, Integer> copy = new HashMap<>(HashingStrategies.DEFAULT);
+
+            //Execution
+            identity.putAll(plain);
+            copy.putAll(plain);
+
+            //Assertion
+            assertEquals(1, identity.get("one"));
+            assertNull(identity.get("two"));
+            assertEquals(2, copy.get("two"));
+            assertThrows(NullPointerException.class, () -> new HashMap<String, Integer>((HashingStrategy<String>) null));
+        }
+    }
+
+    @Nested
+    @DisplayName("Checking shrinking and trimming of the bucket array")
+    class ShrinkTest {
+
+        @Test
+        @DisplayName("when remove leaves the map sparse")
+        void autoShrinkTest() {
+            //Prepare
+            final HashMap<Integer, Integer> map = new HashMap<>();
+            map.setMinLoadFactor(0.1);
+            for (int i = 0; i < 10_000; i++) {
+                map.put(i, i);
+            }
+            assertEquals(16_384, map.capacity());
+
+            //Execution
+            for (int i = 100; i < 10_000; i++) {
+                map.remove(i);
+            }
+
+            //Assertion: 100 pairs fill the new array at most to loadFactor / 2
+            assertEquals(512, map.capacity());
+            assertEquals(100, map.size());
+            for (int i = 0; i < 100; i++) {
+                assertEquals(i, map.get(i));
+            }
+        }
+
+        @Test
+        @DisplayName("when the size oscillates around a resize")
+        void hysteresisTest() {
+            //Prepare: 48 pairs in 64 buckets are at the threshold
+            final HashMap<Integer, Integer> map = new HashMap<>(64);
+            map.setMinLoadFactor(0.75 / 4);
+            for (int i = 0; i < 48; i++) {
+                map.put(i, i);
+            }
+
+            //Execution: each pass grows to 128 buckets, then removes down to the low-water mark
+            for (int pass = 0; pass < 10; pass++) {
+                map.put(48, 48);
+                assertEquals(128, map.capacity());
+                for (int i = 48; i >= 24; i--) {
+                    map.remove(i);
+                }
+                assertEquals(128, map.capacity());
+                for (int i = 24; i < 48; i++) {
+                    map.put(i, i);
+                }
+            }
+
+            //Assertion
+            assertEquals(48, map.size());
+            assertThrows(IllegalArgumentException.class, () -> map.setMinLoadFactor(0.2));
+            assertThrows(IllegalArgumentException.class, () -> map.setMinLoadFactor(-0.1));
+        }
+
+        @Test
+        @DisplayName("when colliding keys are packed into fewer buckets")
+        void treeBinTest() {
+            //Prepare: hashes i << 7 are spread over 64 buckets of 8192 and share low bits
+            final HashMap<Object, Integer> map = new HashMap<>();
+            map.setMinLoadFactor(0.1);
+            for (int i = 0; i < 64; i++) {
+                map.put(new CollidingKey(i, i << 7), i);
+            }
+            for (int i = 0; i < 6_000; i++) {
+                map.put(i, i);
+            }
+            assertEquals(8_192, map.capacity());
+
+            //Execution
+            for (int i = 0; i < 6_000; i++) {
+                assertNull(map.compute(i, (key, value) -> null));
+            }
+
+            //Assertion: in 512 buckets the keys form four tree bins of 16
+            assertEquals(512, map.capacity());
+            assertEquals(16, map.bucketLengths().length - 1);
+            for (int i = 0; i < 64; i++) {
+                final CollidingKey key = new CollidingKey(i, i << 7);
+                assertEquals(i, map.get(key));
+                assertTrue(map.probeLength(map.hash(key), key) <= 8);
+            }
+        }
+
+        @Test
+        @DisplayName("when the map is trimmed explicitly")
+        void trimToSizeTest() {
+            //Prepare
+            final HashMap<Integer, Integer> map = new HashMap<>(1_024);
+            for (int i = 0; i < 1_000; i++) {
+                map.put(i, i);
+            }
+            for (int i = 10; i < 1_000; i++) {
+                map.remove(i);
+            }
+            assertEquals(2_048, map.capacity());
+
+            //Execution
+            map.trimToSize();
+
+            //Assertion
+            assertEquals(16, map.capacity());
+            assertEquals(10, map.size());
+            int count = 0;
+            for (Integer key : map.keySet()) {
+                assertEquals(key, map.get(key));
+                count++;
+            }
+            assertEquals(10, count);
+
+            //Execution
+            map.clear();
+            map.trimToSize();
+
+            //Assertion
+            assertEquals(16, map.capacity());
+            assertTrue(map.isEmpty());
+            map.put(1, 1);
+            assertEquals(1, map.get(1));
+        }
+
+        @Test
+        @DisplayName("when capacity is reserved with ensureCapacity")
+        void ensureCapacityTest() {
+            //Prepare
+            final HashMap<Integer, Integer> map = new HashMap<>();
+            map.setMinLoadFactor(0.1);
+            map.put(-1, -1);
+
+            //Execution
+            map.ensureCapacity(1_000);
+            for (int i = 0; i < 1_000; i++) {
+                map.put(i, i);
+            }
+            for (int i = 0; i < 1_000; i++) {
+                map.remove(i);
+            }
+
+            //Assertion: the reserved capacity is kept until trimToSize
+            assertEquals(2_048, map.capacity());
+            assertEquals(-1, map.get(-1));
+            assertThrows(IllegalArgumentException.class, () -> map.ensureCapacity(-1));
+            map.trimToSize();
+            assertEquals(2, map.capacity());
+        }
+
+        @Test
+        @DisplayName("when pairs are removed through an iterator")
+        void iteratorRemoveTest() {
+            //Prepare
+            final HashMap<Integer, Integer> map = new HashMap<>();
+            map.setMinLoadFactor(0.1);
+            for (int i = 0; i < 1_000; i++) {
+                map.put(i, i);
+            }
+
+            //Execution
+            final Iterator<Integer> iterator = map.keySet().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next() > 0) {
+                    iterator.remove();
+                }
+            }
+
+            //Assertion: the iterator keeps the array, the next remove shrinks it
+            assertEquals(2_048, map.capacity());
+            map.put(5, 5);
+            map.remove(5);
+            assertEquals(16, map.capacity());
+            assertEquals(0, map.get(0));
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package map.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashMapSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    private static <K, V> byte[] write(HashMap<K, V> map, Serializer<K> keys, Serializer<V> values)
+            throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        HashMapSnapshot.write(map, Channels.newChannel(out), keys, values);
+        return out.toByteArray();
+    }
+
+    /**
+     * A channel returning at most 7 bytes per read, so that every record
+     * crosses a read boundary.
+     */
+    private static ReadableByteChannel trickle(byte[] bytes) {
+        return Channels.newChannel(new ByteArrayInputStream(bytes) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 7));
+            }
+        });
+    }
+
+    @Nested
+    @DisplayName("Checking round trips")
+    class RoundTripTest {
+
+        @Test
+        @DisplayName("when the map has null keys and values")
+        void nullsTest() throws IOException {
+            //Prepare
+            final HashMap<String, Long> map = new HashMap<>(64, 0.5);
+            for (long i = 0; i < 10_000; i++) {
+                map.put("key " + i, i % 10 == 0 ? null : i);
+            }
+            map.put(null, 42L);
+
+            //Execution
+            final HashMap<String, Long> copy = HashMapSnapshot.read(
+                    trickle(write(map, Serializers.STRING, Serializers.LONG)), Serializers.STRING, Serializers.LONG);
+
+            //Assertion
+            assertEquals(map, copy);
+            assertEquals(map.capacity(), copy.capacity());
+            assertEquals(0.5, copy.loadFactor());
+            assertEquals(42L, copy.get(null));
+            assertTrue(copy.containsKey("key 10"));
+        }
+
+        @Test
+        @DisplayName("when buckets are trees of colliding keys")
+        void collisionsTest() throws IOException {
+            //Prepare: "Aa" and "BB" have equal hash codes, so do all their concatenations
+            final HashMap<String, Integer> map = new HashMap<>();
+            for (int i = 0; i < 1 << 10; i++) {
+                final StringBuilder key = new StringBuilder();
+                for (int bit = 0; bit < 10; bit++) {
+                    key.append((i >> bit & 1) == 0 ? "Aa" : "BB");
+                }
+                map.put(key.toString(), i);
+            }
+
+            //Execution
+            final HashMap<String, Integer> copy = HashMapSnapshot.read(
+                    trickle(write(map, Serializers.STRING, Serializers.INTEGER)), Serializers.STRING,
+                    Serializers.INTEGER);
+
+            //Assertion
+            assertEquals(map, copy);
+        }
+
+        @Test
+        @DisplayName("when records are larger than the buffer")
+        void largeRecordsTest() throws IOException {
+            //Prepare
+            final HashMap<Integer, byte[]> map = new HashMap<>();
+            final Random random = new Random(7);
+            for (int i = 0; i < 20; i++) {
+                byte[] value = new byte[i % 3 == 0 ? HashMapSnapshot.BUFFER_SIZE * 2 + i : i];
+                random.nextBytes(value);
+                map.put(i, value);
+            }
+
+            //Execution
+            final HashMap<Integer, byte[]> copy = HashMapSnapshot.read(
+                    trickle(write(map, Serializers.INTEGER, Serializers.BYTE_ARRAY)), Serializers.INTEGER,
+                    Serializers.BYTE_ARRAY);
+
+            //Assertion
+            assertEquals(map.size(), copy.size());
+            for (int i = 0; i < 20; i++) {
+                assertArrayEquals(map.get(i), copy.get(i));
+            }
+        }
+
+        @Test
+        @DisplayName("when the snapshot is saved to a file")
+        void fileTest() throws IOException {
+            //Prepare
+            final HashMap<Long, String> map = new HashMap<>(16, 0.75, HashMap.ResizeMode.INCREMENTAL);
+            for (long i = 0; i < 50_000; i++) {
+                map.put(i, Long.toHexString(i));
+            }
+            final Path file = directory.resolve("map.snapshot");
+
+            //Execution
+            HashMapSnapshot.write(map, file, Serializers.LONG, Serializers.STRING);
+            HashMapSnapshot.write(new HashMap<>(), file, Serializers.LONG, Serializers.STRING);
+            HashMapSnapshot.write(map, file, Serializers.LONG, Serializers.STRING);
+
+            //Assertion
+            assertEquals(map, HashMapSnapshot.read(file, Serializers.LONG, Serializers.STRING));
+        }
+    }
+
+    @Nested
+    @DisplayName("Checking damaged snapshots")
+    class DamagedSnapshotTest {
+
+        @Test
+        @DisplayName("when the stream is not a snapshot")
+        void foreignStreamTest() {
+            //Prepare
+            final byte[] bytes = new byte[HashMapSnapshot.HEADER_SIZE];
+
+            //Assertion
+            assertThrows(IOException.class, () -> HashMapSnapshot.read(trickle(bytes),
+                    Serializers.INTEGER, Serializers.INTEGER));
+        }
+
+        @Test
+        @DisplayName("when the snapshot is truncated")
+        void truncatedTest() throws IOException {
+            //Prepare
+            final HashMap<Integer, String> map = new HashMap<>();
+            for (int i = 0; i < 100; i++) {
+                map.put(i, "value " + i);
+            }
+            final byte[] bytes = write(map, Serializers.INTEGER, Serializers.STRING);
+
+            //Assertion
+            for (int length : new int[]{0, 10, HashMapSnapshot.HEADER_SIZE, bytes.length / 2, bytes.length - 1}) {
+                final InputStream in = new ByteArrayInputStream(Arrays.copyOf(bytes, length));
+                assertThrows(EOFException.class, () -> HashMapSnapshot.read(Channels.newChannel(in),
+                        Serializers.INTEGER, Serializers.STRING));
+            }
+        }
+    }
+}
@@ -4,8 +4,12 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -15,13 +19,29 @@ class HashMapTest {
     private static final Object OBJECT_KEY = new Object();
     private static final Object OBJECT_VALUE = new Object();
 
+    /**
+     * Creates the map under test. Tests of other Map implementations
+     * extend this class and override the factory methods.
+     */
+    <K, V> Map<K, V> createMap() {
+        return new HashMap<>();
+    }
+
+    <K, V> Map<K, V> createMap(int capacity) {
+        return new HashMap<>(capacity);
+    }
+
+    <K, V> Map<K, V> createMap(int capacity, double loadFactor) {
+        return new HashMap<>(capacity, loadFactor);
+    }
+
     @Test
     @DisplayName("Check the size functionality")
     void SizeTest() {
 
 
         //Prepare new map
-        final Map<String, String> hashMap = new HashMap<>();
+        final Map<String, String> hashMap = createMap();
         hashMap.put("first", "1");
         hashMap.put("second", "2");
 
@@ -39,7 +59,7 @@ class HashMapTest {
         @DisplayName("for String Key")
         void updateTestForStringKey() {
             //Prepare map
-            final Map<String, String> map = new HashMap<>();
+            final Map<String, String> map = createMap();
             map.put("forUpdate", "beforeUpdateValue");
 
             //Assertion
@@ -54,7 +74,7 @@ class HashMapTest {
 
             //Prepare
             final Object newObjectValue = new Object();
-            final Map<Object, Object> map = new HashMap<>();
+            final Map<Object, Object> map = createMap();
             map.put(OBJECT_KEY, OBJECT_VALUE);
 
 
@@ -73,7 +93,7 @@ class HashMapTest {
         @DisplayName("for String Keys")
         void getTestForStringKey() {
             //Prepare
-            final Map<String, Integer> map = new HashMap<>();
+            final Map<String, Integer> map = createMap();
             map.put("first", 1);
             map.put("second", 2);
 
@@ -88,7 +108,7 @@ class HashMapTest {
         @DisplayName("for Object Key and Value")
         void getTestForObjectKeyAndValue() {
             //Prepare
-            final Map<Object, Object> map = new HashMap<>();
+            final Map<Object, Object> map = createMap();
             map.put(OBJECT_KEY, OBJECT_VALUE);
 
             //Assertion
@@ -99,7 +119,7 @@ class HashMapTest {
         @DisplayName("for Non-HashMap element")
         void getTestForNonHashMapElement() {
             //Prepare
-            final Map<Object, Object> map = new HashMap<>();
+            final Map<Object, Object> map = createMap();
             map.put(OBJECT_KEY, OBJECT_VALUE);
 
             //Assertion
@@ -116,7 +136,7 @@ class HashMapTest {
         @DisplayName("for String Key")
         void containsTestForStringKey() {
             //Prepare
-            final Map<String, Integer> map = new HashMap<>();
+            final Map<String, Integer> map = createMap();
             map.put("first", 1);
 
             //Assertion
@@ -127,7 +147,7 @@ class HashMapTest {
         @DisplayName("for Object Key")
         void containsTestForObjectKey() {
             //Prepare
-            final Map<Object, Object> map = new HashMap<>();
+            final Map<Object, Object> map = createMap();
             map.put(OBJECT_KEY, OBJECT_VALUE);
 
             //Assertion
@@ -138,7 +158,7 @@ class HashMapTest {
         @DisplayName("for Non-HashMap element")
         void containsTestForNonHashMapElement() {
             //Prepare
-            final Map<Object, Object> map = new HashMap<>();
+            final Map<Object, Object> map = createMap();
             map.put(OBJECT_KEY, OBJECT_VALUE);
 
             //Assertion
@@ -154,7 +174,7 @@ class HashMapTest {
         @DisplayName("for entry with String Key")
         void removeTestForEntryWithStringKey() {
             //Prepare
-            final Map<String, String> map = new HashMap<>();
+            final Map<String, String> map = createMap();
             map.put("removeKey", "removeValue");
 
             //Assertion
@@ -167,7 +187,7 @@ class HashMapTest {
         @DisplayName("for entry with Object Key")
         void removeTestForEntryWithObjectKey() {
             //Prepare
-            final Map<Object, Object> map = new HashMap<>();
+            final Map<Object, Object> map = createMap();
             map.put(OBJECT_KEY, OBJECT_VALUE);
 
             //Assertion
@@ -180,7 +200,7 @@ class HashMapTest {
         @DisplayName("for Non-HashMap element")
         void removeNonHashMapElementTest() {
             //Prepare
-            final Map<Object, Object> map = new HashMap<>();
+            final Map<Object, Object> map = createMap();
             map.put(OBJECT_KEY, OBJECT_VALUE);
 
             //Assertion
@@ -192,7 +212,7 @@ class HashMapTest {
     @DisplayName("Checking functionality of an empty Map")
     void anEmptyHashMapTest() {
         //Prepare empty HashMap
-        final Map<Object, Object> emptyMap = new HashMap<>();
+        final Map<Object, Object> emptyMap = createMap();
 
         //Assertion
         assertAll(
@@ -210,9 +230,9 @@ class HashMapTest {
         final Object firstValue = new Object();
         final Object secondValue = new Object();
 
-        final Map<Object, Object> leftMap = new HashMap<>();
-        final Map<Object, Object> rightMap = new HashMap<>();
-        final HashMap<Object, Object> map = new HashMap<>();
+        final Map<Object, Object> leftMap = createMap();
+        final Map<Object, Object> rightMap = createMap();
+        final Map<Object, Object> map = createMap();
 
         leftMap.put(firstKey, firstValue);
         leftMap.put(secondKey, secondValue);
@@ -230,7 +250,7 @@ class HashMapTest {
     @DisplayName("Check the ability to add null key and null value")
     void nullKeyAndNullValueTest() {
         //Prepare data
-        final Map<Object, Object> map = new HashMap<>();
+        final Map<Object, Object> map = createMap();
         final Object key = null;
         final Object value = null;
         map.put(key, value);
@@ -246,15 +266,15 @@ class HashMapTest {
         @Test
         @DisplayName("when we pass invalid capacity into constructor")
         void invalidCapacityTest() {
-            assertThrows(IllegalArgumentException.class, () -> new HashMap<>(-1));
+            assertThrows(IllegalArgumentException.class, () -> createMap(-1));
         }
 
         @Test
         @DisplayName("when we pass invalid load factor into constructor")
         void invalidLoadFactoryTest() {
             assertAll(
-                    () -> assertThrows(IllegalArgumentException.class, () -> new HashMap<>(16, 1.1)),
-                    () -> assertThrows(IllegalArgumentException.class, () -> new HashMap<>(16, -0.1))
+                    () -> assertThrows(IllegalArgumentException.class, () -> createMap(16, 1.1)),
+                    () -> assertThrows(IllegalArgumentException.class, () -> createMap(16, -0.1))
             );
 
         }
@@ -268,7 +288,7 @@ class HashMapTest {
         @DisplayName("Getting entrySet from Map")
         void getEntrySetTest() {
             //Prepare
-            final Map<String, Integer> map = new HashMap<>();
+            final Map<String, Integer> map = createMap();
             map.put("first", 1);
             map.put("second", 2);
             final Set<Map.Entry<String, Integer>> entries = map.entrySet();
@@ -283,7 +303,7 @@ class HashMapTest {
         @DisplayName("Removing entries from EntrySet")
         void removeEntryFromEntrySet() {
             //Prepare
-            final Map<String, Integer> map = new HashMap<>();
+            final Map<String, Integer> map = createMap();
             map.put("first", 1);
             map.put("second", 2);
 
@@ -301,7 +321,7 @@ class HashMapTest {
         @DisplayName("Getting entrySet from empty Map")
         void getEntryFromEmptyMap() {
             //Prepare
-            final Map<String, Integer> map = new HashMap<>();
+            final Map<String, Integer> map = createMap();
 
             //Execution
             final Set<Map.Entry<String, Integer>> entries = map.entrySet();
@@ -314,7 +334,7 @@ class HashMapTest {
         @DisplayName("Checking entrySet size when we delete the entry from the map")
         void getEntrySetSizeWhenDeleteEntryFromMap() {
             //Prepare
-            final Map<String, Integer> map = new HashMap<>();
+            final Map<String, Integer> map = createMap();
             map.put("first", 1);
             map.put("second", 2);
 
@@ -340,7 +360,7 @@ class HashMapTest {
         @DisplayName("Getting keySet from Map")
         void getKeySetTest() {
             //Prepare
-            final Map<String, Integer> map = new HashMap<>();
+            final Map<String, Integer> map = createMap();
             map.put("first", 1);
             map.put("second", 2);
 
@@ -359,7 +379,7 @@ class HashMapTest {
         @DisplayName("Removing keys from EntrySet")
         void removeKeysFromKeySet() {
             //Prepare
-            final Map<String, Integer> map = new HashMap<>();
+            final Map<String, Integer> map = createMap();
             map.put("first", 1);
             map.put("second", 2);
 
@@ -379,7 +399,7 @@ class HashMapTest {
         @DisplayName("Getting keySet from empty Map")
         void getKeySetFromEmptyMap() {
             //Prepare
-            final Map<String, Integer> map = new HashMap<>();
+            final Map<String, Integer> map = createMap();
 
             //Execution
             final Set<String> keys = map.keySet();
@@ -392,7 +412,7 @@ class HashMapTest {
         @DisplayName("Checking keySet size when we delete the entry from the map")
         void getKeySetSizeWhenDeleteEntryFromMap() {
             //Prepare
-            final Map<String, Integer> map = new HashMap<>();
+            final Map<String, Integer> map = createMap();
             map.put("first", 1);
             map.put("second", 2);
 
@@ -417,7 +437,7 @@ class HashMapTest {
         @Test
         @DisplayName("Getting Collection of values")
         void getValuesTest() {
-            Map<String, Integer> map = new HashMap<>();
+            Map<String, Integer> map = createMap();
             map.put("first", 1);
             map.put("second", 2);
             map.put("third", 3);
@@ -434,7 +454,7 @@ class HashMapTest {
     @DisplayName("Checking clearing map")
     void clearMapTest() {
         //Prepare
-        Map<String, Integer> map = new HashMap<>();
+        Map<String, Integer> map = createMap();
         map.put("first", 1);
         map.put("second", 2);
         map.put("third", 3);
@@ -452,7 +472,7 @@ class HashMapTest {
     @DisplayName("Checking containsValue functionality")
     void containsValueTest() {
         //Prepare
-        Map<String, Integer> map = new HashMap<>();
+        Map<String, Integer> map = createMap();
         map.put("first", 1);
         map.put("second", 2);
         map.put("third", 3);
@@ -475,7 +495,7 @@ class HashMapTest {
         map.put("third", 3);
         map.put("fourth", 4);
 
-        final HashMap<String, Integer> newMap = new HashMap<>();
+        final Map<String, Integer> newMap = createMap();
         assertTrue(newMap.isEmpty());
         newMap.putAll(map);
         assertEquals(4, map.size());
@@ -483,4 +503,376 @@ class HashMapTest {
         assertEquals(map, newMap);
     }
 
+    @Nested
+    @DisplayName("Checking buckets with colliding hashes")
+    class CollisionTest {
+
+        @Test
+        @DisplayName("for keys without Comparable")
+        void collisionTestForNonComparableKeys() {
+            //Prepare
+            final Map<CollidingKey, Integer> map = createMap();
+            for (int i = 0; i < 100; i++) {
+                map.put(new CollidingKey(i, 0), i);
+            }
+
+            //Assertion
+            assertEquals(100, map.size());
+            for (int i = 0; i < 100; i++) {
+                assertEquals(i, map.get(new CollidingKey(i, 0)));
+            }
+            assertFalse(map.containsKey(new CollidingKey(100, 0)));
+        }
+
+        @Test
+        @DisplayName("for Comparable keys with updates and removes")
+        void collisionTestForComparableKeys() {
+            //Prepare
+            final Map<ComparableCollidingKey, Integer> map = createMap();
+            for (int i = 0; i < 1000; i++) {
+                map.put(new ComparableCollidingKey(i, 0), i);
+            }
+
+            //Execution
+            for (int i = 0; i < 1000; i += 2) {
+                assertEquals(i, map.remove(new ComparableCollidingKey(i, 0)));
+            }
+            map.put(new ComparableCollidingKey(1, 0), -1);
+
+            //Assertion
+            assertEquals(500, map.size());
+            assertEquals(-1, map.get(new ComparableCollidingKey(1, 0)));
+            for (int i = 3; i < 1000; i += 2) {
+                assertEquals(i, map.get(new ComparableCollidingKey(i, 0)));
+                assertNull(map.get(new ComparableCollidingKey(i - 1, 0)));
+            }
+        }
+
+        @Test
+        @DisplayName("when the bucket shrinks back to a list")
+        void collisionTestForShrinkingBucket() {
+            //Prepare
+            final Map<CollidingKey, Integer> map = createMap(64);
+            for (int i = 0; i < 20; i++) {
+                map.put(new CollidingKey(i, 0), i);
+            }
+
+            //Execution and assertion
+            for (int i = 0; i < 20; i++) {
+                assertEquals(i, map.remove(new CollidingKey(i, 0)));
+                for (int j = i + 1; j < 20; j++) {
+                    assertEquals(j, map.get(new CollidingKey(j, 0)));
+                }
+            }
+            assertTrue(map.isEmpty());
+        }
+
+        @Test
+        @DisplayName("when resize splits the bucket")
+        void collisionTestForResize() {
+            //Prepare: at first all keys share bucket 0, after resizes they split into two buckets
+            final Map<CollidingKey, Integer> map = createMap();
+            for (int i = 0; i < 2000; i++) {
+                map.put(new CollidingKey(i, (i % 2) << 10), i);
+            }
+
+            //Assertion
+            assertEquals(2000, map.size());
+            for (int i = 0; i < 2000; i++) {
+                assertEquals(i, map.get(new CollidingKey(i, (i % 2) << 10)));
+            }
+        }
+
+        @Test
+        @DisplayName("for iteration and removing through iterator")
+        void collisionTestForIteration() {
+            //Prepare
+            final Map<CollidingKey, Integer> map = createMap();
+            for (int i = 0; i < 100; i++) {
+                map.put(new CollidingKey(i, i % 3), i);
+            }
+
+            //Execution
+            int visited = 0;
+            final Iterator<Map.Entry<CollidingKey, Integer>> iterator = map.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<CollidingKey, Integer> entry = iterator.next();
+                visited++;
+                if (entry.getValue() % 2 == 0) {
+                    iterator.remove();
+                }
+            }
+
+            //Assertion
+            assertEquals(100, visited);
+            assertEquals(50, map.size());
+            for (int i = 0; i < 100; i++) {
+                assertEquals(i % 2 != 0, map.containsKey(new CollidingKey(i, i % 3)));
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Checking bulk loading")
+    class PutAllTest {
+
+        @Test
+        @DisplayName("from HashMap into an empty map")
+        void putAllFromHashMapTest() {
+            //Prepare
+            final HashMap<Integer, String> source = new HashMap<>();
+            for (int i = 0; i < 1_000; i++) {
+                source.put(i, "v" + i);
+            }
+            final Map<Integer, String> map = createMap();
+
+            //Execution
+            map.putAll(source);
+
+            //Assertion
+            assertEquals(1_000, map.size());
+            for (int i = 0; i < 1_000; i++) {
+                assertEquals("v" + i, map.get(i));
+            }
+            map.put(1_000, "v1000");
+            assertEquals(1_001, map.size());
+        }
+
+        @Test
+        @DisplayName("into a map with overlapping keys")
+        void putAllOverlappingTest() {
+            //Prepare
+            final Map<Integer, String> map = createMap();
+            final HashMap<Integer, String> source = new HashMap<>();
+            for (int i = 0; i < 100; i++) {
+                map.put(i, "old");
+                source.put(i + 50, "new");
+            }
+
+            //Execution
+            map.putAll(source);
+
+            //Assertion
+            assertEquals(150, map.size());
+            assertEquals("old", map.get(49));
+            assertEquals("new", map.get(50));
+            assertEquals("new", map.get(149));
+        }
+
+        @Test
+        @DisplayName("from HashMap with tree bins")
+        void putAllTreeBinsTest() {
+            //Prepare
+            final HashMap<CollidingKey, Integer> source = new HashMap<>(64);
+            for (int i = 0; i < 30; i++) {
+                source.put(new CollidingKey(i, 7), i);
+            }
+            final Map<CollidingKey, Integer> map = createMap();
+
+            //Execution
+            map.putAll(source);
+
+            //Assertion
+            assertEquals(30, map.size());
+            for (int i = 0; i < 30; i++) {
+                assertEquals(i, map.remove(new CollidingKey(i, 7)));
+            }
+            assertTrue(map.isEmpty());
+        }
+
+        @Test
+        @DisplayName("from another Map implementation")
+        void putAllFromJdkMapTest() {
+            //Prepare
+            final Map<String, Integer> source = new java.util.HashMap<>();
+            source.put("first", 1);
+            source.put("second", 2);
+            final Map<String, Integer> map = createMap();
+
+            //Execution
+            map.putAll(source);
+
+            //Assertion
+            assertEquals(2, map.size());
+            assertEquals(1, map.get("first"));
+            assertEquals(2, map.get("second"));
+        }
+
+        @Test
+        @DisplayName("after clear")
+        void refillAfterClearTest() {
+            //Prepare
+            final Map<Integer, Integer> map = createMap();
+            map.put(1, 1);
+            map.clear();
+
+            //Execution
+            for (int i = 0; i < 10_000; i++) {
+                map.put(i, i);
+            }
+
+            //Assertion
+            assertEquals(10_000, map.size());
+            assertEquals(9_999, map.get(9_999));
+        }
+    }
+
+    @Nested
+    @DisplayName("Checking compute and merge")
+    class ComputeTest {
+
+        @Test
+        @DisplayName("when merge counts keys, including colliding ones")
+        void mergeCountTest() {
+            //Prepare
+            final Map<CollidingKey, Integer> map = createMap();
+            final Map<CollidingKey, Integer> expected = new java.util.HashMap<>();
+            final Random random = new Random(11);
+
+            //Execution
+            for (int i = 0; i < 20_000; i++) {
+                CollidingKey key = new CollidingKey(random.nextInt(500), random.nextInt(4));
+                map.merge(key, 1, Integer::sum);
+                expected.merge(key, 1, Integer::sum);
+            }
+
+            //Assertion
+            assertEquals(expected, map);
+        }
+
+        @Test
+        @DisplayName("when merge or compute return null, the key is removed")
+        void removingRemapTest() {
+            //Prepare
+            final Map<String, Integer> map = createMap();
+            map.put("first", 1);
+            map.put("second", 2);
+            map.put("third", 3);
+
+            //Execution
+            assertNull(map.merge("first", 1, (oldValue, value) -> null));
+            assertNull(map.compute("second", (key, value) -> null));
+            assertNull(map.computeIfPresent("third", (key, value) -> null));
+            assertNull(map.compute("fourth", (key, value) -> null));
+
+            //Assertion
+            assertTrue(map.isEmpty());
+        }
+
+        @Test
+        @DisplayName("when computeIfAbsent, compute and computeIfPresent update values")
+        void computeTest() {
+            //Prepare
+            final Map<Integer, String> map = createMap();
+            final List<Integer> calls = new ArrayList<>();
+
+            //Execution
+            for (int i = 0; i < 1_000; i++) {
+                map.computeIfAbsent(i % 100, key -> {
+                    calls.add(key);
+                    return "v" + key;
+                });
+            }
+            assertEquals("v5!", map.compute(5, (key, value) -> value + "!"));
+            assertEquals("new", map.compute(100, (key, value) -> value == null ? "new" : "old"));
+            assertEquals("v6?", map.computeIfPresent(6, (key, value) -> value + "?"));
+            assertNull(map.computeIfPresent(200, (key, value) -> "never"));
+            assertNull(map.computeIfAbsent(300, key -> null));
+
+            //Assertion
+            assertEquals(100, calls.size());
+            assertEquals(101, map.size());
+            assertEquals("v5!", map.get(5));
+            assertEquals("v6?", map.get(6));
+            assertEquals("v99", map.get(99));
+            assertFalse(map.containsKey(200));
+            assertFalse(map.containsKey(300));
+        }
+
+        @Test
+        @DisplayName("when putIfAbsent, getOrDefault and replaceAll are used")
+        void putIfAbsentTest() {
+            //Prepare
+            final Map<Integer, Integer> map = createMap();
+
+            //Execution
+            for (int i = 0; i < 1_000; i++) {
+                assertNull(map.putIfAbsent(i, i));
+                assertEquals(i, map.putIfAbsent(i, -1));
+            }
+            map.replaceAll((key, value) -> value * 2);
+
+            //Assertion
+            assertEquals(1_000, map.size());
+            assertEquals(1_998, map.getOrDefault(999, -1));
+            assertEquals(-1, map.getOrDefault(1_000, -1));
+        }
+    }
+
+    @Nested
+    @DisplayName("Checking spliterators and parallel streams")
+    class SpliteratorTest {
+
+        @Test
+        @DisplayName("when a parallel stream aggregates the map")
+        void parallelStreamTest() {
+            //Prepare
+            final Map<Integer, Integer> map = createMap();
+            for (int i = 0; i < 100_000; i++) {
+                map.put(i, i % 7);
+            }
+
+            //Execution
+            final long keySum = map.keySet().parallelStream().mapToLong(Integer::longValue).sum();
+            final long valueSum = map.values().parallelStream().mapToLong(Integer::longValue).sum();
+            final long entryCount = map.entrySet().parallelStream().filter(e -> e.getValue() == 0).count();
+
+            //Assertion
+            assertEquals(99_999L * 100_000 / 2, keySum);
+            assertEquals(map.values().stream().mapToLong(Integer::longValue).sum(), valueSum);
+            assertEquals(14_286, entryCount);
+        }
+    }
+
+    /**
+     * Key with the given hashCode, that does not implement Comparable.
+     */
+    static class CollidingKey {
+
+        final int id;
+        final int hash;
+
+        CollidingKey(int id, int hash) {
+            this.id = id;
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            return id == ((CollidingKey) o).id;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Key with the given hashCode, that is ordered by id.
+     */
+    static class ComparableCollidingKey extends CollidingKey implements Comparable<ComparableCollidingKey> {
+
+        ComparableCollidingKey(int id, int hash) {
+            super(id, hash);
+        }
+
+        @Override
+        public int compareTo(ComparableCollidingKey other) {
+            return Integer.compare(id, other.id);
+        }
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,193 @@
+package map.impl;
+
+import map.impl.HashMapTest.CollidingKey;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashSetTest {
+
+    @Nested
+    @DisplayName("Checking single element operations")
+    class ElementTest {
+
+        @Test
+        @DisplayName("when add, contains and remove handle null and colliding elements")
+        void addRemoveTest() {
+            //Prepare
+            final HashSet<CollidingKey> set = new HashSet<>(2);
+
+            //Execution
+            for (int i = 0; i < 100; i++) {
+                assertTrue(set.add(new CollidingKey(i, i % 5)));
+            }
+            assertTrue(set.add(null));
+            assertFalse(set.add(null));
+            assertFalse(set.add(new CollidingKey(7, 2)));
+
+            //Assertion
+            assertEquals(101, set.size());
+            assertTrue(set.contains(null));
+            assertTrue(set.contains(new CollidingKey(99, 4)));
+            assertFalse(set.contains(new CollidingKey(100, 0)));
+            assertTrue(set.remove(null));
+            assertTrue(set.remove(new CollidingKey(0, 0)));
+            assertFalse(set.remove(new CollidingKey(0, 0)));
+            assertEquals(99, set.size());
+        }
+
+        @Test
+        @DisplayName("when random operations match java.util.HashSet")
+        void randomTest() {
+            //Prepare
+            final HashSet<Integer> set = new HashSet<>(4);
+            final Set<Integer> expected = new java.util.HashSet<>();
+            final Random random = new Random(7);
+
+            //Execution
+            for (int i = 0; i < 20_000; i++) {
+                final int element = random.nextInt(512) - 256;
+                if (random.nextInt(3) == 0) {
+                    assertEquals(expected.remove(element), set.remove(element));
+                } else {
+                    assertEquals(expected.add(element), set.add(element));
+                }
+            }
+            final Iterator<Integer> iterator = set.iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next() % 3 == 0) {
+                    iterator.remove();
+                }
+            }
+            expected.removeIf(element -> element % 3 == 0);
+
+            //Assertion
+            assertEquals(expected, set);
+            assertEquals(set, expected);
+            assertEquals(expected.hashCode(), set.hashCode());
+            assertEquals(expected.size(), set.toArray().length);
+            assertEquals(expected.size(), set.toArray(new Integer[0]).length);
+        }
+    }
+
+    @Nested
+    @DisplayName("Checking bulk operations")
+    class BulkTest {
+
+        @Test
+        @DisplayName("when addAll, retainAll and removeAll combine two HashSets of either size")
+        void ownTypeTest() {
+            //Prepare
+            final HashSet<Integer> small = new HashSet<>();
+            final HashSet<Integer> large = new HashSet<>();
+            for (int i = 0; i < 100; i++) {
+                small.add(i * 10);
+            }
+            for (int i = 0; i < 1_000; i++) {
+                large.add(i);
+            }
+            small.add(null);
+
+            //Execution
+            final HashSet<Integer> union = new HashSet<>(small);
+            final boolean added = union.addAll(large);
+            final HashSet<Integer> retainedBySmall = new HashSet<>(large);
+            retainedBySmall.retainAll(small);
+            final HashSet<Integer> retainedByLarge = new HashSet<>(small);
+            retainedByLarge.retainAll(large);
+            final HashSet<Integer> removedSmall = new HashSet<>(large);
+            final boolean removed = removedSmall.removeAll(small);
+            final HashSet<Integer> removedLarge = new HashSet<>(small);
+            removedLarge.removeAll(large);
+
+            //Assertion
+            assertTrue(added);
+            assertEquals(1_001, union.size());
+            assertEquals(100, retainedBySmall.size());
+            assertEquals(retainedBySmall, retainedByLarge);
+            assertTrue(removed);
+            assertEquals(900, removedSmall.size());
+            assertFalse(removedSmall.contains(990));
+            assertEquals(new java.util.HashSet<>(Arrays.asList((Integer) null)), removedLarge);
+            assertTrue(large.containsAll(retainedBySmall));
+            assertFalse(retainedBySmall.containsAll(large));
+            assertFalse(union.retainAll(union));
+            assertTrue(union.removeAll(union));
+            assertTrue(union.isEmpty());
+        }
+
+        @Test
+        @DisplayName("when bulk operations take other collections")
+        void otherCollectionTest() {
+            //Prepare
+            final HashSet<String> set = new HashSet<>(Arrays.asList("a", "b", "c", "d"));
+
+            //Execution
+            final boolean retained = set.retainAll(Arrays.asList("a", "b", "c", "x"));
+            final boolean removed = set.removeAll(Arrays.asList("c", "y"));
+            final boolean added = set.addAll(Arrays.asList("a", "e"));
+
+            //Assertion
+            assertTrue(retained);
+            assertTrue(removed);
+            assertTrue(added);
+            assertEquals(new java.util.HashSet<>(Arrays.asList("a", "b", "e")), set);
+            assertFalse(set.retainAll(Arrays.asList("a", "b", "e", "f")));
+        }
+
+        @Test
+        @DisplayName("when retainAll with a smaller HashSet keeps the set's own instances")
+        void retainIdentityTest() {
+            //Prepare: equal but distinct strings in both sets
+            final HashSet<String> set = new HashSet<>();
+            final HashSet<String> smaller = new HashSet<>();
+            final String[] own = new String[100];
+            for (int i = 0; i < own.length; i++) {
+                own[i] = new String("element" + i);
+                set.add(own[i]);
+                if (i % 10 == 0) {
+                    smaller.add(new String("element" + i));
+                }
+            }
+
+            //Execution
+            final boolean retained = set.retainAll(smaller);
+
+            //Assertion
+            assertTrue(retained);
+            assertEquals(smaller, set);
+            for (String element : set) {
+                assertSame(own[Integer.parseInt(element.substring("element".length()))], element);
+            }
+        }
+
+        @Test
+        @DisplayName("when addAll of mostly present elements keeps the capacity")
+        void duplicateAddAllTest() {
+            //Prepare
+            final HashSet<Integer> set = new HashSet<>();
+            final HashSet<Integer> copy = new HashSet<>();
+            for (int i = 0; i < 1_000; i++) {
+                set.add(i);
+                copy.add(i + 1);
+            }
+            final int capacity = set.capacity;
+
+            //Execution
+            final boolean added = set.addAll(copy);
+
+            //Assertion
+            assertTrue(added);
+            assertEquals(1_001, set.size());
+            assertEquals(capacity, set.capacity);
+            assertTrue(set.contains(1_000));
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package map.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the HashMap suite against HashMap in ResizeMode.INCREMENTAL.
+ */
+class IncrementalHashMapTest extends HashMapTest {
+
+    @Override
+    <K, V> Map<K, V> createMap() {
+        return new HashMap<>(HashMap.DEFAULT_CAPACITY, HashMap.DEFAULT_LOAD_FACTOR, HashMap.ResizeMode.INCREMENTAL);
+    }
+
+    @Override
+    <K, V> Map<K, V> createMap(int capacity) {
+        return new HashMap<>(capacity, HashMap.DEFAULT_LOAD_FACTOR, HashMap.ResizeMode.INCREMENTAL);
+    }
+
+    @Override
+    <K, V> Map<K, V> createMap(int capacity, double loadFactor) {
+        return new HashMap<>(capacity, loadFactor, HashMap.ResizeMode.INCREMENTAL);
+    }
+
+    @Test
+    @DisplayName("Checking lookups while buckets are split between two tables")
+    void lookupDuringMigrationTest() {
+        //Prepare: 13th put starts the migration of 16 buckets
+        final Map<Integer, Integer> map = createMap(16);
+        for (int i = 0; i < 13; i++) {
+            map.put(i * 7, i);
+        }
+
+        //Assertion: every get moves only a few buckets, all keys stay visible
+        for (int i = 0; i < 13; i++) {
+            assertEquals(i, map.get(i * 7));
+            assertFalse(map.containsKey(i * 7 + 1));
+        }
+        assertEquals(13, map.size());
+    }
+
+    @Test
+    @DisplayName("Checking putAll from a map whose buckets are split between two tables")
+    void putAllDuringMigrationTest() {
+        //Prepare: the 49th put starts the migration of 64 buckets, the lookups move only a few of them
+        final HashMap<Integer, Integer> source = (HashMap<Integer, Integer>) this.<Integer, Integer>createMap(64);
+        for (int i = 0; i < 49; i++) {
+            source.put(i * 7, i);
+        }
+        source.get(0);
+        final HashMap<Integer, Integer> empty = new HashMap<>();
+        final HashMap<Integer, Integer> filled = new HashMap<>();
+        filled.put(-1, -1);
+        filled.put(0, -1);
+
+        //Execution
+        empty.putAll(source);
+        filled.putAll(source);
+
+        //Assertion
+        assertEquals(49, empty.size());
+        assertEquals(50, filled.size());
+        for (int i = 0; i < 49; i++) {
+            assertEquals(i, empty.get(i * 7));
+            assertEquals(i, filled.get(i * 7));
+        }
+        assertEquals(-1, filled.get(-1));
+        assertEquals(49, source.size());
+    }
+
+    @Test
+    @DisplayName("Checking random operations against java.util.HashMap")
+    void randomOperationsTest() {
+        //Prepare: a small load factor makes resizes overlap with unfinished migrations
+        final Map<Integer, Integer> map = createMap(16, 0.25);
+        final Map<Integer, Integer> expected = new java.util.HashMap<>();
+        final Random random = new Random(7);
+
+        //Execution
+        for (int i = 0; i < 50_000; i++) {
+            int key = random.nextInt(4_096);
+            switch (random.nextInt(4)) {
+                case 0:
+                    assertEquals(expected.remove(key), map.remove(key));
+                    break;
+                case 1:
+                    assertEquals(expected.get(key), map.get(key));
+                    break;
+                default:
+                    assertEquals(expected.put(key, i), map.put(key, i));
+            }
+        }
+
+        //Assertion
+        assertEquals(expected.size(), map.size());
+        final Set<Integer> keys = new HashSet<>(map.keySet());
+        assertEquals(expected.keySet(), keys);
+        for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+    }
+
+    @Test
+    @DisplayName("Checking tree bins split by the migration")
+    void treeBinMigrationTest() {
+        //Prepare: hash codes 0, 64, 128, ... share a bucket of a 64-bucket table
+        final Map<CollidingKey, Integer> map = createMap(64);
+        for (int i = 0; i < 20; i++) {
+            map.put(new CollidingKey(i, i * 64), i);
+        }
+
+        //Execution: grow the map until the tree bucket is migrated
+        for (int i = 0; i < 200; i++) {
+            map.put(new CollidingKey(1_000 + i, 1_000 + i), i);
+        }
+
+        //Assertion
+        assertEquals(220, map.size());
+        for (int i = 0; i < 20; i++) {
+            assertEquals(i, map.remove(new CollidingKey(i, i * 64)));
+        }
+        assertEquals(200, map.size());
+    }
+}
@@ -0,0 +1,225 @@
+package map.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import javax.management.AttributeNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the HashMap suite against InstrumentedHashMap and checks the statistics.
+ */
+class InstrumentedHashMapTest extends HashMapTest {
+
+    @Override
+    <K, V> Map<K, V> createMap() {
+        return new InstrumentedHashMap<>();
+    }
+
+    @Override
+    <K, V> Map<K, V> createMap(int capacity) {
+        return new InstrumentedHashMap<>(capacity);
+    }
+
+    @Override
+    <K, V> Map<K, V> createMap(int capacity, double loadFactor) {
+        return new InstrumentedHashMap<>(capacity, loadFactor);
+    }
+
+    @Nested
+    @DisplayName("Checking collected statistics")
+    class StatisticsTest {
+
+        @Test
+        @DisplayName("Checking hits, misses and probe lengths")
+        void probeLengthTest() {
+            //Prepare: three keys in one bucket
+            final InstrumentedHashMap<CollidingKey, Integer> map = new InstrumentedHashMap<>();
+            for (int i = 0; i < 3; i++) {
+                map.put(new CollidingKey(i, 5), i);
+            }
+
+            //Execution
+            for (int i = 0; i < 4; i++) {
+                map.get(new CollidingKey(i, 5));
+            }
+            map.get(new CollidingKey(0, 6));
+
+            //Assertion: puts probe 0, 1, 2 nodes; gets probe 1, 2, 3, 3 and 0 nodes
+            final HashMapStatistics statistics = map.statistics();
+            assertAll(
+                    () -> assertEquals(3, statistics.hitCount()),
+                    () -> assertEquals(2, statistics.missCount()),
+                    () -> assertEquals(0.6, statistics.hitRate(), 1e-9),
+                    () -> assertEquals(3, statistics.putCount()),
+                    () -> assertArrayEquals(new long[]{2, 2, 2, 2}, Arrays.copyOf(statistics.probeLengths(), 4)),
+                    () -> assertEquals(12.0 / 8, statistics.averageProbeLength(), 1e-9),
+                    () -> assertEquals(3, statistics.maxBucketDepth()),
+                    () -> assertEquals(15.0 / 16, statistics.emptyBucketFraction(), 1e-9)
+            );
+        }
+
+        @Test
+        @DisplayName("Checking probe lengths in tree bins")
+        void treeBinTest() {
+            //Prepare: distinct hashes in one bucket of 16
+            final InstrumentedHashMap<Integer, Integer> map = new InstrumentedHashMap<>(64);
+            for (int i = 0; i < 32; i++) {
+                map.put(i << 6, i);
+            }
+            map.resetStatistics();
+
+            //Execution
+            for (int i = 0; i < 32; i++) {
+                map.get(i << 6);
+            }
+
+            //Assertion: a balanced tree of 32 nodes is at most 2 * log2(33) deep
+            final HashMapStatistics statistics = map.statistics();
+            assertEquals(32, statistics.hitCount());
+            assertEquals(32, statistics.maxBucketDepth());
+            long[] probeLengths = statistics.probeLengths();
+            for (int i = 11; i < probeLengths.length; i++) {
+                assertEquals(0, probeLengths[i]);
+            }
+        }
+
+        @Test
+        @DisplayName("Checking probe lengths in tree bins of equal hashes")
+        void unorderedTreeBinTest() {
+            //Prepare: equal hashes and keys that are not Comparable
+            final InstrumentedHashMap<CollidingKey, Integer> map = new InstrumentedHashMap<>(64);
+            for (int i = 0; i < 12; i++) {
+                map.put(new CollidingKey(i, 5), i);
+            }
+            map.resetStatistics();
+
+            //Execution
+            for (int i = 0; i < 12; i++) {
+                map.get(new CollidingKey(i, 5));
+            }
+            final HashMapStatistics hits = map.statistics();
+            map.resetStatistics();
+            map.get(new CollidingKey(12, 5));
+            final HashMapStatistics miss = map.statistics();
+
+            //Assertion: every hit visits 1 to 12 nodes, a miss searches both subtrees of every node
+            assertEquals(12, hits.hitCount());
+            assertEquals(12, Arrays.stream(hits.probeLengths(), 1, 13).sum());
+            assertEquals(1, miss.missCount());
+            assertEquals(1, miss.probeLengths()[12]);
+        }
+
+        @Test
+        @DisplayName("Checking resize counters")
+        void resizeTest() {
+            //Prepare
+            final InstrumentedHashMap<Integer, Integer> map = new InstrumentedHashMap<>(16);
+
+            //Execution: 16 -> 32 -> 64 -> 128
+            for (int i = 0; i < 64; i++) {
+                map.put(i, i);
+            }
+
+            //Assertion
+            final HashMapStatistics statistics = map.statistics();
+            assertEquals(3, statistics.resizeCount());
+            assertTrue(statistics.resizeTimeNanos() > 0);
+            assertEquals(128, statistics.capacity());
+            assertEquals(64, statistics.size());
+
+            //Execution
+            map.resetStatistics();
+
+            //Assertion
+            assertEquals(0, map.statistics().resizeCount());
+            assertEquals(0, map.statistics().putCount());
+        }
+
+        @Test
+        @DisplayName("Checking resize counters for rebuilds outside put")
+        void rebuildResizeTest() {
+            //Prepare
+            final InstrumentedHashMap<Integer, Integer> map = new InstrumentedHashMap<>(16);
+            map.put(0, 0);
+            final HashMap<Integer, Integer> source = new HashMap<>();
+            for (int i = 0; i < 100; i++) {
+                source.put(i, i);
+            }
+
+            //Execution: putAll grows 16 -> 256, ensureCapacity grows to 2048, trimToSize shrinks to 256
+            map.putAll(source);
+            map.ensureCapacity(1_000);
+            map.trimToSize();
+
+            //Assertion
+            final HashMapStatistics statistics = map.statistics();
+            assertEquals(3, statistics.resizeCount());
+            assertEquals(256, statistics.capacity());
+            assertTrue(statistics.resizeTimeNanos() > 0);
+        }
+
+        @Test
+        @DisplayName("Checking bucket lengths while buckets are split between two tables")
+        void bucketLengthsDuringMigrationTest() {
+            //Prepare: the 49th put starts the migration of 64 buckets, the lookups move only a few of them
+            final InstrumentedHashMap<Integer, Integer> incremental = new InstrumentedHashMap<>(64,
+                    HashMap.DEFAULT_LOAD_FACTOR, HashMap.ResizeMode.INCREMENTAL);
+            final InstrumentedHashMap<Integer, Integer> eager = new InstrumentedHashMap<>(64);
+            for (int i = 0; i < 49; i++) {
+                incremental.put(i * 5, i);
+                eager.put(i * 5, i);
+            }
+            incremental.get(0);
+
+            //Execution
+            final HashMapStatistics migrating = incremental.statistics();
+            final HashMapStatistics migrated = eager.statistics();
+
+            //Assertion
+            assertArrayEquals(migrated.bucketLengths(), migrating.bucketLengths());
+            assertEquals(migrated.emptyBucketFraction(), migrating.emptyBucketFraction());
+            assertEquals(128, migrating.capacity());
+        }
+
+        @Test
+        @DisplayName("Checking statistics over JMX")
+        void jmxTest() throws JMException {
+            //Prepare
+            final InstrumentedHashMap<Integer, Integer> map = new InstrumentedHashMap<>();
+            map.put(1, 1);
+            map.get(1);
+            map.get(2);
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+            //Execution
+            final ObjectName name = map.registerMBean("jmxTest");
+            try {
+                //Assertion
+                assertThrows(IllegalStateException.class, () -> map.registerMBean("jmxTest"));
+                assertAll(
+                        () -> assertEquals(1, server.getAttribute(name, "Size")),
+                        () -> assertEquals(1L, server.getAttribute(name, "HitCount")),
+                        () -> assertEquals(0.5, server.getAttribute(name, "HitRate")),
+                        () -> assertEquals(map.statistics().averageProbeLength(),
+                                server.getAttribute(name, "AverageProbeLength")),
+                        () -> assertThrows(AttributeNotFoundException.class,
+                                () -> server.getAttribute(name, "MaxBucketDepth"))
+                );
+                server.invoke(name, "reset", null, null);
+                assertEquals(0L, server.getAttribute(name, "MissCount"));
+            } finally {
+                map.unregisterMBean();
+            }
+            assertFalse(server.isRegistered(name));
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package map.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntHashSetTest {
+
+    @Test
+    @DisplayName("Checking add, contains and remove with the zero element")
+    void addRemoveTest() {
+        //Prepare
+        final IntHashSet set = new IntHashSet(2);
+
+        //Execution
+        for (int i = -50; i < 50; i++) {
+            assertTrue(set.add(i));
+        }
+
+        //Assertion
+        assertEquals(100, set.size());
+        assertFalse(set.add(0));
+        assertTrue(set.contains(0));
+        assertTrue(set.remove(0));
+        assertFalse(set.contains(0));
+        assertFalse(set.remove(0));
+        assertTrue(set.contains(-50));
+        assertFalse(set.contains(50));
+        assertEquals(99, set.toArray().length);
+    }
+
+    @Test
+    @DisplayName("Checking random operations against java.util.HashSet")
+    void randomOperationsTest() {
+        //Prepare
+        final IntHashSet set = new IntHashSet(4);
+        final Set<Integer> expected = new java.util.HashSet<>();
+        final Random random = new Random(7);
+
+        //Execution
+        for (int i = 0; i < 20_000; i++) {
+            int element = random.nextInt(512) - 256;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(element), set.remove(element));
+            } else {
+                assertEquals(expected.add(element), set.add(element));
+            }
+        }
+        set.asSet().removeIf(element -> element % 3 == 0);
+        expected.removeIf(element -> element % 3 == 0);
+
+        //Assertion
+        assertEquals(expected, set.asSet());
+        assertEquals(expected.hashCode(), set.hashCode());
+    }
+
+    @Test
+    @DisplayName("Checking addAll, retainAll and removeAll between two sets")
+    void bulkTest() {
+        //Prepare
+        final IntHashSet even = new IntHashSet();
+        final IntHashSet range = new IntHashSet();
+        for (int i = 0; i < 200; i += 2) {
+            even.add(i);
+        }
+        for (int i = 0; i < 1_000; i++) {
+            range.add(i);
+        }
+
+        //Execution
+        final IntHashSet union = new IntHashSet();
+        union.addAll(even);
+        final boolean added = union.addAll(range);
+        final IntHashSet retained = new IntHashSet();
+        retained.addAll(range);
+        retained.retainAll(even);
+        final IntHashSet removed = new IntHashSet();
+        removed.addAll(range);
+        removed.removeAll(even);
+        final IntHashSet nothingLeft = new IntHashSet();
+        nothingLeft.addAll(even);
+        nothingLeft.removeAll(range);
+
+        //Assertion
+        assertTrue(added);
+        assertEquals(range, union);
+        assertEquals(even, retained);
+        assertEquals(900, removed.size());
+        assertTrue(removed.contains(1));
+        assertFalse(removed.contains(0));
+        assertTrue(nothingLeft.isEmpty());
+        assertTrue(range.containsAll(even));
+        assertFalse(even.containsAll(range));
+        assertTrue(even.asSet().retainAll(removed.asSet()));
+        assertTrue(even.isEmpty());
+    }
+}
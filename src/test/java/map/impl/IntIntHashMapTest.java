@@ -0,0 +1,111 @@
+package map.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntIntHashMapTest {
+
+    @Test
+    @DisplayName("Checking put, get and getOrDefault")
+    void putAndGetTest() {
+        //Prepare
+        final IntIntHashMap map = new IntIntHashMap();
+
+        //Assertion
+        assertEquals(0, map.put(1, 10));
+        assertEquals(10, map.put(1, 11));
+        assertEquals(11, map.get(1));
+        assertEquals(0, map.get(2));
+        assertEquals(-1, map.getOrDefault(2, -1));
+        assertFalse(map.containsKey(2));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    @DisplayName("Checking addTo as a counter")
+    void addToTest() {
+        //Prepare
+        final IntIntHashMap map = new IntIntHashMap(2);
+
+        //Execution
+        for (int i = 0; i < 1000; i++) {
+            map.addTo(i % 100, 1);
+        }
+
+        //Assertion
+        assertEquals(100, map.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(10, map.get(i));
+        }
+        assertEquals(15, map.addTo(0, 5));
+    }
+
+    @Test
+    @DisplayName("Checking random operations against java.util.HashMap")
+    void randomOperationsTest() {
+        //Prepare
+        final IntIntHashMap map = new IntIntHashMap(4);
+        final Map<Integer, Integer> expected = new java.util.HashMap<>();
+        final Random random = new Random(7);
+
+        //Execution
+        for (int i = 0; i < 20_000; i++) {
+            int key = random.nextInt(512) - 256;
+            if (random.nextInt(3) == 0) {
+                Integer removed = expected.remove(key);
+                assertEquals(removed == null ? 0 : removed, map.remove(key));
+            } else {
+                expected.merge(key, i, Integer::sum);
+                map.addTo(key, i);
+            }
+        }
+
+        //Assertion
+        assertEquals(expected, map.asMap());
+        assertEquals(expected.hashCode(), map.hashCode());
+    }
+
+    @Test
+    @DisplayName("Checking the view")
+    void viewTest() {
+        //Prepare
+        final IntIntHashMap map = new IntIntHashMap();
+        final Map<Integer, Integer> view = map.asMap();
+
+        //Execution
+        assertNull(view.put(0, 1));
+        assertEquals(1, view.put(0, 2));
+        view.put(3, 4);
+
+        //Assertion
+        assertEquals(2, map.get(0));
+        assertNull(view.get(5));
+        assertTrue(view.containsValue(4));
+        assertEquals(4, view.remove(3));
+        assertThrows(NullPointerException.class, () -> view.put(7, null));
+        assertFalse(map.containsKey(7));
+    }
+
+    @Test
+    @DisplayName("Checking equals")
+    void equalsTest() {
+        //Prepare
+        final IntIntHashMap first = new IntIntHashMap();
+        final IntIntHashMap second = new IntIntHashMap(1000);
+        for (int i = 0; i < 50; i++) {
+            first.put(i, i * i);
+            second.put(49 - i, (49 - i) * (49 - i));
+        }
+
+        //Assertion
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+        second.put(0, 1);
+        assertNotEquals(first, second);
+    }
+}
@@ -0,0 +1,159 @@
+package map.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntObjectHashMapTest {
+
+    @Test
+    @DisplayName("Checking put, get and getOrDefault")
+    void putAndGetTest() {
+        //Prepare
+        final IntObjectHashMap<String> map = new IntObjectHashMap<>();
+
+        //Assertion
+        assertNull(map.put(1, "one"));
+        assertNull(map.put(-1, "minus one"));
+        assertEquals("one", map.put(1, "uno"));
+        assertEquals("uno", map.get(1));
+        assertEquals("minus one", map.get(-1));
+        assertNull(map.get(2));
+        assertEquals("default", map.getOrDefault(2, "default"));
+        assertEquals(2, map.size());
+    }
+
+    @Nested
+    @DisplayName("Checking the zero key")
+    class ZeroKeyTest {
+
+        @Test
+        @DisplayName("for put, get and remove")
+        void zeroKeyTest() {
+            //Prepare
+            final IntObjectHashMap<String> map = new IntObjectHashMap<>();
+            map.put(0, "zero");
+
+            //Assertion
+            assertTrue(map.containsKey(0));
+            assertEquals("zero", map.get(0));
+            assertEquals(1, map.size());
+            assertEquals("zero", map.remove(0));
+            assertFalse(map.containsKey(0));
+            assertTrue(map.isEmpty());
+        }
+
+        @Test
+        @DisplayName("survives resize and is visible through the view")
+        void zeroKeyResizeTest() {
+            //Prepare
+            final IntObjectHashMap<Integer> map = new IntObjectHashMap<>(2);
+            for (int i = 0; i < 100; i++) {
+                map.put(i, i);
+            }
+
+            //Assertion
+            assertEquals(0, map.get(0));
+            assertEquals(100, map.asMap().size());
+            assertEquals(0, map.asMap().get(0));
+            assertTrue(map.asMap().keySet().contains(0));
+        }
+    }
+
+    @Test
+    @DisplayName("Checking random operations against java.util.HashMap")
+    void randomOperationsTest() {
+        //Prepare
+        final IntObjectHashMap<Integer> map = new IntObjectHashMap<>(4);
+        final Map<Integer, Integer> expected = new java.util.HashMap<>();
+        final Random random = new Random(7);
+
+        //Execution
+        for (int i = 0; i < 20_000; i++) {
+            int key = random.nextInt(512) - 256;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                assertEquals(expected.put(key, i), map.put(key, i));
+            }
+        }
+
+        //Assertion
+        assertEquals(expected, map.asMap());
+        assertEquals(expected.hashCode(), map.hashCode());
+    }
+
+    @Test
+    @DisplayName("Checking removal through the iterator of the view")
+    void iteratorRemoveTest() {
+        //Prepare
+        final IntObjectHashMap<String> map = new IntObjectHashMap<>(16);
+        for (int i = 0; i < 12; i++) {
+            map.put(i * 16, "v" + i);
+        }
+
+        //Execution
+        int visited = 0;
+        final Iterator<Map.Entry<Integer, String>> iterator = map.asMap().entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Integer, String> entry = iterator.next();
+            visited++;
+            if (entry.getKey() % 32 == 0) {
+                iterator.remove();
+            }
+        }
+
+        //Assertion
+        assertEquals(12, visited);
+        assertEquals(6, map.size());
+        for (int i = 0; i < 12; i++) {
+            assertEquals(i % 2 == 0 ? null : "v" + i, map.get(i * 16));
+        }
+    }
+
+    @Test
+    @DisplayName("Checking writes through the view")
+    void viewWriteTest() {
+        //Prepare
+        final IntObjectHashMap<String> map = new IntObjectHashMap<>();
+        final Map<Integer, String> view = map.asMap();
+
+        //Execution
+        view.put(5, "five");
+        view.put(6, "six");
+        view.remove(6);
+        for (Map.Entry<Integer, String> entry : view.entrySet()) {
+            entry.setValue("FIVE");
+        }
+
+        //Assertion
+        assertEquals("FIVE", map.get(5));
+        assertNull(view.get("5"));
+        assertFalse(map.containsKey(6));
+        assertTrue(map.containsValue("FIVE"));
+    }
+
+    @Test
+    @DisplayName("Checking clear")
+    void clearTest() {
+        //Prepare
+        final IntObjectHashMap<String> map = new IntObjectHashMap<>();
+        map.put(0, "zero");
+        map.put(1, "one");
+
+        //Execution
+        map.clear();
+
+        //Assertion
+        assertTrue(map.isEmpty());
+        assertNull(map.get(0));
+        assertNull(map.get(1));
+        assertEquals(new IntObjectHashMap<String>(), map);
+    }
+}
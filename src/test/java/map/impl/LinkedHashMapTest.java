@@ -0,0 +1,280 @@
+package map.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the HashMap suite against LinkedHashMap and checks the iteration order.
+ */
+class LinkedHashMapTest extends HashMapTest {
+
+    @Override
+    <K, V> Map<K, V> createMap() {
+        return new LinkedHashMap<>();
+    }
+
+    @Override
+    <K, V> Map<K, V> createMap(int capacity) {
+        return new LinkedHashMap<>(capacity);
+    }
+
+    @Override
+    <K, V> Map<K, V> createMap(int capacity, double loadFactor) {
+        return new LinkedHashMap<>(capacity, loadFactor);
+    }
+
+    @Nested
+    @DisplayName("Checking the iteration order")
+    class OrderTest {
+
+        @Test
+        @DisplayName("when keys are iterated in insertion order across resizes")
+        void insertionOrderTest() {
+            //Prepare
+            final LinkedHashMap<Integer, Integer> map = new LinkedHashMap<>(2);
+            final List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < 1_000; i++) {
+                final int key = (i * 7919) % 1_000;
+                map.put(key, i);
+                expected.add(key);
+            }
+
+            //Execution: replacing a value does not move the key
+            map.put(expected.get(0), -1);
+            map.get(expected.get(1));
+
+            //Assertion
+            assertEquals(expected, new ArrayList<>(map.keySet()));
+            assertEquals(-1, map.values().iterator().next());
+            final List<Integer> forEachKeys = new ArrayList<>();
+            map.forEach((key, value) -> forEachKeys.add(key));
+            assertEquals(expected, forEachKeys);
+            assertEquals(expected, map.keySet().stream().collect(Collectors.toList()));
+            assertTrue(map.entrySet().spliterator().hasCharacteristics(Spliterator.ORDERED | Spliterator.SIZED));
+        }
+
+        @Test
+        @DisplayName("when get and put move keys to the end in access order")
+        void accessOrderTest() {
+            //Prepare
+            final LinkedHashMap<Integer, String> map = new LinkedHashMap<>(16, 0.75, true);
+            for (int i = 0; i < 5; i++) {
+                map.put(i, String.valueOf(i));
+            }
+
+            //Execution
+            map.get(1);
+            map.put(3, "three");
+            map.putIfAbsent(0, "zero");
+            map.get(42);
+
+            //Assertion
+            assertEquals(Arrays.asList(2, 4, 1, 3, 0), new ArrayList<>(map.keySet()));
+            assertEquals("0", map.get(0));
+        }
+
+        @Test
+        @DisplayName("when a get during access-ordered iteration is detected")
+        void accessDuringIterationTest() {
+            //Prepare
+            final LinkedHashMap<Integer, Integer> map = new LinkedHashMap<>(16, 0.75, true);
+            for (int i = 0; i < 5; i++) {
+                map.put(i, i);
+            }
+            final Iterator<Integer> iterator = map.keySet().iterator();
+
+            //Execution
+            map.get(iterator.next());
+
+            //Assertion
+            assertThrows(ConcurrentModificationException.class, iterator::next);
+        }
+
+        @Test
+        @DisplayName("when entries are removed through iterator, cursor and map")
+        void removeTest() {
+            //Prepare
+            final LinkedHashMap<Integer, Integer> map = new LinkedHashMap<>();
+            for (int i = 0; i < 10; i++) {
+                map.put(i, i);
+            }
+
+            //Execution
+            final Iterator<Integer> iterator = map.keySet().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next() % 3 == 0) {
+                    iterator.remove();
+                }
+            }
+            final EntryCursor<Integer, Integer> cursor = map.cursor();
+            while (cursor.advance()) {
+                if (cursor.key() == 4) {
+                    cursor.remove();
+                } else {
+                    cursor.setValue(cursor.value() * 10);
+                }
+            }
+            map.remove(8);
+            map.put(0, 0);
+
+            //Assertion
+            assertEquals(Arrays.asList(1, 2, 5, 7, 0), new ArrayList<>(map.keySet()));
+            assertEquals(Arrays.asList(10, 20, 50, 70, 0), new ArrayList<>(map.values()));
+            assertFalse(map.containsValue(40));
+            assertTrue(map.containsValue(70));
+        }
+
+        @Test
+        @DisplayName("when a copy keeps the order of a linked source")
+        void copyTest() {
+            //Prepare
+            final LinkedHashMap<Integer, Integer> source = new LinkedHashMap<>();
+            for (int i = 100; i > 0; i--) {
+                source.put(i * 31, i);
+            }
+
+            //Execution
+            final LinkedHashMap<Integer, Integer> copy = new LinkedHashMap<>(source);
+            copy.clear();
+            copy.putAll(source);
+
+            //Assertion
+            assertEquals(new ArrayList<>(source.keySet()), new ArrayList<>(copy.keySet()));
+            assertEquals(source, copy);
+        }
+
+        @Test
+        @DisplayName("when a small map sits in a large table")
+        void sparseTableTest() {
+            //Prepare
+            final LinkedHashMap<Integer, Integer> map = new LinkedHashMap<>(1 << 20);
+            map.put(5, 5);
+            map.put(3, 3);
+
+            //Execution
+            final EntryCursor<Integer, Integer> cursor = map.cursor();
+            int count = 0;
+            while (cursor.advance()) {
+                count++;
+            }
+
+            //Assertion
+            assertEquals(2, count);
+            assertEquals(1 << 20, map.capacity());
+            assertEquals(Arrays.asList(5, 3), new ArrayList<>(map.keySet()));
+        }
+
+        @Test
+        @DisplayName("when view removals match values and null values")
+        void viewRemoveTest() {
+            //Prepare
+            final LinkedHashMap<String, String> map = new LinkedHashMap<>();
+            map.put("a", "a");
+            map.put("b", null);
+
+            //Execution
+            final boolean containsWrongValue = map.entrySet().contains(new AbstractMap.SimpleEntry<>("a", "x"));
+            final boolean removedWrongValue = map.entrySet().remove(new AbstractMap.SimpleEntry<>("a", "x"));
+            final boolean removedNullValue = map.keySet().remove("b");
+            final boolean removedMissing = map.keySet().remove("c");
+
+            //Assertion
+            assertFalse(containsWrongValue);
+            assertFalse(removedWrongValue);
+            assertTrue(removedNullValue);
+            assertFalse(removedMissing);
+            assertTrue(map.entrySet().contains(new AbstractMap.SimpleEntry<>("a", "a")));
+            assertTrue(map.entrySet().remove(new AbstractMap.SimpleEntry<>("a", "a")));
+            assertTrue(map.isEmpty());
+        }
+    }
+
+    @Nested
+    @DisplayName("Checking removeEldestEntry")
+    class RemoveEldestTest {
+
+        @Test
+        @DisplayName("when the eldest entry is removed to bound the size")
+        void boundedTest() {
+            //Prepare
+            final LinkedHashMap<Integer, Integer> map = new LinkedHashMap<Integer, Integer>(16, 0.75, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, Integer> eldest) {
+                    return size() > 3;
+                }
+            };
+
+            //Execution
+            map.put(1, 1);
+            map.put(2, 2);
+            map.put(3, 3);
+            map.get(1);
+            map.put(4, 4);
+            map.computeIfAbsent(5, key -> key);
+            map.merge(3, 30, Integer::sum);
+
+            //Assertion
+            assertEquals(3, map.size());
+            assertEquals(Arrays.asList(4, 5, 3), new ArrayList<>(map.keySet()));
+            assertEquals(30, map.get(3));
+        }
+
+        @Test
+        @DisplayName("when putAll of a HashMap goes through removeEldestEntry")
+        void boundedPutAllTest() {
+            //Prepare
+            final LinkedHashMap<Integer, Integer> map = new LinkedHashMap<Integer, Integer>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, Integer> eldest) {
+                    return size() > 3;
+                }
+            };
+            final HashMap<Integer, Integer> source = new HashMap<>();
+            for (int i = 0; i < 10; i++) {
+                source.put(i, i);
+            }
+
+            //Execution
+            map.putAll(source);
+
+            //Assertion
+            assertEquals(3, map.size());
+            assertEquals(Arrays.asList(7, 8, 9), new ArrayList<>(map.keySet()));
+        }
+
+        @Test
+        @DisplayName("when the eldest entry is offered after every insertion")
+        void eldestTest() {
+            //Prepare
+            final List<Integer> offered = new ArrayList<>();
+            final LinkedHashMap<Integer, Integer> map = new LinkedHashMap<Integer, Integer>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, Integer> eldest) {
+                    offered.add(eldest.getKey());
+                    return false;
+                }
+            };
+
+            //Execution
+            map.put(7, 7);
+            map.put(8, 8);
+            map.put(7, 70);
+
+            //Assertion
+            assertEquals(Arrays.asList(7, 7), offered);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package map.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongHashSetTest {
+
+    @Test
+    @DisplayName("Checking random operations against java.util.HashSet")
+    void randomOperationsTest() {
+        //Prepare
+        final LongHashSet set = new LongHashSet(4);
+        final Set<Long> expected = new java.util.HashSet<>();
+        final Random random = new Random(7);
+
+        //Execution: elements differ in the high 32 bits only
+        for (int i = 0; i < 20_000; i++) {
+            long element = (long) (random.nextInt(512) - 256) << 32;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(element), set.remove(element));
+            } else {
+                assertEquals(expected.add(element), set.add(element));
+            }
+        }
+
+        //Assertion
+        assertEquals(expected, set.asSet());
+        assertEquals(expected.hashCode(), set.hashCode());
+        assertEquals(expected.contains(0L), set.contains(0L));
+    }
+
+    @Test
+    @DisplayName("Checking addAll, retainAll and removeAll between two sets")
+    void bulkTest() {
+        //Prepare
+        final LongHashSet small = new LongHashSet();
+        final LongHashSet large = new LongHashSet();
+        for (long i = 0; i < 100; i++) {
+            small.add(i * Integer.MAX_VALUE);
+        }
+        for (long i = 0; i < 1_000; i++) {
+            large.add(i * Integer.MAX_VALUE);
+        }
+
+        //Execution
+        final LongHashSet retained = new LongHashSet();
+        retained.addAll(large);
+        retained.retainAll(small);
+        final LongHashSet removed = new LongHashSet();
+        removed.addAll(large);
+        removed.removeAll(small);
+
+        //Assertion
+        assertEquals(small, retained);
+        assertEquals(900, removed.size());
+        assertFalse(removed.contains(0L));
+        assertTrue(removed.contains(999L * Integer.MAX_VALUE));
+        assertFalse(small.addAll(retained));
+    }
+}
@@ -0,0 +1,94 @@
+package map.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongObjectHashMapTest {
+
+    @Test
+    @DisplayName("Checking put, get and getOrDefault")
+    void putAndGetTest() {
+        //Prepare
+        final LongObjectHashMap<String> map = new LongObjectHashMap<>();
+
+        //Assertion
+        assertNull(map.put(Long.MAX_VALUE, "max"));
+        assertNull(map.put(Long.MIN_VALUE, "min"));
+        assertNull(map.put(0L, "zero"));
+        assertEquals("max", map.get(Long.MAX_VALUE));
+        assertEquals("min", map.get(Long.MIN_VALUE));
+        assertEquals("zero", map.get(0L));
+        assertEquals("default", map.getOrDefault(1L, "default"));
+        assertEquals(3, map.size());
+    }
+
+    @Test
+    @DisplayName("Checking keys which differ only in the high 32 bits")
+    void highBitsKeysTest() {
+        //Prepare
+        final LongObjectHashMap<Long> map = new LongObjectHashMap<>();
+        for (long i = 1; i <= 1000; i++) {
+            map.put(i << 32, i);
+        }
+
+        //Assertion
+        assertEquals(1000, map.size());
+        for (long i = 1; i <= 1000; i++) {
+            assertEquals(i, map.get(i << 32));
+            assertFalse(map.containsKey(i));
+        }
+    }
+
+    @Test
+    @DisplayName("Checking random operations against java.util.HashMap")
+    void randomOperationsTest() {
+        //Prepare
+        final LongObjectHashMap<Integer> map = new LongObjectHashMap<>(4);
+        final Map<Long, Integer> expected = new java.util.HashMap<>();
+        final Random random = new Random(7);
+
+        //Execution
+        for (int i = 0; i < 20_000; i++) {
+            long key = (long) (random.nextInt(512) - 256) << 20;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                assertEquals(expected.put(key, i), map.put(key, i));
+            }
+        }
+
+        //Assertion
+        assertEquals(expected, map.asMap());
+        assertEquals(expected.hashCode(), map.hashCode());
+    }
+
+    @Test
+    @DisplayName("Checking removal through the iterator of the view")
+    void iteratorRemoveTest() {
+        //Prepare
+        final LongObjectHashMap<String> map = new LongObjectHashMap<>();
+        for (long i = 0; i < 100; i++) {
+            map.put(i, "v" + i);
+        }
+
+        //Execution
+        final Iterator<Long> iterator = map.asMap().keySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next() % 2 == 0) {
+                iterator.remove();
+            }
+        }
+
+        //Assertion
+        assertEquals(50, map.size());
+        for (long i = 0; i < 100; i++) {
+            assertEquals(i % 2 != 0, map.containsKey(i));
+        }
+    }
+}
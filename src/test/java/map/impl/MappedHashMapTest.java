@@ -0,0 +1,349 @@
+package map.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedHashMapTest {
+
+    private static final int CHUNK = MappedHashMap.MIN_CHUNK_SIZE;
+
+    @TempDir
+    Path directory;
+
+    private MappedHashMap<Integer, String> open(String name) throws IOException {
+        return new MappedHashMap<>(directory.resolve(name), Serializers.INTEGER, Serializers.STRING, 16, CHUNK);
+    }
+
+    private static String value(Random random, int i) {
+        return Integer.toString(i, random.nextInt(35) + 2);
+    }
+
+    @Nested
+    @DisplayName("Checking basic operations")
+    class BasicOperationsTest {
+
+        @Test
+        @DisplayName("when keys are added, replaced and removed")
+        void putGetRemoveTest() throws IOException {
+            //Prepare
+            try (MappedHashMap<Integer, String> map = open("basic")) {
+
+                //Execution
+                assertNull(map.put(1, "one"));
+                assertNull(map.put(2, "two"));
+                assertEquals("one", map.put(1, "first"));
+
+                //Assertion
+                assertEquals(2, map.size());
+                assertEquals("first", map.get(1));
+                assertTrue(map.containsKey(2));
+                assertTrue(map.containsValue("two"));
+                assertEquals("two", map.remove(2));
+                assertNull(map.remove(2));
+                assertEquals(1, map.size());
+                assertThrows(NullPointerException.class, () -> map.put(null, "value"));
+                assertThrows(NullPointerException.class, () -> map.put(3, null));
+            }
+        }
+
+        @Test
+        @DisplayName("when entries are removed and updated through the iterator")
+        void iteratorTest() throws IOException {
+            //Prepare
+            try (MappedHashMap<Integer, String> map = open("iterator")) {
+                for (int i = 0; i < 500; i++) {
+                    map.put(i, "v");
+                }
+
+                //Execution
+                final Iterator<Map.Entry<Integer, String>> iterator = map.entrySet().iterator();
+                while (iterator.hasNext()) {
+                    Map.Entry<Integer, String> entry = iterator.next();
+                    if (entry.getKey() % 2 == 0) {
+                        iterator.remove();
+                    } else {
+                        entry.setValue("value " + entry.getKey());
+                    }
+                }
+
+                //Assertion
+                assertEquals(250, map.size());
+                for (int i = 0; i < 500; i++) {
+                    assertEquals(i % 2 == 0 ? null : "value " + i, map.get(i));
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("when the map is used after close()")
+        void closedMapTest() throws IOException {
+            //Prepare
+            final MappedHashMap<Integer, String> map = open("closed");
+            map.put(1, "one");
+
+            //Execution
+            map.close();
+            map.close();
+
+            //Assertion
+            assertThrows(IllegalStateException.class, () -> map.get(1));
+            assertThrows(IllegalStateException.class, () -> map.put(1, "one"));
+            assertThrows(IllegalStateException.class, map::force);
+        }
+
+        @Test
+        @DisplayName("when the file is not a map log")
+        void foreignFileTest() throws IOException {
+            //Prepare
+            final Path file = directory.resolve("foreign");
+            Files.write(file, new byte[128]);
+
+            //Assertion
+            assertThrows(IOException.class, () -> open("foreign"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Checking reopening")
+    class ReopenTest {
+
+        @Test
+        @DisplayName("when the map was closed, the index is reused")
+        void reopenAfterCloseTest() throws IOException {
+            //Prepare: small chunks, several resizes and removals
+            final Map<Integer, String> expected = new java.util.HashMap<>();
+            final Random random = new Random(3);
+            try (MappedHashMap<Integer, String> map = open("reopen")) {
+                for (int i = 0; i < 20_000; i++) {
+                    int key = random.nextInt(5_000);
+                    if (random.nextInt(4) == 0) {
+                        assertEquals(expected.remove(key), map.remove(key));
+                    } else {
+                        String value = value(random, i);
+                        assertEquals(expected.put(key, value), map.put(key, value));
+                    }
+                }
+                assertEquals(expected, map);
+            }
+
+            //Execution
+            try (MappedHashMap<Integer, String> map = open("reopen")) {
+
+                //Assertion
+                assertFalse(map.recovered());
+                assertEquals(expected, map);
+                map.put(-1, "new");
+                expected.put(-1, "new");
+            }
+            try (MappedHashMap<Integer, String> map = open("reopen")) {
+                assertFalse(map.recovered());
+                assertEquals(expected, map);
+            }
+        }
+
+        @Test
+        @DisplayName("when the index file is lost, it is rebuilt from the log")
+        void lostIndexTest() throws IOException {
+            //Prepare
+            try (MappedHashMap<Integer, String> map = open("lost")) {
+                for (int i = 0; i < 1_000; i++) {
+                    map.put(i, "v" + i);
+                }
+            }
+
+            //Execution
+            Files.delete(directory.resolve("lost.idx"));
+
+            //Assertion
+            try (MappedHashMap<Integer, String> map = open("lost")) {
+                assertTrue(map.recovered());
+                assertEquals(1_000, map.size());
+                assertEquals("v999", map.get(999));
+            }
+        }
+
+        @Test
+        @DisplayName("when the map was cleared")
+        void clearTest() throws IOException {
+            //Prepare
+            try (MappedHashMap<Integer, String> map = open("clear")) {
+                for (int i = 0; i < 1_000; i++) {
+                    map.put(i, "v" + i);
+                }
+
+                //Execution
+                map.clear();
+                map.put(1, "one");
+            }
+
+            //Assertion
+            try (MappedHashMap<Integer, String> map = open("clear")) {
+                assertEquals(1, map.size());
+                assertEquals("one", map.get(1));
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Checking crash consistency")
+    class CrashTest {
+
+        /**
+         * Log size right after force() in run().
+         */
+        private long forcedEnd;
+
+        /**
+         * Applies random operations to map, force()-ing in the middle.
+         * Returns the expected state after every operation; the state after
+         * force() is returned at index forcedAt.
+         */
+        private List<Map<Integer, String>> run(MappedHashMap<Integer, String> map, int operations, int forcedAt) {
+            final List<Map<Integer, String>> states = new ArrayList<>();
+            final Map<Integer, String> expected = new java.util.HashMap<>();
+            final Random random = new Random(17);
+            states.add(new java.util.HashMap<>(expected));
+            for (int i = 1; i <= operations; i++) {
+                int key = random.nextInt(300);
+                if (random.nextInt(4) == 0) {
+                    map.remove(key);
+                    expected.remove(key);
+                } else {
+                    String value = value(random, i);
+                    map.put(key, value);
+                    expected.put(key, value);
+                }
+                states.add(new java.util.HashMap<>(expected));
+                if (i == forcedAt) {
+                    map.force();
+                    forcedEnd = map.logBytes();
+                }
+            }
+            return states;
+        }
+
+        /**
+         * Copies the log and the index of an open map, as a crash would leave them.
+         */
+        private void crashCopy(String from, String to) throws IOException {
+            Files.copy(directory.resolve(from), directory.resolve(to), StandardCopyOption.REPLACE_EXISTING);
+            Files.copy(directory.resolve(from + ".idx"), directory.resolve(to + ".idx"),
+                    StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        @Test
+        @DisplayName("when every page reached the disk")
+        void unclosedMapTest() throws IOException {
+            //Prepare
+            final List<Map<Integer, String>> states;
+            try (MappedHashMap<Integer, String> map = open("crash")) {
+                states = run(map, 2_000, 1_000);
+
+                //Execution
+                crashCopy("crash", "copy");
+            }
+
+            //Assertion
+            try (MappedHashMap<Integer, String> map = open("copy")) {
+                assertTrue(map.recovered());
+                assertEquals(states.get(states.size() - 1), map);
+            }
+        }
+
+        @Test
+        @DisplayName("when the log lost its tail or a record is torn")
+        void tornLogTest() throws IOException {
+            //Prepare
+            final List<Map<Integer, String>> states;
+            final long end;
+            try (MappedHashMap<Integer, String> map = open("torn")) {
+                states = run(map, 600, 300);
+                end = map.logBytes();
+                crashCopy("torn", "base");
+            }
+            final Random random = new Random(5);
+
+            for (int attempt = 0; attempt < 20; attempt++) {
+                //Execution: cut the log or flip a byte after the forced part
+                crashCopy("base", "copy");
+                final long position = forcedEnd + (long) (random.nextDouble() * (end - forcedEnd));
+                try (FileChannel channel = FileChannel.open(directory.resolve("copy"), StandardOpenOption.WRITE)) {
+                    if (attempt % 2 == 0) {
+                        channel.truncate(position);
+                    } else {
+                        channel.write(ByteBuffer.wrap(new byte[]{(byte) 0xA5}), position);
+                    }
+                }
+
+                //Assertion: the state is one of those after the forced operation
+                final Map<Integer, String> recovered;
+                try (MappedHashMap<Integer, String> map = open("copy")) {
+                    assertTrue(map.recovered());
+                    recovered = new java.util.HashMap<>(map);
+                    map.put(-1, "after recovery");
+                }
+                assertTrue(states.subList(300, states.size()).contains(recovered),
+                        "unexpected state after cutting at " + position);
+
+                //Assertion: records appended after recovery are not mixed with the old tail
+                try (MappedHashMap<Integer, String> map = open("copy")) {
+                    recovered.put(-1, "after recovery");
+                    assertEquals(recovered, map);
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("when the map crashed while its log was being created or cleared")
+        void replacedLogTest() throws IOException {
+            //Prepare
+            final List<Map<Integer, String>> states;
+            try (MappedHashMap<Integer, String> map = open("cleared")) {
+                states = run(map, 500, 250);
+                crashCopy("cleared", "before");
+
+                //Execution: crash before and right after the new log replaced the old one
+                map.clear();
+                crashCopy("cleared", "after");
+            }
+            Files.write(directory.resolve("before.tmp"), new byte[CHUNK]);
+            Files.write(directory.resolve("created.tmp"), new byte[CHUNK]);
+
+            //Assertion: a log without a written header is never left in place
+            try (MappedHashMap<Integer, String> map = open("before")) {
+                assertEquals(states.get(states.size() - 1), map);
+            }
+            assertFalse(Files.exists(directory.resolve("before.tmp")));
+            try (MappedHashMap<Integer, String> map = open("after")) {
+                assertTrue(map.recovered());
+                assertTrue(map.isEmpty());
+                map.put(1, "one");
+            }
+            try (MappedHashMap<Integer, String> map = open("after")) {
+                assertEquals("one", map.get(1));
+            }
+            try (MappedHashMap<Integer, String> map = open("created")) {
+                assertFalse(map.recovered());
+                assertTrue(map.isEmpty());
+            }
+            assertFalse(Files.exists(directory.resolve("created.tmp")));
+        }
+    }
+}
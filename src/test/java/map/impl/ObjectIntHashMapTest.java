@@ -0,0 +1,122 @@
+package map.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ObjectIntHashMapTest {
+
+    @Test
+    @DisplayName("Checking put, get and getOrDefault")
+    void putAndGetTest() {
+        //Prepare
+        final ObjectIntHashMap<String> map = new ObjectIntHashMap<>();
+
+        //Assertion
+        assertEquals(0, map.put("first", 1));
+        assertEquals(1, map.put("first", 10));
+        assertEquals(0, map.put(null, 5));
+        assertEquals(10, map.get("first"));
+        assertEquals(5, map.get(null));
+        assertEquals(0, map.get("second"));
+        assertEquals(-1, map.getOrDefault("second", -1));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    @DisplayName("Checking addTo as a word counter")
+    void addToTest() {
+        //Prepare
+        final ObjectIntHashMap<String> map = new ObjectIntHashMap<>(2);
+        final String[] words = "a b a c b a".split(" ");
+
+        //Execution
+        for (String word : words) {
+            map.addTo(word, 1);
+        }
+
+        //Assertion
+        assertEquals(3, map.get("a"));
+        assertEquals(2, map.get("b"));
+        assertEquals(1, map.get("c"));
+        assertEquals(3, map.size());
+    }
+
+    @Test
+    @DisplayName("Checking colliding keys")
+    void collidingKeysTest() {
+        //Prepare
+        final ObjectIntHashMap<HashMapTest.CollidingKey> map = new ObjectIntHashMap<>();
+        for (int i = 0; i < 20; i++) {
+            map.put(new HashMapTest.CollidingKey(i, 1), i);
+        }
+
+        //Execution
+        for (int i = 0; i < 20; i += 2) {
+            assertEquals(i, map.remove(new HashMapTest.CollidingKey(i, 1)));
+        }
+
+        //Assertion
+        assertEquals(10, map.size());
+        for (int i = 0; i < 20; i++) {
+            assertEquals(i % 2 != 0, map.containsKey(new HashMapTest.CollidingKey(i, 1)));
+        }
+    }
+
+    @Test
+    @DisplayName("Checking random operations against java.util.HashMap")
+    void randomOperationsTest() {
+        //Prepare
+        final ObjectIntHashMap<String> map = new ObjectIntHashMap<>(4);
+        final Map<String, Integer> expected = new java.util.HashMap<>();
+        final Random random = new Random(7);
+
+        //Execution
+        for (int i = 0; i < 20_000; i++) {
+            String key = "key" + random.nextInt(512);
+            if (random.nextInt(3) == 0) {
+                Integer removed = expected.remove(key);
+                assertEquals(removed == null ? 0 : removed, map.remove(key));
+            } else {
+                expected.put(key, i);
+                map.put(key, i);
+            }
+        }
+
+        //Assertion
+        assertEquals(expected, map.asMap());
+        assertEquals(expected.hashCode(), map.hashCode());
+    }
+
+    @Test
+    @DisplayName("Checking removal through the iterator of the view")
+    void iteratorRemoveTest() {
+        //Prepare
+        final ObjectIntHashMap<String> map = new ObjectIntHashMap<>();
+        for (int i = 0; i < 100; i++) {
+            map.put("key" + i, i);
+        }
+
+        //Execution
+        final Iterator<Map.Entry<String, Integer>> iterator = map.asMap().entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Integer> entry = iterator.next();
+            if (entry.getValue() % 2 == 0) {
+                iterator.remove();
+            } else {
+                entry.setValue(-entry.getValue());
+            }
+        }
+
+        //Assertion
+        assertEquals(50, map.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i % 2 == 0 ? -7 : -i, map.getOrDefault("key" + i, -7));
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package map.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapHashMapTest {
+
+    private static OffHeapHashMap<String, String> stringMap() {
+        return new OffHeapHashMap<>(Serializers.STRING, Serializers.STRING);
+    }
+
+    @Nested
+    @DisplayName("Checking basic operations")
+    class BasicOperationsTest {
+
+        @Test
+        @DisplayName("when keys are added, replaced and removed")
+        void putGetRemoveTest() {
+            //Prepare
+            final OffHeapHashMap<String, String> map = stringMap();
+
+            //Execution
+            assertNull(map.put("first", "1"));
+            assertNull(map.put("second", "2"));
+            assertEquals("1", map.put("first", "one"));
+
+            //Assertion
+            assertEquals(2, map.size());
+            assertEquals("one", map.get("first"));
+            assertTrue(map.containsKey("second"));
+            assertFalse(map.containsKey("third"));
+            assertTrue(map.containsValue("2"));
+            assertEquals("2", map.remove("second"));
+            assertNull(map.remove("second"));
+            assertEquals(1, map.size());
+            map.close();
+        }
+
+        @Test
+        @DisplayName("when a value no longer fits into its record")
+        void growingValueTest() {
+            //Prepare
+            final OffHeapHashMap<String, String> map = stringMap();
+            map.put("key", "a");
+
+            //Execution
+            final StringBuilder value = new StringBuilder();
+            for (int i = 0; i < 100; i++) {
+                value.append(i);
+                map.put("key", value.toString());
+            }
+            map.put("key", "short");
+
+            //Assertion
+            assertEquals(1, map.size());
+            assertEquals("short", map.get("key"));
+            map.close();
+        }
+
+        @Test
+        @DisplayName("when keys are byte arrays")
+        void byteArrayKeysTest() {
+            //Prepare
+            final OffHeapHashMap<byte[], Long> map = new OffHeapHashMap<>(Serializers.BYTE_ARRAY, Serializers.LONG);
+
+            //Execution
+            map.put(new byte[]{1, 2, 3}, 123L);
+            map.put(new byte[0], 0L);
+
+            //Assertion: keys are compared by content
+            assertEquals(123L, map.get(new byte[]{1, 2, 3}));
+            assertEquals(0L, map.get(new byte[0]));
+            assertNull(map.get(new byte[]{1, 2}));
+            map.close();
+        }
+
+        @Test
+        @DisplayName("when nulls are passed")
+        void nullKeyAndNullValueTest() {
+            //Prepare
+            final OffHeapHashMap<String, String> map = stringMap();
+
+            //Assertion
+            assertThrows(NullPointerException.class, () -> map.put(null, "value"));
+            assertThrows(NullPointerException.class, () -> map.put("key", null));
+            assertThrows(NullPointerException.class, () -> map.get(null));
+            map.close();
+        }
+
+        @Test
+        @DisplayName("when compared with java.util.HashMap")
+        void equalsAndHashCodeTest() {
+            //Prepare
+            final OffHeapHashMap<Integer, String> map = new OffHeapHashMap<>(Serializers.INTEGER, Serializers.STRING);
+            final Map<Integer, String> expected = new java.util.HashMap<>();
+            for (int i = 0; i < 100; i++) {
+                map.put(i, "v" + i);
+                expected.put(i, "v" + i);
+            }
+
+            //Assertion
+            assertEquals(expected, map);
+            assertEquals(map, expected);
+            assertEquals(expected.hashCode(), map.hashCode());
+            map.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Checking random operations against java.util.HashMap")
+    void randomOperationsTest() {
+        //Prepare: small slabs make removals and growing values trigger compaction
+        final OffHeapHashMap<Integer, String> map =
+                new OffHeapHashMap<>(Serializers.INTEGER, Serializers.STRING, 2, 0.75, 256);
+        final Map<Integer, String> expected = new java.util.HashMap<>();
+        final Random random = new Random(11);
+
+        //Execution
+        for (int i = 0; i < 50_000; i++) {
+            int key = random.nextInt(2_048);
+            switch (random.nextInt(4)) {
+                case 0:
+                    assertEquals(expected.remove(key), map.remove(key));
+                    break;
+                case 1:
+                    assertEquals(expected.get(key), map.get(key));
+                    break;
+                default:
+                    String value = Integer.toString(i, random.nextInt(35) + 2);
+                    assertEquals(expected.put(key, value), map.put(key, value));
+            }
+        }
+
+        //Assertion
+        assertEquals(expected, map);
+        map.close();
+    }
+
+    @Test
+    @DisplayName("Checking explicit compaction")
+    void compactTest() {
+        //Prepare
+        final OffHeapHashMap<Integer, Integer> map =
+                new OffHeapHashMap<>(Serializers.INTEGER, Serializers.INTEGER, 16, 0.75, 1_024);
+        for (int i = 0; i < 1_000; i++) {
+            map.put(i, i);
+        }
+        for (int i = 0; i < 1_000; i += 2) {
+            map.remove(i);
+        }
+        final long before = map.offHeapBytes();
+
+        //Execution
+        map.compact();
+
+        //Assertion
+        assertTrue(map.offHeapBytes() < before);
+        assertEquals(500, map.size());
+        for (int i = 1; i < 1_000; i += 2) {
+            assertEquals(i, map.get(i));
+        }
+        map.close();
+    }
+
+    @Nested
+    @DisplayName("Checking iterators")
+    class IteratorTest {
+
+        @Test
+        @DisplayName("when entries are removed and updated during iteration")
+        void iteratorRemoveAndSetValueTest() {
+            //Prepare
+            final OffHeapHashMap<Integer, String> map = new OffHeapHashMap<>(Serializers.INTEGER, Serializers.STRING);
+            for (int i = 0; i < 100; i++) {
+                map.put(i, "v");
+            }
+
+            //Execution: setValue writes a longer value than the record holds
+            final Iterator<Map.Entry<Integer, String>> iterator = map.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Integer, String> entry = iterator.next();
+                if (entry.getKey() % 2 == 0) {
+                    iterator.remove();
+                } else {
+                    entry.setValue("value " + entry.getKey());
+                }
+            }
+
+            //Assertion
+            assertEquals(50, map.size());
+            final Set<Integer> keys = new HashSet<>(map.keySet());
+            assertEquals(50, keys.size());
+            for (int i = 1; i < 100; i += 2) {
+                assertEquals("value " + i, map.get(i));
+            }
+            map.close();
+        }
+
+        @Test
+        @DisplayName("when the map is modified outside of the iterator")
+        void concurrentModificationTest() {
+            //Prepare
+            final OffHeapHashMap<String, String> map = stringMap();
+            map.put("first", "1");
+            map.put("second", "2");
+            final Iterator<String> iterator = map.keySet().iterator();
+            iterator.next();
+
+            //Execution
+            map.put("third", "3");
+
+            //Assertion
+            assertThrows(ConcurrentModificationException.class, iterator::next);
+            map.close();
+        }
+    }
+
+    @Nested
+    @DisplayName("Checking off-heap memory")
+    class MemoryTest {
+
+        @Test
+        @DisplayName("when entries are added the off-heap size grows")
+        void offHeapBytesTest() {
+            //Prepare
+            final OffHeapHashMap<Long, Long> map =
+                    new OffHeapHashMap<>(Serializers.LONG, Serializers.LONG, 16, 0.75, 4_096);
+            final long empty = map.offHeapBytes();
+
+            //Execution
+            for (long i = 0; i < 10_000; i++) {
+                map.put(i, i);
+            }
+
+            //Assertion: 36 bytes per record plus 8 bytes per bucket
+            assertEquals(16 * 8, empty);
+            assertTrue(map.offHeapBytes() >= 10_000 * 36 + 16_384 * 8);
+            map.close();
+            assertEquals(0, map.offHeapBytes());
+        }
+
+        @Test
+        @DisplayName("when the map is used after close()")
+        void closedMapTest() {
+            //Prepare
+            final OffHeapHashMap<String, String> map = stringMap();
+            map.put("key", "value");
+
+            //Execution
+            map.close();
+            map.close();
+
+            //Assertion
+            assertEquals(0, map.size());
+            assertThrows(IllegalStateException.class, () -> map.get("key"));
+            assertThrows(IllegalStateException.class, () -> map.put("key", "value"));
+            assertThrows(IllegalStateException.class, () -> map.keySet().iterator());
+        }
+
+        @Test
+        @DisplayName("when the map is cleared")
+        void clearTest() {
+            //Prepare
+            final OffHeapHashMap<String, String> map = stringMap();
+            for (int i = 0; i < 1_000; i++) {
+                map.put("key" + i, "value" + i);
+            }
+
+            //Execution
+            map.clear();
+
+            //Assertion
+            assertTrue(map.isEmpty());
+            assertNull(map.get("key1"));
+            map.put("key1", "new");
+            assertEquals("new", map.get("key1"));
+            map.close();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package map.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the HashMap suite against OpenHashMap.
+ */
+class OpenHashMapTest extends HashMapTest {
+
+    @Override
+    <K, V> Map<K, V> createMap() {
+        return new OpenHashMap<>();
+    }
+
+    @Override
+    <K, V> Map<K, V> createMap(int capacity) {
+        return new OpenHashMap<>(capacity);
+    }
+
+    @Override
+    <K, V> Map<K, V> createMap(int capacity, double loadFactor) {
+        return new OpenHashMap<>(capacity, loadFactor);
+    }
+
+    @Test
+    @DisplayName("Checking backward shift when a cluster wraps around the end of the array")
+    void wrappedClusterTest() {
+        //Prepare: with 16 slots hash code 32 starts probing at the last slot, so the cluster wraps
+        final Map<CollidingKey, Integer> map = new OpenHashMap<>(16);
+        for (int i = 0; i < 10; i++) {
+            map.put(new CollidingKey(i, 32), i);
+        }
+
+        //Execution: remove every second key through the iterator
+        int visited = 0;
+        final Iterator<Map.Entry<CollidingKey, Integer>> iterator = map.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<CollidingKey, Integer> entry = iterator.next();
+            visited++;
+            if (entry.getValue() % 2 == 0) {
+                iterator.remove();
+            }
+        }
+
+        //Assertion
+        assertEquals(10, visited);
+        assertEquals(5, map.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i % 2 == 0 ? null : i, map.get(new CollidingKey(i, 32)));
+        }
+    }
+
+    @Test
+    @DisplayName("Checking setValue of entries")
+    void setValueTest() {
+        //Prepare
+        final Map<String, Integer> map = new OpenHashMap<>();
+        map.put("first", 1);
+        map.put("second", 2);
+
+        //Execution
+        for (Map.Entry<String, Integer> entry : map.entrySet()) {
+            entry.setValue(entry.getValue() * 10);
+        }
+
+        //Assertion
+        assertEquals(10, map.get("first"));
+        assertEquals(20, map.get("second"));
+    }
+}
@@ -0,0 +1,182 @@
+package map.impl;
+
+import map.impl.HashMapTest.CollidingKey;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistentHashMapTest {
+
+    @Nested
+    @DisplayName("Checking persistent updates")
+    class UpdateTest {
+
+        @Test
+        @DisplayName("when plus and minus leave older versions unchanged")
+        void versionsTest() {
+            //Prepare
+            final PersistentHashMap<Integer, String> empty = PersistentHashMap.empty();
+
+            //Execution
+            final PersistentHashMap<Integer, String> one = empty.plus(1, "1");
+            final PersistentHashMap<Integer, String> two = one.plus(2, "2");
+            final PersistentHashMap<Integer, String> replaced = two.plus(1, "one");
+            final PersistentHashMap<Integer, String> removed = replaced.minus(2);
+
+            //Assertion
+            assertTrue(empty.isEmpty());
+            assertEquals(1, one.size());
+            assertEquals("1", one.get(1));
+            assertNull(one.get(2));
+            assertEquals(2, two.size());
+            assertEquals("1", two.get(1));
+            assertEquals(2, replaced.size());
+            assertEquals("one", replaced.get(1));
+            assertEquals(1, removed.size());
+            assertFalse(removed.containsKey(2));
+            assertSame(removed, removed.minus(2));
+            assertSame(removed, removed.plus(1, "one"));
+        }
+
+        @Test
+        @DisplayName("when random updates match java.util.HashMap in every version")
+        void randomTest() {
+            //Prepare
+            final Random random = new Random(7);
+            final Map<Integer, Integer> expected = new java.util.HashMap<>();
+            PersistentHashMap<Integer, Integer> map = PersistentHashMap.empty();
+
+            //Execution
+            for (int i = 0; i < 50_000; i++) {
+                final int key = random.nextInt(5_000);
+                if (random.nextInt(3) == 0) {
+                    expected.remove(key);
+                    map = map.minus(key);
+                } else {
+                    expected.put(key, i);
+                    map = map.plus(key, i);
+                }
+            }
+
+            //Assertion
+            assertEquals(expected.size(), map.size());
+            assertEquals(expected, map);
+            assertEquals(map, expected);
+            assertEquals(expected.hashCode(), map.hashCode());
+            int count = 0;
+            for (Map.Entry<Integer, Integer> entry : map.entrySet()) {
+                assertEquals(expected.get(entry.getKey()), entry.getValue());
+                count++;
+            }
+            assertEquals(expected.size(), count);
+        }
+
+        @Test
+        @DisplayName("when keys with equal hashes share a collision node")
+        void collisionTest() {
+            //Prepare
+            PersistentHashMap<CollidingKey, Integer> map = PersistentHashMap.empty();
+            for (int i = 0; i < 10; i++) {
+                map = map.plus(new CollidingKey(i, 42), i);
+            }
+            map = map.plus(null, -1);
+
+            //Execution
+            PersistentHashMap<CollidingKey, Integer> shrunk = map;
+            for (int i = 0; i < 9; i++) {
+                shrunk = shrunk.minus(new CollidingKey(i, 42));
+            }
+
+            //Assertion
+            assertEquals(11, map.size());
+            for (int i = 0; i < 10; i++) {
+                assertEquals(i, map.get(new CollidingKey(i, 42)));
+            }
+            assertEquals(-1, map.get(null));
+            assertEquals(2, shrunk.size());
+            assertEquals(9, shrunk.get(new CollidingKey(9, 42)));
+            assertEquals(-1, shrunk.get(null));
+            assertEquals(1, shrunk.depth());
+            assertEquals(1, shrunk.minus(null).depth());
+            assertTrue(shrunk.minus(null).minus(new CollidingKey(9, 42)).isEmpty());
+        }
+
+        @Test
+        @DisplayName("when any mutation through the Map interface throws")
+        void immutableTest() {
+            //Prepare
+            final PersistentHashMap<Integer, Integer> map = PersistentHashMap.<Integer, Integer>empty().plus(1, 1);
+
+            //Assertion
+            assertAll(
+                    () -> assertThrows(UnsupportedOperationException.class, () -> map.put(2, 2)),
+                    () -> assertThrows(UnsupportedOperationException.class, () -> map.remove(1)),
+                    () -> assertThrows(UnsupportedOperationException.class, () -> map.merge(1, 1, Integer::sum)),
+                    () -> assertThrows(UnsupportedOperationException.class, map::clear),
+                    () -> assertThrows(UnsupportedOperationException.class,
+                            () -> map.entrySet().iterator().next().setValue(3))
+            );
+        }
+    }
+
+    @Nested
+    @DisplayName("Checking the transient builder")
+    class BuilderTest {
+
+        @Test
+        @DisplayName("when a builder bulk loads and edits a copy of a version")
+        void builderTest() {
+            //Prepare
+            final PersistentHashMap.Builder<Integer, Integer> builder = PersistentHashMap.builder();
+            for (int i = 0; i < 100_000; i++) {
+                assertNull(builder.put(i, i));
+            }
+            final PersistentHashMap<Integer, Integer> first = builder.build();
+
+            //Execution: the builder keeps working after build() without touching first
+            assertEquals(5, builder.put(5, -5));
+            assertEquals(6, builder.remove(6));
+            assertNull(builder.remove(-1));
+            final PersistentHashMap<Integer, Integer> second = builder.build();
+            final PersistentHashMap.Builder<Integer, Integer> copy = second.toBuilder();
+            copy.put(7, -7);
+            final PersistentHashMap<Integer, Integer> third = copy.build();
+
+            //Assertion
+            assertEquals(100_000, first.size());
+            assertEquals(5, first.get(5));
+            assertEquals(6, first.get(6));
+            assertEquals(99_999, second.size());
+            assertEquals(-5, second.get(5));
+            assertNull(second.get(6));
+            assertEquals(7, second.get(7));
+            assertEquals(-7, third.get(7));
+            assertEquals(99_999, third.size());
+            assertEquals(4, first.depth());
+        }
+
+        @Test
+        @DisplayName("when a map is copied into a persistent map")
+        void copyOfTest() {
+            //Prepare
+            final HashMap<String, Integer> source = new HashMap<>();
+            for (int i = 0; i < 1_000; i++) {
+                source.put("key" + i, i);
+            }
+
+            //Execution
+            final PersistentHashMap<String, Integer> map = PersistentHashMap.copyOf(source);
+
+            //Assertion
+            assertEquals(1_000, map.size());
+            source.forEach((key, value) -> assertEquals(value, map.get(key)));
+            assertNull(map.get("key1000"));
+            assertEquals(-1, map.getOrDefault("key1000", -1));
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package map.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SerializersTest {
+
+    private static <T> T roundTrip(Serializer<T> serializer, T value) {
+        final int size = serializer.size(value);
+        final ByteBuffer buffer = ByteBuffer.allocate(size + 8);
+        buffer.position(3);
+        serializer.write(buffer, value);
+        assertEquals(3 + size, buffer.position());
+        buffer.position(3);
+        return serializer.read(buffer, size);
+    }
+
+    @Test
+    @DisplayName("Checking primitive codecs")
+    void primitivesTest() {
+        //Assertion
+        assertEquals((byte) -7, roundTrip(Serializers.BYTE, (byte) -7));
+        assertEquals((short) 300, roundTrip(Serializers.SHORT, (short) 300));
+        assertEquals('ж', roundTrip(Serializers.CHARACTER, 'ж'));
+        assertEquals(Integer.MIN_VALUE, roundTrip(Serializers.INTEGER, Integer.MIN_VALUE));
+        assertEquals(Long.MAX_VALUE, roundTrip(Serializers.LONG, Long.MAX_VALUE));
+        assertEquals(1.5f, roundTrip(Serializers.FLOAT, 1.5f));
+        assertEquals(Double.NaN, roundTrip(Serializers.DOUBLE, Double.NaN));
+        assertEquals(true, roundTrip(Serializers.BOOLEAN, true));
+    }
+
+    @Test
+    @DisplayName("Checking that strings are encoded as UTF-8")
+    void stringTest() {
+        //Prepare: ASCII, Cyrillic, CJK, a surrogate pair and a lone surrogate
+        final String[] values = {"", "key", "ключ", "鍵", "😀", "a\uD800b"};
+
+        //Assertion
+        for (String value : values) {
+            final byte[] expected = value.getBytes(StandardCharsets.UTF_8);
+            assertEquals(expected.length, Serializers.STRING.size(value));
+            final ByteBuffer buffer = ByteBuffer.allocate(expected.length);
+            Serializers.STRING.write(buffer, value);
+            assertArrayEquals(expected, buffer.array());
+            assertEquals(new String(expected, StandardCharsets.UTF_8), roundTrip(Serializers.STRING, value));
+        }
+    }
+
+    @Test
+    @DisplayName("Checking the byte array codec")
+    void byteArrayTest() {
+        //Assertion
+        assertArrayEquals(new byte[]{1, 2, 3}, roundTrip(Serializers.BYTE_ARRAY, new byte[]{1, 2, 3}));
+        assertArrayEquals(new byte[0], roundTrip(Serializers.BYTE_ARRAY, new byte[0]));
+    }
+}
@@ -0,0 +1,99 @@
+package map.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the HashMap suite against SwissHashMap.
+ */
+class SwissHashMapTest extends HashMapTest {
+
+    @Override
+    <K, V> Map<K, V> createMap() {
+        return new SwissHashMap<>();
+    }
+
+    @Override
+    <K, V> Map<K, V> createMap(int capacity) {
+        return new SwissHashMap<>(capacity);
+    }
+
+    @Override
+    <K, V> Map<K, V> createMap(int capacity, double loadFactor) {
+        return new SwissHashMap<>(capacity, loadFactor);
+    }
+
+    @Test
+    @DisplayName("Checking group matching of control bytes")
+    void matchTest() {
+        //Prepare: slots 0..7 hold 0x05, EMPTY, 0x11, DELETED, 0x05, 0x04, EMPTY, 0x7F
+        final long group = 0x7F80_0405_FE11_8005L;
+
+        //Execution
+        final long match = SwissHashMap.matchByte(group, 0x0101010101010101L * 0x05);
+
+        //Assertion: slots 0 and 4 match, slot 5 is a false positive from the borrow of slot 4
+        assertEquals(0x0000_8080_0000_0080L, match);
+        assertEquals(0x0080_0000_0000_8000L, SwissHashMap.matchEmpty(group));
+        assertEquals(0x8000_8080_0080_0080L, SwissHashMap.matchFull(group));
+        assertEquals(0, SwissHashMap.matchEmpty(0x7F7F7F7F7F7FFEFEL));
+    }
+
+    @Test
+    @DisplayName("Checking probing across full groups of colliding keys")
+    void collidingGroupsTest() {
+        //Prepare: 40 keys with one hash fill five groups of the probe sequence
+        final Map<CollidingKey, Integer> map = new SwissHashMap<>(64);
+        for (int i = 0; i < 40; i++) {
+            map.put(new CollidingKey(i, 7), i);
+        }
+
+        //Execution: removals in full groups leave DELETED control bytes
+        for (int i = 0; i < 40; i += 3) {
+            assertEquals(i, map.remove(new CollidingKey(i, 7)));
+        }
+
+        //Assertion
+        for (int i = 0; i < 40; i++) {
+            assertEquals(i % 3 == 0 ? null : i, map.get(new CollidingKey(i, 7)));
+        }
+        assertNull(map.get(new CollidingKey(40, 7)));
+        assertEquals(26, map.size());
+    }
+
+    @Test
+    @DisplayName("Checking reuse of deleted slots without growing")
+    void churnTest() {
+        //Prepare
+        final SwissHashMap<Integer, Integer> map = new SwissHashMap<>(1024);
+        for (int i = 0; i < 700; i++) {
+            map.put(i, i);
+        }
+        final int capacity = map.capacity;
+
+        //Execution: replace the keys many times over, keeping the size constant
+        for (int i = 700; i < 100_000; i++) {
+            assertEquals(i - 700, map.remove(i - 700));
+            assertNull(map.put(i, i));
+        }
+
+        //Assertion
+        assertEquals(capacity, map.capacity);
+        assertEquals(700, map.size());
+        for (int i = 99_300; i < 100_000; i++) {
+            assertEquals(i, map.get(i));
+        }
+        int count = 0;
+        final Iterator<Integer> iterator = map.keySet().iterator();
+        while (iterator.hasNext()) {
+            assertTrue(iterator.next() >= 99_300);
+            count++;
+        }
+        assertEquals(700, count);
+    }
+}